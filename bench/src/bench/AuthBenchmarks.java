@@ -0,0 +1,68 @@
+package bench;
+
+import java.sql.SQLException;
+import java.util.BitSet;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import service.AuthService;
+import service.PasswordHashing;
+import service.UniversityIdAllocator;
+
+/** Password hashing and ID generation used by registration and login. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthBenchmarks {
+    private static final String PASSWORD = "correct horse battery staple";
+    private final String salt = AuthService.generateSalt();
+
+    // Same allocator AuthService.generateUniversityId uses, with block reservation kept in memory
+    // so the run measures the per-ID path and does not burn real IDs
+    private final UniversityIdAllocator ids = new UniversityIdAllocator(100) {
+        private long sequence;
+
+        @Override
+        protected long reserveBlock(int size) {
+            long start = sequence;
+            sequence = (sequence + size) % CAPACITY;
+            return start;
+        }
+
+        @Override
+        protected BitSet findTaken(long start, long end) {
+            return new BitSet();
+        }
+    };
+
+    @Benchmark
+    public String hashPasswordWithSalt() {
+        return AuthService.hashPasswordWithSalt(PASSWORD, salt);
+    }
+
+    /** The default hasher directly, without the PasswordHashing executor hop. */
+    @Benchmark
+    public String defaultHasherHash() {
+        return PasswordHashing.getDefault().hash(PASSWORD, salt);
+    }
+
+    @Benchmark
+    public String generateSalt() {
+        return AuthService.generateSalt();
+    }
+
+    @Benchmark
+    public String generateUniversityId() throws SQLException {
+        return ids.nextId();
+    }
+}
@@ -0,0 +1,64 @@
+package bench;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Prints the change in score between two JMH result files (-rf json).
+ *
+ * Usage: {@code java -cp bench/target/benchmarks.jar bench.BenchCompare baseline.json candidate.json}
+ */
+public class BenchCompare {
+    private static final Pattern ENTRY = Pattern.compile(
+            "\"benchmark\"\\s*:\\s*\"([^\"]+)\".*?\"score\"\\s*:\\s*([-0-9.Ee]+)"
+                    + ".*?\"scoreError\"\\s*:\\s*\"?([-0-9.EeNa]+)\"?",
+            Pattern.DOTALL);
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: BenchCompare <baseline.json> <candidate.json>");
+            System.exit(2);
+        }
+        Map<String, double[]> base = read(args[0]);
+        Map<String, double[]> cand = read(args[1]);
+
+        System.out.printf(Locale.ROOT, "%-60s %16s %16s %9s%n", "Benchmark", "Baseline", "Candidate", "Change");
+        for (Map.Entry<String, double[]> e : cand.entrySet()) {
+            double[] b = base.get(e.getKey());
+            double[] c = e.getValue();
+            if (b == null) {
+                System.out.printf(Locale.ROOT, "%-60s %16s %16.3f %9s%n", e.getKey(), "-", c[0], "new");
+                continue;
+            }
+            double change = (c[0] - b[0]) / b[0] * 100;
+            // Overlapping error bars mean the difference is within noise
+            boolean significant = Double.isNaN(b[1]) || Double.isNaN(c[1])
+                    || Math.abs(c[0] - b[0]) > b[1] + c[1];
+            System.out.printf(Locale.ROOT, "%-60s %16.3f %16.3f %+8.1f%%%s%n",
+                    e.getKey(), b[0], c[0], change, significant ? "" : " (noise)");
+        }
+        for (String name : base.keySet()) {
+            if (!cand.containsKey(name)) {
+                System.out.printf(Locale.ROOT, "%-60s %16.3f %16s %9s%n", name, base.get(name)[0], "-", "missing");
+            }
+        }
+    }
+
+    /** Maps benchmark name to {score, scoreError}. */
+    private static Map<String, double[]> read(String file) throws IOException {
+        String json = new String(Files.readAllBytes(Paths.get(file)), StandardCharsets.UTF_8);
+        Map<String, double[]> scores = new LinkedHashMap<>();
+        Matcher m = ENTRY.matcher(json);
+        while (m.find()) {
+            scores.put(m.group(1), new double[]{Double.parseDouble(m.group(2)), Double.parseDouble(m.group(3))});
+        }
+        return scores;
+    }
+}
@@ -0,0 +1,54 @@
+package bench;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An in-memory forward-only ResultSet over fixed rows, so row mapping can be
+ * measured without a driver or network in the way. Supports the calls the
+ * row mappers make (next, getString/getInt/getObject by label, close) and
+ * rejects anything else.
+ */
+final class FakeResultSet {
+    private FakeResultSet() {
+    }
+
+    static ResultSet of(String[] columns, Object[][] rows) {
+        Map<String, Integer> index = new HashMap<>();
+        for (int i = 0; i < columns.length; i++) {
+            index.put(columns[i], i);
+        }
+        int[] cursor = {-1};
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "next":
+                            return ++cursor[0] < rows.length;
+                        case "close":
+                            return null;
+                        case "getString":
+                            return value(index, rows[cursor[0]], args[0]);
+                        case "getInt": {
+                            Object v = value(index, rows[cursor[0]], args[0]);
+                            return v == null ? 0 : ((Number) v).intValue();
+                        }
+                        case "getObject":
+                            return value(index, rows[cursor[0]], args[0]);
+                        default:
+                            throw new SQLException("Not supported by FakeResultSet: " + method.getName());
+                    }
+                });
+    }
+
+    private static Object value(Map<String, Integer> index, Object[] row, Object column) throws SQLException {
+        if (column instanceof Integer) {
+            return row[(Integer) column - 1];
+        }
+        Integer i = index.get((String) column);
+        if (i == null) throw new SQLException("Column '" + column + "' not found.");
+        return row[i];
+    }
+}
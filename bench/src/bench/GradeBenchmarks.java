@@ -0,0 +1,58 @@
+package bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import model.TranscriptEntry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import service.AcademicSummaryService;
+import service.GradeScale;
+
+/** Grade-to-points conversion and the GPA recomputation built on it. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GradeBenchmarks {
+    private static final String[] GRADES = {
+            "A", "A-", "B+", "B", "B-", "C+", "C", "C-", "D+", "D", "F", "a", "b+", "IP"
+    };
+
+    // A 40-course transcript, about what a graduating student has, with a few courses in progress
+    private final List<TranscriptEntry> transcript = new ArrayList<>();
+
+    @Setup
+    public void setUp() {
+        Random rnd = new Random(42);
+        for (int i = 0; i < 40; i++) {
+            String grade = i < 36 ? GRADES[rnd.nextInt(GRADES.length)] : TranscriptEntry.IN_PROGRESS;
+            transcript.add(new TranscriptEntry("C" + (1000 + i), "Course " + i, 1 + rnd.nextInt(4), grade));
+        }
+    }
+
+    @Benchmark
+    public void toPoints(Blackhole bh) {
+        for (String g : GRADES) {
+            bh.consume(GradeScale.toPoints(g));
+        }
+    }
+
+    /** The same totals the transcript export and student summaries compute. */
+    @Benchmark
+    public double transcriptGpa() {
+        return AcademicSummaryService.summarize("60100000", transcript).getGpa();
+    }
+}
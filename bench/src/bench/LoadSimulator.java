@@ -0,0 +1,353 @@
+package bench;
+
+import config.AppConfig;
+import config.DBConnection;
+import model.AccountBalance;
+import model.Course;
+import model.Enrollment;
+import model.User;
+import service.AcademicSummaryService;
+import service.AuthService;
+import service.CatalogPageSource;
+import service.EnrollmentResult;
+import service.EnrollmentService;
+import service.GradeService;
+import service.PaymentResult;
+import service.PaymentService;
+import service.SeedData;
+import service.TranscriptService;
+import service.WaitlistResult;
+import service.WaitlistService;
+import util.LatencyHistogram;
+import util.PageQuery;
+import util.Session;
+import util.SessionManager;
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Replays registration week through the real service code: students arrive
+ * at a Poisson rate, log in, browse the catalog, enroll (joining the
+ * waitlist of full courses), sometimes drop a course, check and pay tuition
+ * and open their transcript, pausing between steps; meanwhile
+ * instructors post grades. Reports throughput and latency percentiles per
+ * operation.
+ *
+ * By default it runs against a fresh embedded database (needs the H2 jar on
+ * the classpath); -Ddb.url or -Ddb.backend points it at a real one instead.
+ * Either way it first seeds a synthetic catalog and student body with
+ * {@link SeedData}. Tuned with -Dload.* system properties (see the constants
+ * below); run with -Dload.help=true to print them.
+ */
+public class LoadSimulator {
+    private static final int STUDENTS = Integer.getInteger("load.students", 2000);
+    private static final int COURSES = Integer.getInteger("load.courses", 300);
+    private static final int INSTRUCTORS = Integer.getInteger("load.instructors", 30);
+    /** Enrollments generated up front for each seeded student, so rosters and transcripts are not empty. */
+    private static final int ENROLLMENTS_PER_STUDENT = Integer.getInteger("load.enrollmentsPerStudent", 2);
+    private static final long DURATION_SEC = Long.getLong("load.durationSec", 120L);
+    /** New student sessions per second (open model: arrivals do not wait for earlier sessions). */
+    private static final double ARRIVALS_PER_SEC = Double.parseDouble(System.getProperty("load.arrivalsPerSec", "20"));
+    /** Sessions allowed in flight; arrivals beyond this are shed and counted. */
+    private static final int MAX_CONCURRENT = Integer.getInteger("load.maxConcurrent", 1000);
+    /** Mean pause between a student's steps; actual pauses are exponentially distributed. */
+    private static final long THINK_MS = Long.getLong("load.thinkMs", 500L);
+    /** Share of arrivals that register a new account before logging in. */
+    private static final double REGISTER_FRACTION = Double.parseDouble(System.getProperty("load.registerFraction", "0.02"));
+    /** Share of sessions that drop one of the student's courses, which promotes from its waitlist. */
+    private static final double DROP_FRACTION = Double.parseDouble(System.getProperty("load.dropFraction", "0.1"));
+    /** Grade updates per second across all instructors. */
+    private static final double GRADES_PER_SEC = Double.parseDouble(System.getProperty("load.gradesPerSec", "2"));
+    private static final long RANDOM_SEED = Long.getLong("load.randomSeed", 42L);
+    private static final String OUT = System.getProperty("load.out");
+
+    private static final String[] GRADES = {"A", "A-", "B+", "B", "B-", "C+", "C", "D", "F"};
+
+    private final SeedData data;
+    private final Map<String, OpStats> ops = new ConcurrentSkipListMap<>();
+    private final Semaphore inFlight = new Semaphore(MAX_CONCURRENT);
+    private final LongAdder sessionsStarted = new LongAdder();
+    private final LongAdder sessionsCompleted = new LongAdder();
+    private final LongAdder sessionsShed = new LongAdder();
+    private final AtomicLong registered = new AtomicLong();
+    private volatile boolean running = true;
+
+    private LoadSimulator(SeedData data) {
+        this.data = data;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (Boolean.getBoolean("load.help")) {
+            System.out.println("-Dload.students -Dload.courses -Dload.instructors -Dload.enrollmentsPerStudent -Dload.durationSec "
+                    + "-Dload.arrivalsPerSec -Dload.maxConcurrent -Dload.thinkMs -Dload.registerFraction "
+                    + "-Dload.dropFraction -Dload.gradesPerSec -Dload.randomSeed -Dload.out=<file.json>, plus -Ddb.backend or -Ddb.url/-Ddb.user/-Ddb.password");
+            return;
+        }
+        AppConfig.load();
+        if (System.getProperty("db.url") == null && System.getProperty("db.backend") == null) {
+            // Nothing configured: run against a fresh in-process database rather than the real one
+            System.setProperty("db.backend", "embedded");
+        }
+        SeedData data = SeedData.generate(STUDENTS, COURSES, INSTRUCTORS, ENROLLMENTS_PER_STUDENT, 0.5, RANDOM_SEED);
+        System.out.println("# Seeded " + data.studentIds.size() + " students and " + data.courseCodes.size()
+                + " courses" + (DBConnection.isEmbedded() ? " in the embedded database" : ""));
+        LoadSimulator sim = new LoadSimulator(data);
+        long elapsedNanos = sim.run();
+        sim.report(elapsedNanos);
+        DBConnection.shutdown();
+    }
+
+    private long run() throws InterruptedException {
+        System.out.printf(Locale.ROOT, "# %d s at %.1f sessions/s, think %d ms, max %d in flight%n",
+                DURATION_SEC, ARRIVALS_PER_SEC, THINK_MS, MAX_CONCURRENT);
+        ExecutorService sessions = Executors.newVirtualThreadPerTaskExecutor();
+        Thread grader = Thread.ofVirtual().name("load-grader").start(this::gradeLoop);
+
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(DURATION_SEC);
+        long nextReport = start + TimeUnit.SECONDS.toNanos(10);
+        long nextArrival = start;
+        while (System.nanoTime() < end) {
+            nextArrival += expNanos(1e9 / ARRIVALS_PER_SEC);
+            sleepUntil(nextArrival);
+            if (inFlight.tryAcquire()) {
+                sessionsStarted.increment();
+                sessions.submit(() -> {
+                    try {
+                        studentSession();
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            } else {
+                sessionsShed.increment();
+            }
+            if (System.nanoTime() >= nextReport) {
+                nextReport += TimeUnit.SECONDS.toNanos(10);
+                System.out.printf(Locale.ROOT, "  %3d s: %d in flight, %d completed, pool %s%n",
+                        TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start),
+                        MAX_CONCURRENT - inFlight.availablePermits(), sessionsCompleted.sum(),
+                        DBConnection.getPoolStats());
+            }
+        }
+        running = false;
+        sessions.shutdown();
+        // Let sessions that already started finish their script
+        if (!sessions.awaitTermination(60, TimeUnit.SECONDS)) {
+            System.out.println("# Some sessions were still running after 60 s; reporting without them");
+            sessions.shutdownNow();
+        }
+        grader.join(10_000);
+        return System.nanoTime() - start;
+    }
+
+    /** One student's visit, roughly what the desktop screens do in order. */
+    private void studentSession() {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        String studentId;
+        if (rnd.nextDouble() < REGISTER_FRACTION) {
+            long n = registered.incrementAndGet();
+            studentId = time("register", () -> AuthService.register("Load Newcomer", "new" + n + "x"
+                    + System.nanoTime() + SeedData.EMAIL_DOMAIN, SeedData.PASSWORD, "student"));
+            if (studentId == null) return;
+        } else {
+            studentId = data.studentIds.get(rnd.nextInt(data.studentIds.size()));
+        }
+
+        User user = time("login", () -> AuthService.login(studentId, SeedData.PASSWORD));
+        if (user == null) return;
+        Session session = SessionManager.login(user.getId(), user.getName(), user.getRole());
+        try {
+            think();
+            CatalogPageSource catalog = new CatalogPageSource();
+            PageQuery query = new PageQuery("courseCode", true, "");
+            List<Course> page = time("catalog.page", () -> catalog.fetchPage(query, null, 50));
+            if (page != null && !page.isEmpty() && rnd.nextBoolean()) {
+                Course last = page.get(page.size() - 1);
+                time("catalog.page", () -> catalog.fetchPage(query, last, 50));
+            }
+
+            think();
+            time("enrollments.list", () -> EnrollmentService.getEnrolledCourses(studentId));
+
+            int wanted = 2 + rnd.nextInt(4);
+            for (int i = 0; i < wanted && running; i++) {
+                think();
+                String code = data.courseCodes.get(rnd.nextInt(data.courseCodes.size()));
+                EnrollmentResult result = time("enroll", () -> EnrollmentService.enroll(studentId, code));
+                if (result != null) outcome("enroll", result.name());
+                if (result == EnrollmentResult.COURSE_FULL) {
+                    WaitlistResult joined = time("waitlist.join", () -> WaitlistService.join(studentId, code));
+                    if (joined != null) outcome("waitlist.join", joined.name());
+                }
+            }
+
+            if (rnd.nextDouble() < DROP_FRACTION) {
+                think();
+                List<Course> enrolled = time("enrollments.list", () -> EnrollmentService.getEnrolledCourses(studentId));
+                if (enrolled != null && !enrolled.isEmpty()) {
+                    String code = enrolled.get(rnd.nextInt(enrolled.size())).getCourseCode();
+                    time("drop", () -> EnrollmentService.drop(studentId, code));
+                }
+            }
+            time("waitlist.positions", () -> WaitlistService.getPositions(studentId));
+
+            think();
+            time("payments.charges", () -> PaymentService.getCharges(studentId));
+            AccountBalance balance = time("payments.balance", () -> PaymentService.getBalance(studentId));
+            if (balance != null && balance.getOutstanding().signum() > 0) {
+                BigDecimal due = balance.getOutstanding();
+                // Pay 25-100% of what is owed, in whole QAR where that does not overshoot
+                BigDecimal amount = due.multiply(BigDecimal.valueOf(0.25 + 0.75 * rnd.nextDouble()))
+                        .setScale(0, RoundingMode.CEILING).min(due);
+                String key = UUID.randomUUID().toString();
+                think();
+                PaymentResult paid = time("payments.pay", () -> PaymentService.recordPayment(studentId, amount, key));
+                if (paid != null) outcome("payments.pay", paid.name());
+            }
+
+            think();
+            time("transcript", () -> TranscriptService.getTranscript(studentId));
+            time("transcript.summary", () -> AcademicSummaryService.getSummary(studentId));
+            sessionsCompleted.increment();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            SessionManager.logout(session.getToken());
+        }
+    }
+
+    /** Instructors posting grades on random rosters at a steady rate. */
+    private void gradeLoop() {
+        if (GRADES_PER_SEC <= 0) return;
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        long next = System.nanoTime();
+        while (running) {
+            next += expNanos(1e9 / GRADES_PER_SEC);
+            try {
+                sleepUntil(next);
+            } catch (InterruptedException e) {
+                return;
+            }
+            String code = data.courseCodes.get(rnd.nextInt(data.courseCodes.size()));
+            List<Enrollment> roster = time("grades.roster", () -> GradeService.rosterSource(code)
+                    .fetchPage(new PageQuery("studentId", true, ""), null, 50));
+            if (roster == null || roster.isEmpty()) continue;
+            Enrollment target = roster.get(rnd.nextInt(roster.size()));
+            String grade = GRADES[rnd.nextInt(GRADES.length)];
+            time("grades.update", () -> GradeService.updateGrade(target.getEnrollmentId(), grade));
+        }
+    }
+
+    @FunctionalInterface
+    private interface Op<T> {
+        T call() throws Exception;
+    }
+
+    /** Runs and times one operation; failures are counted and return null. */
+    private <T> T time(String name, Op<T> op) {
+        OpStats stats = ops.computeIfAbsent(name, k -> new OpStats());
+        long t0 = System.nanoTime();
+        try {
+            T result = op.call();
+            stats.latency.record(System.nanoTime() - t0);
+            return result;
+        } catch (Exception e) {
+            stats.errors.increment();
+            if (stats.firstError == null) stats.firstError = e.getClass().getSimpleName() + ": " + e.getMessage();
+            return null;
+        }
+    }
+
+    private void outcome(String op, String outcome) {
+        ops.computeIfAbsent(op, k -> new OpStats()).outcomes
+                .computeIfAbsent(outcome, k -> new LongAdder()).increment();
+    }
+
+    private static void think() throws InterruptedException {
+        if (THINK_MS > 0) {
+            Thread.sleep(TimeUnit.NANOSECONDS.toMillis(expNanos(THINK_MS * 1e6)));
+        }
+    }
+
+    private static long expNanos(double meanNanos) {
+        return (long) (-Math.log(1.0 - ThreadLocalRandom.current().nextDouble()) * meanNanos);
+    }
+
+    private static void sleepUntil(long nanoTime) throws InterruptedException {
+        long wait = nanoTime - System.nanoTime();
+        if (wait > 0) TimeUnit.NANOSECONDS.sleep(wait);
+    }
+
+    private void report(long elapsedNanos) throws IOException {
+        double seconds = elapsedNanos / 1e9;
+        System.out.printf(Locale.ROOT, "%n# %d sessions started, %d completed, %d shed in %.1f s%n",
+                sessionsStarted.sum(), sessionsCompleted.sum(), sessionsShed.sum(), seconds);
+        System.out.printf(Locale.ROOT, "%-20s %9s %7s %9s %9s %9s %9s %9s %9s%n",
+                "operation", "count", "errors", "ops/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Map.Entry<String, OpStats> e : ops.entrySet()) {
+            OpStats s = e.getValue();
+            LatencyHistogram h = s.latency;
+            System.out.printf(Locale.ROOT, "%-20s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    e.getKey(), h.count(), s.errors.sum(), h.count() / seconds,
+                    ms(h.percentileNanos(50)), ms(h.percentileNanos(90)), ms(h.percentileNanos(99)),
+                    ms(h.percentileNanos(99.9)), ms(h.maxNanos()));
+            for (Map.Entry<String, LongAdder> o : s.outcomes.entrySet()) {
+                System.out.printf(Locale.ROOT, "    %-16s %9d%n", o.getKey(), o.getValue().sum());
+            }
+            if (s.firstError != null) System.out.println("    first error: " + s.firstError);
+        }
+        System.out.println("# pool " + DBConnection.getPoolStats());
+        if (OUT != null) writeJson(Paths.get(OUT), seconds);
+    }
+
+    private void writeJson(Path out, double seconds) throws IOException {
+        if (out.getParent() != null) Files.createDirectories(out.getParent());
+        try (Writer w = Files.newBufferedWriter(out, StandardCharsets.UTF_8)) {
+            w.write(String.format(Locale.ROOT, "{\n  \"durationSec\" : %.3f,\n  \"sessionsStarted\" : %d,\n"
+                            + "  \"sessionsCompleted\" : %d,\n  \"sessionsShed\" : %d,\n  \"operations\" : [\n",
+                    seconds, sessionsStarted.sum(), sessionsCompleted.sum(), sessionsShed.sum()));
+            int i = 0;
+            for (Map.Entry<String, OpStats> e : ops.entrySet()) {
+                LatencyHistogram h = e.getValue().latency;
+                w.write(String.format(Locale.ROOT, "    { \"operation\" : \"%s\", \"count\" : %d, \"errors\" : %d, "
+                                + "\"opsPerSec\" : %.3f, \"p50Ms\" : %.3f, \"p90Ms\" : %.3f, \"p99Ms\" : %.3f, "
+                                + "\"p999Ms\" : %.3f, \"maxMs\" : %.3f }%s\n",
+                        e.getKey(), h.count(), e.getValue().errors.sum(), h.count() / seconds,
+                        ms(h.percentileNanos(50)), ms(h.percentileNanos(90)), ms(h.percentileNanos(99)),
+                        ms(h.percentileNanos(99.9)), ms(h.maxNanos()), ++i < ops.size() ? "," : ""));
+            }
+            w.write("  ]\n}\n");
+        }
+        System.out.println("Results written to " + out.toAbsolutePath());
+    }
+
+    private static double ms(long nanos) {
+        return nanos / 1e6;
+    }
+
+    private static final class OpStats {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder errors = new LongAdder();
+        final Map<String, LongAdder> outcomes = new ConcurrentSkipListMap<>();
+        volatile String firstError;
+    }
+}
@@ -0,0 +1,77 @@
+package bench;
+
+import config.AppConfig;
+import config.DBConnection;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import util.DatabaseLogger;
+
+/**
+ * Cost of DatabaseLogger.log() on the calling thread while the background
+ * writer drains to the logs table. Under sustained load the score includes
+ * records dropped by the overflow policy; the counters printed after each
+ * iteration show how many.
+ *
+ * Runs against a fresh embedded database unless -Ddb.url or -Ddb.backend is
+ * given (as with {@link LoadSimulator}); the rows it writes are deleted after
+ * every iteration either way.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoggingBenchmarks {
+    private static final String PREFIX = "benchmark record ";
+
+    private long n;
+
+    @Setup
+    public void setUp() throws SQLException {
+        AppConfig.load();
+        if (System.getProperty("db.url") == null && System.getProperty("db.backend") == null) {
+            // Nothing configured: write to a fresh in-process database rather than the real one
+            System.setProperty("db.backend", "embedded");
+        }
+        // Creates the schema before the first timed call
+        DBConnection.getConnection().close();
+    }
+
+    @Benchmark
+    public void log() {
+        DatabaseLogger.log("INFO", PREFIX + n++, "127.0.0.1");
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteRecords() throws SQLException {
+        DatabaseLogger.flush(10_000);
+        System.out.println("  flushed=" + DatabaseLogger.getFlushedCount()
+                + " dropped=" + DatabaseLogger.getDroppedCount()
+                + " failed=" + DatabaseLogger.getFailedCount());
+        try (Connection conn = DBConnection.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("DELETE FROM logs WHERE message LIKE '" + PREFIX + "%'");
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        DatabaseLogger.shutdown();
+        DBConnection.shutdown();
+    }
+}
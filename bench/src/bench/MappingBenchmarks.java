@@ -0,0 +1,65 @@
+package bench;
+
+import java.sql.ResultSet;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import repository.RowMappers;
+import util.RowMapper;
+
+/** ResultSet-to-model mapping for the two tables the UI pages through, 100 rows per call. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappingBenchmarks {
+    private static final int ROWS = 100;
+    private static final String[] COURSE_COLUMNS = {"course_code", "course_name", "credit_hours", "instructor_name",
+            "course_description", "capacity", "meeting_days", "meeting_start", "meeting_end"};
+    private static final String[] ENROLLMENT_COLUMNS = {"enrollment_id", "student_id", "course_code", "semester", "grade"};
+
+    private Object[][] courses;
+    private Object[][] enrollments;
+
+    @Setup
+    public void setUp() {
+        courses = new Object[ROWS][];
+        for (int i = 0; i < ROWS; i++) {
+            courses[i] = new Object[]{"CS" + (1000 + i), "Course " + i, 3, "Instructor " + (i % 17),
+                    "Description of course " + i, 40,
+                    i % 8 == 0 ? null : "MWF", i % 8 == 0 ? null : 540, i % 8 == 0 ? null : 590};
+        }
+        enrollments = new Object[ROWS][];
+        for (int i = 0; i < ROWS; i++) {
+            enrollments[i] = new Object[]{i + 1, "60" + (100000 + i), "CS1000", "Fall 2025", i % 3 == 0 ? null : "B+"};
+        }
+    }
+
+    @Benchmark
+    public void course(Blackhole bh) throws Exception {
+        mapAll(FakeResultSet.of(COURSE_COLUMNS, courses), RowMappers.COURSE, bh);
+    }
+
+    @Benchmark
+    public void enrollment(Blackhole bh) throws Exception {
+        mapAll(FakeResultSet.of(ENROLLMENT_COLUMNS, enrollments), RowMappers.ENROLLMENT, bh);
+    }
+
+    private static <T> void mapAll(ResultSet rs, RowMapper<T> mapper, Blackhole bh) throws Exception {
+        while (rs.next()) {
+            bh.consume(mapper.map(rs));
+        }
+        rs.close();
+    }
+}
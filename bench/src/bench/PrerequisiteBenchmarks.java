@@ -0,0 +1,69 @@
+package bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import model.Course;
+import model.Enrollment;
+import model.Prerequisite;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import service.PrerequisiteGraph;
+
+/** Prerequisite checks over a 10,000-course catalog where most courses require one to three earlier ones. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrerequisiteBenchmarks {
+    private final List<Course> catalog = new ArrayList<>();
+    private final List<Prerequisite> edges = new ArrayList<>();
+    private final List<Enrollment> record = new ArrayList<>();
+    private PrerequisiteGraph graph;
+
+    @Setup
+    public void setUp() {
+        Random rnd = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            String code = "C" + (1000 + i);
+            catalog.add(new Course(code, "Course " + i, 3, "Instructor", ""));
+            // Only lower-numbered courses are required, so the graph is acyclic
+            int required = i < 100 ? 0 : 1 + rnd.nextInt(3);
+            for (int r = 0; r < required; r++) {
+                edges.add(new Prerequisite(code, "C" + (1000 + rnd.nextInt(i)),
+                        rnd.nextInt(10) == 0 ? Prerequisite.COREQUISITE : Prerequisite.PREREQUISITE));
+            }
+        }
+        // A student four years in: 40 passed courses and 5 in progress
+        for (int i = 0; i < 45; i++) {
+            record.add(new Enrollment("60100000", "C" + (1000 + rnd.nextInt(2000)), "Fall 2025", i < 40 ? "B" : null));
+        }
+        graph = new PrerequisiteGraph(catalog, edges);
+    }
+
+    @Benchmark
+    public PrerequisiteGraph build() {
+        return new PrerequisiteGraph(catalog, edges);
+    }
+
+    @Benchmark
+    public int eligibilityWholeCatalog() {
+        return graph.eligibility(record).eligibleCount();
+    }
+
+    @Benchmark
+    public int path() {
+        return graph.prerequisitePath("C10999").size();
+    }
+}
@@ -0,0 +1,66 @@
+package bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import model.Course;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import service.CourseSearchIndex;
+
+/** Type-ahead search over a 10,000-course catalog, one keystroke at a time. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SearchBenchmarks {
+    private static final String[] SUBJECTS = {
+            "Algorithms", "Databases", "Networks", "Calculus", "Statistics", "Physics", "Chemistry",
+            "Economics", "Accounting", "Marketing", "Ethics", "Writing", "Biology", "Design", "Robotics"
+    };
+    // What the filter field holds after each key of "stat 12"
+    private static final String[] KEYSTROKES = {"s", "st", "sta", "stat", "stat ", "stat 1", "stat 12"};
+
+    private final Random rnd = new Random(42);
+    private final List<Course> catalog = new ArrayList<>();
+    private final CourseSearchIndex index = new CourseSearchIndex();
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < 10_000; i++) {
+            String subject = SUBJECTS[i % SUBJECTS.length];
+            catalog.add(new Course("C" + (1000 + i), subject + " " + (100 + i / SUBJECTS.length), 3,
+                    "Instructor " + rnd.nextInt(200), "An introduction to " + subject.toLowerCase() + " and its uses"));
+        }
+        index.sync(catalog);
+    }
+
+    @Benchmark
+    public void typeAhead(Blackhole bh) {
+        for (String q : KEYSTROKES) bh.consume(index.search(q).size());
+    }
+
+    @Benchmark
+    public int code() {
+        return index.search("C4321").size();
+    }
+
+    @Benchmark
+    public void reindexOne() {
+        Course c = catalog.get(rnd.nextInt(catalog.size()));
+        index.remove(c.getCourseCode());
+        index.put(c);
+    }
+}
@@ -1,22 +1,46 @@
+import config.AppConfig;
+import config.DBConnection;
 import javafx.application.Application;
-import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
+import repository.QueryRegistry;
+import util.AsyncDb;
+import util.DatabaseLogger;
+import util.ViewLoader;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 public class MainApplication extends Application {
+    private static final Logger logger = Logger.getLogger(MainApplication.class.getName());
 
     @Override
     public void start(Stage primaryStage) throws Exception {
-        Parent root = FXMLLoader.load(getClass().getResource("/view/login.fxml"));
+        Parent root = ViewLoader.load("/view/login.fxml").getRoot();
         Scene scene = new Scene(root, 600, 400);
         scene.getStylesheets().add(getClass().getResource("/css/styles.css").toExternalForm());
         primaryStage.setTitle("Secure Auth App");
         primaryStage.setScene(scene);
         primaryStage.show();
+        // Off the FX thread: this also warms up the pool and prepares every named query once
+        AsyncDb.executor().execute(() -> {
+            try {
+                QueryRegistry.validateAll();
+            } catch (Exception e) {
+                logger.log(Level.SEVERE, "Query validation failed", e);
+            }
+        });
+    }
+
+    @Override
+    public void stop() {
+        // Flush queued log records before the pool goes away
+        DatabaseLogger.shutdown();
+        DBConnection.shutdown();
     }
 
     public static void main(String[] args) {
+        AppConfig.load();
         launch(args);
     }
 }
\ No newline at end of file
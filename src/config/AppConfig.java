@@ -0,0 +1,59 @@
+package config;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
+import java.util.logging.Logger;
+
+/**
+ * Loads settings from a properties file, so the -D knobs used across the app
+ * (db.*, db.pool.*, auth.*, session.*, api.*, ...) can be kept in one place
+ * instead of on the command line.
+ *
+ * The file is the one named by -Dapp.config, or app.properties in the working
+ * directory if there is one. Its entries become system properties; anything
+ * already given with -D wins over the file.
+ */
+public final class AppConfig {
+    private static final Logger logger = Logger.getLogger(AppConfig.class.getName());
+    private static final String DEFAULT_FILE = "app.properties";
+
+    private static boolean loaded = false;
+
+    private AppConfig() {
+    }
+
+    /**
+     * Reads the config file once; later calls do nothing. Call it first thing in
+     * main(), before classes that read their settings into static fields load.
+     */
+    public static synchronized void load() {
+        if (loaded) return;
+        loaded = true;
+        String explicit = System.getProperty("app.config");
+        Path file = Paths.get(explicit != null ? explicit : DEFAULT_FILE);
+        if (!Files.isRegularFile(file)) {
+            if (explicit != null) logger.warning("Config file " + file.toAbsolutePath() + " not found; using defaults.");
+            return;
+        }
+        Properties props = new Properties();
+        try (Reader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            props.load(in);
+        } catch (IOException e) {
+            logger.warning("Could not read config file " + file.toAbsolutePath() + ": " + e.getMessage());
+            return;
+        }
+        int applied = 0;
+        for (String key : props.stringPropertyNames()) {
+            if (System.getProperty(key) == null) {
+                System.setProperty(key, props.getProperty(key).trim());
+                applied++;
+            }
+        }
+        logger.info("Loaded " + applied + " settings from " + file.toAbsolutePath());
+    }
+}
@@ -0,0 +1,359 @@
+package config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+import util.Trace;
+
+/**
+ * A small bounded JDBC connection pool.
+ * Connections handed out are proxies; calling close() returns the physical
+ * connection to the pool instead of closing it, rolled back and with any
+ * isolation level, read-only flag or catalog a borrower changed put back to
+ * the driver's defaults. unwrap() never exposes the physical connection.
+ * Prepared statements are cached per physical connection (see
+ * {@link StatementCache}), and statements are timed with {@link Trace}
+ * unless -Dmetrics.enabled=false.
+ */
+public class ConnectionPool {
+    private static final Logger logger = Logger.getLogger(ConnectionPool.class.getName());
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final PoolSettings settings;
+
+    private final Semaphore permits;
+    private final Deque<PooledConnection> idle = new ArrayDeque<>();
+    private final Set<PooledConnection> inUse = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed = false;
+
+    // Metrics
+    private final AtomicLong totalBorrows = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong retired = new AtomicLong();
+    private final AtomicLong leaksDetected = new AtomicLong();
+    private final AtomicLong statementCacheHits = new AtomicLong();
+    private final AtomicLong statementCacheMisses = new AtomicLong();
+
+    public ConnectionPool(String url, String user, String password, PoolSettings settings) {
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.settings = settings;
+        this.permits = new Semaphore(settings.maxSize, true);
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1000, settings.housekeepingIntervalMs);
+        housekeeper.scheduleAtFixedRate(this::housekeep, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrows a connection, waiting up to the configured timeout for one to free up.
+     * @throws SQLException if none becomes available in time or the connect fails.
+     */
+    public Connection borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed.");
+        }
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(settings.connectionTimeoutMs, TimeUnit.MILLISECONDS)) {
+                timeouts.incrementAndGet();
+                throw new SQLTransientConnectionException("Timed out after " + settings.connectionTimeoutMs
+                        + " ms waiting for a database connection (pool size " + settings.maxSize + ").");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection.", e);
+        }
+        long waited = System.nanoTime() - start;
+        totalWaitNanos.addAndGet(waited);
+        maxWaitNanos.accumulateAndGet(waited, Math::max);
+        totalBorrows.incrementAndGet();
+
+        try {
+            PooledConnection pc = takeValidIdle();
+            if (pc == null) {
+                pc = open();
+                created.incrementAndGet();
+            }
+            pc.borrowedAt = System.currentTimeMillis();
+            pc.borrowSite = settings.leakDetectionThresholdMs > 0 ? new Throwable("Connection borrowed here") : null;
+            inUse.add(pc);
+            return pc.newHandle();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private PooledConnection open() throws SQLException {
+        Connection physical = DriverManager.getConnection(url, user, password);
+        try {
+            return new PooledConnection(physical);
+        } catch (SQLException | RuntimeException e) {
+            physical.close();
+            throw e;
+        }
+    }
+
+    /** Pops idle connections until one is alive and within its max lifetime. */
+    private PooledConnection takeValidIdle() {
+        while (true) {
+            PooledConnection pc;
+            synchronized (idle) {
+                pc = idle.pollFirst();
+            }
+            if (pc == null) return null;
+            long now = System.currentTimeMillis();
+            if (pc.isExpired(now, settings.maxLifetimeMs)) {
+                retire(pc);
+                continue;
+            }
+            // Only validate connections that sat idle long enough to have gone stale
+            if (now - pc.lastReturnedAt > settings.validationIdleMs && !pc.isAlive(settings.validationTimeoutSec)) {
+                retire(pc);
+                continue;
+            }
+            return pc;
+        }
+    }
+
+    private void giveBack(PooledConnection pc) {
+        inUse.remove(pc);
+        try {
+            boolean broken = pc.physical.isClosed();
+            if (!broken && !pc.physical.getAutoCommit()) {
+                // Never hand out a connection with a half-finished transaction
+                pc.physical.rollback();
+                pc.physical.setAutoCommit(true);
+            }
+            if (!broken && pc.sessionChanged) {
+                // Callers may change these for one transaction; the next borrower gets the defaults
+                pc.physical.setTransactionIsolation(pc.defaultIsolation);
+                pc.physical.setReadOnly(pc.defaultReadOnly);
+                if (pc.defaultCatalog != null) pc.physical.setCatalog(pc.defaultCatalog);
+                pc.sessionChanged = false;
+            }
+            if (broken || closed || pc.isExpired(System.currentTimeMillis(), settings.maxLifetimeMs)) {
+                retire(pc);
+            } else {
+                pc.lastReturnedAt = System.currentTimeMillis();
+                synchronized (idle) {
+                    // LIFO keeps the hottest connections busy and lets the rest age out
+                    idle.offerFirst(pc);
+                }
+            }
+        } catch (SQLException e) {
+            retire(pc);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void retire(PooledConnection pc) {
+        retired.incrementAndGet();
+        try {
+            pc.physical.close();
+        } catch (SQLException ignored) {
+            // Already unusable
+        }
+    }
+
+    /** Evicts idle/expired connections and reports suspected leaks. */
+    private void housekeep() {
+        long now = System.currentTimeMillis();
+        synchronized (idle) {
+            int keep = settings.minIdle;
+            int seen = 0;
+            for (var it = idle.iterator(); it.hasNext(); ) {
+                PooledConnection pc = it.next();
+                seen++;
+                boolean idleTooLong = seen > keep && now - pc.lastReturnedAt > settings.idleTimeoutMs;
+                if (idleTooLong || pc.isExpired(now, settings.maxLifetimeMs)) {
+                    it.remove();
+                    retire(pc);
+                    seen--;
+                }
+            }
+        }
+        if (settings.leakDetectionThresholdMs > 0) {
+            for (PooledConnection pc : inUse) {
+                if (!pc.leakReported && now - pc.borrowedAt > settings.leakDetectionThresholdMs) {
+                    pc.leakReported = true;
+                    leaksDetected.incrementAndGet();
+                    logger.warning("Possible connection leak: held for " + (now - pc.borrowedAt) + " ms\n"
+                            + stackTraceOf(pc.borrowSite));
+                }
+            }
+        }
+    }
+
+    private static String stackTraceOf(Throwable t) {
+        if (t == null) return "";
+        StringBuilder sb = new StringBuilder();
+        for (StackTraceElement e : t.getStackTrace()) {
+            sb.append("    at ").append(e).append('\n');
+        }
+        return sb.toString();
+    }
+
+    /** Closes all idle connections and stops the housekeeper; borrowed ones are closed on return. */
+    public void shutdown() {
+        closed = true;
+        housekeeper.shutdownNow();
+        synchronized (idle) {
+            for (PooledConnection pc : idle) {
+                retire(pc);
+            }
+            idle.clear();
+        }
+    }
+
+    /** Returns a point-in-time snapshot of the pool metrics. */
+    public PoolStats stats() {
+        int idleCount;
+        synchronized (idle) {
+            idleCount = idle.size();
+        }
+        long borrows = totalBorrows.get();
+        return new PoolStats(
+                inUse.size(),
+                idleCount,
+                settings.maxSize,
+                permits.getQueueLength(),
+                borrows,
+                borrows == 0 ? 0.0 : totalWaitNanos.get() / 1_000_000.0 / borrows,
+                maxWaitNanos.get() / 1_000_000.0,
+                timeouts.get(),
+                created.get(),
+                retired.get(),
+                leaksDetected.get(),
+                statementCacheHits.get(),
+                statementCacheMisses.get());
+    }
+
+    /** One physical connection plus its bookkeeping. */
+    private final class PooledConnection {
+        final Connection physical;
+        final StatementCache statements;
+        final long createdAt = System.currentTimeMillis();
+        // Session settings as the driver opened them, restored on return if a borrower changed them
+        final int defaultIsolation;
+        final boolean defaultReadOnly;
+        final String defaultCatalog;
+        volatile boolean sessionChanged;
+        volatile long lastReturnedAt = createdAt;
+        volatile long borrowedAt;
+        volatile Throwable borrowSite;
+        volatile boolean leakReported;
+
+        PooledConnection(Connection physical) throws SQLException {
+            this.physical = physical;
+            this.defaultIsolation = physical.getTransactionIsolation();
+            this.defaultReadOnly = physical.isReadOnly();
+            this.defaultCatalog = physical.getCatalog();
+            this.statements = settings.statementCacheSize > 0
+                    ? new StatementCache(physical, settings.statementCacheSize, statementCacheHits, statementCacheMisses)
+                    : null;
+        }
+
+        boolean isExpired(long now, long maxLifetimeMs) {
+            return maxLifetimeMs > 0 && now - createdAt > maxLifetimeMs;
+        }
+
+        boolean isAlive(int timeoutSec) {
+            try {
+                return physical.isValid(timeoutSec);
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        /** Wraps the physical connection so close() returns it to the pool exactly once. */
+        Connection newHandle() {
+            leakReported = false;
+            InvocationHandler handler = new InvocationHandler() {
+                private boolean released = false;
+
+                @Override
+                public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                    switch (method.getName()) {
+                        case "close":
+                            if (!released) {
+                                released = true;
+                                giveBack(PooledConnection.this);
+                            }
+                            return null;
+                        case "isClosed":
+                            return released || physical.isClosed();
+                        case "unwrap":
+                            // Never hand out the physical connection: closing it would bypass the pool
+                            if (((Class<?>) args[0]).isInstance(proxy)) return proxy;
+                            throw new SQLException("Pooled connections do not expose " + args[0] + ".");
+                        case "isWrapperFor":
+                            return ((Class<?>) args[0]).isInstance(proxy);
+                        case "setTransactionIsolation":
+                        case "setReadOnly":
+                        case "setCatalog":
+                            sessionChanged = true;
+                            break;
+                        case "toString":
+                            return "Pooled[" + physical + "]";
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        default:
+                            break;
+                    }
+                    if (released) {
+                        throw new SQLException("Connection has already been returned to the pool.");
+                    }
+                    Object result;
+                    if (statements != null && method.getName().equals("prepareStatement") && args.length == 1) {
+                        result = statements.prepare((String) args[0]);
+                    } else {
+                        try {
+                            result = method.invoke(physical, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    }
+                    if (result instanceof Statement && Trace.enabled()) {
+                        // prepareStatement/prepareCall carry the SQL; createStatement gets it per execute
+                        String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+                        return TimedStatements.wrap((Statement) result, sql);
+                    }
+                    return result;
+                }
+            };
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, handler);
+        }
+    }
+}
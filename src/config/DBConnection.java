@@ -1,20 +1,87 @@
 package config;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 
 public class DBConnection {
-    // URL to connect to the local MySQL database
-    private static final String URL = "jdbc:mysql://localhost:3306/simple_auth";
-    private static final String USER = "root";
-    private static final String PASSWORD = "";
+    static {
+        AppConfig.load();
+    }
+
+    // -Ddb.backend=embedded runs an in-process H2 database in MySQL mode instead of
+    // the MySQL server: nothing to install, starts empty, gone when the JVM exits.
+    // Handy for demos, benchmarks and the load simulator. Needs the H2 jar on the classpath.
+    private static final String BACKEND = System.getProperty("db.backend", "mysql");
+
+    // rewriteBatchedStatements lets the driver send a JDBC batch as one multi-row INSERT.
+    // useServerPrepStmts makes prepared statements real server-side ones, so the pool's
+    // per-connection statement cache saves the server a parse and plan on every reuse.
+    private static final String MYSQL_URL = "jdbc:mysql://localhost:3306/simple_auth"
+            + "?rewriteBatchedStatements=true&useServerPrepStmts=true";
+    private static final String EMBEDDED_URL = "jdbc:h2:mem:simple_auth;MODE=MySQL;DATABASE_TO_LOWER=TRUE;"
+            + "CASE_INSENSITIVE_IDENTIFIERS=TRUE;DB_CLOSE_DELAY=-1";
+
+    // -Ddb.url/-Ddb.user/-Ddb.password (or the same keys in app.properties) override the backend's defaults
+    private static final String URL = System.getProperty("db.url", isEmbedded() ? EMBEDDED_URL : MYSQL_URL);
+    private static final String USER = System.getProperty("db.user", isEmbedded() ? "sa" : "root");
+    private static final String PASSWORD = System.getProperty("db.password", "");
+
+    // Rows fetched per round-trip by streaming queries (exports and reports). The MySQL
+    // driver only streams for Integer.MIN_VALUE; any other value without useCursorFetch=true
+    // makes it buffer the whole result. H2 takes a plain row count.
+    private static final int STREAM_FETCH_SIZE =
+            Integer.getInteger("db.stream.fetchSize", isEmbedded() ? 1000 : Integer.MIN_VALUE);
+
+    private static final ConnectionPool pool =
+            new ConnectionPool(URL, USER, PASSWORD, PoolSettings.fromSystemProperties());
+
+    // Bring the schema up to date before the first connection is used; -Ddb.schema.bootstrap=false skips it
+    private static volatile boolean schemaReady =
+            !Boolean.parseBoolean(System.getProperty("db.schema.bootstrap", "true"));
+    private static final Object schemaLock = new Object();
 
     /**
-     * Returns a Connection object to the database.
-     * @throws SQLException if the connection fails.
+     * Returns a pooled Connection to the database. Closing it hands it back to the pool.
+     * @throws SQLException if no connection could be obtained.
      */
     public static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(URL, USER, PASSWORD);
+        Connection conn = pool.borrow();
+        if (!schemaReady) {
+            try {
+                ensureSchema(conn);
+            } catch (SQLException e) {
+                conn.close();
+                throw e;
+            }
+        }
+        return conn;
+    }
+
+    private static void ensureSchema(Connection conn) throws SQLException {
+        synchronized (schemaLock) {
+            if (schemaReady) return;
+            SchemaBootstrap.migrate(conn);
+            schemaReady = true;
+        }
+    }
+
+    /** True when running against the in-process database rather than a MySQL server. */
+    public static boolean isEmbedded() {
+        return "embedded".equalsIgnoreCase(BACKEND);
+    }
+
+    /** Fetch size for queries that stream their rows instead of collecting them, from -Ddb.stream.fetchSize. */
+    public static int streamFetchSize() {
+        return STREAM_FETCH_SIZE;
+    }
+
+    /** Closes pooled connections. Call once on application exit, after the last query. */
+    public static void shutdown() {
+        pool.shutdown();
+    }
+
+    /** Returns current pool metrics (active, idle, wait times, ...). */
+    public static PoolStats getPoolStats() {
+        return pool.stats();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,56 @@
+package config;
+
+/**
+ * Sizing and timing knobs for the connection pool.
+ * Each value can be overridden with a -D system property (e.g. -Ddb.pool.maxSize=20).
+ */
+public class PoolSettings {
+    public final int maxSize;
+    public final int minIdle;
+    public final long connectionTimeoutMs;
+    public final long idleTimeoutMs;
+    public final long maxLifetimeMs;
+    /**
+     * Diagnostic: warn (with the borrowing stack) about connections held longer than this;
+     * 0, the default, turns it off. Each borrow records a stack trace while it is on.
+     */
+    public final long leakDetectionThresholdMs;
+    public final long validationIdleMs;
+    public final int validationTimeoutSec;
+    public final long housekeepingIntervalMs;
+    /** Prepared statements kept open per connection; 0 turns statement caching off. */
+    public final int statementCacheSize;
+
+    public PoolSettings(int maxSize, int minIdle, long connectionTimeoutMs, long idleTimeoutMs,
+                        long maxLifetimeMs, long leakDetectionThresholdMs, long validationIdleMs,
+                        int validationTimeoutSec, long housekeepingIntervalMs, int statementCacheSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Pool size must be at least 1.");
+        }
+        this.maxSize = maxSize;
+        this.minIdle = Math.min(minIdle, maxSize);
+        this.connectionTimeoutMs = connectionTimeoutMs;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.maxLifetimeMs = maxLifetimeMs;
+        this.leakDetectionThresholdMs = leakDetectionThresholdMs;
+        this.validationIdleMs = validationIdleMs;
+        this.validationTimeoutSec = validationTimeoutSec;
+        this.housekeepingIntervalMs = housekeepingIntervalMs;
+        this.statementCacheSize = Math.max(0, statementCacheSize);
+    }
+
+    /** Builds settings from system properties, falling back to defaults sized for a desktop client. */
+    public static PoolSettings fromSystemProperties() {
+        return new PoolSettings(
+                Integer.getInteger("db.pool.maxSize", 10),
+                Integer.getInteger("db.pool.minIdle", 2),
+                Long.getLong("db.pool.connectionTimeoutMs", 10_000L),
+                Long.getLong("db.pool.idleTimeoutMs", 600_000L),
+                Long.getLong("db.pool.maxLifetimeMs", 1_800_000L),
+                Long.getLong("db.pool.leakDetectionThresholdMs", 0L),
+                Long.getLong("db.pool.validationIdleMs", 5_000L),
+                Integer.getInteger("db.pool.validationTimeoutSec", 2),
+                Long.getLong("db.pool.housekeepingIntervalMs", 30_000L),
+                Integer.getInteger("db.pool.statementCacheSize", 64));
+    }
+}
@@ -0,0 +1,60 @@
+package config;
+
+/** Snapshot of connection pool metrics at a point in time. */
+public class PoolStats {
+    private final int active;
+    private final int idle;
+    private final int maxSize;
+    private final int waitingThreads;
+    private final long totalBorrows;
+    private final double averageWaitMs;
+    private final double maxWaitMs;
+    private final long timeouts;
+    private final long connectionsCreated;
+    private final long connectionsRetired;
+    private final long leaksDetected;
+    private final long statementCacheHits;
+    private final long statementCacheMisses;
+
+    public PoolStats(int active, int idle, int maxSize, int waitingThreads, long totalBorrows,
+                     double averageWaitMs, double maxWaitMs, long timeouts,
+                     long connectionsCreated, long connectionsRetired, long leaksDetected,
+                     long statementCacheHits, long statementCacheMisses) {
+        this.active = active;
+        this.idle = idle;
+        this.maxSize = maxSize;
+        this.waitingThreads = waitingThreads;
+        this.totalBorrows = totalBorrows;
+        this.averageWaitMs = averageWaitMs;
+        this.maxWaitMs = maxWaitMs;
+        this.timeouts = timeouts;
+        this.connectionsCreated = connectionsCreated;
+        this.connectionsRetired = connectionsRetired;
+        this.leaksDetected = leaksDetected;
+        this.statementCacheHits = statementCacheHits;
+        this.statementCacheMisses = statementCacheMisses;
+    }
+
+    public int getActive() { return active; }
+    public int getIdle() { return idle; }
+    public int getMaxSize() { return maxSize; }
+    public int getWaitingThreads() { return waitingThreads; }
+    public long getTotalBorrows() { return totalBorrows; }
+    public double getAverageWaitMs() { return averageWaitMs; }
+    public double getMaxWaitMs() { return maxWaitMs; }
+    public long getTimeouts() { return timeouts; }
+    public long getConnectionsCreated() { return connectionsCreated; }
+    public long getConnectionsRetired() { return connectionsRetired; }
+    public long getLeaksDetected() { return leaksDetected; }
+    public long getStatementCacheHits() { return statementCacheHits; }
+    public long getStatementCacheMisses() { return statementCacheMisses; }
+
+    @Override
+    public String toString() {
+        return String.format("active=%d idle=%d max=%d waiting=%d borrows=%d avgWait=%.2fms maxWait=%.2fms "
+                        + "timeouts=%d created=%d retired=%d leaks=%d stmtCacheHits=%d stmtCacheMisses=%d",
+                active, idle, maxSize, waitingThreads, totalBorrows, averageWaitMs, maxWaitMs,
+                timeouts, connectionsCreated, connectionsRetired, leaksDetected,
+                statementCacheHits, statementCacheMisses);
+    }
+}
@@ -0,0 +1,219 @@
+package config;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Creates and upgrades the database schema. Migrations are numbered; the ones
+ * a database has had are recorded in schema_version, and the rest run in order
+ * before {@link DBConnection} hands out its first connection.
+ *
+ * Statements stick to the MySQL syntax that H2's MySQL mode also accepts, so
+ * the same list builds the embedded database. Version 1 uses IF NOT EXISTS to
+ * adopt databases that were created by hand before versioning; columns and
+ * indexes such a database already has are skipped. Every statement is safe to
+ * run twice, so two processes starting at once cannot break each other.
+ *
+ * To change the schema, append a migration; never edit one that has shipped.
+ */
+public final class SchemaBootstrap {
+    private static final Logger logger = Logger.getLogger(SchemaBootstrap.class.getName());
+
+    static final List<Migration> MIGRATIONS = List.of(
+            new Migration(1, "Core tables",
+                    "CREATE TABLE IF NOT EXISTS users ("
+                            + "id VARCHAR(20) PRIMARY KEY, "
+                            + "name VARCHAR(100) NOT NULL, "
+                            + "email VARCHAR(100) NOT NULL UNIQUE, "
+                            + "password VARCHAR(255) NOT NULL, "
+                            + "salt VARCHAR(64), "
+                            + "role VARCHAR(20) NOT NULL)",
+                    "CREATE TABLE IF NOT EXISTS courses ("
+                            + "course_code VARCHAR(20) PRIMARY KEY, "
+                            + "course_name VARCHAR(100) NOT NULL, "
+                            + "credit_hours INT NOT NULL, "
+                            + "instructor_name VARCHAR(100), "
+                            + "course_description TEXT)",
+                    "CREATE TABLE IF NOT EXISTS enrollments ("
+                            + "enrollment_id INT AUTO_INCREMENT PRIMARY KEY, "
+                            + "student_id VARCHAR(20) NOT NULL, "
+                            + "course_code VARCHAR(20) NOT NULL, "
+                            + "semester VARCHAR(20) DEFAULT NULL, "
+                            + "grade VARCHAR(10) DEFAULT NULL, "
+                            + "CONSTRAINT uq_enrollment UNIQUE (student_id, course_code))",
+                    "CREATE TABLE IF NOT EXISTS payments ("
+                            + "payment_id INT AUTO_INCREMENT PRIMARY KEY, "
+                            + "student_id VARCHAR(20) NOT NULL, "
+                            + "amount DECIMAL(10,2) NOT NULL, "
+                            + "payment_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP)",
+                    "CREATE TABLE IF NOT EXISTS logs ("
+                            + "log_id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                            + "level VARCHAR(10) NOT NULL, "
+                            + "message TEXT, "
+                            + "ip_address VARCHAR(45), "
+                            + "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)"),
+            new Migration(2, "Catalog version, GPA summary and university ID sequence",
+                    "CREATE TABLE IF NOT EXISTS catalog_version ("
+                            + "id INT PRIMARY KEY, version BIGINT NOT NULL)",
+                    "INSERT IGNORE INTO catalog_version (id, version) VALUES (1, 0)",
+                    "CREATE TABLE IF NOT EXISTS student_summary ("
+                            + "student_id VARCHAR(20) PRIMARY KEY, "
+                            + "quality_points DECIMAL(10,1) NOT NULL DEFAULT 0, "
+                            + "attempted_credits INT NOT NULL DEFAULT 0, "
+                            + "earned_credits INT NOT NULL DEFAULT 0)",
+                    "CREATE TABLE IF NOT EXISTS id_sequence ("
+                            + "name VARCHAR(32) PRIMARY KEY, next_value BIGINT NOT NULL)",
+                    "INSERT IGNORE INTO id_sequence (name, next_value) VALUES ('university_id', 0)"),
+            new Migration(3, "Bring hand-built schemas up to date",
+                    // Early schemas had no grade column and a password column sized for a bare hex digest
+                    "ALTER TABLE enrollments ADD COLUMN grade VARCHAR(10) DEFAULT NULL",
+                    "ALTER TABLE users MODIFY COLUMN password VARCHAR(255) NOT NULL"),
+            new Migration(4, "Indexes for roster, payment and instructor lookups",
+                    "CREATE INDEX idx_enrollments_course ON enrollments (course_code)",
+                    "CREATE INDEX idx_payments_student ON payments (student_id)",
+                    "CREATE INDEX idx_courses_instructor ON courses (instructor_name)"),
+            new Migration(5, "Course seat capacity",
+                    // NULL capacity means unlimited; seats_taken mirrors COUNT(*) of the course's enrollments
+                    "ALTER TABLE courses ADD COLUMN capacity INT DEFAULT NULL",
+                    "ALTER TABLE courses ADD COLUMN seats_taken INT NOT NULL DEFAULT 0",
+                    "UPDATE courses SET seats_taken = "
+                            + "(SELECT COUNT(*) FROM enrollments e WHERE e.course_code = courses.course_code)"),
+            new Migration(6, "Tuition ledger and running balances",
+                    // Amounts are in minor units (1/100 QAR): charges positive, refunds and payments negative
+                    "CREATE TABLE IF NOT EXISTS ledger_entries ("
+                            + "entry_id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                            + "student_id VARCHAR(20) NOT NULL, "
+                            + "entry_type VARCHAR(10) NOT NULL, "
+                            + "course_code VARCHAR(20) DEFAULT NULL, "
+                            + "credit_hours INT DEFAULT NULL, "
+                            + "amount_minor BIGINT NOT NULL, "
+                            + "idempotency_key VARCHAR(64) DEFAULT NULL, "
+                            + "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, "
+                            + "CONSTRAINT uq_ledger_idempotency UNIQUE (idempotency_key))",
+                    "CREATE INDEX idx_ledger_student ON ledger_entries (student_id, course_code)",
+                    "CREATE TABLE IF NOT EXISTS student_balance ("
+                            + "student_id VARCHAR(20) PRIMARY KEY, "
+                            + "charged_minor BIGINT NOT NULL DEFAULT 0, "
+                            + "paid_minor BIGINT NOT NULL DEFAULT 0)",
+                    // Opening entries from the pre-ledger data, at the 975 QAR/credit rate it was billed at.
+                    // The payments table is kept for history but no longer written. Each entry's idempotency
+                    // key names the row it came from, so a second process running this at the same time
+                    // has its copies ignored instead of doubling the opening balances.
+                    "INSERT IGNORE INTO ledger_entries "
+                            + "(student_id, entry_type, course_code, credit_hours, amount_minor, idempotency_key) "
+                            + "SELECT e.student_id, 'CHARGE', e.course_code, c.credit_hours, c.credit_hours * 97500, "
+                            + "CONCAT('opening-charge:', e.student_id, ':', e.course_code) "
+                            + "FROM enrollments e JOIN courses c ON e.course_code = c.course_code",
+                    "INSERT IGNORE INTO ledger_entries (student_id, entry_type, amount_minor, idempotency_key) "
+                            + "SELECT student_id, 'PAYMENT', -ROUND(amount * 100), CONCAT('opening-payment:', payment_id) "
+                            + "FROM payments",
+                    "INSERT IGNORE INTO student_balance (student_id, charged_minor, paid_minor) "
+                            + "SELECT student_id, "
+                            + "SUM(CASE WHEN entry_type = 'PAYMENT' THEN 0 ELSE amount_minor END), "
+                            + "-SUM(CASE WHEN entry_type = 'PAYMENT' THEN amount_minor ELSE 0 END) "
+                            + "FROM ledger_entries GROUP BY student_id"),
+            new Migration(7, "Course meeting times",
+                    // Days as letters from "MTWRFSU", times in minutes after midnight; NULL days means no set time
+                    "ALTER TABLE courses ADD COLUMN meeting_days VARCHAR(7) DEFAULT NULL",
+                    "ALTER TABLE courses ADD COLUMN meeting_start INT DEFAULT NULL",
+                    "ALTER TABLE courses ADD COLUMN meeting_end INT DEFAULT NULL"),
+            new Migration(8, "Course prerequisites",
+                    // course_code requires required_code: kind PRE must be passed first, CO may be taken alongside
+                    "CREATE TABLE IF NOT EXISTS course_prerequisites ("
+                            + "course_code VARCHAR(20) NOT NULL, "
+                            + "required_code VARCHAR(20) NOT NULL, "
+                            + "kind VARCHAR(4) NOT NULL DEFAULT 'PRE', "
+                            + "PRIMARY KEY (course_code, required_code))",
+                    "CREATE INDEX idx_prerequisites_required ON course_prerequisites (required_code)"),
+            new Migration(9, "Course waitlists",
+                    // Served highest priority (class standing) first, then in order of joining
+                    "CREATE TABLE IF NOT EXISTS waitlist_entries ("
+                            + "entry_id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                            + "course_code VARCHAR(20) NOT NULL, "
+                            + "student_id VARCHAR(20) NOT NULL, "
+                            + "priority INT NOT NULL DEFAULT 0, "
+                            + "requested_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, "
+                            + "CONSTRAINT uq_waitlist_student UNIQUE (course_code, student_id))",
+                    "CREATE INDEX idx_waitlist_order ON waitlist_entries (course_code, priority, requested_at)",
+                    "CREATE INDEX idx_waitlist_student ON waitlist_entries (student_id)")
+    );
+
+    private SchemaBootstrap() {
+    }
+
+    /** The version a fully migrated database is at. */
+    public static int latestVersion() {
+        return MIGRATIONS.get(MIGRATIONS.size() - 1).version;
+    }
+
+    /**
+     * Runs every migration newer than the database's current version.
+     * The connection must be in auto-commit mode: MySQL commits DDL implicitly anyway.
+     * @return the number of migrations applied.
+     */
+    public static int migrate(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("CREATE TABLE IF NOT EXISTS schema_version ("
+                    + "version INT PRIMARY KEY, "
+                    + "description VARCHAR(200) NOT NULL, "
+                    + "applied_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)");
+        }
+        int current = currentVersion(conn);
+        int applied = 0;
+        for (Migration m : MIGRATIONS) {
+            if (m.version <= current) continue;
+            logger.info("Applying schema version " + m.version + ": " + m.description);
+            try (Statement stmt = conn.createStatement()) {
+                for (String sql : m.statements) {
+                    try {
+                        stmt.executeUpdate(sql);
+                    } catch (SQLException e) {
+                        if (!alreadyExists(e)) throw e;
+                        logger.fine("Skipped, already in place: " + sql);
+                    }
+                }
+            }
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "INSERT IGNORE INTO schema_version (version, description) VALUES (?, ?)")) {
+                stmt.setInt(1, m.version);
+                stmt.setString(2, m.description);
+                stmt.executeUpdate();
+            }
+            applied++;
+        }
+        return applied;
+    }
+
+    /** Highest migration recorded in schema_version, or 0 for a database that has none. */
+    public static int currentVersion(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(version), 0) FROM schema_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    /** Duplicate column or index: the change is already there. */
+    private static boolean alreadyExists(SQLException e) {
+        String state = e.getSQLState();
+        return "42S21".equals(state)      // duplicate column (MySQL 1060, H2 42121)
+                || "42S11".equals(state)  // index already exists (H2 42111)
+                || e.getErrorCode() == 1061;  // duplicate key name (MySQL)
+    }
+
+    static final class Migration {
+        final int version;
+        final String description;
+        final String[] statements;
+
+        Migration(int version, String description, String... statements) {
+            this.version = version;
+            this.description = description;
+            this.statements = statements;
+        }
+    }
+}
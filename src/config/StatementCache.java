@@ -0,0 +1,146 @@
+package config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Prepared statements of one physical connection, kept open across borrows and
+ * keyed by their SQL. Against MySQL (useServerPrepStmts) each one is parsed and
+ * planned by the server once per connection instead of once per use.
+ *
+ * Callers close statements as usual; the handle they got then resets the
+ * parameters and puts the statement back. A statement whose settings were
+ * changed (fetch size, max rows, timeout, ...) is closed for real instead, so
+ * no borrower inherits another's settings. A connection has one borrower at a
+ * time, so the cache itself needs no locking.
+ */
+final class StatementCache {
+    private final Connection physical;
+    private final int maxSize;
+    private final AtomicLong hits;
+    private final AtomicLong misses;
+    // Access order, so the eldest entry is the least recently used
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    StatementCache(Connection physical, int maxSize, AtomicLong hits, AtomicLong misses) {
+        this.physical = physical;
+        this.maxSize = maxSize;
+        this.hits = hits;
+        this.misses = misses;
+    }
+
+    /** A handle on the cached statement for {@code sql}, preparing it first if needed. */
+    PreparedStatement prepare(String sql) throws SQLException {
+        Entry entry = entries.get(sql);
+        if (entry != null && !entry.inUse) {
+            hits.incrementAndGet();
+        } else if (entry != null) {
+            // The same SQL open twice at once (e.g. nested loops): the second one is not cached
+            misses.incrementAndGet();
+            return physical.prepareStatement(sql);
+        } else {
+            misses.incrementAndGet();
+            entry = new Entry(sql, physical.prepareStatement(sql));
+            entries.put(sql, entry);
+            evictIdleOverLimit();
+        }
+        entry.inUse = true;
+        return entry.newHandle();
+    }
+
+    private void evictIdleOverLimit() {
+        Iterator<Entry> it = entries.values().iterator();
+        while (entries.size() > maxSize && it.hasNext()) {
+            Entry eldest = it.next();
+            if (eldest.inUse) continue;
+            it.remove();
+            closeQuietly(eldest.statement);
+        }
+    }
+
+    private void release(Entry entry, boolean dirty) {
+        entry.inUse = false;
+        try {
+            if (!dirty && !entry.statement.isClosed()) {
+                entry.statement.clearParameters();
+                entry.statement.clearBatch();
+                return;
+            }
+        } catch (SQLException e) {
+            // Fall through and drop it
+        }
+        entries.remove(entry.sql, entry);
+        closeQuietly(entry.statement);
+    }
+
+    private static void closeQuietly(Statement statement) {
+        try {
+            statement.close();
+        } catch (SQLException ignored) {
+            // The connection is going away or already broken
+        }
+    }
+
+    private final class Entry {
+        final String sql;
+        final PreparedStatement statement;
+        boolean inUse;
+
+        Entry(String sql, PreparedStatement statement) {
+            this.sql = sql;
+            this.statement = statement;
+        }
+
+        /** A fresh handle per borrow, so a stale reference from an earlier borrower cannot touch it. */
+        PreparedStatement newHandle() {
+            InvocationHandler handler = new InvocationHandler() {
+                private boolean closed = false;
+                private boolean dirty = false;
+
+                @Override
+                public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                    switch (method.getName()) {
+                        case "close":
+                            if (!closed) {
+                                closed = true;
+                                release(Entry.this, dirty);
+                            }
+                            return null;
+                        case "isClosed":
+                            return closed || statement.isClosed();
+                        case "closeOnCompletion":
+                            dirty = true;
+                            break;
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        default:
+                            // Statement-level setters (fetch size, max rows, ...), not parameter setters
+                            if (method.getName().startsWith("set") && method.getDeclaringClass() == Statement.class) {
+                                dirty = true;
+                            }
+                            break;
+                    }
+                    if (closed) throw new SQLException("Statement has already been closed.");
+                    try {
+                        return method.invoke(statement, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                }
+            };
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, handler);
+        }
+    }
+}
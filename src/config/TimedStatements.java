@@ -0,0 +1,54 @@
+package config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import util.Trace;
+
+/**
+ * Wraps the statements a pooled connection creates so every execute call is
+ * timed with {@link Trace#sql}: one JFR event and one histogram sample per
+ * round-trip, named after the statement's verb and table.
+ */
+final class TimedStatements {
+    private TimedStatements() {
+    }
+
+    /**
+     * Wraps {@code statement}, which was prepared from {@code sql}
+     * (null for a plain Statement, whose SQL comes with each execute call).
+     */
+    static Statement wrap(Statement statement, String sql) {
+        Class<?> type = statement instanceof CallableStatement ? CallableStatement.class
+                : statement instanceof PreparedStatement ? PreparedStatement.class
+                : Statement.class;
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (!method.getName().startsWith("execute")) return invoke(statement, method, args);
+            String text = sql;
+            if (text == null && args != null && args.length > 0 && args[0] instanceof String) {
+                text = (String) args[0];
+            }
+            try (Trace.Span span = Trace.sql(text)) {
+                try {
+                    return invoke(statement, method, args);
+                } catch (Throwable e) {
+                    span.fail();
+                    throw e;
+                }
+            }
+        };
+        return (Statement) Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static Object invoke(Statement statement, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(statement, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
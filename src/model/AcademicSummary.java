@@ -0,0 +1,26 @@
+package model;
+
+/** Running GPA totals for one student. */
+public class AcademicSummary {
+    private final String studentId;
+    private final double qualityPoints;   // sum of grade points x credit hours
+    private final int attemptedCredits;   // credits with a grade (counted in GPA)
+    private final int earnedCredits;      // credits with a passing grade
+
+    public AcademicSummary(String studentId, double qualityPoints, int attemptedCredits, int earnedCredits) {
+        this.studentId = studentId;
+        this.qualityPoints = qualityPoints;
+        this.attemptedCredits = attemptedCredits;
+        this.earnedCredits = earnedCredits;
+    }
+
+    public String getStudentId() { return studentId; }
+    public double getQualityPoints() { return qualityPoints; }
+    public int getAttemptedCredits() { return attemptedCredits; }
+    public int getEarnedCredits() { return earnedCredits; }
+
+    /** GPA over graded credits, or 0 if nothing has been graded yet. */
+    public double getGpa() {
+        return attemptedCredits == 0 ? 0.0 : qualityPoints / attemptedCredits;
+    }
+}
@@ -0,0 +1,25 @@
+package model;
+
+import java.math.BigDecimal;
+
+/** A student's running tuition totals, in QAR. */
+public class AccountBalance {
+    private final String studentId;
+    private final BigDecimal charged;  // tuition charged, net of refunds for dropped courses
+    private final BigDecimal paid;
+
+    public AccountBalance(String studentId, BigDecimal charged, BigDecimal paid) {
+        this.studentId = studentId;
+        this.charged = charged;
+        this.paid = paid;
+    }
+
+    public String getStudentId() { return studentId; }
+    public BigDecimal getCharged() { return charged; }
+    public BigDecimal getPaid() { return paid; }
+
+    /** What the student still owes; negative if they have overpaid. */
+    public BigDecimal getOutstanding() {
+        return charged.subtract(paid);
+    }
+}
@@ -6,14 +6,24 @@ public class Course {
     private int creditHours;
     private String instructorName;
     private String courseDescription;
+    // Seat limit; 0 means the course takes any number of students
+    private int capacity;
+    // Weekly meeting; null when the course has no set time, which never conflicts
+    private MeetingTime meetingTime;
 
     public Course(String courseCode, String courseName, int creditHours,
                   String instructorName, String courseDescription) {
+        this(courseCode, courseName, creditHours, instructorName, courseDescription, 0);
+    }
+
+    public Course(String courseCode, String courseName, int creditHours,
+                  String instructorName, String courseDescription, int capacity) {
         this.courseCode = courseCode;
         this.courseName = courseName;
         this.creditHours = creditHours;
         this.instructorName = instructorName;
         this.courseDescription = courseDescription;
+        this.capacity = capacity;
     }
 
     public String getCourseCode() { return courseCode; }
@@ -31,6 +41,14 @@ public class Course {
     public String getCourseDescription() { return courseDescription; }
     public void setCourseDescription(String courseDescription) { this.courseDescription = courseDescription; }
 
+    public int getCapacity() { return capacity; }
+    public void setCapacity(int capacity) { this.capacity = capacity; }
+
+    public boolean hasSeatLimit() { return capacity > 0; }
+
+    public MeetingTime getMeetingTime() { return meetingTime; }
+    public void setMeetingTime(MeetingTime meetingTime) { this.meetingTime = meetingTime; }
+
     @Override
     public String toString() {
         return courseCode + " - " + courseName;
@@ -0,0 +1,32 @@
+package model;
+
+/** One row of the tuition ledger. Amounts are in minor units (1/100 QAR). */
+public class LedgerEntry {
+    public static final String CHARGE = "CHARGE";
+    public static final String REFUND = "REFUND";
+    public static final String PAYMENT = "PAYMENT";
+
+    private final String studentId;
+    private final String type;            // CHARGE, REFUND or PAYMENT
+    private final String courseCode;      // null for payments
+    private final Integer creditHours;    // null for payments
+    private final long amountMinor;       // charges positive, refunds and payments negative
+    private final String idempotencyKey;  // payments only
+
+    public LedgerEntry(String studentId, String type, String courseCode, Integer creditHours,
+                       long amountMinor, String idempotencyKey) {
+        this.studentId = studentId;
+        this.type = type;
+        this.courseCode = courseCode;
+        this.creditHours = creditHours;
+        this.amountMinor = amountMinor;
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public String getStudentId() { return studentId; }
+    public String getType() { return type; }
+    public String getCourseCode() { return courseCode; }
+    public Integer getCreditHours() { return creditHours; }
+    public long getAmountMinor() { return amountMinor; }
+    public String getIdempotencyKey() { return idempotencyKey; }
+}
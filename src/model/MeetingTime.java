@@ -0,0 +1,116 @@
+package model;
+
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * When a course meets each week: one or more days at the same start and end
+ * time, written like "MWF 09:00-09:50". Days are M T W R F S U (R is Thursday,
+ * U is Sunday). Immutable.
+ */
+public final class MeetingTime {
+    /** Day letters in week order, Monday first. */
+    public static final String DAY_LETTERS = "MTWRFSU";
+    private static final Pattern FORMAT =
+            Pattern.compile("([A-Za-z]+)\\s+(\\d{1,2}):(\\d{2})\\s*-\\s*(\\d{1,2}):(\\d{2})");
+
+    private final int dayMask;      // bit i set = meets on DAY_LETTERS.charAt(i)
+    private final int startMinute;  // minutes after midnight
+    private final int endMinute;
+
+    /** @throws IllegalArgumentException unless some day is set and 0 <= start < end <= 24:00. */
+    public MeetingTime(int dayMask, int startMinute, int endMinute) {
+        if (dayMask <= 0 || dayMask >= 1 << DAY_LETTERS.length()) {
+            throw new IllegalArgumentException("A meeting needs at least one day.");
+        }
+        if (startMinute < 0 || endMinute > 24 * 60 || startMinute >= endMinute) {
+            throw new IllegalArgumentException("A meeting must start before it ends, within one day.");
+        }
+        this.dayMask = dayMask;
+        this.startMinute = startMinute;
+        this.endMinute = endMinute;
+    }
+
+    /**
+     * Parses "MWF 09:00-09:50" (case-insensitive, 24-hour clock).
+     * @throws IllegalArgumentException if the text is not in that form.
+     */
+    public static MeetingTime parse(String text) {
+        Matcher m = FORMAT.matcher(text == null ? "" : text.trim());
+        if (!m.matches()) {
+            throw new IllegalArgumentException("Meeting time must look like \"MWF 09:00-09:50\".");
+        }
+        return new MeetingTime(parseDays(m.group(1)),
+                minutes(m.group(2), m.group(3)), minutes(m.group(4), m.group(5)));
+    }
+
+    /** From the courses table columns; null when the course has no set meeting time. */
+    public static MeetingTime fromColumns(String days, int startMinute, int endMinute) {
+        if (days == null || days.isEmpty()) return null;
+        return new MeetingTime(parseDays(days), startMinute, endMinute);
+    }
+
+    public int getDayMask() { return dayMask; }
+    public int getStartMinute() { return startMinute; }
+    public int getEndMinute() { return endMinute; }
+
+    /** The days as letters in week order, e.g. "MWF". */
+    public String getDays() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < DAY_LETTERS.length(); i++) {
+            if ((dayMask & 1 << i) != 0) sb.append(DAY_LETTERS.charAt(i));
+        }
+        return sb.toString();
+    }
+
+    public boolean meetsOn(int day) {
+        return (dayMask & 1 << day) != 0;
+    }
+
+    /** True if the two share a day and their times overlap; back-to-back meetings do not. */
+    public boolean overlaps(MeetingTime other) {
+        return (dayMask & other.dayMask) != 0
+                && startMinute < other.endMinute && other.startMinute < endMinute;
+    }
+
+    private static int parseDays(String letters) {
+        int mask = 0;
+        for (char ch : letters.toUpperCase(Locale.ROOT).toCharArray()) {
+            int day = DAY_LETTERS.indexOf(ch);
+            if (day < 0) throw new IllegalArgumentException("Unknown day '" + ch + "'; use " + DAY_LETTERS + ".");
+            mask |= 1 << day;
+        }
+        return mask;
+    }
+
+    private static int minutes(String hours, String minutes) {
+        int h = Integer.parseInt(hours);
+        int m = Integer.parseInt(minutes);
+        if (m > 59 || h > 24 || (h == 24 && m > 0)) {
+            throw new IllegalArgumentException("Invalid time " + hours + ":" + minutes + ".");
+        }
+        return h * 60 + m;
+    }
+
+    private static String clock(int minute) {
+        return String.format("%02d:%02d", minute / 60, minute % 60);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof MeetingTime)) return false;
+        MeetingTime other = (MeetingTime) o;
+        return dayMask == other.dayMask && startMinute == other.startMinute && endMinute == other.endMinute;
+    }
+
+    @Override
+    public int hashCode() {
+        return (dayMask * 31 + startMinute) * 31 + endMinute;
+    }
+
+    @Override
+    public String toString() {
+        return getDays() + " " + clock(startMinute) + "-" + clock(endMinute);
+    }
+}
@@ -1,21 +1,22 @@
 package model;
 
-import javafx.beans.property.DoubleProperty;
 import javafx.beans.property.IntegerProperty;
-import javafx.beans.property.SimpleDoubleProperty;
+import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleIntegerProperty;
+import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
+import java.math.BigDecimal;
 
 public class PaymentEntry {
     private final StringProperty courseCode;
     private final IntegerProperty creditHours;
-    private final DoubleProperty cost;  // creditHours * 975
+    private final ObjectProperty<BigDecimal> cost;  // tuition charged for the course, in QAR
 
-    public PaymentEntry(String courseCode, int creditHours, double cost) {
+    public PaymentEntry(String courseCode, int creditHours, BigDecimal cost) {
         this.courseCode = new SimpleStringProperty(courseCode);
         this.creditHours = new SimpleIntegerProperty(creditHours);
-        this.cost = new SimpleDoubleProperty(cost);
+        this.cost = new SimpleObjectProperty<>(cost);
     }
 
     public String getCourseCode() {
@@ -32,10 +33,10 @@ public class PaymentEntry {
         return creditHours;
     }
 
-    public double getCost() {
+    public BigDecimal getCost() {
         return cost.get();
     }
-    public DoubleProperty costProperty() {
+    public ObjectProperty<BigDecimal> costProperty() {
         return cost;
     }
 }
\ No newline at end of file
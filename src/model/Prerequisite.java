@@ -0,0 +1,26 @@
+package model;
+
+/**
+ * One edge of the prerequisite graph: {@code courseCode} requires {@code requiredCode}.
+ * A prerequisite must be passed first; a corequisite may instead be taken in the same term.
+ */
+public class Prerequisite {
+    public static final String PREREQUISITE = "PRE";
+    public static final String COREQUISITE = "CO";
+
+    private final String courseCode;
+    private final String requiredCode;
+    private final String kind;  // PREREQUISITE or COREQUISITE
+
+    public Prerequisite(String courseCode, String requiredCode, String kind) {
+        this.courseCode = courseCode;
+        this.requiredCode = requiredCode;
+        this.kind = kind;
+    }
+
+    public String getCourseCode() { return courseCode; }
+    public String getRequiredCode() { return requiredCode; }
+    public String getKind() { return kind; }
+
+    public boolean isCorequisite() { return COREQUISITE.equals(kind); }
+}
@@ -6,6 +6,9 @@ import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
 
 public class TranscriptEntry {
+    /** Shown instead of a grade for courses that have not been graded yet. */
+    public static final String IN_PROGRESS = "In Progress";
+
     private final StringProperty courseCode;
     private final StringProperty courseName;
     private final IntegerProperty creditHours;
@@ -7,6 +7,7 @@ public class User {
     private String email;
     private String role;       // "student", "instructor", or "admin"
     private String passwordHash;
+    private String salt;
 
     public User(String id, String name, String email, String role, String passwordHash) {
         this.id = id;
@@ -22,8 +23,10 @@ public class User {
     public String getEmail() { return email; }
     public String getRole() { return role; }
     public String getPasswordHash() { return passwordHash; }
+    public String getSalt() { return salt; }
 
     // Setters for mutable fields:
     public void setPasswordHash(String passwordHash) { this.passwordHash = passwordHash; }
+    public void setSalt(String salt) { this.salt = salt; }
     public void setRole(String role) { this.role = role; }
 }
\ No newline at end of file
@@ -0,0 +1,33 @@
+package model;
+
+import java.sql.Timestamp;
+import java.util.Comparator;
+
+/** One student waiting for a seat in a full course. */
+public class WaitlistEntry {
+    /** Serving order: higher priority first, then earlier requests, then lower entry id. */
+    public static final Comparator<WaitlistEntry> SERVING_ORDER =
+            Comparator.comparingInt(WaitlistEntry::getPriority).reversed()
+                    .thenComparing(WaitlistEntry::getRequestedAt)
+                    .thenComparingLong(WaitlistEntry::getEntryId);
+
+    private final long entryId;
+    private final String courseCode;
+    private final String studentId;
+    private final int priority;        // class standing when the student joined: 0 first-year .. 3 senior
+    private final Timestamp requestedAt;
+
+    public WaitlistEntry(long entryId, String courseCode, String studentId, int priority, Timestamp requestedAt) {
+        this.entryId = entryId;
+        this.courseCode = courseCode;
+        this.studentId = studentId;
+        this.priority = priority;
+        this.requestedAt = requestedAt;
+    }
+
+    public long getEntryId() { return entryId; }
+    public String getCourseCode() { return courseCode; }
+    public String getStudentId() { return studentId; }
+    public int getPriority() { return priority; }
+    public Timestamp getRequestedAt() { return requestedAt; }
+}
@@ -0,0 +1,109 @@
+package model;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A student's week as a bitset of 5-minute slots: 7 days of 288 slots, 2016
+ * bits in 32 longs. Checking a meeting against it tests the one or two words
+ * its time covers on each of its days, so a conflict check is a handful of
+ * ANDs however many courses the student has.
+ *
+ * A meeting occupies every slot it touches (start rounded down, end rounded
+ * up to 5 minutes), so times off the 5-minute grid can only make the check
+ * stricter. Not thread-safe.
+ */
+public final class WeeklySchedule {
+    static final int SLOT_MINUTES = 5;
+    static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+    private static final int WORDS = (7 * SLOTS_PER_DAY + 63) / 64;
+
+    private final long[] bits = new long[WORDS];
+    // The meetings the bits were built from, to name the course a conflict is with
+    private final Map<String, MeetingTime> meetings = new LinkedHashMap<>();
+
+    /** The schedule of the given courses; ones without a meeting time take no slots. */
+    public static WeeklySchedule of(Collection<Course> courses) {
+        WeeklySchedule schedule = new WeeklySchedule();
+        for (Course c : courses) schedule.add(c.getCourseCode(), c.getMeetingTime());
+        return schedule;
+    }
+
+    /** Adds a course's meeting; null (no set time) is ignored. Replaces an earlier one for the same course. */
+    public void add(String courseCode, MeetingTime meeting) {
+        if (meeting == null) return;
+        if (meetings.put(courseCode, meeting) != null) {
+            rebuild();
+        } else {
+            mark(meeting);
+        }
+    }
+
+    public void remove(String courseCode) {
+        if (meetings.remove(courseCode) != null) rebuild();
+    }
+
+    public boolean isEmpty() {
+        return meetings.isEmpty();
+    }
+
+    /** True if the meeting shares a slot with anything in the schedule. Null never conflicts. */
+    public boolean conflictsWith(MeetingTime meeting) {
+        if (meeting == null) return false;
+        int from = meeting.getStartMinute() / SLOT_MINUTES;
+        int to = (meeting.getEndMinute() + SLOT_MINUTES - 1) / SLOT_MINUTES;
+        for (int day = 0; day < 7; day++) {
+            if (meeting.meetsOn(day) && anySet(day * SLOTS_PER_DAY + from, day * SLOTS_PER_DAY + to)) return true;
+        }
+        return false;
+    }
+
+    /** A course in the schedule the meeting clashes with, or null if there is none. */
+    public String conflictingCourse(MeetingTime meeting) {
+        if (!conflictsWith(meeting)) return null;
+        for (Map.Entry<String, MeetingTime> e : meetings.entrySet()) {
+            if (e.getValue().overlaps(meeting)) return e.getKey();
+        }
+        // Only shares a rounded-up slot, e.g. 09:52 against 09:54; report the first on that day
+        for (Map.Entry<String, MeetingTime> e : meetings.entrySet()) {
+            if ((e.getValue().getDayMask() & meeting.getDayMask()) != 0) return e.getKey();
+        }
+        return meetings.keySet().iterator().next();
+    }
+
+    private void rebuild() {
+        Arrays.fill(bits, 0L);
+        for (MeetingTime m : meetings.values()) mark(m);
+    }
+
+    private void mark(MeetingTime meeting) {
+        int from = meeting.getStartMinute() / SLOT_MINUTES;
+        int to = (meeting.getEndMinute() + SLOT_MINUTES - 1) / SLOT_MINUTES;
+        for (int day = 0; day < 7; day++) {
+            if (meeting.meetsOn(day)) setRange(day * SLOTS_PER_DAY + from, day * SLOTS_PER_DAY + to);
+        }
+    }
+
+    /** Sets bits [from, to). */
+    private void setRange(int from, int to) {
+        for (int w = from >>> 6; w <= (to - 1) >>> 6; w++) bits[w] |= rangeMask(w, from, to);
+    }
+
+    /** True if any bit in [from, to) is set. */
+    private boolean anySet(int from, int to) {
+        for (int w = from >>> 6; w <= (to - 1) >>> 6; w++) {
+            if ((bits[w] & rangeMask(w, from, to)) != 0) return true;
+        }
+        return false;
+    }
+
+    /** The bits of word {@code w} that fall in [from, to). */
+    private static long rangeMask(int w, int from, int to) {
+        int lo = Math.max(from, w << 6) - (w << 6);
+        int hi = Math.min(to, (w + 1) << 6) - (w << 6);  // exclusive, 1..64
+        long upTo = hi == 64 ? -1L : (1L << hi) - 1;
+        return upTo & (-1L << lo);
+    }
+}
@@ -0,0 +1,139 @@
+package repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import model.Course;
+import model.MeetingTime;
+
+/**
+ * SQL for the courses and catalog_version tables. Every method runs on the
+ * caller's connection, so it joins whatever transaction the caller has open.
+ */
+public final class CourseRepository {
+    private static final NamedQuery FIND_ALL = QueryRegistry.define("course.findAll",
+            "SELECT * FROM courses ORDER BY course_code");
+    private static final NamedQuery INSERT = QueryRegistry.define("course.insert",
+            "INSERT INTO courses (course_code, course_name, credit_hours, instructor_name, course_description, "
+                    + "capacity, meeting_days, meeting_start, meeting_end) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)");
+    private static final NamedQuery UPDATE = QueryRegistry.define("course.update",
+            "UPDATE courses SET course_name = ?, credit_hours = ?, instructor_name = ?, course_description = ?, "
+                    + "capacity = ?, meeting_days = ?, meeting_start = ?, meeting_end = ? WHERE course_code = ?");
+    private static final NamedQuery DELETE = QueryRegistry.define("course.delete",
+            "DELETE FROM courses WHERE course_code = ?");
+
+    // Takes a seat only if one is left. The row lock it acquires is held until commit, so
+    // enrollments into the same course queue on that one row only for the commit,
+    // and enrollments into different courses never wait for each other.
+    private static final NamedQuery TAKE_SEAT = QueryRegistry.define("course.takeSeat",
+            "UPDATE courses SET seats_taken = seats_taken + 1 "
+                    + "WHERE course_code = ? AND (capacity IS NULL OR seats_taken < capacity)");
+    private static final NamedQuery RELEASE_SEAT = QueryRegistry.define("course.releaseSeat",
+            "UPDATE courses SET seats_taken = seats_taken - 1 WHERE course_code = ? AND seats_taken > 0");
+    private static final NamedQuery HAS_FREE_SEAT = QueryRegistry.define("course.hasFreeSeat",
+            "SELECT capacity IS NULL OR seats_taken < capacity FROM courses WHERE course_code = ?");
+    private static final NamedQuery SEATS_TAKEN = QueryRegistry.define("course.seatsTaken",
+            "SELECT course_code, seats_taken FROM courses WHERE capacity IS NOT NULL");
+
+    private static final NamedQuery CATALOG_VERSION = QueryRegistry.define("catalog.version",
+            "SELECT version FROM catalog_version WHERE id = 1");
+    private static final NamedQuery BUMP_CATALOG_VERSION = QueryRegistry.define("catalog.bumpVersion",
+            "UPDATE catalog_version SET version = version + 1 WHERE id = 1");
+
+    private CourseRepository() {
+    }
+
+    /** Every course, ordered by course code. */
+    public static List<Course> findAll(Connection conn) throws SQLException {
+        return FIND_ALL.list(conn, RowMappers.COURSE);
+    }
+
+    public static void insert(Connection conn, Course course) throws SQLException {
+        try (PreparedStatement stmt = INSERT.prepare(conn)) {
+            stmt.setString(1, course.getCourseCode());
+            bindDetails(stmt, 2, course);
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Overwrites everything but the code and the seats taken. Students already enrolled
+     * keep their seats even if the new capacity is lower. @return true if the course exists.
+     */
+    public static boolean update(Connection conn, Course course) throws SQLException {
+        try (PreparedStatement stmt = UPDATE.prepare(conn)) {
+            bindDetails(stmt, 1, course);
+            stmt.setString(9, course.getCourseCode());
+            return stmt.executeUpdate() > 0;
+        }
+    }
+
+    /** Name through meeting end, the eight columns insert and update share, from parameter {@code first}. */
+    private static void bindDetails(PreparedStatement stmt, int first, Course course) throws SQLException {
+        stmt.setString(first, course.getCourseName());
+        stmt.setInt(first + 1, course.getCreditHours());
+        stmt.setString(first + 2, course.getInstructorName());
+        stmt.setString(first + 3, course.getCourseDescription());
+        if (course.hasSeatLimit()) {
+            stmt.setInt(first + 4, course.getCapacity());
+        } else {
+            stmt.setNull(first + 4, Types.INTEGER);
+        }
+        MeetingTime meeting = course.getMeetingTime();
+        if (meeting != null) {
+            stmt.setString(first + 5, meeting.getDays());
+            stmt.setInt(first + 6, meeting.getStartMinute());
+            stmt.setInt(first + 7, meeting.getEndMinute());
+        } else {
+            stmt.setNull(first + 5, Types.VARCHAR);
+            stmt.setNull(first + 6, Types.INTEGER);
+            stmt.setNull(first + 7, Types.INTEGER);
+        }
+    }
+
+    /** @return true if a row was deleted. */
+    public static boolean delete(Connection conn, String courseCode) throws SQLException {
+        return DELETE.update(conn, courseCode) > 0;
+    }
+
+    /** Claims a seat. @return false if the course is full (or does not exist). */
+    public static boolean takeSeat(Connection conn, String courseCode) throws SQLException {
+        return TAKE_SEAT.update(conn, courseCode) > 0;
+    }
+
+    public static void releaseSeat(Connection conn, String courseCode) throws SQLException {
+        RELEASE_SEAT.update(conn, courseCode);
+    }
+
+    /** True if the course has no seat limit or a seat left; false if it is full or does not exist. */
+    public static boolean hasFreeSeat(Connection conn, String courseCode) throws SQLException {
+        return Boolean.TRUE.equals(HAS_FREE_SEAT.first(conn, rs -> rs.getBoolean(1), courseCode));
+    }
+
+    /** Seats taken in every course that has a seat limit, keyed by course code. */
+    public static Map<String, Integer> seatsTaken(Connection conn) throws SQLException {
+        Map<String, Integer> seats = new HashMap<>();
+        try (PreparedStatement stmt = SEATS_TAKEN.prepare(conn);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                seats.put(rs.getString(1), rs.getInt(2));
+            }
+        }
+        return seats;
+    }
+
+    /** The catalog's change counter; bumped by every course insert, update or delete. */
+    public static long catalogVersion(Connection conn) throws SQLException {
+        Long version = CATALOG_VERSION.first(conn, rs -> rs.getLong(1));
+        return version == null ? 0 : version;
+    }
+
+    public static void bumpCatalogVersion(Connection conn) throws SQLException {
+        BUMP_CATALOG_VERSION.update(conn);
+    }
+}
@@ -0,0 +1,157 @@
+package repository;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.stream.Stream;
+import model.Course;
+import model.Enrollment;
+import model.MeetingTime;
+import model.WeeklySchedule;
+import util.RowConsumer;
+
+/** SQL for the enrollments table. Every method runs on the caller's connection. */
+public final class EnrollmentRepository {
+    // A graded enrollment is a finished course: it stays on record for prerequisites and GPA
+    // but no longer counts toward the credit load or meets in the student's week
+    private static final String NOT_GRADED = "(e.grade IS NULL OR TRIM(e.grade) = '')";
+
+    // Course credits and meeting time, duplicate flag and current credit total in one round-trip.
+    // The one-row derived table keeps a row coming back when the course does not exist.
+    private static final NamedQuery CHECK = QueryRegistry.define("enrollment.check",
+            "SELECT c.credit_hours AS course_credits, c.meeting_days, c.meeting_start, c.meeting_end, "
+                    + "EXISTS (SELECT 1 FROM enrollments WHERE student_id = ? AND course_code = ?) AS already_enrolled, "
+                    + "(SELECT COALESCE(SUM(ec.credit_hours), 0) FROM enrollments e "
+                    + " JOIN courses ec ON e.course_code = ec.course_code WHERE e.student_id = ? AND " + NOT_GRADED
+                    + ") AS current_credits "
+                    + "FROM (SELECT 1 AS one) d LEFT JOIN courses c ON c.course_code = ?");
+    private static final NamedQuery INSERT = QueryRegistry.define("enrollment.insert",
+            "INSERT INTO enrollments (student_id, course_code) VALUES (?, ?)");
+    // Credits come from a subquery rather than a join: FOR UPDATE does not reach into subqueries,
+    // so only the enrollment row is locked and other enrolls and drops of the course carry on
+    private static final NamedQuery LOCK_WITH_CREDITS = QueryRegistry.define("enrollment.lockWithCredits",
+            "SELECT e.grade, (SELECT c.credit_hours FROM courses c WHERE c.course_code = e.course_code) AS credit_hours "
+                    + "FROM enrollments e WHERE e.student_id = ? AND e.course_code = ? FOR UPDATE");
+    private static final NamedQuery DELETE = QueryRegistry.define("enrollment.delete",
+            "DELETE FROM enrollments WHERE student_id = ? AND course_code = ?");
+    private static final NamedQuery COURSES_OF_STUDENT = QueryRegistry.define("enrollment.coursesOfStudent",
+            "SELECT c.* FROM courses c JOIN enrollments e ON c.course_code = e.course_code WHERE e.student_id = ?");
+    private static final NamedQuery FOR_STUDENT = QueryRegistry.define("enrollment.forStudent",
+            "SELECT * FROM enrollments WHERE student_id = ?");
+    private static final NamedQuery MEETINGS_OF_STUDENT = QueryRegistry.define("enrollment.meetingsOfStudent",
+            "SELECT c.course_code, c.meeting_days, c.meeting_start, c.meeting_end FROM courses c "
+                    + "JOIN enrollments e ON c.course_code = e.course_code "
+                    + "WHERE e.student_id = ? AND c.meeting_days IS NOT NULL AND " + NOT_GRADED);
+    private static final NamedQuery ALL = QueryRegistry.define("enrollment.all",
+            "SELECT * FROM enrollments ORDER BY enrollment_id");
+    private static final NamedQuery COUNT_FOR_COURSE = QueryRegistry.define("enrollment.countForCourse",
+            "SELECT COUNT(*) FROM enrollments WHERE course_code = ?");
+
+    private EnrollmentRepository() {
+    }
+
+    /** What an enroll needs to know before it writes anything. */
+    public static Check check(Connection conn, String studentId, String courseCode) throws SQLException {
+        try (PreparedStatement stmt = CHECK.prepare(conn)) {
+            stmt.setString(1, studentId);
+            stmt.setString(2, courseCode);
+            stmt.setString(3, studentId);
+            stmt.setString(4, courseCode);
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                int credits = rs.getInt("course_credits");
+                Integer courseCredits = rs.wasNull() ? null : credits;
+                return new Check(courseCredits, RowMappers.meetingTime(rs), rs.getBoolean("already_enrolled"),
+                        rs.getInt("current_credits"));
+            }
+        }
+    }
+
+    public static void insert(Connection conn, String studentId, String courseCode) throws SQLException {
+        INSERT.update(conn, studentId, courseCode);
+    }
+
+    /**
+     * Locks the enrollment row, and not its course's, until the transaction ends.
+     * @return its grade and credits, or null if none.
+     */
+    public static Locked lockWithCredits(Connection conn, String studentId, String courseCode) throws SQLException {
+        return LOCK_WITH_CREDITS.first(conn,
+                rs -> new Locked(rs.getString("grade"), rs.getInt("credit_hours")), studentId, courseCode);
+    }
+
+    /** @return true if a row was deleted. */
+    public static boolean delete(Connection conn, String studentId, String courseCode) throws SQLException {
+        return DELETE.update(conn, studentId, courseCode) > 0;
+    }
+
+    /** Courses the student is currently enrolled in. */
+    public static List<Course> coursesOfStudent(Connection conn, String studentId) throws SQLException {
+        return COURSES_OF_STUDENT.list(conn, RowMappers.COURSE, studentId);
+    }
+
+    /** The student's enrollment rows, graded or not. */
+    public static List<Enrollment> forStudent(Connection conn, String studentId) throws SQLException {
+        return FOR_STUDENT.list(conn, RowMappers.ENROLLMENT, studentId);
+    }
+
+    /** The weekly schedule of the student's ungraded courses that have a set meeting time. */
+    public static WeeklySchedule scheduleOf(Connection conn, String studentId) throws SQLException {
+        WeeklySchedule schedule = new WeeklySchedule();
+        try (PreparedStatement stmt = MEETINGS_OF_STUDENT.prepare(conn)) {
+            stmt.setString(1, studentId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) schedule.add(rs.getString("course_code"), RowMappers.meetingTime(rs));
+            }
+        }
+        return schedule;
+    }
+
+    public static int countForCourse(Connection conn, String courseCode) throws SQLException {
+        Integer count = COUNT_FOR_COURSE.first(conn, rs -> rs.getInt(1), courseCode);
+        return count == null ? 0 : count;
+    }
+
+    /** Streams every enrollment in the database, oldest first. */
+    public static long forEachEnrollment(Connection conn, RowConsumer<Enrollment> consumer)
+            throws SQLException, IOException {
+        return ALL.forEach(conn, RowMappers.ENROLLMENT, consumer);
+    }
+
+    /** Every enrollment as a lazy stream; close it to release the statement. */
+    public static Stream<Enrollment> streamAll(Connection conn) throws SQLException {
+        return ALL.stream(conn, RowMappers.ENROLLMENT);
+    }
+
+    /** Result of {@link #check}. */
+    public static final class Check {
+        /** Credit hours of the course, or null if there is no such course. */
+        public final Integer courseCredits;
+        /** When the course meets, or null if it has no set time. */
+        public final MeetingTime meetingTime;
+        public final boolean alreadyEnrolled;
+        /** Credit hours of the student's ungraded enrollments, i.e. the courses they are taking now. */
+        public final int currentCredits;
+
+        Check(Integer courseCredits, MeetingTime meetingTime, boolean alreadyEnrolled, int currentCredits) {
+            this.courseCredits = courseCredits;
+            this.meetingTime = meetingTime;
+            this.alreadyEnrolled = alreadyEnrolled;
+            this.currentCredits = currentCredits;
+        }
+    }
+
+    /** An enrollment locked by {@link #lockWithCredits}. */
+    public static final class Locked {
+        public final String grade;
+        public final int creditHours;
+
+        Locked(String grade, int creditHours) {
+            this.grade = grade;
+            this.creditHours = creditHours;
+        }
+    }
+}
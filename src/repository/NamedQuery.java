@@ -0,0 +1,190 @@
+package repository;
+
+import config.DBConnection;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import util.GroupConsumer;
+import util.RowConsumer;
+import util.RowMapper;
+import util.UncheckedSQLException;
+
+/** A SQL statement registered under a name in {@link QueryRegistry}. */
+public final class NamedQuery {
+    private final String name;
+    private final String sql;
+
+    NamedQuery(String name, String sql) {
+        this.name = name;
+        this.sql = sql;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    /** Prepares the statement on {@code conn}; a pooled connection hands back its cached copy if it has one. */
+    public PreparedStatement prepare(Connection conn) throws SQLException {
+        return conn.prepareStatement(sql);
+    }
+
+    /** Runs the query with {@code params} bound in order and maps every row. */
+    public <T> List<T> list(Connection conn, RowMapper<T> mapper, Object... params) throws SQLException {
+        List<T> rows = new ArrayList<>();
+        try (PreparedStatement stmt = prepare(conn)) {
+            bind(stmt, params);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) rows.add(mapper.map(rs));
+            }
+        }
+        return rows;
+    }
+
+    /** Runs the query and maps its first row, or returns null if there is none. */
+    public <T> T first(Connection conn, RowMapper<T> mapper, Object... params) throws SQLException {
+        try (PreparedStatement stmt = prepare(conn)) {
+            bind(stmt, params);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? mapper.map(rs) : null;
+            }
+        }
+    }
+
+    /** Runs an INSERT/UPDATE/DELETE and returns the number of rows it changed. */
+    public int update(Connection conn, Object... params) throws SQLException {
+        try (PreparedStatement stmt = prepare(conn)) {
+            bind(stmt, params);
+            return stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Prepares the statement for reading a large result as a stream: forward-only,
+     * read-only and with the given fetch size. Not taken from the statement cache.
+     */
+    public PreparedStatement prepareStreaming(Connection conn, int fetchSize) throws SQLException {
+        PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        try {
+            stmt.setFetchSize(fetchSize);
+        } catch (SQLException e) {
+            stmt.close();
+            throw e;
+        }
+        return stmt;
+    }
+
+    /**
+     * Runs the query and hands each row to {@code consumer} as it is read, so memory
+     * use does not grow with the result. On MySQL the connection can run nothing else
+     * until this returns, so the consumer must not query through {@code conn}.
+     * @return the number of rows read.
+     */
+    public <T> long forEach(Connection conn, RowMapper<T> mapper, RowConsumer<T> consumer, Object... params)
+            throws SQLException, IOException {
+        long rows = 0;
+        try (PreparedStatement stmt = prepareStreaming(conn, DBConnection.streamFetchSize())) {
+            bind(stmt, params);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    consumer.accept(mapper.map(rs));
+                    rows++;
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Like {@link #forEach}, but collects consecutive rows with the same value in
+     * {@code keyColumn} and hands them over together. The query must be ordered by
+     * that column; only one group is held in memory at a time.
+     * @return the number of groups.
+     */
+    public <T> long forEachGroup(Connection conn, String keyColumn, RowMapper<T> mapper, GroupConsumer<T> consumer,
+                                 Object... params) throws SQLException, IOException {
+        long groups = 0;
+        try (PreparedStatement stmt = prepareStreaming(conn, DBConnection.streamFetchSize())) {
+            bind(stmt, params);
+            try (ResultSet rs = stmt.executeQuery()) {
+                String key = null;
+                List<T> group = new ArrayList<>();
+                while (rs.next()) {
+                    String rowKey = rs.getString(keyColumn);
+                    if (!group.isEmpty() && !rowKey.equals(key)) {
+                        consumer.accept(key, group);
+                        groups++;
+                        group = new ArrayList<>();
+                    }
+                    key = rowKey;
+                    group.add(mapper.map(rs));
+                }
+                if (!group.isEmpty()) {
+                    consumer.accept(key, group);
+                    groups++;
+                }
+            }
+        }
+        return groups;
+    }
+
+    /**
+     * Runs the query and returns its rows as a lazy Stream that reads from the
+     * database as it is consumed. Close the stream (try-with-resources) to release
+     * the statement; {@code conn} stays the caller's. Read errors surface as
+     * {@link UncheckedSQLException}.
+     */
+    public <T> Stream<T> stream(Connection conn, RowMapper<T> mapper, Object... params) throws SQLException {
+        PreparedStatement stmt = prepareStreaming(conn, DBConnection.streamFetchSize());
+        ResultSet rs;
+        try {
+            bind(stmt, params);
+            rs = stmt.executeQuery();
+        } catch (SQLException e) {
+            stmt.close();
+            throw e;
+        }
+        Spliterator<T> rows = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE, Spliterator.ORDERED) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                try {
+                    if (!rs.next()) return false;
+                    action.accept(mapper.map(rs));
+                    return true;
+                } catch (SQLException e) {
+                    throw new UncheckedSQLException(e);
+                }
+            }
+        };
+        return StreamSupport.stream(rows, false).onClose(() -> {
+            try {
+                stmt.close();  // closes rs too
+            } catch (SQLException e) {
+                throw new UncheckedSQLException(e);
+            }
+        });
+    }
+
+    private static void bind(PreparedStatement stmt, Object[] params) throws SQLException {
+        for (int i = 0; i < params.length; i++) {
+            stmt.setObject(i + 1, params[i]);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
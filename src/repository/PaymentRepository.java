@@ -0,0 +1,113 @@
+package repository;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+import model.AccountBalance;
+import model.LedgerEntry;
+import model.PaymentEntry;
+import util.GroupConsumer;
+
+/**
+ * SQL for the tuition ledger (ledger_entries) and the running totals in
+ * student_balance. Amounts are in minor units (1/100 QAR) throughout.
+ * Every method runs on the caller's connection.
+ */
+public final class PaymentRepository {
+    private static final String COURSE_ENTRY_TYPES = "('" + LedgerEntry.CHARGE + "', '" + LedgerEntry.REFUND + "')";
+
+    // Dropped courses net to zero and are left out
+    private static final NamedQuery CHARGES_BY_COURSE = QueryRegistry.define("ledger.chargesByCourse",
+            "SELECT course_code, MAX(credit_hours) AS credit_hours, SUM(amount_minor) AS amount_minor "
+                    + "FROM ledger_entries WHERE student_id = ? AND entry_type IN " + COURSE_ENTRY_TYPES + " "
+                    + "GROUP BY course_code HAVING SUM(amount_minor) <> 0 ORDER BY course_code");
+    // Every student's charges for the tuition export, ordered so each student's rows arrive together
+    private static final NamedQuery ALL_CHARGES = QueryRegistry.define("ledger.allChargesByStudent",
+            "SELECT student_id, course_code, MAX(credit_hours) AS credit_hours, SUM(amount_minor) AS amount_minor "
+                    + "FROM ledger_entries WHERE entry_type IN " + COURSE_ENTRY_TYPES + " "
+                    + "GROUP BY student_id, course_code HAVING SUM(amount_minor) <> 0 "
+                    + "ORDER BY student_id, course_code");
+    private static final NamedQuery NET_CHARGE = QueryRegistry.define("ledger.netCharge",
+            "SELECT SUM(amount_minor), MAX(credit_hours) FROM ledger_entries "
+                    + "WHERE student_id = ? AND course_code = ? AND entry_type IN " + COURSE_ENTRY_TYPES);
+    private static final NamedQuery FIND_BY_KEY = QueryRegistry.define("ledger.findByKey",
+            "SELECT * FROM ledger_entries WHERE idempotency_key = ?");
+    private static final NamedQuery INSERT_ENTRY = QueryRegistry.define("ledger.insert",
+            "INSERT INTO ledger_entries (student_id, entry_type, course_code, credit_hours, amount_minor, "
+                    + "idempotency_key) VALUES (?, ?, ?, ?, ?, ?)");
+
+    private static final NamedQuery FIND_BALANCE = QueryRegistry.define("balance.find",
+            "SELECT charged_minor, paid_minor FROM student_balance WHERE student_id = ?");
+    private static final NamedQuery LOCK_BALANCE = QueryRegistry.define("balance.lock",
+            "SELECT charged_minor, paid_minor FROM student_balance WHERE student_id = ? FOR UPDATE");
+    private static final NamedQuery ADD_TO_BALANCE = QueryRegistry.define("balance.add",
+            // The amounts are bound twice rather than read back with VALUES(), which MySQL deprecates;
+            // its replacement, a row alias, is not understood by H2
+            "INSERT INTO student_balance (student_id, charged_minor, paid_minor) VALUES (?, ?, ?) "
+                    + "ON DUPLICATE KEY UPDATE charged_minor = charged_minor + ?, paid_minor = paid_minor + ?");
+
+    private PaymentRepository() {
+    }
+
+    /** Net tuition per course still on the student's account, by course code. */
+    public static List<PaymentEntry> chargesByCourse(Connection conn, String studentId) throws SQLException {
+        return CHARGES_BY_COURSE.list(conn, RowMappers.PAYMENT_ENTRY, studentId);
+    }
+
+    /** Streams {@link #chargesByCourse} for every student with charges, one student at a time. */
+    public static long forEachStudentCharges(Connection conn, GroupConsumer<PaymentEntry> consumer)
+            throws SQLException, IOException {
+        return ALL_CHARGES.forEachGroup(conn, "student_id", RowMappers.PAYMENT_ENTRY, consumer);
+    }
+
+    /** Charges net of refunds for one course, as a CHARGE entry (amount 0 if nothing is charged). */
+    public static LedgerEntry netCharge(Connection conn, String studentId, String courseCode) throws SQLException {
+        return NET_CHARGE.first(conn, rs -> new LedgerEntry(studentId, LedgerEntry.CHARGE, courseCode,
+                rs.getObject(2, Integer.class), rs.getLong(1), null), studentId, courseCode);
+    }
+
+    /** The entry recorded under an idempotency key, or null. */
+    public static LedgerEntry findByKey(Connection conn, String idempotencyKey) throws SQLException {
+        return FIND_BY_KEY.first(conn, rs -> new LedgerEntry(rs.getString("student_id"), rs.getString("entry_type"),
+                rs.getString("course_code"), rs.getObject("credit_hours", Integer.class),
+                rs.getLong("amount_minor"), rs.getString("idempotency_key")), idempotencyKey);
+    }
+
+    public static void insert(Connection conn, LedgerEntry entry) throws SQLException {
+        try (PreparedStatement stmt = INSERT_ENTRY.prepare(conn)) {
+            stmt.setString(1, entry.getStudentId());
+            stmt.setString(2, entry.getType());
+            stmt.setString(3, entry.getCourseCode());
+            if (entry.getCreditHours() == null) {
+                stmt.setNull(4, Types.INTEGER);
+            } else {
+                stmt.setInt(4, entry.getCreditHours());
+            }
+            stmt.setLong(5, entry.getAmountMinor());
+            stmt.setString(6, entry.getIdempotencyKey());
+            stmt.executeUpdate();
+        }
+    }
+
+    /** The student's running totals, or null if they have no ledger activity. */
+    public static AccountBalance findBalance(Connection conn, String studentId) throws SQLException {
+        return FIND_BALANCE.first(conn, rs -> new AccountBalance(studentId,
+                BigDecimal.valueOf(rs.getLong(1), 2), BigDecimal.valueOf(rs.getLong(2), 2)), studentId);
+    }
+
+    /** Locks the student's balance row until the transaction ends. @return what they owe, in minor units. */
+    public static long lockOutstanding(Connection conn, String studentId) throws SQLException {
+        Long outstanding = LOCK_BALANCE.first(conn, rs -> rs.getLong(1) - rs.getLong(2), studentId);
+        return outstanding == null ? 0 : outstanding;
+    }
+
+    /** Adds to the student's running totals, creating their row on first use. */
+    public static void addToBalance(Connection conn, String studentId, long chargedMinor, long paidMinor)
+            throws SQLException {
+        ADD_TO_BALANCE.update(conn, studentId, chargedMinor, paidMinor, chargedMinor, paidMinor);
+    }
+}
@@ -0,0 +1,41 @@
+package repository;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import model.Prerequisite;
+
+/** SQL for the course_prerequisites table. Every method runs on the caller's connection. */
+public final class PrerequisiteRepository {
+    private static final NamedQuery FIND_ALL = QueryRegistry.define("prerequisite.findAll",
+            "SELECT course_code, required_code, kind FROM course_prerequisites");
+    private static final NamedQuery INSERT = QueryRegistry.define("prerequisite.insert",
+            "INSERT INTO course_prerequisites (course_code, required_code, kind) VALUES (?, ?, ?)");
+    private static final NamedQuery DELETE = QueryRegistry.define("prerequisite.delete",
+            "DELETE FROM course_prerequisites WHERE course_code = ? AND required_code = ?");
+    private static final NamedQuery DELETE_FOR_COURSE = QueryRegistry.define("prerequisite.deleteForCourse",
+            "DELETE FROM course_prerequisites WHERE course_code = ? OR required_code = ?");
+
+    private PrerequisiteRepository() {
+    }
+
+    /** Every requirement of every course. */
+    public static List<Prerequisite> findAll(Connection conn) throws SQLException {
+        return FIND_ALL.list(conn, RowMappers.PREREQUISITE);
+    }
+
+    /** @throws java.sql.SQLIntegrityConstraintViolationException if the course already requires that one. */
+    public static void insert(Connection conn, Prerequisite prerequisite) throws SQLException {
+        INSERT.update(conn, prerequisite.getCourseCode(), prerequisite.getRequiredCode(), prerequisite.getKind());
+    }
+
+    /** @return true if a row was deleted. */
+    public static boolean delete(Connection conn, String courseCode, String requiredCode) throws SQLException {
+        return DELETE.update(conn, courseCode, requiredCode) > 0;
+    }
+
+    /** Removes the course's own requirements and every requirement on it, e.g. when it is deleted. */
+    public static void deleteForCourse(Connection conn, String courseCode) throws SQLException {
+        DELETE_FOR_COURSE.update(conn, courseCode, courseCode);
+    }
+}
@@ -0,0 +1,97 @@
+package repository;
+
+import config.DBConnection;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+import util.Trace;
+
+/**
+ * Every named statement the repositories run. Names are unique and show up
+ * in the SQL metrics and JFR events instead of a name derived from the text.
+ *
+ * {@link #validateAll()} prepares each statement once against the configured
+ * database, so a typo or a column a migration forgot fails at startup rather
+ * than on the first click that needs it.
+ */
+public final class QueryRegistry {
+    private static final Logger logger = Logger.getLogger(QueryRegistry.class.getName());
+
+    // Repositories define their statements in static fields, i.e. when the class initializes
+    private static final List<Class<?>> REPOSITORIES = List.of(
+            CourseRepository.class, EnrollmentRepository.class, PaymentRepository.class,
+            PrerequisiteRepository.class, TranscriptRepository.class, UserRepository.class,
+            WaitlistRepository.class);
+
+    private static final Map<String, NamedQuery> queries = new LinkedHashMap<>();
+
+    private QueryRegistry() {
+    }
+
+    /**
+     * Registers a statement.
+     * @throws IllegalStateException if the name is already taken.
+     */
+    static synchronized NamedQuery define(String name, String sql) {
+        if (queries.containsKey(name)) {
+            throw new IllegalStateException("Query '" + name + "' is defined twice.");
+        }
+        NamedQuery query = new NamedQuery(name, sql);
+        queries.put(name, query);
+        Trace.nameStatement(sql, name);
+        return query;
+    }
+
+    /** Every registered statement, in definition order. */
+    public static synchronized List<NamedQuery> all() {
+        return new ArrayList<>(queries.values());
+    }
+
+    /**
+     * Prepares every registered statement on {@code conn}.
+     * @return one "name: error" line per statement the database rejected.
+     */
+    public static List<String> validate(Connection conn) {
+        List<String> failures = new ArrayList<>();
+        for (NamedQuery query : all()) {
+            try {
+                // Preparing is enough: the server resolves tables and columns at this point
+                query.prepare(conn).close();
+            } catch (SQLException e) {
+                failures.add(query.getName() + ": " + e.getMessage());
+            }
+        }
+        return failures;
+    }
+
+    /**
+     * Loads every repository and validates its statements against the configured database.
+     * @return the number of statements validated.
+     * @throws IllegalStateException listing the statements the database rejected.
+     * @throws SQLException if no connection could be obtained.
+     */
+    public static int validateAll() throws SQLException {
+        for (Class<?> repository : REPOSITORIES) {
+            try {
+                Class.forName(repository.getName(), true, repository.getClassLoader());
+            } catch (ClassNotFoundException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        List<String> failures;
+        try (Connection conn = DBConnection.getConnection()) {
+            failures = validate(conn);
+        }
+        if (!failures.isEmpty()) {
+            throw new IllegalStateException(failures.size() + " named queries failed to prepare:\n  "
+                    + String.join("\n  ", failures));
+        }
+        int count = all().size();
+        logger.info("Validated " + count + " named queries.");
+        return count;
+    }
+}
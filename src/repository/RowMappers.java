@@ -0,0 +1,99 @@
+package repository;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import model.Course;
+import model.Enrollment;
+import model.MeetingTime;
+import model.PaymentEntry;
+import model.Prerequisite;
+import model.TranscriptEntry;
+import model.User;
+import model.WaitlistEntry;
+import util.RowMapper;
+
+/** ResultSet-to-model mappings shared by every query that reads these tables. */
+public class RowMappers {
+    /** Maps a row of {@code courses} (or any select of its columns). */
+    public static final RowMapper<Course> COURSE = rs -> {
+        Course course = new Course(
+                rs.getString("course_code"),
+                rs.getString("course_name"),
+                rs.getInt("credit_hours"),
+                rs.getString("instructor_name"),
+                rs.getString("course_description"),
+                rs.getInt("capacity")  // NULL (no limit) reads as 0
+        );
+        course.setMeetingTime(meetingTime(rs));
+        return course;
+    };
+
+    /** The meeting_days/meeting_start/meeting_end columns of the row; null when it has no set time. */
+    public static MeetingTime meetingTime(ResultSet rs) throws SQLException {
+        return MeetingTime.fromColumns(rs.getString("meeting_days"),
+                rs.getInt("meeting_start"), rs.getInt("meeting_end"));
+    }
+
+    /** Maps a row of {@code enrollments}, including its generated id. */
+    public static final RowMapper<Enrollment> ENROLLMENT = rs -> {
+        Enrollment enrollment = new Enrollment(
+                rs.getString("student_id"),
+                rs.getString("course_code"),
+                rs.getString("semester"),
+                rs.getString("grade")
+        );
+        enrollment.setEnrollmentId(rs.getInt("enrollment_id"));
+        return enrollment;
+    };
+
+    /** Maps a row of {@code users}, including the password hash and salt. */
+    public static final RowMapper<User> USER = rs -> {
+        User user = new User(
+                rs.getString("id"),
+                rs.getString("name"),
+                rs.getString("email"),
+                rs.getString("role"),
+                rs.getString("password")
+        );
+        user.setSalt(rs.getString("salt"));
+        return user;
+    };
+
+    /** Maps an enrollment joined with its course; an ungraded course shows as {@link TranscriptEntry#IN_PROGRESS}. */
+    public static final RowMapper<TranscriptEntry> TRANSCRIPT_ENTRY = rs -> {
+        String grade = rs.getString("grade");
+        return new TranscriptEntry(
+                rs.getString("course_code"),
+                rs.getString("course_name"),
+                rs.getInt("credit_hours"),
+                grade == null || grade.isEmpty() ? TranscriptEntry.IN_PROGRESS : grade
+        );
+    };
+
+    /** Maps a course's net tuition from the ledger (course_code, credit_hours, amount_minor). */
+    public static final RowMapper<PaymentEntry> PAYMENT_ENTRY = rs -> new PaymentEntry(
+            rs.getString("course_code"),
+            rs.getInt("credit_hours"),
+            BigDecimal.valueOf(rs.getLong("amount_minor"), 2)
+    );
+
+    /** Maps a row of {@code course_prerequisites}. */
+    public static final RowMapper<Prerequisite> PREREQUISITE = rs -> new Prerequisite(
+            rs.getString("course_code"),
+            rs.getString("required_code"),
+            rs.getString("kind")
+    );
+
+    /** Maps a row of {@code waitlist_entries}. */
+    public static final RowMapper<WaitlistEntry> WAITLIST_ENTRY = rs -> new WaitlistEntry(
+            rs.getLong("entry_id"),
+            rs.getString("course_code"),
+            rs.getString("student_id"),
+            rs.getInt("priority"),
+            rs.getTimestamp("requested_at")
+    );
+
+    private RowMappers() {
+    }
+}
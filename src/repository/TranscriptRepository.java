@@ -0,0 +1,46 @@
+package repository;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import model.TranscriptEntry;
+import util.GroupConsumer;
+
+/** SQL for transcripts: enrollments joined with their courses. Every method runs on the caller's connection. */
+public final class TranscriptRepository {
+    private static final NamedQuery FOR_STUDENT = QueryRegistry.define("transcript.forStudent",
+            "SELECT c.course_code, c.course_name, c.credit_hours, e.grade "
+                    + "FROM enrollments e JOIN courses c ON e.course_code = c.course_code "
+                    + "WHERE e.student_id = ?");
+    // Ordered so each student's rows arrive together
+    private static final NamedQuery ALL = QueryRegistry.define("transcript.all",
+            "SELECT e.student_id, c.course_code, c.course_name, c.credit_hours, e.grade "
+                    + "FROM enrollments e JOIN courses c ON e.course_code = c.course_code "
+                    + "ORDER BY e.student_id, c.course_code");
+    // Only what goes on an official transcript: courses with a grade
+    private static final NamedQuery ALL_GRADED = QueryRegistry.define("transcript.allGraded",
+            "SELECT e.student_id, c.course_code, c.course_name, c.credit_hours, e.grade "
+                    + "FROM enrollments e JOIN courses c ON e.course_code = c.course_code "
+                    + "WHERE e.grade IS NOT NULL AND TRIM(e.grade) <> '' "
+                    + "ORDER BY e.student_id, c.course_code");
+
+    private TranscriptRepository() {
+    }
+
+    public static List<TranscriptEntry> forStudent(Connection conn, String studentId) throws SQLException {
+        return FOR_STUDENT.list(conn, RowMappers.TRANSCRIPT_ENTRY, studentId);
+    }
+
+    /** Streams every student's transcript, one student at a time, ordered by student ID. */
+    public static long forEachStudent(Connection conn, GroupConsumer<TranscriptEntry> consumer)
+            throws SQLException, IOException {
+        return ALL.forEachGroup(conn, "student_id", RowMappers.TRANSCRIPT_ENTRY, consumer);
+    }
+
+    /** Like {@link #forEachStudent} but graded courses only; students with none are skipped. */
+    public static long forEachGradedStudent(Connection conn, GroupConsumer<TranscriptEntry> consumer)
+            throws SQLException, IOException {
+        return ALL_GRADED.forEachGroup(conn, "student_id", RowMappers.TRANSCRIPT_ENTRY, consumer);
+    }
+}
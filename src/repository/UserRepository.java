@@ -0,0 +1,76 @@
+package repository;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+import model.User;
+
+/** SQL for the users table. Every method runs on the caller's connection. */
+public final class UserRepository {
+    private static final NamedQuery FIND_BY_ID = QueryRegistry.define("user.findById",
+            "SELECT * FROM users WHERE id = ?");
+    private static final NamedQuery INSERT = QueryRegistry.define("user.insert",
+            "INSERT INTO users (id, name, email, password, salt, role) VALUES (?, ?, ?, ?, ?, ?)");
+    // Only if the hash is still the one we verified, so a concurrent password change wins
+    private static final NamedQuery REPLACE_PASSWORD = QueryRegistry.define("user.replacePassword",
+            "UPDATE users SET password = ?, salt = ? WHERE id = ? AND password = ?");
+    // Locks the student's row; concurrent enrolls/drops for the same student queue here,
+    // those for different students do not block each other.
+    private static final NamedQuery LOCK = QueryRegistry.define("user.lock",
+            "SELECT id FROM users WHERE id = ? FOR UPDATE");
+    // Same lock for a batch of IDs in one round trip; short batches repeat their last ID
+    private static final int LOCK_BATCH = 100;
+    private static final NamedQuery LOCK_BATCH_OF = QueryRegistry.define("user.lockBatch",
+            "SELECT id FROM users WHERE id IN (?" + ", ?".repeat(LOCK_BATCH - 1) + ") ORDER BY id FOR UPDATE");
+
+    private UserRepository() {
+    }
+
+    /**
+     * Locks several students' rows, in ID order so that two transactions locking
+     * overlapping sets cannot deadlock. IDs without a row are skipped.
+     */
+    public static void lockInOrder(Connection conn, Collection<String> ids) throws SQLException {
+        List<String> sorted = new ArrayList<>(new TreeSet<>(ids));
+        if (sorted.size() == 1) {
+            LOCK.first(conn, rs -> rs.getString(1), sorted.get(0));
+            return;
+        }
+        for (int from = 0; from < sorted.size(); from += LOCK_BATCH) {
+            List<String> batch = sorted.subList(from, Math.min(sorted.size(), from + LOCK_BATCH));
+            Object[] params = new Object[LOCK_BATCH];
+            for (int i = 0; i < LOCK_BATCH; i++) {
+                params[i] = batch.get(Math.min(i, batch.size() - 1));
+            }
+            LOCK_BATCH_OF.list(conn, rs -> rs.getString(1), params);
+        }
+    }
+
+    /** The user with that university ID, or null. */
+    public static User findById(Connection conn, String id) throws SQLException {
+        return FIND_BY_ID.first(conn, RowMappers.USER, id);
+    }
+
+    /**
+     * Inserts the user with its hash and salt.
+     * @throws java.sql.SQLIntegrityConstraintViolationException if the ID or e-mail is taken.
+     */
+    public static void insert(Connection conn, User user) throws SQLException {
+        INSERT.update(conn, user.getId(), user.getName(), user.getEmail(), user.getPasswordHash(),
+                user.getSalt(), user.getRole());
+    }
+
+    /** Swaps in a new hash and salt if the stored hash is still {@code expectedHash}. */
+    public static boolean replacePassword(Connection conn, String id, String expectedHash,
+                                          String newHash, String newSalt) throws SQLException {
+        return REPLACE_PASSWORD.update(conn, newHash, newSalt, id, expectedHash) > 0;
+    }
+
+    /** Locks the user's row until the transaction ends. @return false if there is no such user. */
+    public static boolean lock(Connection conn, String id) throws SQLException {
+        return LOCK.first(conn, rs -> Boolean.TRUE, id) != null;
+    }
+}
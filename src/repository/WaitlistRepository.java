@@ -0,0 +1,76 @@
+package repository;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import model.WaitlistEntry;
+
+/** SQL for the waitlist_entries table. Every method runs on the caller's connection. */
+public final class WaitlistRepository {
+    private static final String SERVING_ORDER = " ORDER BY priority DESC, requested_at, entry_id";
+
+    private static final NamedQuery INSERT = QueryRegistry.define("waitlist.insert",
+            "INSERT INTO waitlist_entries (course_code, student_id, priority) VALUES (?, ?, ?)");
+    private static final NamedQuery FIND = QueryRegistry.define("waitlist.find",
+            "SELECT * FROM waitlist_entries WHERE course_code = ? AND student_id = ?");
+    private static final NamedQuery DELETE = QueryRegistry.define("waitlist.delete",
+            "DELETE FROM waitlist_entries WHERE course_code = ? AND student_id = ?");
+    private static final NamedQuery DELETE_FOR_COURSE = QueryRegistry.define("waitlist.deleteForCourse",
+            "DELETE FROM waitlist_entries WHERE course_code = ?");
+    private static final NamedQuery FOR_COURSE = QueryRegistry.define("waitlist.forCourse",
+            "SELECT * FROM waitlist_entries WHERE course_code = ?" + SERVING_ORDER);
+    private static final NamedQuery HEAD = QueryRegistry.define("waitlist.head",
+            "SELECT * FROM waitlist_entries WHERE course_code = ?" + SERVING_ORDER + " LIMIT ?");
+    // The next students after a given entry, in serving order; spelled out rather than as a row
+    // comparison because priority runs the other way
+    private static final NamedQuery HEAD_AFTER = QueryRegistry.define("waitlist.headAfter",
+            "SELECT * FROM waitlist_entries WHERE course_code = ? AND (priority < ? OR (priority = ? "
+                    + "AND (requested_at > ? OR (requested_at = ? AND entry_id > ?))))" + SERVING_ORDER + " LIMIT ?");
+    private static final NamedQuery FOR_STUDENT = QueryRegistry.define("waitlist.forStudent",
+            "SELECT * FROM waitlist_entries WHERE student_id = ? ORDER BY course_code");
+
+    private WaitlistRepository() {
+    }
+
+    /** @throws java.sql.SQLIntegrityConstraintViolationException if the student is already waiting for it. */
+    public static void insert(Connection conn, String courseCode, String studentId, int priority)
+            throws SQLException {
+        INSERT.update(conn, courseCode, studentId, priority);
+    }
+
+    /** The student's entry for the course, or null if they are not waiting for it. */
+    public static WaitlistEntry find(Connection conn, String courseCode, String studentId) throws SQLException {
+        return FIND.first(conn, RowMappers.WAITLIST_ENTRY, courseCode, studentId);
+    }
+
+    /** @return true if a row was deleted. */
+    public static boolean delete(Connection conn, String courseCode, String studentId) throws SQLException {
+        return DELETE.update(conn, courseCode, studentId) > 0;
+    }
+
+    public static void deleteForCourse(Connection conn, String courseCode) throws SQLException {
+        DELETE_FOR_COURSE.update(conn, courseCode);
+    }
+
+    /** Everyone waiting for the course, first to be served first. */
+    public static List<WaitlistEntry> forCourse(Connection conn, String courseCode) throws SQLException {
+        return FOR_COURSE.list(conn, RowMappers.WAITLIST_ENTRY, courseCode);
+    }
+
+    /** The first {@code limit} students to be served for the course. */
+    public static List<WaitlistEntry> head(Connection conn, String courseCode, int limit) throws SQLException {
+        return HEAD.list(conn, RowMappers.WAITLIST_ENTRY, courseCode, limit);
+    }
+
+    /** The first {@code limit} students to be served for the course after {@code after}, which may have left. */
+    public static List<WaitlistEntry> headAfter(Connection conn, String courseCode, WaitlistEntry after, int limit)
+            throws SQLException {
+        return HEAD_AFTER.list(conn, RowMappers.WAITLIST_ENTRY, courseCode, after.getPriority(), after.getPriority(),
+                after.getRequestedAt(), after.getRequestedAt(), after.getEntryId(), limit);
+    }
+
+    /** The courses the student is waiting for. */
+    public static List<WaitlistEntry> forStudent(Connection conn, String studentId) throws SQLException {
+        return FOR_STUDENT.list(conn, RowMappers.WAITLIST_ENTRY, studentId);
+    }
+}
@@ -0,0 +1,29 @@
+package server;
+
+/** Ends a request with the given HTTP status and a JSON {"error": message} body. */
+public class ApiException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final int status;
+
+    public ApiException(int status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public static ApiException badRequest(String message) {
+        return new ApiException(400, message);
+    }
+
+    public static ApiException notFound(String message) {
+        return new ApiException(404, message);
+    }
+
+    public static ApiException forbidden() {
+        return new ApiException(403, "Not allowed.");
+    }
+}
@@ -0,0 +1,150 @@
+package server;
+
+import com.sun.net.httpserver.HttpExchange;
+import util.Json;
+import util.Session;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/** One API request: path and query parameters, the JSON body and the caller. */
+public class ApiExchange {
+    private static final int MAX_BODY_BYTES = Integer.getInteger("api.maxBodyBytes", 1 << 20);
+
+    private final HttpExchange http;
+    private final Map<String, String> pathParams;
+    private final Map<String, String> query;
+    private final Session session;
+    private Map<String, Object> body;
+    private int status = 200;
+    private boolean streamed;
+
+    ApiExchange(HttpExchange http, Map<String, String> pathParams, Session session) {
+        this.http = http;
+        this.pathParams = pathParams;
+        this.query = parseQuery(http.getRequestURI().getRawQuery());
+        this.session = session;
+    }
+
+    /** The caller's session, or null for public endpoints. */
+    public Session getSession() {
+        return session;
+    }
+
+    public String path(String name) {
+        return pathParams.get(name);
+    }
+
+    /** A query parameter, or {@code defaultValue} when absent. */
+    public String query(String name, String defaultValue) {
+        String v = query.get(name);
+        return v == null ? defaultValue : v;
+    }
+
+    public int queryInt(String name, int defaultValue, int min, int max) {
+        String v = query.get(name);
+        if (v == null) return defaultValue;
+        try {
+            return Math.max(min, Math.min(max, Integer.parseInt(v)));
+        } catch (NumberFormatException e) {
+            throw ApiException.badRequest("Query parameter '" + name + "' must be a number.");
+        }
+    }
+
+    /** A request header, or null when absent. */
+    public String header(String name) {
+        return http.getRequestHeaders().getFirst(name);
+    }
+
+    /** The request body parsed as a JSON object. */
+    public Map<String, Object> body() throws IOException {
+        if (body == null) {
+            byte[] bytes;
+            try (InputStream in = http.getRequestBody()) {
+                bytes = in.readNBytes(MAX_BODY_BYTES + 1);
+            }
+            if (bytes.length > MAX_BODY_BYTES) {
+                throw new ApiException(413, "Request body too large.");
+            }
+            try {
+                body = Json.parseObject(new String(bytes, StandardCharsets.UTF_8));
+            } catch (IllegalArgumentException e) {
+                throw ApiException.badRequest("Invalid JSON: " + e.getMessage());
+            }
+        }
+        return body;
+    }
+
+    /** A required string field of the body. */
+    public String string(String field) throws IOException {
+        Object v = body().get(field);
+        if (!(v instanceof String) || ((String) v).trim().isEmpty()) {
+            throw ApiException.badRequest("Field '" + field + "' is required.");
+        }
+        return ((String) v).trim();
+    }
+
+    /** Sets the status sent with the handler's result (200 by default). */
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    int getStatus() {
+        return status;
+    }
+
+    /**
+     * Sends the response body as {@code body} writes it, chunked and without buffering,
+     * for exports too large to hold in memory. The handler then returns null. If
+     * {@code body} fails part way, the status has already gone out and the client
+     * gets a truncated body.
+     */
+    public void stream(String contentType, BodyWriter body) throws IOException, SQLException {
+        http.getResponseHeaders().set("Content-Type", contentType);
+        http.sendResponseHeaders(status, 0);
+        streamed = true;
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(http.getResponseBody(), StandardCharsets.UTF_8))) {
+            body.writeTo(out);
+        }
+    }
+
+    /** True once {@link #stream} has sent the response. */
+    boolean isStreamed() {
+        return streamed;
+    }
+
+    void send(int status, Object payload) throws IOException {
+        byte[] bytes = Json.write(payload).getBytes(StandardCharsets.UTF_8);
+        http.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        http.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = http.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /** Produces a streamed response body. */
+    @FunctionalInterface
+    public interface BodyWriter {
+        void writeTo(Writer out) throws IOException, SQLException;
+    }
+
+    private static Map<String, String> parseQuery(String raw) {
+        Map<String, String> params = new HashMap<>();
+        if (raw == null || raw.isEmpty()) return params;
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            params.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+}
@@ -0,0 +1,575 @@
+package server;
+
+import config.DBConnection;
+import config.PoolStats;
+import model.AcademicSummary;
+import model.AccountBalance;
+import model.Course;
+import model.Enrollment;
+import model.MeetingTime;
+import model.PaymentEntry;
+import model.TranscriptEntry;
+import model.User;
+import service.AcademicSummaryService;
+import service.AuthService;
+import service.BulkGradeReport;
+import service.CatalogPageSource;
+import service.CourseCatalog;
+import service.EnrollmentResult;
+import service.EnrollmentService;
+import service.GradeChange;
+import service.GradeScale;
+import service.GradeService;
+import service.PaymentResult;
+import service.PaymentService;
+import service.PrerequisiteGraph;
+import service.ReportService;
+import service.TranscriptService;
+import service.WaitlistResult;
+import service.WaitlistService;
+import util.Metrics;
+import util.OperationStats;
+import util.PageQuery;
+import util.Session;
+import util.SessionManager;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The API endpoints. Each one validates its input the same way the matching
+ * desktop screen does and then calls the service layer.
+ *
+ * Students may only read and change their own records; course management
+ * needs the instructor or admin role, as on the dashboard. Rosters and grades
+ * of a course are open to admins and the instructor who teaches it only.
+ */
+public class ApiRoutes {
+    private static final int MAX_PAGE = 200;
+    // Shared by every client; it keeps one sorted view per distinct query and never blocks
+    private static final CatalogPageSource catalogPages = new CatalogPageSource();
+
+    static void register(ApiServer server) {
+        server.publicRoute("GET", "/api/health", ApiRoutes::health);
+        server.route("GET", "/api/metrics", ApiRoutes::metrics);
+        server.route("GET", "/api/reports/enrollments", ex -> csvReport(ex, ReportService::writeEnrollmentsCsv));
+        server.route("GET", "/api/reports/transcripts", ex -> csvReport(ex, ReportService::writeTranscriptsCsv));
+        server.route("GET", "/api/reports/charges", ex -> csvReport(ex, ReportService::writeChargesCsv));
+        server.publicRoute("POST", "/api/login", ApiRoutes::login);
+        server.publicRoute("POST", "/api/register", ApiRoutes::register);
+        server.route("POST", "/api/logout", ex -> {
+            SessionManager.logout(ex.getSession().getToken());
+            return null;
+        });
+
+        server.route("GET", "/api/courses", ApiRoutes::listCourses);
+        server.route("GET", "/api/courses/seats", ApiRoutes::seats);
+        server.route("POST", "/api/courses", ApiRoutes::addCourse);
+        server.route("PUT", "/api/courses/{code}", ApiRoutes::updateCourse);
+        server.route("DELETE", "/api/courses/{code}", ApiRoutes::deleteCourse);
+        server.route("GET", "/api/courses/{code}/prerequisites", ApiRoutes::prerequisites);
+        server.route("POST", "/api/courses/{code}/prerequisites", ApiRoutes::addPrerequisite);
+        server.route("DELETE", "/api/courses/{code}/prerequisites/{required}", ApiRoutes::removePrerequisite);
+
+        server.route("GET", "/api/students/{id}/courses", ApiRoutes::enrolledCourses);
+        server.route("POST", "/api/students/{id}/enrollments", ApiRoutes::enroll);
+        server.route("DELETE", "/api/students/{id}/enrollments/{code}", ApiRoutes::drop);
+        server.route("GET", "/api/students/{id}/waitlist", ApiRoutes::waitlist);
+        server.route("POST", "/api/students/{id}/waitlist", ApiRoutes::joinWaitlist);
+        server.route("DELETE", "/api/students/{id}/waitlist/{code}", ApiRoutes::leaveWaitlist);
+        server.route("GET", "/api/students/{id}/transcript", ApiRoutes::transcript);
+        server.route("GET", "/api/students/{id}/payments", ApiRoutes::payments);
+        server.route("POST", "/api/students/{id}/payments", ApiRoutes::pay);
+
+        server.route("GET", "/api/instructors/me/courses", ApiRoutes::instructorCourses);
+        server.route("GET", "/api/courses/{code}/roster", ApiRoutes::roster);
+        server.route("PUT", "/api/enrollments/{enrollmentId}/grade", ApiRoutes::updateGrade);
+        server.route("POST", "/api/courses/{code}/grades", ApiRoutes::bulkGrades);
+    }
+
+    // --- Authentication ---
+
+    private static Object login(ApiExchange ex) throws Exception {
+        User user = AuthService.login(ex.string("id"), ex.string("password"));
+        if (user == null) throw new ApiException(401, "Invalid ID or password.");
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("token", SessionManager.login(user.getId(), user.getName(), user.getRole()).getToken());
+        out.put("user", user(user));
+        return out;
+    }
+
+    private static Object register(ApiExchange ex) throws Exception {
+        String name = ex.string("name");
+        String email = ex.string("email");
+        String password = ex.string("password");
+        Object roleField = ex.body().get("role");
+        // Anyone can call this, so it only creates students; instructor accounts are made on the desktop
+        if (roleField != null && !"student".equalsIgnoreCase(roleField.toString())) {
+            throw ApiException.forbidden();
+        }
+        String problem = AuthService.validateRegistration(name, email, password);
+        if (problem != null) throw ApiException.badRequest(problem);
+        String id = AuthService.register(name, email, password, "student");
+        if (id == null) throw new ApiException(409, "Registration failed. The email may already be in use.");
+        ex.setStatus(201);
+        return Map.of("id", id);
+    }
+
+    // --- Courses ---
+
+    private static Object listCourses(ApiExchange ex) throws Exception {
+        PageQuery query = new PageQuery(ex.query("sort", null),
+                !"false".equals(ex.query("asc", "true")), ex.query("filter", ""));
+        Course after = null;
+        String cursor = ex.query("after", null);
+        if (cursor != null) {
+            after = CourseCatalog.getCourse(cursor);
+            if (after == null) throw ApiException.badRequest("Unknown course '" + cursor + "' in 'after'.");
+        }
+        int limit = ex.queryInt("limit", 50, 1, MAX_PAGE);
+        List<Course> page = catalogPages.fetchPage(query, after, limit);
+        List<Object> items = new ArrayList<>();
+        for (Course c : page) items.add(course(c));
+        return page(items, page.size() == limit ? page.get(page.size() - 1).getCourseCode() : null);
+    }
+
+    private static Object addCourse(ApiExchange ex) throws Exception {
+        requireStaff(ex);
+        Course course = courseFromBody(ex, ex.string("courseCode"));
+        CourseCatalog.addCourse(course);
+        ex.setStatus(201);
+        return course(course);
+    }
+
+    /** Replaces a course's details; the body is the same as for adding one, minus the code. */
+    private static Object updateCourse(ApiExchange ex) throws Exception {
+        requireStaff(ex);
+        Course course = courseFromBody(ex, ex.path("code"));
+        if (!CourseCatalog.updateCourse(course)) throw ApiException.notFound("No such course.");
+        return course(course);
+    }
+
+    private static Course courseFromBody(ApiExchange ex, String code) throws IOException {
+        Object hours = ex.body().get("creditHours");
+        if (!(hours instanceof Long)) throw ApiException.badRequest("Credit hours must be a number.");
+        Object description = ex.body().get("courseDescription");
+        Object capacity = ex.body().get("capacity");
+        if (capacity != null && (!(capacity instanceof Long) || (Long) capacity < 1)) {
+            throw ApiException.badRequest("Capacity must be a positive number, or omitted for no limit.");
+        }
+        Course course = new Course(code, ex.string("courseName"), ((Long) hours).intValue(),
+                ex.string("instructorName"), description == null ? "" : description.toString(),
+                capacity == null ? 0 : ((Long) capacity).intValue());
+        Object meetingTime = ex.body().get("meetingTime");
+        if (meetingTime != null) course.setMeetingTime(MeetingTime.parse(meetingTime.toString()));
+        return course;
+    }
+
+    /** Seats taken in every course with a seat limit; poll this rather than re-listing the catalog. */
+    private static Object seats(ApiExchange ex) throws Exception {
+        Map<String, Object> out = new LinkedHashMap<>();
+        for (Map.Entry<String, Integer> e : new TreeMap<>(EnrollmentService.getSeatsTaken()).entrySet()) {
+            Course c = CourseCatalog.getCourse(e.getKey());
+            if (c == null || !c.hasSeatLimit()) continue;
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("capacity", c.getCapacity());
+            m.put("seatsTaken", e.getValue());
+            m.put("seatsLeft", Math.max(0, c.getCapacity() - e.getValue()));
+            out.put(e.getKey(), m);
+        }
+        return out;
+    }
+
+    private static Object deleteCourse(ApiExchange ex) throws Exception {
+        requireStaff(ex);
+        String code = ex.path("code");
+        if (EnrollmentService.countEnrollments(code) > 0) {
+            throw new ApiException(409, "Cannot delete course " + code + " because students are enrolled in it.");
+        }
+        if (!CourseCatalog.deleteCourse(code)) throw ApiException.notFound("No such course.");
+        return null;
+    }
+
+    /** Direct requirements of a course, and every course to pass before it in an order they can be taken. */
+    private static Object prerequisites(ApiExchange ex) throws Exception {
+        String code = ex.path("code");
+        if (CourseCatalog.getCourse(code) == null) throw ApiException.notFound("No such course.");
+        PrerequisiteGraph graph = CourseCatalog.getPrerequisites();
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("prerequisites", graph.prerequisitesOf(code));
+        out.put("corequisites", graph.corequisitesOf(code));
+        out.put("path", graph.prerequisitePath(code));
+        return out;
+    }
+
+    private static Object addPrerequisite(ApiExchange ex) throws Exception {
+        requireStaff(ex);
+        Object corequisite = ex.body().get("corequisite");
+        if (corequisite != null && !(corequisite instanceof Boolean)) {
+            throw ApiException.badRequest("'corequisite' must be true or false.");
+        }
+        CourseCatalog.addPrerequisite(ex.path("code"), ex.string("requiredCode"), Boolean.TRUE.equals(corequisite));
+        ex.setStatus(201);
+        return prerequisites(ex);
+    }
+
+    private static Object removePrerequisite(ApiExchange ex) throws Exception {
+        requireStaff(ex);
+        if (!CourseCatalog.removePrerequisite(ex.path("code"), ex.path("required"))) {
+            throw ApiException.notFound("The course has no such requirement.");
+        }
+        return null;
+    }
+
+    // --- Student records ---
+
+    private static Object enrolledCourses(ApiExchange ex) throws Exception {
+        String studentId = requireStudentAccess(ex);
+        List<Object> items = new ArrayList<>();
+        for (Course c : EnrollmentService.getEnrolledCourses(studentId)) items.add(course(c));
+        return Map.of("items", items);
+    }
+
+    private static Object enroll(ApiExchange ex) throws Exception {
+        String studentId = requireStudentAccess(ex);
+        String courseCode = ex.string("courseCode");
+        EnrollmentResult result = EnrollmentService.enroll(studentId, courseCode);
+        if (result == EnrollmentResult.PREREQUISITES_NOT_MET) {
+            ex.setStatus(409);
+            return Map.of("result", result.name(),
+                    "missing", EnrollmentService.getEligibility(studentId).missing(courseCode));
+        }
+        switch (result) {
+            case ENROLLED:
+                ex.setStatus(201);
+                break;
+            case COURSE_NOT_FOUND:
+            case STUDENT_NOT_FOUND:
+                ex.setStatus(404);
+                break;
+            default:
+                ex.setStatus(409);
+                break;
+        }
+        return Map.of("result", result.name());
+    }
+
+    private static Object drop(ApiExchange ex) throws Exception {
+        String studentId = requireStudentAccess(ex);
+        if (!EnrollmentService.drop(studentId, ex.path("code"))) {
+            throw ApiException.notFound("Not enrolled in that course.");
+        }
+        return null;
+    }
+
+    private static Object waitlist(ApiExchange ex) throws Exception {
+        String studentId = requireStudentAccess(ex);
+        List<Object> items = new ArrayList<>();
+        WaitlistService.getPositions(studentId).forEach((code, position) -> {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("courseCode", code);
+            item.put("position", position);
+            items.add(item);
+        });
+        return Map.of("items", items);
+    }
+
+    private static Object joinWaitlist(ApiExchange ex) throws Exception {
+        String studentId = requireStudentAccess(ex);
+        String courseCode = ex.string("courseCode");
+        WaitlistResult result = WaitlistService.join(studentId, courseCode);
+        switch (result) {
+            case JOINED:
+                ex.setStatus(201);
+                Integer position = WaitlistService.getPositions(studentId).get(courseCode);
+                return position == null ? Map.of("result", result.name())
+                        : Map.of("result", result.name(), "position", position);
+            case COURSE_NOT_FOUND:
+            case STUDENT_NOT_FOUND:
+                ex.setStatus(404);
+                break;
+            default:
+                ex.setStatus(409);
+                break;
+        }
+        return Map.of("result", result.name());
+    }
+
+    private static Object leaveWaitlist(ApiExchange ex) throws Exception {
+        String studentId = requireStudentAccess(ex);
+        if (!WaitlistService.leave(studentId, ex.path("code"))) {
+            throw ApiException.notFound("Not on the waitlist for that course.");
+        }
+        return null;
+    }
+
+    private static Object transcript(ApiExchange ex) throws Exception {
+        String studentId = requireStudentAccess(ex);
+        List<Object> items = new ArrayList<>();
+        for (TranscriptEntry t : TranscriptService.getTranscript(studentId)) {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("courseCode", t.getCourseCode());
+            m.put("courseName", t.getCourseName());
+            m.put("creditHours", t.getCreditHours());
+            m.put("grade", t.getGrade());
+            items.add(m);
+        }
+        AcademicSummary summary = AcademicSummaryService.getSummary(studentId);
+        Map<String, Object> totals = new LinkedHashMap<>();
+        totals.put("attemptedCredits", summary.getAttemptedCredits());
+        totals.put("earnedCredits", summary.getEarnedCredits());
+        totals.put("qualityPoints", summary.getQualityPoints());
+        totals.put("gpa", summary.getGpa());
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("items", items);
+        out.put("summary", totals);
+        return out;
+    }
+
+    private static Object payments(ApiExchange ex) throws Exception {
+        String studentId = requireStudentAccess(ex);
+        List<Object> items = new ArrayList<>();
+        for (PaymentEntry p : PaymentService.getCharges(studentId)) {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("courseCode", p.getCourseCode());
+            m.put("creditHours", p.getCreditHours());
+            m.put("cost", p.getCost());
+            items.add(m);
+        }
+        AccountBalance balance = PaymentService.getBalance(studentId);
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("items", items);
+        out.put("totalCost", balance.getCharged());
+        out.put("totalPaid", balance.getPaid());
+        out.put("outstanding", balance.getOutstanding());
+        return out;
+    }
+
+    /**
+     * Records a payment. The client picks an idempotency key per payment, sent as the
+     * Idempotency-Key header or an "idempotencyKey" field, and resends it on retry:
+     * the first request answers 201, repeats answer 200 without paying again.
+     */
+    private static Object pay(ApiExchange ex) throws Exception {
+        String studentId = requireStudentAccess(ex);
+        Object amountField = ex.body().get("amount");
+        BigDecimal amount;
+        try {
+            // Numbers are read back from their JSON text so 0.1 stays exactly 0.1
+            amount = new BigDecimal(amountField instanceof Number || amountField instanceof String
+                    ? amountField.toString().trim() : "");
+        } catch (NumberFormatException e) {
+            throw ApiException.badRequest("Invalid amount. Please enter a valid number.");
+        }
+        String key = ex.header("Idempotency-Key");
+        if (key == null) key = ex.string("idempotencyKey");
+        PaymentResult result = PaymentService.recordPayment(studentId, amount, key);
+        if (result == PaymentResult.EXCEEDS_BALANCE) {
+            throw ApiException.badRequest("Payment exceeds the outstanding balance. Please enter a smaller amount.");
+        }
+        if (result == PaymentResult.RECORDED) ex.setStatus(201);
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("amount", amount);
+        out.put("idempotencyKey", key);
+        out.put("status", result.name());
+        return out;
+    }
+
+    // --- Grading ---
+
+    private static Object instructorCourses(ApiExchange ex) throws Exception {
+        requireStaff(ex);
+        return Map.of("items", GradeService.getInstructorCourses(ex.getSession().getUserName()));
+    }
+
+    private static Object roster(ApiExchange ex) throws Exception {
+        String code = ex.path("code");
+        requireCourseStaff(ex, code);
+        PageQuery query = new PageQuery(ex.query("sort", "studentId"),
+                !"false".equals(ex.query("asc", "true")), ex.query("filter", ""));
+        int limit = ex.queryInt("limit", 50, 1, MAX_PAGE);
+        Enrollment after = decodeRosterCursor(ex.query("after", null), code);
+        List<Enrollment> page = GradeService.rosterSource(code).fetchPage(query, after, limit);
+        List<Object> items = new ArrayList<>();
+        for (Enrollment e : page) {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("enrollmentId", e.getEnrollmentId());
+            m.put("studentId", e.getStudentId());
+            m.put("semester", e.getSemester());
+            m.put("grade", e.getGrade());
+            items.add(m);
+        }
+        return page(items, page.size() == limit ? encodeRosterCursor(page.get(page.size() - 1)) : null);
+    }
+
+    private static Object updateGrade(ApiExchange ex) throws Exception {
+        requireStaff(ex);
+        int enrollmentId;
+        try {
+            enrollmentId = Integer.parseInt(ex.path("enrollmentId"));
+        } catch (NumberFormatException e) {
+            throw ApiException.notFound("No such enrollment.");
+        }
+        String code = GradeService.getEnrollmentCourse(enrollmentId);
+        if (code == null) throw ApiException.notFound("No such enrollment.");
+        requireCourseStaff(ex, code);
+        String grade = ex.string("grade").toUpperCase();
+        if (!GradeScale.isValid(grade)) throw ApiException.badRequest("Invalid grade '" + grade + "'.");
+        if (!GradeService.updateGrade(enrollmentId, grade)) throw ApiException.notFound("No such enrollment.");
+        return null;
+    }
+
+    private static Object bulkGrades(ApiExchange ex) throws Exception {
+        requireCourseStaff(ex, ex.path("code"));
+        Object rows = ex.body().get("grades");
+        if (!(rows instanceof List)) throw ApiException.badRequest("Field 'grades' must be a list.");
+        List<GradeChange> changes = new ArrayList<>();
+        int line = 0;
+        for (Object o : (List<?>) rows) {
+            line++;
+            if (!(o instanceof Map)) throw ApiException.badRequest("Entry " + line + " must be an object.");
+            Map<?, ?> m = (Map<?, ?>) o;
+            changes.add(new GradeChange(line, String.valueOf(m.get("studentId")), String.valueOf(m.get("grade"))));
+        }
+        BulkGradeReport report = GradeService.bulkUpdate(ex.path("code"), changes);
+        List<Object> failures = new ArrayList<>();
+        for (BulkGradeReport.Row r : report.getRows()) {
+            if (r.isSuccess()) continue;
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("entry", r.getChange().getLine());
+            m.put("studentId", r.getChange().getStudentId());
+            m.put("message", r.getMessage());
+            failures.add(m);
+        }
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("updated", report.getSuccessCount());
+        out.put("failed", report.getFailureCount());
+        out.put("failures", failures);
+        return out;
+    }
+
+    // --- Operations ---
+
+    private static Object health(ApiExchange ex) {
+        PoolStats pool = DBConnection.getPoolStats();
+        Map<String, Object> p = new LinkedHashMap<>();
+        p.put("active", pool.getActive());
+        p.put("idle", pool.getIdle());
+        p.put("maxSize", pool.getMaxSize());
+        p.put("waiting", pool.getWaitingThreads());
+        p.put("timeouts", pool.getTimeouts());
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("status", "ok");
+        out.put("pool", p);
+        return out;
+    }
+
+    /** The same per-operation stats the Metrics MBean shows over JMX. */
+    private static Object metrics(ApiExchange ex) {
+        requireStaff(ex);
+        List<Object> items = new ArrayList<>();
+        for (OperationStats s : Metrics.snapshot()) {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("name", s.getName());
+            m.put("count", s.getCount());
+            m.put("errors", s.getErrors());
+            m.put("meanMs", s.getMeanMs());
+            m.put("p50Ms", s.getP50Ms());
+            m.put("p90Ms", s.getP90Ms());
+            m.put("p99Ms", s.getP99Ms());
+            m.put("maxMs", s.getMaxMs());
+            items.add(m);
+        }
+        return Map.of("items", items);
+    }
+
+    /** Streams a whole-table CSV export straight from the database to the client. Admins only. */
+    private static Object csvReport(ApiExchange ex, ApiExchange.BodyWriter report) throws Exception {
+        if (!"admin".equalsIgnoreCase(ex.getSession().getUserRole())) throw ApiException.forbidden();
+        ex.stream("text/csv; charset=utf-8", report);
+        return null;
+    }
+
+    // --- Helpers ---
+
+    /** The {id} path parameter, if the caller is that student or staff. */
+    private static String requireStudentAccess(ApiExchange ex) {
+        String studentId = ex.path("id");
+        Session session = ex.getSession();
+        if (!studentId.equals(session.getUserId()) && !isStaff(session)) throw ApiException.forbidden();
+        return studentId;
+    }
+
+    private static void requireStaff(ApiExchange ex) {
+        if (!isStaff(ex.getSession())) throw ApiException.forbidden();
+    }
+
+    /** Admins, or the instructor teaching the course (as listed by /api/instructors/me/courses). */
+    private static void requireCourseStaff(ApiExchange ex, String courseCode) throws SQLException {
+        Session session = ex.getSession();
+        String role = session.getUserRole();
+        if ("admin".equalsIgnoreCase(role)) return;
+        if (!"instructor".equalsIgnoreCase(role)
+                || !GradeService.getInstructorCourses(session.getUserName()).contains(courseCode)) {
+            throw ApiException.forbidden();
+        }
+    }
+
+    private static boolean isStaff(Session session) {
+        String role = session.getUserRole();
+        return role != null && (role.equalsIgnoreCase("admin") || role.equalsIgnoreCase("instructor"));
+    }
+
+    private static Map<String, Object> page(List<Object> items, String next) {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("items", items);
+        out.put("next", next);
+        return out;
+    }
+
+    private static Map<String, Object> user(User u) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("id", u.getId());
+        m.put("name", u.getName());
+        m.put("email", u.getEmail());
+        m.put("role", u.getRole());
+        return m;
+    }
+
+    private static Map<String, Object> course(Course c) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("courseCode", c.getCourseCode());
+        m.put("courseName", c.getCourseName());
+        m.put("creditHours", c.getCreditHours());
+        m.put("capacity", c.hasSeatLimit() ? c.getCapacity() : null);
+        m.put("meetingTime", c.getMeetingTime() == null ? null : c.getMeetingTime().toString());
+        m.put("instructorName", c.getInstructorName());
+        m.put("courseDescription", c.getCourseDescription());
+        return m;
+    }
+
+    // Roster cursors carry the last row's sort keys so the next page can seek past it
+    private static String encodeRosterCursor(Enrollment e) {
+        String raw = e.getEnrollmentId() + "\n" + e.getStudentId() + "\n" + (e.getGrade() == null ? "" : e.getGrade());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Enrollment decodeRosterCursor(String cursor, String courseCode) {
+        if (cursor == null) return null;
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\n", -1);
+            Enrollment e = new Enrollment(parts[1], courseCode, "", parts[2].isEmpty() ? null : parts[2]);
+            e.setEnrollmentId(Integer.parseInt(parts[0]));
+            return e;
+        } catch (RuntimeException ex) {
+            throw ApiException.badRequest("Invalid 'after' cursor.");
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import config.AppConfig;
+import config.DBConnection;
+import repository.QueryRegistry;
+import util.DatabaseLogger;
+import util.Session;
+import util.SessionManager;
+import util.Trace;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Serves the service layer as a JSON API over the JDK's built-in HTTP server,
+ * one virtual thread per request.
+ *
+ * Blocking JDBC calls park the virtual thread instead of pinning a platform
+ * thread, so the number of in-flight requests is bounded by the connection pool
+ * (db.pool.maxSize) rather than by a thread pool. Requests that cannot get a
+ * connection within db.pool.connectionTimeoutMs get 503.
+ *
+ * Callers log in with POST /api/login and send the returned session token as
+ * "Authorization: Bearer &lt;token&gt;"; sessions live in {@link SessionManager}.
+ * Endpoints are registered in {@link ApiRoutes}.
+ */
+public final class ApiServer {
+    private static final Logger logger = Logger.getLogger(ApiServer.class.getName());
+
+    /** Handles one request and returns the object to send back as JSON. */
+    @FunctionalInterface
+    public interface Handler {
+        Object handle(ApiExchange ex) throws Exception;
+    }
+
+    private final HttpServer http;
+    private final ExecutorService executor;
+    private final List<Route> routes = new ArrayList<>();
+
+    public ApiServer(InetSocketAddress address) throws IOException {
+        this.http = HttpServer.create(address, Integer.getInteger("api.backlog", 256));
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        http.setExecutor(executor);
+        http.createContext("/api/", this::dispatch);
+        ApiRoutes.register(this);
+    }
+
+    /** Registers an endpoint that requires a logged-in caller. Path segments like {id} are captured. */
+    public void route(String method, String pattern, Handler handler) {
+        routes.add(new Route(method, pattern, handler, false));
+    }
+
+    /** Registers an endpoint anyone may call. */
+    public void publicRoute(String method, String pattern, Handler handler) {
+        routes.add(new Route(method, pattern, handler, true));
+    }
+
+    public void start() {
+        http.start();
+        logger.info("API listening on " + http.getAddress());
+    }
+
+    /** Stops accepting requests and waits up to {@code delaySeconds} for running ones to finish. */
+    public void stop(int delaySeconds) {
+        http.stop(delaySeconds);
+        executor.shutdown();
+    }
+
+    private static String bearerToken(HttpExchange http) {
+        String header = http.getRequestHeaders().getFirst("Authorization");
+        if (header == null || !header.regionMatches(true, 0, "Bearer ", 0, 7)) return null;
+        return header.substring(7).trim();
+    }
+
+    private void dispatch(HttpExchange http) throws IOException {
+        Trace.Span span = null;
+        try {
+            String method = http.getRequestMethod();
+            String[] segments = split(http.getRequestURI().getRawPath());
+            Route match = null;
+            Map<String, String> params = null;
+            boolean pathExists = false;
+            for (Route r : routes) {
+                Map<String, String> p = r.match(segments);
+                if (p == null) continue;
+                pathExists = true;
+                if (r.method.equals(method)) {
+                    match = r;
+                    params = p;
+                    break;
+                }
+            }
+            if (match == null) {
+                throw pathExists ? new ApiException(405, "Method not allowed.") : ApiException.notFound("No such endpoint.");
+            }
+            // Timed per route pattern, so /api/students/{id}/... is one histogram rather than one per student
+            span = Trace.api(method, match.pattern);
+            Session session = null;
+            if (!match.isPublic) {
+                session = SessionManager.lookup(bearerToken(http));
+                if (session == null) throw new ApiException(401, "Log in first.");
+            }
+            ApiExchange ex = new ApiExchange(http, params, session);
+            // Code that reads SessionManager's current user sees this request's caller
+            SessionManager.bind(session == null ? null : session.getToken());
+            Object result = match.handler.handle(ex);
+            if (!ex.isStreamed()) ex.send(ex.getStatus(), result == null ? Map.of() : result);
+        } catch (ApiException e) {
+            sendError(http, e.getStatus(), e.getMessage());
+        } catch (IllegalArgumentException e) {
+            sendError(http, 400, e.getMessage());
+        } catch (SQLTransientConnectionException | RejectedExecutionException e) {
+            if (span != null) span.fail();
+            sendError(http, 503, "The server is busy. Please try again in a moment.");
+        } catch (SQLException e) {
+            if (span != null) span.fail();
+            logger.log(Level.SEVERE, "Database error on " + http.getRequestURI(), e);
+            sendError(http, 500, "Database error.");
+        } catch (Exception e) {
+            if (span != null) span.fail();
+            logger.log(Level.SEVERE, "Unhandled error on " + http.getRequestURI(), e);
+            sendError(http, 500, "Internal error.");
+        } finally {
+            if (span != null) span.close();
+            SessionManager.unbind();
+            http.close();
+        }
+    }
+
+    private static void sendError(HttpExchange http, int status, String message) {
+        try {
+            Map<String, Object> body = new HashMap<>();
+            body.put("error", message);
+            new ApiExchange(http, Map.of(), null).send(status, body);
+        } catch (IOException | RuntimeException ignored) {
+            // Client went away or headers were already sent
+        }
+    }
+
+    private static String[] split(String rawPath) {
+        String trimmed = rawPath.replaceAll("^/+|/+$", "");
+        String[] parts = trimmed.isEmpty() ? new String[0] : trimmed.split("/+");
+        for (int i = 0; i < parts.length; i++) {
+            parts[i] = URLDecoder.decode(parts[i], StandardCharsets.UTF_8);
+        }
+        return parts;
+    }
+
+    private static final class Route {
+        final String method;
+        final String pattern;
+        final String[] segments;
+        final Handler handler;
+        final boolean isPublic;
+
+        Route(String method, String pattern, Handler handler, boolean isPublic) {
+            this.method = method;
+            this.pattern = pattern;
+            this.segments = split(pattern);
+            this.handler = handler;
+            this.isPublic = isPublic;
+        }
+
+        /** Returns the captured path parameters, or null if the path does not match. */
+        Map<String, String> match(String[] path) {
+            if (path.length != segments.length) return null;
+            Map<String, String> params = new HashMap<>();
+            for (int i = 0; i < segments.length; i++) {
+                String s = segments[i];
+                if (s.startsWith("{") && s.endsWith("}")) {
+                    params.put(s.substring(1, s.length() - 1), path[i]);
+                } else if (!s.equals(path[i])) {
+                    return null;
+                }
+            }
+            return params;
+        }
+    }
+
+    /** Runs the API on -Dapi.port (default 8080) until the process is stopped. */
+    public static void main(String[] args) throws IOException, SQLException {
+        AppConfig.load();
+        // Fail before listening if any named query does not fit the schema
+        QueryRegistry.validateAll();
+        int port = Integer.getInteger("api.port", 8080);
+        String host = System.getProperty("api.host", "0.0.0.0");
+        ApiServer server = new ApiServer(new InetSocketAddress(host, port));
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop(Integer.getInteger("api.stopDelaySec", 5));
+            // Same order as MainApplication.stop(): the logger's final flush needs the pool
+            DatabaseLogger.shutdown();
+            DBConnection.shutdown();
+        }, "api-shutdown"));
+        server.start();
+    }
+}
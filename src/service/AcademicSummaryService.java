@@ -0,0 +1,253 @@
+package service;
+
+import config.DBConnection;
+import model.AcademicSummary;
+import model.TranscriptEntry;
+import java.math.BigDecimal;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps one row of GPA totals per student in student_summary, updated by deltas
+ * whenever a grade changes or a graded enrollment is dropped, so reading a
+ * student's GPA never has to re-scan their enrollments.
+ *
+ * The delta methods take the caller's Connection and must run inside the same
+ * transaction as the enrollment change, after the caller has locked the
+ * student's users row. The table itself is created by
+ * {@link config.SchemaBootstrap}.
+ */
+public class AcademicSummaryService {
+    private static final String SELECT_SQL =
+            "SELECT quality_points, attempted_credits, earned_credits FROM student_summary WHERE student_id = ?";
+
+    /** Returns the student's totals, building the summary row first if it does not exist yet. */
+    public static AcademicSummary getSummary(String studentId) throws SQLException {
+        try (Connection conn = DBConnection.getConnection()) {
+            try (PreparedStatement stmt = conn.prepareStatement(SELECT_SQL)) {
+                stmt.setString(1, studentId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        return new AcademicSummary(studentId, rs.getDouble(1), rs.getInt(2), rs.getInt(3));
+                    }
+                }
+            }
+            // First read for this student: compute from enrollments and remember it
+            AcademicSummary computed = computeFromEnrollments(conn, studentId);
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "INSERT IGNORE INTO student_summary (student_id, quality_points, attempted_credits, earned_credits) "
+                            + "VALUES (?, ?, ?, ?)")) {
+                bind(stmt, computed);
+                stmt.executeUpdate();
+            }
+            return computed;
+        }
+    }
+
+    /**
+     * The student's totals read on the caller's connection, or computed from their
+     * enrollments (and not stored) if they have no summary row yet.
+     */
+    static AcademicSummary readSummary(Connection conn, String studentId) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_SQL)) {
+            stmt.setString(1, studentId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return new AcademicSummary(studentId, rs.getDouble(1), rs.getInt(2), rs.getInt(3));
+                }
+            }
+        }
+        return computeFromEnrollments(conn, studentId);
+    }
+
+    /**
+     * Applies a grade change for one enrollment. Pass null for {@code oldGrade} when a
+     * grade is first assigned, and null for {@code newGrade} when a graded enrollment
+     * is dropped. Must be called after the enrollment row itself has been changed.
+     */
+    public static void applyGradeChange(Connection conn, String studentId, int credits,
+                                        String oldGrade, String newGrade) throws SQLException {
+        boolean exists;
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_SQL + " FOR UPDATE")) {
+            stmt.setString(1, studentId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                exists = rs.next();
+            }
+        }
+        if (!exists) {
+            // No running totals yet; the enrollments already reflect this change
+            AcademicSummary computed = computeFromEnrollments(conn, studentId);
+            // Upsert: a concurrent getSummary() may have inserted an older computation meanwhile.
+            // The totals are bound again for the update rather than read back with the deprecated VALUES()
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "INSERT INTO student_summary (student_id, quality_points, attempted_credits, earned_credits) "
+                            + "VALUES (?, ?, ?, ?) ON DUPLICATE KEY UPDATE "
+                            + "quality_points = ?, attempted_credits = ?, earned_credits = ?")) {
+                bind(stmt, computed);
+                stmt.setBigDecimal(5, BigDecimal.valueOf(computed.getQualityPoints()));
+                stmt.setInt(6, computed.getAttemptedCredits());
+                stmt.setInt(7, computed.getEarnedCredits());
+                stmt.executeUpdate();
+            }
+            return;
+        }
+        Delta d = new Delta();
+        d.add(credits, oldGrade, newGrade);
+        if (d.isZero()) return;
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "UPDATE student_summary SET quality_points = quality_points + ?, "
+                        + "attempted_credits = attempted_credits + ?, earned_credits = earned_credits + ? "
+                        + "WHERE student_id = ?")) {
+            stmt.setBigDecimal(1, d.points);
+            stmt.setInt(2, d.attempted);
+            stmt.setInt(3, d.earned);
+            stmt.setString(4, studentId);
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Applies many grade changes in one JDBC batch, one UPDATE per student. Students
+     * without a summary row are skipped: their row is computed from the (already
+     * updated) enrollments on first read.
+     */
+    static void applyDeltas(Connection conn, Map<String, Delta> deltas) throws SQLException {
+        if (deltas.isEmpty()) return;
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "UPDATE student_summary SET quality_points = quality_points + ?, "
+                        + "attempted_credits = attempted_credits + ?, earned_credits = earned_credits + ? "
+                        + "WHERE student_id = ?")) {
+            for (Map.Entry<String, Delta> entry : deltas.entrySet()) {
+                Delta d = entry.getValue();
+                if (d.isZero()) continue;
+                stmt.setBigDecimal(1, d.points);
+                stmt.setInt(2, d.attempted);
+                stmt.setInt(3, d.earned);
+                stmt.setString(4, entry.getKey());
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    /** Students at or above {@code minGpa} with at least {@code minCredits} graded credits. */
+    public static List<AcademicSummary> findDeansList(double minGpa, int minCredits) throws SQLException {
+        return query("WHERE attempted_credits >= ? AND quality_points >= ? * attempted_credits",
+                minCredits, minGpa);
+    }
+
+    /** Students with graded credits whose GPA is below {@code threshold}. */
+    public static List<AcademicSummary> findProbation(double threshold) throws SQLException {
+        return query("WHERE attempted_credits > 0 AND quality_points < ? * attempted_credits", threshold);
+    }
+
+    /** Recomputes a student's row from their enrollments, e.g. after a manual data fix. */
+    public static AcademicSummary rebuild(String studentId) throws SQLException {
+        try (Connection conn = DBConnection.getConnection()) {
+            AcademicSummary computed = computeFromEnrollments(conn, studentId);
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "REPLACE INTO student_summary (student_id, quality_points, attempted_credits, earned_credits) "
+                            + "VALUES (?, ?, ?, ?)")) {
+                bind(stmt, computed);
+                stmt.executeUpdate();
+            }
+            return computed;
+        }
+    }
+
+    private static List<AcademicSummary> query(String where, Object... params) throws SQLException {
+        List<AcademicSummary> result = new ArrayList<>();
+        try (Connection conn = DBConnection.getConnection()) {
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "SELECT student_id, quality_points, attempted_credits, earned_credits FROM student_summary "
+                            + where + " ORDER BY student_id")) {
+                for (int i = 0; i < params.length; i++) {
+                    stmt.setObject(i + 1, params[i]);
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        result.add(new AcademicSummary(rs.getString(1), rs.getDouble(2), rs.getInt(3), rs.getInt(4)));
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /** Full recomputation using the same rules as the transcript. */
+    private static AcademicSummary computeFromEnrollments(Connection conn, String studentId) throws SQLException {
+        String sql = "SELECT c.credit_hours, e.grade FROM enrollments e "
+                + "JOIN courses c ON e.course_code = c.course_code WHERE e.student_id = ?";
+        BigDecimal points = BigDecimal.ZERO;
+        int attempted = 0;
+        int earned = 0;
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, studentId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    int credits = rs.getInt("credit_hours");
+                    String grade = rs.getString("grade");
+                    points = points.add(qualityPoints(grade, credits));
+                    attempted += attempted(grade, credits);
+                    earned += earned(grade, credits);
+                }
+            }
+        }
+        return new AcademicSummary(studentId, points.doubleValue(), attempted, earned);
+    }
+
+    /** Totals for transcript lines already in hand, by the same rules as the stored summary. */
+    public static AcademicSummary summarize(String studentId, List<TranscriptEntry> entries) {
+        BigDecimal points = BigDecimal.ZERO;
+        int attempted = 0;
+        int earned = 0;
+        for (TranscriptEntry t : entries) {
+            // The transcript shows a label rather than a blank grade for courses in progress
+            String grade = TranscriptEntry.IN_PROGRESS.equals(t.getGrade()) ? null : t.getGrade();
+            points = points.add(qualityPoints(grade, t.getCreditHours()));
+            attempted += attempted(grade, t.getCreditHours());
+            earned += earned(grade, t.getCreditHours());
+        }
+        return new AcademicSummary(studentId, points.doubleValue(), attempted, earned);
+    }
+
+    private static BigDecimal qualityPoints(String grade, int credits) {
+        if (!GradeScale.isGraded(grade)) return BigDecimal.ZERO;
+        return BigDecimal.valueOf(GradeScale.toPoints(grade.trim())).multiply(BigDecimal.valueOf(credits));
+    }
+
+    private static int attempted(String grade, int credits) {
+        return GradeScale.isGraded(grade) ? credits : 0;
+    }
+
+    private static int earned(String grade, int credits) {
+        return GradeScale.isPassing(grade) ? credits : 0;
+    }
+
+    /** Accumulated change to one student's totals. */
+    static final class Delta {
+        BigDecimal points = BigDecimal.ZERO;
+        int attempted;
+        int earned;
+
+        /** Adds the effect of one enrollment's grade going from oldGrade to newGrade. */
+        void add(int credits, String oldGrade, String newGrade) {
+            points = points.add(qualityPoints(newGrade, credits)).subtract(qualityPoints(oldGrade, credits));
+            attempted += attempted(newGrade, credits) - attempted(oldGrade, credits);
+            earned += earned(newGrade, credits) - earned(oldGrade, credits);
+        }
+
+        boolean isZero() {
+            return points.signum() == 0 && attempted == 0 && earned == 0;
+        }
+    }
+
+    private static void bind(PreparedStatement stmt, AcademicSummary s) throws SQLException {
+        stmt.setString(1, s.getStudentId());
+        stmt.setBigDecimal(2, BigDecimal.valueOf(s.getQualityPoints()));
+        stmt.setInt(3, s.getAttemptedCredits());
+        stmt.setInt(4, s.getEarnedCredits());
+    }
+}
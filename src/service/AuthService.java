@@ -2,49 +2,72 @@ package service;
 
 import config.DBConnection;
 import model.User;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
+import repository.UserRepository;
 import java.security.SecureRandom;
-import java.sql.*;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
 import java.util.Base64;
+import java.util.regex.Pattern;
 import java.util.logging.Logger;
 
 public class AuthService {
     private static final Logger logger = Logger.getLogger(AuthService.class.getName());
+    private static final SecureRandom random = new SecureRandom();  // thread-safe; seeding is the expensive part
+    private static final Sha256PasswordHasher legacyHasher = new Sha256PasswordHasher();
+    private static final UniversityIdAllocator idAllocator =
+            new UniversityIdAllocator(Integer.getInteger("auth.id.blockSize", 100));
+    // Inserts retried when the ID turns out to be taken (an account created after its block was scanned)
+    private static final int MAX_ID_ATTEMPTS = 3;
+
+    private static final Pattern NAME_PATTERN = Pattern.compile("^[A-Za-z ]{3,}$");
+    private static final Pattern EMAIL_PATTERN = Pattern.compile("^[\\w.-]+@[\\w.-]+\\.[A-Za-z]{2,}$");
+    private static final Pattern PASSWORD_PATTERN = Pattern.compile("^(?=.*[0-9])(?=.*[A-Za-z])(?=.*[!@#$%^&*]).{8,}$");
 
     /** Generates a random salt string (Base64 encoded). */
     public static String generateSalt() {
         byte[] salt = new byte[16];  // 128-bit salt
-        new SecureRandom().nextBytes(salt);
+        random.nextBytes(salt);
         return Base64.getEncoder().encodeToString(salt);
     }
 
-    /** Generates a unique university ID in the format "60XXXXXX" (X = 1-9). */
-    public static String generateUniversityId() {
-        SecureRandom random = new SecureRandom();
-        StringBuilder id = new StringBuilder("60");
-        for (int i = 0; i < 6; i++) {
-            int digit = 1 + random.nextInt(9);  // 1 to 9
-            id.append(digit);
-        }
-        return id.toString();
+    /**
+     * Returns a new university ID in the format "60XXXXXX", unique across all
+     * nodes. Served from a block reserved in the database, so most calls do not
+     * touch the database at all.
+     */
+    public static String generateUniversityId() throws SQLException {
+        return idAllocator.nextId();
     }
 
-    /** Hashes a password with the given salt using SHA-256. */
+    /** How much of the university ID space is reserved and assigned. */
+    public static IdSpaceUsage getIdSpaceUsage() throws SQLException {
+        return idAllocator.getUsage();
+    }
+
+    /**
+     * Hashes a password with the given salt using the original single-round SHA-256.
+     * Only used for accounts created before PBKDF2; new hashes go through {@link PasswordHashing}.
+     */
     public static String hashPasswordWithSalt(String password, String salt) {
-        try {
-            MessageDigest md = MessageDigest.getInstance("SHA-256");
-            String salted = password + salt;
-            byte[] hash = md.digest(salted.getBytes());
-            StringBuilder sb = new StringBuilder();
-            for (byte b : hash) {
-                sb.append(String.format("%02x", b));
-            }
-            return sb.toString();
-        } catch (NoSuchAlgorithmException e) {
-            // Consider stronger algorithms (PBKDF2, bcrypt, scrypt) in production
-            throw new RuntimeException("SHA-256 algorithm not found.", e);
+        return legacyHasher.hash(password, salt);
+    }
+
+    /**
+     * Checks registration input against the account rules.
+     * @return a message describing the first problem, or null if the input is acceptable.
+     */
+    public static String validateRegistration(String name, String email, String password) {
+        if (name == null || !NAME_PATTERN.matcher(name).matches()) {
+            return "Invalid name. Use at least 3 letters (letters and spaces only).";
+        }
+        if (email == null || !EMAIL_PATTERN.matcher(email).matches()) {
+            return "Invalid email format.";
         }
+        if (password == null || !PASSWORD_PATTERN.matcher(password).matches()) {
+            return "Password must be at least 8 characters and include a number and a special character.";
+        }
+        return null;
     }
 
     /**
@@ -53,55 +76,76 @@ public class AuthService {
      */
 
     public static String register(String name, String email, String password, String role) {
-        String sql = "INSERT INTO users (id, name, email, password, salt, role) VALUES (?, ?, ?, ?, ?, ?)";
-        String universityId = generateUniversityId();
         String salt = generateSalt();
-        String hashed = hashPasswordWithSalt(password, salt);
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setString(1, universityId);
-            stmt.setString(2, name);
-            stmt.setString(3, email);
-            stmt.setString(4, hashed);
-            stmt.setString(5, salt);
-            stmt.setString(6, role);  // Pass the role value here
-            stmt.executeUpdate();
-            return universityId;
-        } catch (SQLIntegrityConstraintViolationException e) {
-            System.out.println("❌ Email already exists.");
-            return null;
+        String hashed = PasswordHashing.hash(password, salt);
+        try (Connection conn = DBConnection.getConnection()) {
+            for (int attempt = 1; ; attempt++) {
+                String universityId = generateUniversityId();
+                User user = new User(universityId, name, email, role, hashed);
+                user.setSalt(salt);
+                try {
+                    UserRepository.insert(conn, user);
+                    return universityId;
+                } catch (SQLIntegrityConstraintViolationException e) {
+                    if (!isPrimaryKeyViolation(e)) {
+                        System.out.println("❌ Email already exists.");
+                        return null;
+                    }
+                    if (attempt == MAX_ID_ATTEMPTS) throw e;
+                    logger.warning("University ID " + universityId + " already taken; retrying with another.");
+                }
+            }
         } catch (SQLException e) {
             logger.severe("SQL Exception in register: " + e.getMessage());
             return null;
         }
     }
 
+    private static boolean isPrimaryKeyViolation(SQLException e) {
+        // MySQL: "Duplicate entry '60123456' for key 'users.PRIMARY'"
+        String message = e.getMessage();
+        return message != null && message.contains("PRIMARY");
+    }
+
     /**
-     * Authenticates a user by ID and password.
+     * Authenticates a user by ID and password. A correct password stored with an
+     * outdated algorithm or cost is transparently rehashed.
      * @return a User object if authentication succeeds, or null if it fails.
+     * @throws java.util.concurrent.RejectedExecutionException if the hashing pool is saturated.
      */
     public static User login(String studentId, String password) {
-        String sql = "SELECT * FROM users WHERE id = ?";
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setString(1, studentId);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                String salt = rs.getString("salt");
-                String storedHash = rs.getString("password");
-                String inputHash = hashPasswordWithSalt(password, salt);
-                if (storedHash.equals(inputHash)) {
-                    // Successful authentication: create User object
-                    return new User(rs.getString("id"),
-                            rs.getString("name"),
-                            rs.getString("email"),
-                            rs.getString("role"),
-                            storedHash);
-                }
-            }
+        User candidate;
+        try (Connection conn = DBConnection.getConnection()) {
+            candidate = UserRepository.findById(conn, studentId);
         } catch (SQLException e) {
             logger.severe("SQL Exception in login: " + e.getMessage());
+            return null;
+        }
+        if (candidate == null) return null;
+
+        // Hash outside the connection so a slow hash does not hold a pooled connection
+        PasswordHashing.Verification check =
+                PasswordHashing.verify(password, candidate.getSalt(), candidate.getPasswordHash());
+        if (!check.matches()) return null;
+        if (check.needsRehash()) {
+            rehash(candidate, password);
+        }
+        return candidate;
+    }
+
+    /** Re-stores the password with the current default algorithm and a fresh salt. */
+    private static void rehash(User user, String password) {
+        String newSalt = generateSalt();
+        String newHash = PasswordHashing.hash(password, newSalt);
+        try (Connection conn = DBConnection.getConnection()) {
+            // Skipped if the password was changed concurrently
+            if (UserRepository.replacePassword(conn, user.getId(), user.getPasswordHash(), newHash, newSalt)) {
+                user.setPasswordHash(newHash);
+                user.setSalt(newSalt);
+            }
+        } catch (SQLException e) {
+            // The old hash still works; try again next login
+            logger.warning("Password rehash failed for " + user.getId() + ": " + e.getMessage());
         }
-        return null;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,66 @@
+package service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/** Per-row outcome of a bulk grade update. */
+public class BulkGradeReport {
+    /** Outcome of one requested change. */
+    public static class Row {
+        private final GradeChange change;
+        private final boolean success;
+        private final String message;
+
+        Row(GradeChange change, boolean success, String message) {
+            this.change = change;
+            this.success = success;
+            this.message = message;
+        }
+
+        public GradeChange getChange() { return change; }
+        public boolean isSuccess() { return success; }
+        public String getMessage() { return message; }
+    }
+
+    private final List<Row> rows = new ArrayList<>();
+
+    void succeeded(GradeChange change) {
+        rows.add(new Row(change, true, "Updated"));
+    }
+
+    void failed(GradeChange change, String message) {
+        rows.add(new Row(change, false, message));
+    }
+
+    public List<Row> getRows() { return Collections.unmodifiableList(rows); }
+
+    public int getSuccessCount() {
+        int n = 0;
+        for (Row r : rows) if (r.success) n++;
+        return n;
+    }
+
+    public int getFailureCount() {
+        return rows.size() - getSuccessCount();
+    }
+
+    /** Short human-readable summary listing the first few failures. */
+    public String summarize(int maxFailures) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(getSuccessCount()).append(" grade(s) updated, ")
+          .append(getFailureCount()).append(" failed.");
+        int shown = 0;
+        for (Row r : rows) {
+            if (r.success) continue;
+            if (shown++ == maxFailures) {
+                sb.append("\n...");
+                break;
+            }
+            sb.append('\n');
+            if (r.change.getLine() > 0) sb.append("Line ").append(r.change.getLine()).append(": ");
+            sb.append(r.change.getStudentId()).append(" - ").append(r.message);
+        }
+        return sb.toString();
+    }
+}
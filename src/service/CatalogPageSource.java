@@ -0,0 +1,127 @@
+package service;
+
+import model.Course;
+import util.PageQuery;
+import util.PageSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Pages over the cached course catalog. The catalog is already held in memory by
+ * {@link CourseCatalog}, so sorting and filtering happen here rather than in SQL;
+ * each page is a binary search plus a sublist of the sorted view.
+ *
+ * The filter is a type-ahead search (see {@link CourseSearchIndex}). With no sort
+ * property, filtered results come best match first; unfiltered ones by course code.
+ * Courses matching the {@link #setHidden hidden} predicate are left out of every page.
+ */
+public class CatalogPageSource implements PageSource<Course> {
+    private static final Map<String, Comparator<Course>> SORT_KEYS = new HashMap<>();
+
+    static {
+        SORT_KEYS.put("courseCode", Comparator.comparing(Course::getCourseCode));
+        SORT_KEYS.put("courseName", Comparator.comparing(c -> lower(c.getCourseName())));
+        SORT_KEYS.put("creditHours", Comparator.comparingInt(Course::getCreditHours));
+        SORT_KEYS.put("instructorName", Comparator.comparing(c -> lower(c.getInstructorName())));
+        SORT_KEYS.put("courseDescription", Comparator.comparing(c -> lower(c.getCourseDescription())));
+    }
+
+    // Sorted/filtered views by query, each reused while the catalog snapshot it was built from is current.
+    // Views are immutable, so readers never wait: a stale or missing one is rebuilt by whoever asks first
+    // and replaces the old entry, and two threads racing on the same query just build it twice.
+    private static final int MAX_VIEWS = 64;
+    private final Map<PageQuery, View> views = new ConcurrentHashMap<>();
+    private volatile Predicate<Course> hidden;
+
+    /**
+     * Leaves courses matching {@code hidden} out of the pages from now on, or none
+     * if it is null. The predicate may be called from a background thread.
+     * Callers reload their table afterwards.
+     */
+    public void setHidden(Predicate<Course> hidden) {
+        this.hidden = hidden;
+        views.clear();
+    }
+
+    /** Safe to call from many threads at once, e.g. one source shared by every API client. */
+    @Override
+    public List<Course> fetchPage(PageQuery query, Course after, int limit) throws SQLException {
+        List<Course> catalog = CourseCatalog.getCourses();
+        Predicate<Course> hidden = this.hidden;
+        View view = views.get(query);
+        if (view == null || view.source != catalog || view.hidden != hidden) {
+            view = buildView(catalog, query, hidden);
+            // One view per distinct sort and filter; type-ahead leaves many behind, so start over when full
+            if (views.size() >= MAX_VIEWS) views.clear();
+            views.put(query, view);
+        }
+        int start = 0;
+        if (after != null) {
+            // First index strictly after 'after' in view order
+            int pos = Collections.binarySearch(view.rows, after, view.order);
+            start = pos >= 0 ? pos + 1 : -pos - 1;
+        }
+        int end = Math.min(view.rows.size(), start + limit);
+        return start >= end ? List.of() : new ArrayList<>(view.rows.subList(start, end));
+    }
+
+    private static View buildView(List<Course> catalog, PageQuery query, Predicate<Course> hidden)
+            throws SQLException {
+        Comparator<Course> key = query.getSortProperty() == null
+                ? null : SORT_KEYS.get(query.getSortProperty());
+        List<Course> rows;
+        if (query.getFilter().isEmpty()) {
+            rows = new ArrayList<>(catalog);
+        } else {
+            List<CourseSearchIndex.Hit> hits = CourseCatalog.search(query.getFilter());
+            rows = new ArrayList<>(hits.size());
+            Map<String, Integer> scores = new HashMap<>();
+            for (CourseSearchIndex.Hit hit : hits) {
+                rows.add(hit.getCourse());
+                scores.put(hit.getCourse().getCourseCode(), hit.getScore());
+            }
+            if (key == null) {
+                // The 'after' cursor may be a course that no longer matches; it ranks below every hit
+                key = Comparator.comparingInt(
+                        (Course c) -> scores.getOrDefault(c.getCourseCode(), Integer.MIN_VALUE)).reversed();
+            }
+        }
+        if (hidden != null) rows.removeIf(hidden);
+        // Course code is unique, so it makes the order total
+        Comparator<Course> order = key == null
+                ? Comparator.comparing(Course::getCourseCode)
+                : key.thenComparing(Course::getCourseCode);
+        if (!query.isAscending()) {
+            order = order.reversed();
+        }
+        rows.sort(order);
+        return new View(catalog, hidden, rows, order);
+    }
+
+    /** One query's rows in page order, and the catalog snapshot and hidden predicate they came from. */
+    private static final class View {
+        final List<Course> source;
+        final Predicate<Course> hidden;
+        final List<Course> rows;
+        final Comparator<Course> order;
+
+        View(List<Course> source, Predicate<Course> hidden, List<Course> rows, Comparator<Course> order) {
+            this.source = source;
+            this.hidden = hidden;
+            this.rows = rows;
+            this.order = order;
+        }
+    }
+
+    private static String lower(String s) {
+        return s == null ? "" : s.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,322 @@
+package service;
+
+import config.DBConnection;
+import model.Course;
+import model.Prerequisite;
+import repository.CourseRepository;
+import repository.PrerequisiteRepository;
+import repository.WaitlistRepository;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Process-wide cache of the course catalog, keyed by course code.
+ *
+ * The whole catalog is held as one immutable snapshot. A snapshot is reused
+ * until its TTL runs out; in between, a one-row read of catalog_version tells
+ * us whether another client changed the catalog, without re-pulling the table.
+ * Writes made through this class go to the database first and then drop the
+ * snapshot, so the next read sees them.
+ *
+ * The prerequisite graph is part of the snapshot: prerequisite changes bump
+ * the same catalog version, so both are always loaded together.
+ *
+ * The Course objects handed out are shared; treat them as read-only.
+ */
+public class CourseCatalog {
+    private static final Logger logger = Logger.getLogger(CourseCatalog.class.getName());
+
+    private static final long TTL_MS = Long.getLong("catalog.cache.ttlMs", 300_000L);
+    private static final long VERSION_CHECK_MS = Long.getLong("catalog.cache.versionCheckMs", 5_000L);
+    private static final int MAX_ENTRIES = Integer.getInteger("catalog.cache.maxEntries", 20_000);
+
+    private static volatile Snapshot snapshot;
+    // Bumped by every invalidate(). A snapshot is only served unchecked while it is valid for
+    // the current generation, so one a reload published just after a write invalidated the
+    // cache (loaded before that write) is revalidated rather than served for VERSION_CHECK_MS
+    private static final AtomicLong generation = new AtomicLong();
+    private static final Object loadLock = new Object();
+    private static final CourseSearchIndex searchIndex = new CourseSearchIndex();
+
+    /** Returns every course, ordered by course code. */
+    public static List<Course> getCourses() throws SQLException {
+        return current().courses;
+    }
+
+    /** Looks up one course by code, or returns null if it does not exist. */
+    public static Course getCourse(String courseCode) throws SQLException {
+        return current().byCode.get(courseCode);
+    }
+
+    /** Prerequisites and corequisites of every course in the catalog. */
+    public static PrerequisiteGraph getPrerequisites() throws SQLException {
+        return current().prerequisites;
+    }
+
+    /**
+     * Type-ahead search over code, name, instructor and description: courses
+     * containing a word starting with each word of {@code query}, best match first.
+     * Served from an in-memory index that follows the cached catalog.
+     */
+    public static List<CourseSearchIndex.Hit> search(String query) throws SQLException {
+        searchIndex.sync(current().courses);
+        return searchIndex.search(query);
+    }
+
+    /**
+     * Returns the catalog version this process last saw. Clients can compare it
+     * against {@link #fetchVersion()} to decide whether their view is stale.
+     */
+    public static long getCachedVersion() {
+        Snapshot s = snapshot;
+        return s == null ? -1 : s.version;
+    }
+
+    /** Reads the current catalog version from the database (a single-row lookup). */
+    public static long fetchVersion() throws SQLException {
+        try (Connection conn = DBConnection.getConnection()) {
+            return CourseRepository.catalogVersion(conn);
+        }
+    }
+
+    /** Drops the cached snapshot; the next read reloads from the database. */
+    public static void invalidate() {
+        generation.incrementAndGet();
+        snapshot = null;
+    }
+
+    /** Inserts a course, bumps the catalog version and invalidates the cache. */
+    public static void addCourse(Course course) throws SQLException {
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                CourseRepository.insert(conn, course);
+                CourseRepository.bumpCatalogVersion(conn);
+                conn.commit();
+                searchIndex.put(course);
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } finally {
+            invalidate();
+        }
+    }
+
+    /**
+     * Saves new details for an existing course, bumps the catalog version and
+     * invalidates the cache. Waiting students are then promoted into any seats
+     * the change opens up (see {@link EnrollmentService#promoteWaiting}).
+     * @return false if there is no course with that code.
+     */
+    public static boolean updateCourse(Course course) throws SQLException {
+        boolean updated;
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                updated = CourseRepository.update(conn, course);
+                if (updated) {
+                    CourseRepository.bumpCatalogVersion(conn);
+                }
+                conn.commit();
+                if (updated) searchIndex.put(course);
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } finally {
+            invalidate();
+        }
+        // After invalidating, so the promotion checks run against the edited course
+        if (updated) EnrollmentService.promoteWaiting(course.getCourseCode());
+        return updated;
+    }
+
+    /**
+     * Deletes a course, bumps the catalog version and invalidates the cache.
+     * @return true if a row was deleted.
+     */
+    public static boolean deleteCourse(String courseCode) throws SQLException {
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                boolean deleted = CourseRepository.delete(conn, courseCode);
+                if (deleted) {
+                    PrerequisiteRepository.deleteForCourse(conn, courseCode);
+                    WaitlistRepository.deleteForCourse(conn, courseCode);
+                    CourseRepository.bumpCatalogVersion(conn);
+                }
+                conn.commit();
+                if (deleted) {
+                    searchIndex.remove(courseCode);
+                    WaitlistService.invalidate(courseCode);
+                }
+                return deleted;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } finally {
+            invalidate();
+        }
+    }
+
+    /**
+     * Makes {@code courseCode} require {@code requiredCode}, as a prerequisite or a
+     * corequisite, then bumps the catalog version and invalidates the cache.
+     * @throws IllegalArgumentException if either course does not exist, they are the
+     *         same course, the requirement is already there, or a prerequisite would
+     *         close a cycle.
+     */
+    public static void addPrerequisite(String courseCode, String requiredCode, boolean corequisite)
+            throws SQLException {
+        Snapshot s = current();
+        if (!s.byCode.containsKey(courseCode) || !s.byCode.containsKey(requiredCode)) {
+            throw new IllegalArgumentException("No such course.");
+        }
+        if (courseCode.equals(requiredCode)) {
+            throw new IllegalArgumentException("A course cannot require itself.");
+        }
+        // Checked against the cached graph; two staff adding opposite edges at the same
+        // moment could still close a cycle, which the graph then reports on load
+        if (!corequisite && s.prerequisites.wouldCreateCycle(courseCode, requiredCode)) {
+            throw new IllegalArgumentException(requiredCode + " already requires " + courseCode
+                    + ", directly or through other courses.");
+        }
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                PrerequisiteRepository.insert(conn, new Prerequisite(courseCode, requiredCode,
+                        corequisite ? Prerequisite.COREQUISITE : Prerequisite.PREREQUISITE));
+                CourseRepository.bumpCatalogVersion(conn);
+                conn.commit();
+            } catch (SQLIntegrityConstraintViolationException e) {
+                conn.rollback();
+                throw new IllegalArgumentException(courseCode + " already requires " + requiredCode + ".");
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } finally {
+            invalidate();
+        }
+    }
+
+    /**
+     * Drops a requirement, bumps the catalog version and invalidates the cache.
+     * Students waiting for the course who now qualify are promoted into any free seats.
+     * @return true if a row was deleted.
+     */
+    public static boolean removePrerequisite(String courseCode, String requiredCode) throws SQLException {
+        boolean deleted;
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                deleted = PrerequisiteRepository.delete(conn, courseCode, requiredCode);
+                if (deleted) {
+                    CourseRepository.bumpCatalogVersion(conn);
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } finally {
+            invalidate();
+        }
+        if (deleted) EnrollmentService.promoteWaiting(courseCode);
+        return deleted;
+    }
+
+    /** Returns a usable snapshot, revalidating or reloading it as needed. */
+    private static Snapshot current() throws SQLException {
+        Snapshot s = snapshot;
+        long now = System.currentTimeMillis();
+        if (s != null && s.generation == generation.get()
+                && now - s.loadedAt < TTL_MS && now - s.checkedAt < VERSION_CHECK_MS) {
+            return s;
+        }
+        synchronized (loadLock) {
+            s = snapshot;
+            now = System.currentTimeMillis();
+            if (s != null && now - s.loadedAt < TTL_MS) {
+                if (s.generation == generation.get() && now - s.checkedAt < VERSION_CHECK_MS) {
+                    return s;  // another thread revalidated while we waited
+                }
+                try (Connection conn = DBConnection.getConnection()) {
+                    // Taken before the version, which then reflects every write invalidated so far
+                    long gen = generation.get();
+                    if (CourseRepository.catalogVersion(conn) == s.version) {
+                        s.checkedAt = now;
+                        s.generation = gen;
+                        return s;
+                    }
+                    return reload(conn);
+                }
+            }
+            try (Connection conn = DBConnection.getConnection()) {
+                return reload(conn);
+            }
+        }
+    }
+
+    private static Snapshot reload(Connection conn) throws SQLException {
+        // Read the version first: if a write lands mid-load we will notice on the next check
+        long gen = generation.get();
+        long version = CourseRepository.catalogVersion(conn);
+        Map<String, Course> byCode = new LinkedHashMap<>();
+        for (Course course : CourseRepository.findAll(conn)) {
+            byCode.put(course.getCourseCode(), course);
+        }
+        PrerequisiteGraph prerequisites =
+                new PrerequisiteGraph(byCode.values(), PrerequisiteRepository.findAll(conn));
+        Snapshot fresh = new Snapshot(byCode, prerequisites, version, gen);
+        if (byCode.size() <= MAX_ENTRIES) {
+            snapshot = fresh;
+        } else {
+            // Too big to pin in memory; serve this read and let the next one query again
+            logger.warning("Course catalog has " + byCode.size() + " rows, above the cache limit of "
+                    + MAX_ENTRIES + "; not caching.");
+            snapshot = null;
+        }
+        return fresh;
+    }
+
+    /** Immutable view of the catalog as of one load. */
+    private static final class Snapshot {
+        final Map<String, Course> byCode;
+        final List<Course> courses;
+        final PrerequisiteGraph prerequisites;
+        final long version;
+        final long loadedAt = System.currentTimeMillis();
+        volatile long checkedAt = loadedAt;
+        // The invalidate() generation as of the last read of the version this was checked against
+        volatile long generation;
+
+        Snapshot(Map<String, Course> byCode, PrerequisiteGraph prerequisites, long version, long generation) {
+            this.byCode = Collections.unmodifiableMap(byCode);
+            this.courses = Collections.unmodifiableList(new ArrayList<>(byCode.values()));
+            this.prerequisites = prerequisites;
+            this.version = version;
+            this.generation = generation;
+        }
+    }
+}
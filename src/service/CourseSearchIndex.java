@@ -0,0 +1,284 @@
+package service;
+
+import model.Course;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Inverted index over course code, name, instructor and description for
+ * type-ahead search. Terms are kept sorted, so every term starting with what
+ * the user has typed so far is one range of the map.
+ *
+ * A course matches when every query word is a prefix of one of its words.
+ * Matches are ranked by where the words were found (code, then name, then
+ * instructor, then description), with whole-word matches above prefix ones.
+ * Candidates come from the postings of the most selective word; the other
+ * words are checked against each candidate's own few terms, so a broad word
+ * like "a" costs little once a narrower one has been typed.
+ *
+ * The index is updated in place: {@link #sync} re-indexes only courses whose
+ * text changed since the last call. Thread-safe; searches and updates are
+ * serialized, and both are short.
+ */
+public class CourseSearchIndex {
+    // Field weights; a course scores the best weight of each query word, summed over the words
+    static final int CODE = 8;
+    static final int NAME = 4;
+    static final int INSTRUCTOR = 2;
+    static final int DESCRIPTION = 1;
+    // Whole-word matches count this many times the field weight, prefix matches once
+    private static final int EXACT_BONUS = 2;
+
+    private final NavigableMap<String, Postings> postings = new TreeMap<>();
+    private final Map<String, Doc> byCode = new HashMap<>();
+    // Docs by id; ids of removed courses are reused
+    private final List<Doc> byId = new ArrayList<>();
+    private final IntList freeIds = new IntList();
+    // The catalog list last passed to sync, to skip the diff when nothing was reloaded
+    private Collection<Course> syncedWith;
+
+    /** One search result. */
+    public static final class Hit {
+        private final Course course;
+        private final int score;
+
+        Hit(Course course, int score) {
+            this.course = course;
+            this.score = score;
+        }
+
+        public Course getCourse() { return course; }
+        public int getScore() { return score; }
+    }
+
+    /**
+     * Brings the index in line with {@code catalog}: adds new courses, drops
+     * removed ones and re-indexes those whose text changed. Courses whose text
+     * is unchanged only have their object swapped for the new one.
+     */
+    public synchronized void sync(Collection<Course> catalog) {
+        if (catalog == syncedWith) return;
+        Map<String, Course> incoming = new HashMap<>();
+        for (Course c : catalog) incoming.put(c.getCourseCode(), c);
+        for (String code : new ArrayList<>(byCode.keySet())) {
+            if (!incoming.containsKey(code)) remove(code);
+        }
+        for (Course c : catalog) put(c);
+        syncedWith = catalog;
+    }
+
+    /** Indexes a course, replacing any earlier version with the same code. */
+    public synchronized void put(Course course) {
+        String code = course.getCourseCode();
+        Doc old = byCode.get(code);
+        String text = indexedText(course);
+        if (old != null && old.text.equals(text)) {
+            old.course = course;
+            return;
+        }
+        if (old != null) remove(code);
+        int id = freeIds.size > 0 ? freeIds.values[--freeIds.size] : byId.size();
+        Map<String, Integer> weights = terms(course);
+        Doc doc = new Doc(id, course, text, weights);
+        if (id == byId.size()) byId.add(doc); else byId.set(id, doc);
+        byCode.put(code, doc);
+        for (int i = 0; i < doc.terms.length; i++) {
+            postings.computeIfAbsent(doc.terms[i], k -> new Postings()).add(id, doc.weights[i]);
+        }
+        syncedWith = null;
+    }
+
+    /** Removes a course from the index; unknown codes are ignored. */
+    public synchronized void remove(String courseCode) {
+        Doc doc = byCode.remove(courseCode);
+        if (doc == null) return;
+        for (String term : doc.terms) {
+            Postings p = postings.get(term);
+            if (p == null) continue;
+            p.remove(doc.id);
+            if (p.size == 0) postings.remove(term);
+        }
+        byId.set(doc.id, null);
+        freeIds.add(doc.id);
+        syncedWith = null;
+    }
+
+    public synchronized int size() {
+        return byCode.size();
+    }
+
+    /**
+     * Courses matching every word of {@code query}, best first (ties by course code).
+     * A blank query matches nothing; callers show the unfiltered list instead.
+     */
+    public synchronized List<Hit> search(String query) {
+        List<String> words = tokenize(query);
+        if (words.isEmpty()) return List.of();
+        // Seed from the word with the fewest postings in its prefix range
+        int seedIndex = 0;
+        long seedCost = Long.MAX_VALUE;
+        for (int w = 0; w < words.size(); w++) {
+            long cost = 0;
+            for (Postings p : range(words.get(w)).values()) cost += p.size;
+            if (cost < seedCost) {
+                seedIndex = w;
+                seedCost = cost;
+            }
+        }
+        if (seedCost == 0) return List.of();
+        String seed = words.get(seedIndex);
+
+        int[] scores = new int[byId.size()];
+        IntList candidates = new IntList();
+        for (Map.Entry<String, Postings> term : range(seed).entrySet()) {
+            int bonus = term.getKey().length() == seed.length() ? EXACT_BONUS : 1;
+            Postings p = term.getValue();
+            for (int i = 0; i < p.size; i++) {
+                int id = p.ids[i];
+                if (scores[id] == 0) candidates.add(id);
+                scores[id] = Math.max(scores[id], p.weights[i] * bonus);
+            }
+        }
+        List<Hit> hits = new ArrayList<>();
+        candidate:
+        for (int c = 0; c < candidates.size; c++) {
+            Doc doc = byId.get(candidates.values[c]);
+            int score = scores[doc.id];
+            for (int w = 0; w < words.size(); w++) {
+                if (w == seedIndex) continue;
+                int best = doc.bestMatch(words.get(w));
+                if (best == 0) continue candidate;
+                score += best;
+            }
+            hits.add(new Hit(doc.course, score));
+        }
+        hits.sort((a, b) -> a.score != b.score ? Integer.compare(b.score, a.score)
+                : a.course.getCourseCode().compareTo(b.course.getCourseCode()));
+        return hits;
+    }
+
+    /** Terms starting with {@code word}: they sort between word itself and word followed by the highest char. */
+    private NavigableMap<String, Postings> range(String word) {
+        return postings.subMap(word, true, word + Character.MAX_VALUE, false);
+    }
+
+    /** Every term of the course with the best weight it appears under. */
+    private static Map<String, Integer> terms(Course c) {
+        Map<String, Integer> terms = new HashMap<>();
+        String code = lower(c.getCourseCode());
+        if (!code.isEmpty()) terms.put(code, CODE);
+        // "CS101" is also found by "cs" and "101"
+        for (String part : tokenize(code.replaceAll("(?<=\\p{L})(?=\\p{N})|(?<=\\p{N})(?=\\p{L})", " "))) {
+            terms.merge(part, CODE, Math::max);
+        }
+        addTerms(terms, c.getCourseName(), NAME);
+        addTerms(terms, c.getInstructorName(), INSTRUCTOR);
+        addTerms(terms, c.getCourseDescription(), DESCRIPTION);
+        return terms;
+    }
+
+    private static void addTerms(Map<String, Integer> terms, String text, int weight) {
+        for (String t : tokenize(text)) terms.merge(t, weight, Math::max);
+    }
+
+    /** Lower-cased words: runs of letters and digits. */
+    static List<String> tokenize(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null) return words;
+        String s = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= s.length(); i++) {
+            boolean wordChar = i < s.length() && Character.isLetterOrDigit(s.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                words.add(s.substring(start, i));
+                start = -1;
+            }
+        }
+        return words;
+    }
+
+    private static String indexedText(Course c) {
+        return c.getCourseCode() + '\n' + c.getCourseName() + '\n' + c.getInstructorName() + '\n'
+                + c.getCourseDescription();
+    }
+
+    private static String lower(String s) {
+        return s == null ? "" : s.toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Doc {
+        final int id;
+        Course course;
+        final String text;
+        final String[] terms;
+        final int[] weights;
+
+        Doc(int id, Course course, String text, Map<String, Integer> termWeights) {
+            this.id = id;
+            this.course = course;
+            this.text = text;
+            this.terms = new String[termWeights.size()];
+            this.weights = new int[termWeights.size()];
+            int i = 0;
+            for (Map.Entry<String, Integer> t : termWeights.entrySet()) {
+                terms[i] = t.getKey();
+                weights[i++] = t.getValue();
+            }
+        }
+
+        /** Best score {@code word} earns in this course as a prefix of one of its terms, or 0. */
+        int bestMatch(String word) {
+            int best = 0;
+            for (int i = 0; i < terms.length; i++) {
+                if (!terms[i].startsWith(word)) continue;
+                best = Math.max(best, terms[i].length() == word.length() ? weights[i] * EXACT_BONUS : weights[i]);
+            }
+            return best;
+        }
+    }
+
+    /** Courses containing one term, with the term's weight in each; unordered. */
+    private static final class Postings {
+        int[] ids = new int[4];
+        int[] weights = new int[4];
+        int size;
+
+        void add(int id, int weight) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            ids[size] = id;
+            weights[size++] = weight;
+        }
+
+        void remove(int id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] != id) continue;
+                size--;
+                ids[i] = ids[size];
+                weights[i] = weights[size];
+                return;
+            }
+        }
+    }
+
+    private static final class IntList {
+        int[] values = new int[16];
+        int size;
+
+        void add(int v) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = v;
+        }
+    }
+}
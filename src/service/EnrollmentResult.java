@@ -0,0 +1,15 @@
+package service;
+
+/** Outcome of an enrollment attempt. */
+public enum EnrollmentResult {
+    ENROLLED,
+    DUPLICATE,
+    OVER_CREDIT_LIMIT,
+    /** A prerequisite is not passed yet, or a corequisite is neither passed nor being taken. */
+    PREREQUISITES_NOT_MET,
+    /** The course meets at a time the student already has another course. */
+    SCHEDULE_CONFLICT,
+    COURSE_FULL,
+    COURSE_NOT_FOUND,
+    STUDENT_NOT_FOUND
+}
@@ -0,0 +1,296 @@
+package service;
+
+import config.DBConnection;
+import model.Course;
+import model.WaitlistEntry;
+import repository.CourseRepository;
+import repository.EnrollmentRepository;
+import repository.UserRepository;
+import repository.WaitlistRepository;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/** Enrollment writes, each done as a single transaction on one connection. */
+public class EnrollmentService {
+    private static final Logger logger = Logger.getLogger(EnrollmentService.class.getName());
+
+    /** Maximum credit hours a student may be taking at once; graded courses are finished and do not count. */
+    public static final int MAX_CREDITS = 18;
+
+    /**
+     * Enrolls a student in a course if they are not already enrolled, they meet its
+     * prerequisites, it keeps them within {@link #MAX_CREDITS}, it does not meet at
+     * the same time as one of their other courses and it has a seat left. The checks
+     * and the insert happen under the same row lock, so two concurrent enrolls cannot
+     * both slip under the limit, and the seat is claimed with a conditional update,
+     * so a course is never oversold.
+     * @throws SQLException if the database fails; nothing is written in that case.
+     */
+    public static EnrollmentResult enroll(String studentId, String courseCode) throws SQLException {
+        // Taken before the transaction's connection, so the catalog never needs a second one while we hold it
+        PrerequisiteGraph prerequisites = CourseCatalog.getPrerequisites();
+        try (Connection conn = DBConnection.getConnection()) {
+            // Each statement must see rows committed by whoever held the lock before us
+            conn.setTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+            conn.setAutoCommit(false);
+            try {
+                EnrollmentResult result = enrollInTransaction(conn, studentId, courseCode, prerequisites);
+                if (result == EnrollmentResult.ENROLLED) {
+                    conn.commit();
+                    WaitlistService.removed(courseCode, studentId);
+                } else {
+                    conn.rollback();
+                }
+                return result;
+            } catch (SQLException e) {
+                conn.rollback();
+                logger.severe("Enrollment error: " + e.getMessage());
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    private static EnrollmentResult enrollInTransaction(Connection conn, String studentId, String courseCode,
+                                                        PrerequisiteGraph prerequisites) throws SQLException {
+        // Concurrent enrolls for the same student queue on the student's row;
+        // enrolls for different students do not block each other
+        if (!UserRepository.lock(conn, studentId)) return EnrollmentResult.STUDENT_NOT_FOUND;
+        EnrollmentRepository.Check check = EnrollmentRepository.check(conn, studentId, courseCode);
+        EnrollmentResult refused = refusal(conn, studentId, courseCode, check, prerequisites);
+        if (refused != null) return refused;
+        EnrollmentRepository.insert(conn, studentId, courseCode);
+        PaymentService.postCharge(conn, studentId, courseCode, check.courseCredits);
+        // A student who got in on their own no longer needs their place in line
+        WaitlistRepository.delete(conn, courseCode, studentId);
+        // The only statement that locks the course row, which every enroll and drop of the course
+        // needs; done last so it is held just until commit. If the course is full the caller rolls
+        // back the rows written above
+        if (!CourseRepository.takeSeat(conn, courseCode)) return EnrollmentResult.COURSE_FULL;
+        return EnrollmentResult.ENROLLED;
+    }
+
+    /**
+     * Why the student may not take the course, or null if they may (seats aside).
+     * Shared by enroll and waitlist promotion; the caller holds the student's lock.
+     */
+    private static EnrollmentResult refusal(Connection conn, String studentId, String courseCode,
+                                            EnrollmentRepository.Check check, PrerequisiteGraph prerequisites)
+            throws SQLException {
+        if (check.courseCredits == null) return EnrollmentResult.COURSE_NOT_FOUND;
+        if (check.alreadyEnrolled) return EnrollmentResult.DUPLICATE;
+        // Grades read under the student lock; most courses have no requirements and skip the query
+        if (prerequisites.hasRequirements(courseCode)
+                && !prerequisites.eligibility(EnrollmentRepository.forStudent(conn, studentId)).isEligible(courseCode)) {
+            return EnrollmentResult.PREREQUISITES_NOT_MET;
+        }
+        if (check.currentCredits + check.courseCredits > MAX_CREDITS) return EnrollmentResult.OVER_CREDIT_LIMIT;
+        // Only courses with a set time can clash, so most enrolls skip this query
+        if (check.meetingTime != null
+                && EnrollmentRepository.scheduleOf(conn, studentId).conflictsWith(check.meetingTime)) {
+            return EnrollmentResult.SCHEDULE_CONFLICT;
+        }
+        return null;
+    }
+
+    /**
+     * Drops a student's enrollment and refunds its tuition. If it was graded, the
+     * student's GPA totals are adjusted in the same transaction. If students are
+     * waiting for the course and it is still under capacity without the dropping
+     * student, the seat goes to the first of them who passes the
+     * enroll checks at that moment: in the same transaction if one of the first
+     * {@link WaitlistService#PROMOTION_CANDIDATES} does, otherwise through
+     * {@link #promoteWaiting} further down the list once the drop is committed.
+     * @return true if a row was deleted.
+     */
+    public static boolean drop(String studentId, String courseCode) throws SQLException {
+        PrerequisiteGraph prerequisites = CourseCatalog.getPrerequisites();
+        List<WaitlistEntry> candidates;
+        String promoted;
+        try (Connection conn = DBConnection.getConnection()) {
+            // Summary recomputation must see rows committed by whoever held the student lock before us
+            conn.setTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+            conn.setAutoCommit(false);
+            try {
+                // Read before any lock is taken, so they can be locked along with the dropping student
+                candidates = WaitlistRepository.head(conn, courseCode, WaitlistService.PROMOTION_CANDIDATES);
+                promoted = dropInTransaction(conn, studentId, courseCode, candidates, prerequisites);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                logger.severe("Drop error: " + e.getMessage());
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+        if (promoted == null) return false;
+        if (!promoted.isEmpty()) {
+            WaitlistService.removed(courseCode, promoted);
+            logger.info("Promoted " + promoted + " from the waitlist into " + courseCode + ".");
+        } else if (candidates.size() == WaitlistService.PROMOTION_CANDIDATES) {
+            // Nobody that far up the list qualified and there may be more waiting. The drop is
+            // committed either way, so a failure here only leaves the seat open for the next enroll
+            try {
+                promoteWaiting(courseCode, prerequisites, candidates.get(candidates.size() - 1));
+            } catch (SQLException e) {
+                logger.warning("Dropped " + studentId + " from " + courseCode
+                        + " but could not promote from the waitlist: " + e.getMessage());
+            }
+        }
+        return true;
+    }
+
+    /** @return null if the student was not enrolled, else the promoted student's ID, or "" if nobody was. */
+    private static String dropInTransaction(Connection conn, String studentId, String courseCode,
+                                            List<WaitlistEntry> candidates, PrerequisiteGraph prerequisites)
+            throws SQLException {
+        // The dropping student and everyone who might get the seat are locked together, in ID
+        // order, before the course row: promotions from two drops cannot deadlock on each other
+        List<String> locking = new ArrayList<>();
+        locking.add(studentId);
+        for (WaitlistEntry c : candidates) locking.add(c.getStudentId());
+        UserRepository.lockInOrder(conn, locking);
+        EnrollmentRepository.Locked enrollment = EnrollmentRepository.lockWithCredits(conn, studentId, courseCode);
+        if (enrollment == null) return null;
+        EnrollmentRepository.delete(conn, studentId, courseCode);
+        PaymentService.postRefund(conn, studentId, courseCode);
+        if (GradeScale.isGraded(enrollment.grade)) {
+            AcademicSummaryService.applyGradeChange(conn, studentId, enrollment.creditHours, enrollment.grade, null);
+        }
+        // The seat is given back and claimed again like any enroll would, so a course whose
+        // capacity was lowered below its enrollment shrinks with each drop instead of staying over
+        CourseRepository.releaseSeat(conn, courseCode);
+        Savepoint beforePromotion = conn.setSavepoint();
+        String promoted = promote(conn, courseCode, candidates, prerequisites);
+        if (promoted == null) return "";
+        if (!CourseRepository.takeSeat(conn, courseCode)) {
+            conn.rollback(beforePromotion);  // still full; they keep their place in line
+            return "";
+        }
+        return promoted;
+    }
+
+    /**
+     * Fills the course's free seats from its waitlist, for when something other than a
+     * drop may let waiting students in: more capacity, a new meeting time or fewer
+     * requirements. Students are considered in serving order, a batch of
+     * {@link WaitlistService#PROMOTION_CANDIDATES} at a time, until the course is
+     * full or everyone waiting has been tried. @return how many were enrolled.
+     */
+    public static int promoteWaiting(String courseCode) throws SQLException {
+        return promoteWaiting(courseCode, CourseCatalog.getPrerequisites(), null);
+    }
+
+    /** Same as above, starting after {@code after} in the list, or at its head if null. */
+    private static int promoteWaiting(String courseCode, PrerequisiteGraph prerequisites, WaitlistEntry after)
+            throws SQLException {
+        int count = 0;
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+            conn.setAutoCommit(false);
+            try {
+                // One transaction per batch, so only a few students are locked at a time and always
+                // in ID order, with the course row last as in enroll
+                while (CourseRepository.hasFreeSeat(conn, courseCode)) {
+                    List<WaitlistEntry> batch = after == null
+                            ? WaitlistRepository.head(conn, courseCode, WaitlistService.PROMOTION_CANDIDATES)
+                            : WaitlistRepository.headAfter(conn, courseCode, after, WaitlistService.PROMOTION_CANDIDATES);
+                    if (batch.isEmpty()) break;
+                    List<String> locking = new ArrayList<>();
+                    for (WaitlistEntry c : batch) locking.add(c.getStudentId());
+                    UserRepository.lockInOrder(conn, locking);
+                    String promoted = promote(conn, courseCode, batch, prerequisites);
+                    if (promoted == null) {
+                        conn.commit();  // keeps entries promote() found stale and removed
+                        after = batch.get(batch.size() - 1);
+                        continue;
+                    }
+                    if (!CourseRepository.takeSeat(conn, courseCode)) {
+                        conn.rollback();  // an enroll took the seat first
+                        break;
+                    }
+                    conn.commit();
+                    count++;
+                    WaitlistService.removed(courseCode, promoted);
+                    logger.info("Promoted " + promoted + " from the waitlist into " + courseCode + ".");
+                    // 'after' stays put: those ahead of them in this batch get another look for the next seat
+                }
+            } catch (SQLException e) {
+                conn.rollback();
+                logger.severe("Waitlist promotion error: " + e.getMessage());
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Enrolls the first candidate who passes the enroll checks now, credit limit
+     * included, and takes them off the waitlist. Those who fail keep their place.
+     * The candidates' rows must already be locked. @return who was enrolled, or null.
+     */
+    private static String promote(Connection conn, String courseCode, List<WaitlistEntry> candidates,
+                                  PrerequisiteGraph prerequisites) throws SQLException {
+        for (WaitlistEntry candidate : candidates) {
+            String id = candidate.getStudentId();
+            // Re-read under the lock: they may have left the list or enrolled since we looked
+            if (WaitlistRepository.find(conn, courseCode, id) == null) continue;
+            EnrollmentRepository.Check check = EnrollmentRepository.check(conn, id, courseCode);
+            EnrollmentResult refused = refusal(conn, id, courseCode, check, prerequisites);
+            if (refused == EnrollmentResult.DUPLICATE) {
+                WaitlistRepository.delete(conn, courseCode, id);
+                continue;
+            }
+            if (refused != null) continue;
+            EnrollmentRepository.insert(conn, id, courseCode);
+            PaymentService.postCharge(conn, id, courseCode, check.courseCredits);
+            WaitlistRepository.delete(conn, courseCode, id);
+            return id;
+        }
+        return null;
+    }
+
+    /** Courses the student is currently enrolled in. */
+    public static List<Course> getEnrolledCourses(String studentId) throws SQLException {
+        try (Connection conn = DBConnection.getConnection()) {
+            return EnrollmentRepository.coursesOfStudent(conn, studentId);
+        }
+    }
+
+    /**
+     * Which catalog courses the student may take, worked out for the whole catalog
+     * from one read of their enrollments.
+     */
+    public static PrerequisiteGraph.Eligibility getEligibility(String studentId) throws SQLException {
+        PrerequisiteGraph prerequisites = CourseCatalog.getPrerequisites();
+        try (Connection conn = DBConnection.getConnection()) {
+            return prerequisites.eligibility(EnrollmentRepository.forStudent(conn, studentId));
+        }
+    }
+
+    /**
+     * Seats currently taken in every course that has a seat limit, keyed by course code.
+     * One small read of the courses table, cheap enough to poll for a live seat display.
+     */
+    public static Map<String, Integer> getSeatsTaken() throws SQLException {
+        try (Connection conn = DBConnection.getConnection()) {
+            return CourseRepository.seatsTaken(conn);
+        }
+    }
+
+    /** Number of students enrolled in the course. */
+    public static int countEnrollments(String courseCode) throws SQLException {
+        try (Connection conn = DBConnection.getConnection()) {
+            return EnrollmentRepository.countForCourse(conn, courseCode);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package service;
+
+/** One requested grade change within a course: from an inline table edit or a CSV line. */
+public class GradeChange {
+    private final int line;          // CSV line number, or 0 for table edits
+    private final String studentId;
+    private final String grade;
+
+    public GradeChange(int line, String studentId, String grade) {
+        this.line = line;
+        this.studentId = studentId;
+        this.grade = grade;
+    }
+
+    public int getLine() { return line; }
+    public String getStudentId() { return studentId; }
+    public String getGrade() { return grade; }
+}
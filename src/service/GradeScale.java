@@ -0,0 +1,48 @@
+package service;
+
+/** Letter-grade to grade-point rules shared by the transcript, GPA summaries and grading. */
+public class GradeScale {
+
+    // Converts letter grade to numeric grade points.
+    public static double toPoints(String grade) {
+        switch (grade.toUpperCase()) {
+            case "A":  return 4.0;
+            case "A-": return 3.7;
+            case "B+": return 3.3;
+            case "B":  return 3.0;
+            case "B-": return 2.7;
+            case "C+": return 2.3;
+            case "C":  return 2.0;
+            case "C-": return 1.7;
+            case "D+": return 1.3;
+            case "D":  return 1.0;
+            case "F":  return 0.0;
+            default:   return 0.0;
+        }
+    }
+
+    /** True if the grade is one of the letter grades on the scale above (case-insensitive). */
+    public static boolean isValid(String grade) {
+        if (grade == null) return false;
+        switch (grade.trim().toUpperCase()) {
+            case "A": case "A-":
+            case "B+": case "B": case "B-":
+            case "C+": case "C": case "C-":
+            case "D+": case "D":
+            case "F":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /** True if the grade counts toward GPA (anything non-blank; blank means in progress). */
+    public static boolean isGraded(String grade) {
+        return grade != null && !grade.trim().isEmpty();
+    }
+
+    /** True if the grade earns the course's credits: graded and above F. */
+    public static boolean isPassing(String grade) {
+        return isGraded(grade) && toPoints(grade.trim()) > 0;
+    }
+}
@@ -0,0 +1,251 @@
+package service;
+
+import config.DBConnection;
+import model.Enrollment;
+import repository.RowMappers;
+import repository.UserRepository;
+import util.SqlKeysetPageSource;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/** Grade writes. Each change also updates the student's running GPA totals in the same transaction. */
+public class GradeService {
+    private static final Logger logger = Logger.getLogger(GradeService.class.getName());
+
+    // Credits via a subquery, not a join, so the FOR UPDATE variants lock enrollment rows only and
+    // grading never holds the course row that every enroll and drop in the course needs
+    private static final String CREDITS_OF_COURSE =
+            "(SELECT c.credit_hours FROM courses c WHERE c.course_code = e.course_code) AS credit_hours";
+    private static final String LOCK_ENROLLMENT_SQL =
+            "SELECT e.student_id, e.grade, " + CREDITS_OF_COURSE + " FROM enrollments e WHERE e.enrollment_id = ?";
+    private static final String UPDATE_SQL = "UPDATE enrollments SET grade = ? WHERE enrollment_id = ?";
+
+    /**
+     * Sets the grade on one enrollment.
+     * @return false if the enrollment no longer exists.
+     */
+    public static boolean updateGrade(int enrollmentId, String newGrade) throws SQLException {
+        try (Connection conn = DBConnection.getConnection()) {
+            // Summary recomputation must see rows committed by whoever held the student lock before us
+            conn.setTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+            conn.setAutoCommit(false);
+            try {
+                boolean updated = updateGrade(conn, enrollmentId, newGrade);
+                conn.commit();
+                return updated;
+            } catch (SQLException e) {
+                conn.rollback();
+                logger.severe("Grade update failed: " + e.getMessage());
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    /** Grade update inside the caller's transaction. */
+    static boolean updateGrade(Connection conn, int enrollmentId, String newGrade) throws SQLException {
+        String studentId;
+        try (PreparedStatement stmt = conn.prepareStatement(LOCK_ENROLLMENT_SQL)) {
+            stmt.setInt(1, enrollmentId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) return false;
+                studentId = rs.getString("student_id");
+            }
+        }
+        // Same lock order as enroll/drop (student first), so concurrent changes serialize per student
+        UserRepository.lock(conn, studentId);
+        String oldGrade;
+        int credits;
+        try (PreparedStatement stmt = conn.prepareStatement(LOCK_ENROLLMENT_SQL + " FOR UPDATE")) {
+            stmt.setInt(1, enrollmentId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) return false;  // dropped while we waited for the lock
+                oldGrade = rs.getString("grade");
+                credits = rs.getInt("credit_hours");
+            }
+        }
+        try (PreparedStatement stmt = conn.prepareStatement(UPDATE_SQL)) {
+            stmt.setString(1, newGrade);
+            stmt.setInt(2, enrollmentId);
+            stmt.executeUpdate();
+        }
+        AcademicSummaryService.applyGradeChange(conn, studentId, credits, oldGrade, newGrade);
+        return true;
+    }
+
+    /**
+     * Applies many grade changes for one course in a single batched transaction.
+     * Rows with a grade outside the scale, duplicate students or students not in
+     * the course are reported as failures and skipped; the rest are written together.
+     * @throws SQLException if the database fails; nothing is written in that case.
+     */
+    public static BulkGradeReport bulkUpdate(String courseCode, List<GradeChange> changes) throws SQLException {
+        BulkGradeReport report = new BulkGradeReport();
+        Map<String, GradeChange> valid = new LinkedHashMap<>();
+        for (GradeChange change : changes) {
+            String studentId = change.getStudentId() == null ? "" : change.getStudentId().trim();
+            if (studentId.isEmpty()) {
+                report.failed(change, "Missing student ID");
+            } else if (!GradeScale.isValid(change.getGrade())) {
+                report.failed(change, "Invalid grade '" + change.getGrade() + "'");
+            } else if (valid.containsKey(studentId)) {
+                report.failed(change, "Duplicate entry for this student");
+            } else {
+                valid.put(studentId, new GradeChange(change.getLine(), studentId,
+                        change.getGrade().trim().toUpperCase()));
+            }
+        }
+        if (valid.isEmpty()) return report;
+
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+            conn.setAutoCommit(false);
+            try {
+                List<GradeChange> written = bulkUpdateInTransaction(conn, courseCode, valid, report);
+                conn.commit();
+                for (GradeChange change : written) {
+                    report.succeeded(change);
+                }
+                return report;
+            } catch (SQLException e) {
+                conn.rollback();
+                logger.severe("Bulk grade update failed: " + e.getMessage());
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    private static List<GradeChange> bulkUpdateInTransaction(Connection conn, String courseCode,
+                                                             Map<String, GradeChange> valid,
+                                                             BulkGradeReport report) throws SQLException {
+        // Students first (in ID order, to avoid deadlocks), then their enrollment rows: same order as single updates
+        UserRepository.lockInOrder(conn, valid.keySet());
+
+        Map<String, RosterRow> roster = new HashMap<>();
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT e.enrollment_id, e.student_id, e.grade, " + CREDITS_OF_COURSE
+                        + " FROM enrollments e WHERE e.course_code = ? FOR UPDATE")) {
+            stmt.setString(1, courseCode);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    roster.putIfAbsent(rs.getString("student_id"), new RosterRow(
+                            rs.getInt("enrollment_id"), rs.getString("grade"), rs.getInt("credit_hours")));
+                }
+            }
+        }
+
+        List<GradeChange> written = new ArrayList<>();
+        Map<String, AcademicSummaryService.Delta> deltas = new HashMap<>();
+        try (PreparedStatement update = conn.prepareStatement(UPDATE_SQL)) {
+            for (GradeChange change : valid.values()) {
+                RosterRow row = roster.get(change.getStudentId());
+                if (row == null) {
+                    report.failed(change, "Not enrolled in " + courseCode);
+                    continue;
+                }
+                update.setString(1, change.getGrade());
+                update.setInt(2, row.enrollmentId);
+                update.addBatch();
+                deltas.computeIfAbsent(change.getStudentId(), k -> new AcademicSummaryService.Delta())
+                        .add(row.credits, row.grade, change.getGrade());
+                written.add(change);
+            }
+            update.executeBatch();
+        }
+        AcademicSummaryService.applyDeltas(conn, deltas);
+        return written;
+    }
+
+    /** Codes of the courses taught by the named instructor. */
+    public static List<String> getInstructorCourses(String instructor) throws SQLException {
+        String sql = "SELECT course_code FROM courses WHERE instructor_name = ?";
+        List<String> courses = new ArrayList<>();
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, instructor);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    courses.add(rs.getString("course_code"));
+                }
+            }
+        }
+        return courses;
+    }
+
+    /** Course of an enrollment, or null if there is no such enrollment. */
+    public static String getEnrollmentCourse(int enrollmentId) throws SQLException {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                     "SELECT course_code FROM enrollments WHERE enrollment_id = ?")) {
+            stmt.setInt(1, enrollmentId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getString("course_code") : null;
+            }
+        }
+    }
+
+    /** Keyset-paged roster of one course, sortable by studentId or grade and filterable by student ID. */
+    public static SqlKeysetPageSource<Enrollment> rosterSource(String courseCode) {
+        return new SqlKeysetPageSource<Enrollment>(
+                "SELECT * FROM enrollments", "course_code = ?", List.of(courseCode),
+                "enrollment_id", Enrollment::getEnrollmentId,
+                RowMappers.ENROLLMENT)
+                .sortable("studentId", "student_id", Enrollment::getStudentId)
+                .sortable("grade", "COALESCE(grade, '')", e -> e.getGrade() == null ? "" : e.getGrade())
+                .filterOn("student_id");
+    }
+
+    /**
+     * Reads "student_id,grade" lines. A first line that does not start with a digit
+     * is treated as a header; blank lines are skipped.
+     */
+    public static List<GradeChange> parseCsv(Reader reader) throws IOException {
+        List<GradeChange> changes = new ArrayList<>();
+        BufferedReader in = new BufferedReader(reader);
+        String line;
+        int lineNo = 0;
+        while ((line = in.readLine()) != null) {
+            lineNo++;
+            if (line.trim().isEmpty()) continue;
+            String[] parts = line.split(",", -1);
+            String studentId = unquote(parts[0]);
+            if (lineNo == 1 && (studentId.isEmpty() || !Character.isDigit(studentId.charAt(0)))) {
+                continue;  // header
+            }
+            String grade = parts.length > 1 ? unquote(parts[1]) : "";
+            changes.add(new GradeChange(lineNo, studentId, grade));
+        }
+        return changes;
+    }
+
+    private static String unquote(String field) {
+        String f = field.trim();
+        if (f.length() >= 2 && f.startsWith("\"") && f.endsWith("\"")) {
+            f = f.substring(1, f.length() - 1).trim();
+        }
+        return f;
+    }
+
+    private static final class RosterRow {
+        final int enrollmentId;
+        final String grade;
+        final int credits;
+
+        RosterRow(int enrollmentId, String grade, int credits) {
+            this.enrollmentId = enrollmentId;
+            this.grade = grade;
+            this.credits = credits;
+        }
+    }
+}
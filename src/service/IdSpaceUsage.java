@@ -0,0 +1,35 @@
+package service;
+
+/** Snapshot of how much of the university ID space is used. */
+public class IdSpaceUsage {
+    private final long capacity;
+    private final long reserved;
+    private final long assigned;
+    private final long bufferedLocally;
+
+    public IdSpaceUsage(long capacity, long reserved, long assigned, long bufferedLocally) {
+        this.capacity = capacity;
+        this.reserved = reserved;
+        this.assigned = assigned;
+        this.bufferedLocally = bufferedLocally;
+    }
+
+    /** Total number of IDs the format allows. */
+    public long getCapacity() { return capacity; }
+    /** Numbers handed out to nodes in blocks so far; the allocator fails once this reaches capacity. */
+    public long getReserved() { return reserved; }
+    /** Accounts that currently hold an ID in the range, including ones created before the allocator. */
+    public long getAssigned() { return assigned; }
+    /** Numbers this process has reserved but not handed out yet. */
+    public long getBufferedLocally() { return bufferedLocally; }
+
+    public double getReservedFraction() { return capacity == 0 ? 1.0 : (double) reserved / capacity; }
+    public double getAssignedFraction() { return capacity == 0 ? 1.0 : (double) assigned / capacity; }
+
+    @Override
+    public String toString() {
+        return String.format("capacity=%d reserved=%d (%.2f%%) assigned=%d (%.2f%%) buffered=%d",
+                capacity, reserved, getReservedFraction() * 100, assigned, getAssignedFraction() * 100,
+                bufferedLocally);
+    }
+}
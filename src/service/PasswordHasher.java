@@ -0,0 +1,22 @@
+package service;
+
+/**
+ * One password hashing algorithm. The encoded string a hasher produces is what
+ * gets stored in users.password; the per-user salt stays in users.salt.
+ */
+public interface PasswordHasher {
+    /** Short algorithm name, e.g. "sha256" or "pbkdf2-sha256". */
+    String id();
+
+    /** Hashes the password with the given (Base64) salt and returns the encoded form. */
+    String hash(String password, String salt);
+
+    /** True if {@code encoded} was produced by this algorithm. */
+    boolean recognizes(String encoded);
+
+    /** Checks a password against a stored hash produced by this algorithm. */
+    boolean verify(String password, String salt, String encoded);
+
+    /** True if {@code encoded} used weaker cost parameters than this hasher is set to. */
+    boolean needsRehash(String encoded);
+}
@@ -0,0 +1,127 @@
+package service;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Entry point for password hashing.
+ *
+ * Holds the registered algorithms, picks the default one for new hashes
+ * (-Dauth.hash.algorithm, PBKDF2 unless overridden) and runs every hash on a
+ * small bounded pool. A login storm therefore queues behind a fixed number of
+ * hashing threads instead of pinning every core; once the queue is full,
+ * callers get a RejectedExecutionException straight away.
+ */
+public class PasswordHashing {
+    private static final Map<String, PasswordHasher> hashers = new ConcurrentHashMap<>();
+    private static final Sha256PasswordHasher LEGACY = new Sha256PasswordHasher();
+
+    private static final int THREADS = Integer.getInteger("auth.hash.threads",
+            Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+    private static final int QUEUE = Integer.getInteger("auth.hash.queue", 256);
+
+    private static final ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            THREADS, THREADS, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(QUEUE),
+            new NamedDaemonFactory(), new ThreadPoolExecutor.AbortPolicy());
+
+    private static volatile PasswordHasher defaultHasher;
+
+    static {
+        register(LEGACY);
+        register(Pbkdf2PasswordHasher.calibrated(
+                Long.getLong("auth.hash.targetMs", 100L),
+                Integer.getInteger("auth.hash.minIterations", 100_000),
+                Integer.getInteger("auth.hash.maxIterations", 2_000_000)));
+        defaultHasher = hashers.getOrDefault(System.getProperty("auth.hash.algorithm", "pbkdf2-sha256"),
+                hashers.get("pbkdf2-sha256"));
+    }
+
+    /** Adds (or replaces) an algorithm; it can then be made the default. */
+    public static void register(PasswordHasher hasher) {
+        hashers.put(hasher.id(), hasher);
+    }
+
+    public static void setDefault(String id) {
+        PasswordHasher hasher = hashers.get(id);
+        if (hasher == null) throw new IllegalArgumentException("Unknown hashing algorithm: " + id);
+        defaultHasher = hasher;
+    }
+
+    public static PasswordHasher getDefault() {
+        return defaultHasher;
+    }
+
+    /** Hashes with the default algorithm on the hashing pool. */
+    public static String hash(String password, String salt) {
+        PasswordHasher hasher = defaultHasher;
+        return runBounded(() -> hasher.hash(password, salt));
+    }
+
+    /** Verifies a password against a stored hash on the hashing pool. */
+    public static Verification verify(String password, String salt, String stored) {
+        PasswordHasher hasher = find(stored);
+        if (hasher == null) return new Verification(false, false);
+        boolean matches = runBounded(() -> hasher.verify(password, salt, stored));
+        boolean rehash = matches && (hasher != defaultHasher || hasher.needsRehash(stored));
+        return new Verification(matches, rehash);
+    }
+
+    private static PasswordHasher find(String stored) {
+        PasswordHasher preferred = defaultHasher;
+        if (preferred.recognizes(stored)) return preferred;
+        for (PasswordHasher hasher : hashers.values()) {
+            if (hasher.recognizes(stored)) return hasher;
+        }
+        return null;
+    }
+
+    private static <T> T runBounded(Callable<T> work) {
+        Future<T> future = executor.submit(work);  // RejectedExecutionException when saturated
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for password hashing.", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /** Result of checking a password. */
+    public static class Verification {
+        private final boolean matches;
+        private final boolean needsRehash;
+
+        Verification(boolean matches, boolean needsRehash) {
+            this.matches = matches;
+            this.needsRehash = needsRehash;
+        }
+
+        public boolean matches() { return matches; }
+        /** True if the password was right but the stored hash should be upgraded. */
+        public boolean needsRehash() { return needsRehash; }
+    }
+
+    private static final class NamedDaemonFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, "password-hash-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }
+    }
+}
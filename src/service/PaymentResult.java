@@ -0,0 +1,9 @@
+package service;
+
+/** Outcome of a payment attempt. */
+public enum PaymentResult {
+    RECORDED,
+    /** A payment with the same idempotency key was recorded earlier; nothing new was written. */
+    ALREADY_RECORDED,
+    EXCEEDS_BALANCE
+}
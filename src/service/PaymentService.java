@@ -0,0 +1,136 @@
+package service;
+
+import config.DBConnection;
+import model.AccountBalance;
+import model.LedgerEntry;
+import model.PaymentEntry;
+import repository.PaymentRepository;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Tuition ledger. Every charge, refund and payment is an immutable row in
+ * ledger_entries, in minor units (1/100 QAR) so no amount is ever rounded.
+ * Each student also has one student_balance row holding running totals,
+ * updated in the same transaction as the entry that changes them, so the
+ * outstanding balance is a single-row read however long the history gets.
+ *
+ * Charges and refunds are posted by {@link EnrollmentService} inside the
+ * enroll/drop transaction; payments go through {@link #recordPayment}.
+ */
+public class PaymentService {
+    private static final Logger logger = Logger.getLogger(PaymentService.class.getName());
+
+    /** Tuition per credit hour, in QAR, for courses enrolled from now on. Charges already posted keep their rate. */
+    public static final BigDecimal TUITION_PER_CREDIT_HOUR =
+            new BigDecimal(System.getProperty("payment.tuitionPerCreditHour", "975.00"));
+
+    /** Tuition charged per course still on the student's account (dropped courses net to zero and are left out). */
+    public static List<PaymentEntry> getCharges(String studentId) throws SQLException {
+        try (Connection conn = DBConnection.getConnection()) {
+            return PaymentRepository.chargesByCourse(conn, studentId);
+        }
+    }
+
+    /** The student's running totals; a student with no ledger activity owes nothing. */
+    public static AccountBalance getBalance(String studentId) throws SQLException {
+        try (Connection conn = DBConnection.getConnection()) {
+            AccountBalance balance = PaymentRepository.findBalance(conn, studentId);
+            return balance != null ? balance : new AccountBalance(studentId, fromMinor(0), fromMinor(0));
+        }
+    }
+
+    /**
+     * Records a payment of {@code amount} QAR. The idempotency key identifies one
+     * payment the user meant to make: a retry or double submit with the same key
+     * returns {@link PaymentResult#ALREADY_RECORDED} instead of paying twice.
+     * @throws IllegalArgumentException if the amount is not positive, has more than
+     *         two decimals, or the key was already used for a different payment.
+     */
+    public static PaymentResult recordPayment(String studentId, BigDecimal amount, String idempotencyKey)
+            throws SQLException {
+        long minor = toMinor(amount);
+        if (minor <= 0) throw new IllegalArgumentException("Payment amount must be greater than 0.");
+        if (idempotencyKey == null || idempotencyKey.isEmpty() || idempotencyKey.length() > 64) {
+            throw new IllegalArgumentException("An idempotency key of 1 to 64 characters is required.");
+        }
+        try (Connection conn = DBConnection.getConnection()) {
+            // The key lookup must see payments committed by whoever held the balance lock before us
+            conn.setTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+            conn.setAutoCommit(false);
+            try {
+                PaymentResult result = recordPaymentInTransaction(conn, studentId, minor, idempotencyKey);
+                conn.commit();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                if (e instanceof SQLException) logger.severe("Payment failed: " + e.getMessage());
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    private static PaymentResult recordPaymentInTransaction(Connection conn, String studentId, long minor,
+                                                            String idempotencyKey) throws SQLException {
+        // Payments for one student queue on their balance row; the same key can only
+        // arrive twice for the same student, so the lookup below cannot race
+        long outstanding = PaymentRepository.lockOutstanding(conn, studentId);
+        LedgerEntry earlier = PaymentRepository.findByKey(conn, idempotencyKey);
+        if (earlier != null) {
+            if (studentId.equals(earlier.getStudentId()) && earlier.getAmountMinor() == -minor) {
+                return PaymentResult.ALREADY_RECORDED;
+            }
+            throw new IllegalArgumentException("That idempotency key was already used for a different payment.");
+        }
+        if (minor > outstanding) return PaymentResult.EXCEEDS_BALANCE;
+        PaymentRepository.insert(conn,
+                new LedgerEntry(studentId, LedgerEntry.PAYMENT, null, null, -minor, idempotencyKey));
+        PaymentRepository.addToBalance(conn, studentId, 0, minor);
+        return PaymentResult.RECORDED;
+    }
+
+    /** Posts the tuition charge for a new enrollment. Runs inside the caller's enrollment transaction. */
+    static void postCharge(Connection conn, String studentId, String courseCode, int creditHours)
+            throws SQLException {
+        long minor = tuitionMinor(creditHours);
+        PaymentRepository.insert(conn,
+                new LedgerEntry(studentId, LedgerEntry.CHARGE, courseCode, creditHours, minor, null));
+        PaymentRepository.addToBalance(conn, studentId, minor, 0);
+    }
+
+    /**
+     * Refunds whatever is still charged for the course, in full. Runs inside the
+     * caller's drop transaction, after the student's row has been locked.
+     */
+    static void postRefund(Connection conn, String studentId, String courseCode) throws SQLException {
+        LedgerEntry net = PaymentRepository.netCharge(conn, studentId, courseCode);
+        if (net.getAmountMinor() == 0) return;
+        PaymentRepository.insert(conn, new LedgerEntry(studentId, LedgerEntry.REFUND, courseCode,
+                net.getCreditHours(), -net.getAmountMinor(), null));
+        PaymentRepository.addToBalance(conn, studentId, -net.getAmountMinor(), 0);
+    }
+
+    /** Tuition for a course of the given size, in minor units. */
+    public static long tuitionMinor(int creditHours) {
+        return toMinor(TUITION_PER_CREDIT_HOUR.multiply(BigDecimal.valueOf(creditHours)));
+    }
+
+    /** Converts QAR to minor units. @throws IllegalArgumentException if it has more than two decimals. */
+    public static long toMinor(BigDecimal amount) {
+        try {
+            return amount.setScale(2, RoundingMode.UNNECESSARY).movePointRight(2).longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Amounts can have at most two decimal places.");
+        }
+    }
+
+    public static BigDecimal fromMinor(long minor) {
+        return BigDecimal.valueOf(minor, 2);
+    }
+}
@@ -0,0 +1,104 @@
+package service;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.spec.InvalidKeySpecException;
+import java.util.Base64;
+import java.util.logging.Logger;
+
+/**
+ * PBKDF2-HMAC-SHA256. Encoded as {@code $pbkdf2-sha256$<iterations>$<base64 hash>},
+ * so the iteration count travels with each hash and can be raised later.
+ */
+public class Pbkdf2PasswordHasher implements PasswordHasher {
+    private static final Logger logger = Logger.getLogger(Pbkdf2PasswordHasher.class.getName());
+    private static final String PREFIX = "$pbkdf2-sha256$";
+    private static final int KEY_BITS = 256;
+
+    private static final ThreadLocal<SecretKeyFactory> FACTORY = ThreadLocal.withInitial(() -> {
+        try {
+            return SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256");
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException("PBKDF2WithHmacSHA256 not available.", e);
+        }
+    });
+
+    private final int iterations;
+
+    public Pbkdf2PasswordHasher(int iterations) {
+        this.iterations = iterations;
+    }
+
+    /**
+     * Picks an iteration count that makes one hash take about {@code targetMs} on
+     * this machine, clamped to [minIterations, maxIterations].
+     */
+    public static Pbkdf2PasswordHasher calibrated(long targetMs, int minIterations, int maxIterations) {
+        int probe = 20_000;
+        derive("calibration", new byte[16], probe);  // warm up
+        long start = System.nanoTime();
+        derive("calibration", new byte[16], probe);
+        double msPerIteration = (System.nanoTime() - start) / 1_000_000.0 / probe;
+        int iterations = (int) Math.min(maxIterations, Math.max(minIterations, targetMs / Math.max(msPerIteration, 1e-6)));
+        logger.info("PBKDF2 calibrated to " + iterations + " iterations (~" + targetMs + " ms per hash).");
+        return new Pbkdf2PasswordHasher(iterations);
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    @Override
+    public String id() {
+        return "pbkdf2-sha256";
+    }
+
+    @Override
+    public String hash(String password, String salt) {
+        byte[] dk = derive(password, Base64.getDecoder().decode(salt), iterations);
+        return PREFIX + iterations + "$" + Base64.getEncoder().encodeToString(dk);
+    }
+
+    @Override
+    public boolean recognizes(String encoded) {
+        return encoded != null && encoded.startsWith(PREFIX);
+    }
+
+    @Override
+    public boolean verify(String password, String salt, String encoded) {
+        int sep = encoded.indexOf('$', PREFIX.length());
+        if (sep < 0) return false;
+        int storedIterations;
+        try {
+            storedIterations = Integer.parseInt(encoded.substring(PREFIX.length(), sep));
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        byte[] expected = Base64.getDecoder().decode(encoded.substring(sep + 1));
+        byte[] actual = derive(password, Base64.getDecoder().decode(salt), storedIterations);
+        return MessageDigest.isEqual(expected, actual);
+    }
+
+    @Override
+    public boolean needsRehash(String encoded) {
+        int sep = encoded.indexOf('$', PREFIX.length());
+        try {
+            return sep < 0 || Integer.parseInt(encoded.substring(PREFIX.length(), sep)) < iterations;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    private static byte[] derive(String password, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, KEY_BITS);
+        try {
+            return FACTORY.get().generateSecret(spec).getEncoded();
+        } catch (InvalidKeySpecException e) {
+            throw new IllegalStateException("PBKDF2 failed.", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
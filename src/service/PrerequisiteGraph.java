@@ -0,0 +1,285 @@
+package service;
+
+import model.Course;
+import model.Enrollment;
+import model.Prerequisite;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Prerequisites and corequisites of the whole catalog, as a graph over course
+ * numbers 0..n-1 built once per catalog snapshot. A student's record becomes
+ * two bitmaps over the same numbers, courses passed and courses in progress,
+ * so deciding eligibility for every course in the catalog is a single pass of
+ * bit tests with no query per course.
+ *
+ * Prerequisites must form a DAG. Building the graph sorts it topologically;
+ * courses left over sit on a cycle and can never be taken, so they are
+ * reported as ineligible and the cycle is logged. {@link CourseCatalog} refuses
+ * to add an edge that would close a cycle. Corequisites may point both ways
+ * (a lecture and its lab); in such a pair either course can be taken first,
+ * since the other then counts as being taken alongside it.
+ *
+ * Immutable; safe to share between threads.
+ */
+public final class PrerequisiteGraph {
+    private static final Logger logger = Logger.getLogger(PrerequisiteGraph.class.getName());
+    private static final int[] NONE = new int[0];
+
+    private final Map<String, Integer> numbers = new HashMap<>();
+    private final String[] codes;
+    private final int[][] prerequisites;
+    private final int[][] corequisites;
+    // Position of each course in a topological order of the prerequisite edges; -1 on a cycle
+    private final int[] topoRank;
+    private final BitSet onCycle = new BitSet();
+
+    /** Builds the graph; edges naming a course that is not in {@code catalog} are ignored. */
+    public PrerequisiteGraph(Collection<Course> catalog, Collection<Prerequisite> edges) {
+        codes = new String[catalog.size()];
+        for (Course c : catalog) {
+            numbers.put(c.getCourseCode(), numbers.size());
+            codes[numbers.size() - 1] = c.getCourseCode();
+        }
+        int n = codes.length;
+        List<List<Integer>> pre = new ArrayList<>(n);
+        List<List<Integer>> co = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            pre.add(null);
+            co.add(null);
+        }
+        for (Prerequisite e : edges) {
+            Integer course = numbers.get(e.getCourseCode());
+            Integer required = numbers.get(e.getRequiredCode());
+            if (course == null || required == null || course.equals(required)) continue;
+            List<List<Integer>> lists = e.isCorequisite() ? co : pre;
+            if (lists.get(course) == null) lists.set(course, new ArrayList<>(2));
+            lists.get(course).add(required);
+        }
+        prerequisites = toArrays(pre);
+        corequisites = toArrays(co);
+        topoRank = sortTopologically();
+    }
+
+    private static int[][] toArrays(List<List<Integer>> lists) {
+        int[][] arrays = new int[lists.size()][];
+        for (int i = 0; i < arrays.length; i++) {
+            List<Integer> l = lists.get(i);
+            arrays[i] = l == null ? NONE : l.stream().mapToInt(Integer::intValue).toArray();
+        }
+        return arrays;
+    }
+
+    /** Kahn's algorithm over the prerequisite edges; whatever never reaches in-degree 0 is on a cycle. */
+    private int[] sortTopologically() {
+        int n = codes.length;
+        int[] waitingOn = new int[n];
+        int[][] unlocks = new int[n][];
+        int[] unlockCount = new int[n];
+        for (int c = 0; c < n; c++) {
+            waitingOn[c] = prerequisites[c].length;
+            for (int r : prerequisites[c]) unlockCount[r]++;
+        }
+        for (int r = 0; r < n; r++) unlocks[r] = unlockCount[r] == 0 ? NONE : new int[unlockCount[r]];
+        Arrays.fill(unlockCount, 0);
+        for (int c = 0; c < n; c++) {
+            for (int r : prerequisites[c]) unlocks[r][unlockCount[r]++] = c;
+        }
+        int[] rank = new int[n];
+        Arrays.fill(rank, -1);
+        Deque<Integer> ready = new ArrayDeque<>();
+        for (int c = 0; c < n; c++) {
+            if (waitingOn[c] == 0) ready.add(c);
+        }
+        int next = 0;
+        while (!ready.isEmpty()) {
+            int r = ready.poll();
+            rank[r] = next++;
+            for (int c : unlocks[r]) {
+                if (--waitingOn[c] == 0) ready.add(c);
+            }
+        }
+        if (next < n) {
+            List<String> stuck = new ArrayList<>();
+            for (int c = 0; c < n; c++) {
+                if (rank[c] < 0) {
+                    onCycle.set(c);
+                    stuck.add(codes[c]);
+                }
+            }
+            logger.warning("Prerequisite cycle; these courses can never be taken until it is broken: " + stuck);
+        }
+        return rank;
+    }
+
+    /** True if the course has any prerequisite or corequisite. */
+    public boolean hasRequirements(String courseCode) {
+        Integer c = numbers.get(courseCode);
+        return c != null && (prerequisites[c].length > 0 || corequisites[c].length > 0);
+    }
+
+    /** Codes of the course's direct prerequisites. */
+    public List<String> prerequisitesOf(String courseCode) {
+        Integer c = numbers.get(courseCode);
+        return c == null ? List.of() : toCodes(prerequisites[c]);
+    }
+
+    /** Codes of the course's direct corequisites. */
+    public List<String> corequisitesOf(String courseCode) {
+        Integer c = numbers.get(courseCode);
+        return c == null ? List.of() : toCodes(corequisites[c]);
+    }
+
+    /**
+     * Every course that has to be passed before this one, direct or not, in an
+     * order they can be taken in. Empty if the course is on a prerequisite cycle.
+     */
+    public List<String> prerequisitePath(String courseCode) {
+        Integer start = numbers.get(courseCode);
+        if (start == null || onCycle.get(start)) return List.of();
+        BitSet seen = new BitSet();
+        Deque<Integer> todo = new ArrayDeque<>();
+        todo.push(start);
+        while (!todo.isEmpty()) {
+            for (int r : prerequisites[todo.pop()]) {
+                if (!seen.get(r)) {
+                    seen.set(r);
+                    todo.push(r);
+                }
+            }
+        }
+        Integer[] path = seen.stream().boxed().toArray(Integer[]::new);
+        Arrays.sort(path, (a, b) -> Integer.compare(topoRank[a], topoRank[b]));
+        List<String> out = new ArrayList<>(path.length);
+        for (int c : path) out.add(codes[c]);
+        return out;
+    }
+
+    /**
+     * True if making {@code courseCode} require {@code requiredCode} would close a
+     * prerequisite cycle, i.e. {@code requiredCode} already depends on {@code courseCode}.
+     */
+    public boolean wouldCreateCycle(String courseCode, String requiredCode) {
+        Integer target = numbers.get(courseCode);
+        Integer from = numbers.get(requiredCode);
+        if (target == null || from == null) return false;
+        if (target.equals(from)) return true;
+        BitSet seen = new BitSet();
+        Deque<Integer> todo = new ArrayDeque<>();
+        todo.push(from);
+        while (!todo.isEmpty()) {
+            for (int r : prerequisites[todo.pop()]) {
+                if (r == target) return true;
+                if (!seen.get(r)) {
+                    seen.set(r);
+                    todo.push(r);
+                }
+            }
+        }
+        return false;
+    }
+
+    /** Which courses a student with these enrollments may take next. */
+    public Eligibility eligibility(Collection<Enrollment> enrollments) {
+        BitSet passed = new BitSet(codes.length);
+        BitSet taking = new BitSet(codes.length);
+        for (Enrollment e : enrollments) {
+            Integer c = numbers.get(e.getCourseCode());
+            if (c == null) continue;
+            if (GradeScale.isPassing(e.getGrade())) {
+                passed.set(c);
+            } else if (!GradeScale.isGraded(e.getGrade())) {
+                taking.set(c);
+            }
+        }
+        return new Eligibility(passed, taking);
+    }
+
+    private List<String> toCodes(int[] courses) {
+        List<String> out = new ArrayList<>(courses.length);
+        for (int c : courses) out.add(codes[c]);
+        return out;
+    }
+
+    /**
+     * One student's standing against the graph: every course's eligibility,
+     * worked out once when this is created. Courses unknown to the graph (added
+     * after it was built) have no requirements and are eligible.
+     */
+    public final class Eligibility {
+        private final BitSet passed;
+        private final BitSet passedOrTaking;
+        private final BitSet eligible;
+
+        private Eligibility(BitSet passed, BitSet taking) {
+            this.passed = passed;
+            this.passedOrTaking = (BitSet) passed.clone();
+            passedOrTaking.or(taking);
+            int n = codes.length;
+            eligible = new BitSet(n);
+            for (int c = 0; c < n; c++) {
+                if (!onCycle.get(c) && allSet(passed, prerequisites[c]) && corequisitesMet(c)) {
+                    eligible.set(c);
+                }
+            }
+        }
+
+        public boolean isEligible(String courseCode) {
+            Integer c = numbers.get(courseCode);
+            return c == null || eligible.get(c);
+        }
+
+        /**
+         * What still stands between the student and the course: prerequisites not
+         * yet passed, then corequisites neither passed nor being taken.
+         */
+        public List<String> missing(String courseCode) {
+            Integer c = numbers.get(courseCode);
+            if (c == null) return List.of();
+            List<String> out = new ArrayList<>();
+            for (int r : prerequisites[c]) {
+                if (!passed.get(r)) out.add(codes[r]);
+            }
+            for (int r : corequisites[c]) {
+                if (!corequisiteMet(c, r)) out.add(codes[r]);
+            }
+            return out;
+        }
+
+        /** Number of courses in the catalog the student may take. */
+        public int eligibleCount() {
+            return eligible.cardinality();
+        }
+
+        private boolean corequisitesMet(int c) {
+            for (int r : corequisites[c]) {
+                if (!corequisiteMet(c, r)) return false;
+            }
+            return true;
+        }
+
+        /** Passed or being taken, or r in turn requires c alongside it, so enrolling in c first is fine. */
+        private boolean corequisiteMet(int c, int r) {
+            if (passedOrTaking.get(r)) return true;
+            for (int back : corequisites[r]) {
+                if (back == c) return true;
+            }
+            return false;
+        }
+
+        private boolean allSet(BitSet bits, int[] courses) {
+            for (int r : courses) {
+                if (!bits.get(r)) return false;
+            }
+            return true;
+        }
+    }
+}
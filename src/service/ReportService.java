@@ -0,0 +1,129 @@
+package service;
+
+import config.DBConnection;
+import model.Enrollment;
+import model.PaymentEntry;
+import model.TranscriptEntry;
+import repository.EnrollmentRepository;
+import repository.PaymentRepository;
+import repository.TranscriptRepository;
+import util.GroupConsumer;
+import util.RowConsumer;
+import util.UncheckedSQLException;
+import java.io.IOException;
+import java.io.Writer;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.stream.Stream;
+
+/**
+ * Reports and exports over whole tables. Rows are streamed from the database
+ * and handed on as they arrive, so memory use stays flat however many students
+ * there are. Each call holds one pooled connection until it finishes; the
+ * fetch size comes from -Ddb.stream.fetchSize.
+ */
+public final class ReportService {
+    private ReportService() {
+    }
+
+    /** Every enrollment, oldest first. The consumer must not call back into the database on this thread. */
+    public static long forEachEnrollment(RowConsumer<Enrollment> consumer) throws SQLException, IOException {
+        try (Connection conn = DBConnection.getConnection()) {
+            return EnrollmentRepository.forEachEnrollment(conn, consumer);
+        }
+    }
+
+    /**
+     * Every enrollment as a lazy stream. It holds a pooled connection until closed,
+     * so always close it (try-with-resources). Read errors surface as {@link UncheckedSQLException}.
+     */
+    public static Stream<Enrollment> streamEnrollments() throws SQLException {
+        Connection conn = DBConnection.getConnection();
+        try {
+            return EnrollmentRepository.streamAll(conn).onClose(() -> {
+                try {
+                    conn.close();
+                } catch (SQLException e) {
+                    throw new UncheckedSQLException(e);
+                }
+            });
+        } catch (SQLException | RuntimeException e) {
+            conn.close();
+            throw e;
+        }
+    }
+
+    /** Every student's transcript, one student at a time, ordered by student ID. */
+    public static long forEachTranscript(GroupConsumer<TranscriptEntry> consumer) throws SQLException, IOException {
+        try (Connection conn = DBConnection.getConnection()) {
+            return TranscriptRepository.forEachStudent(conn, consumer);
+        }
+    }
+
+    /** Every student's graded courses, one student at a time, ordered by student ID; students with none are skipped. */
+    public static long forEachGradedTranscript(GroupConsumer<TranscriptEntry> consumer)
+            throws SQLException, IOException {
+        try (Connection conn = DBConnection.getConnection()) {
+            return TranscriptRepository.forEachGradedStudent(conn, consumer);
+        }
+    }
+
+    /** Every student's outstanding course charges, one student at a time, ordered by student ID. */
+    public static long forEachStudentCharges(GroupConsumer<PaymentEntry> consumer) throws SQLException, IOException {
+        try (Connection conn = DBConnection.getConnection()) {
+            return PaymentRepository.forEachStudentCharges(conn, consumer);
+        }
+    }
+
+    /** Writes all enrollments as CSV. @return the number of data rows written. */
+    public static long writeEnrollmentsCsv(Writer out) throws SQLException, IOException {
+        out.write("enrollment_id,student_id,course_code,semester,grade\n");
+        return forEachEnrollment(e -> csvLine(out, String.valueOf(e.getEnrollmentId()), e.getStudentId(),
+                e.getCourseCode(), e.getSemester(), e.getGrade()));
+    }
+
+    /** Writes every transcript line as CSV. @return the number of data rows written. */
+    public static long writeTranscriptsCsv(Writer out) throws SQLException, IOException {
+        out.write("student_id,course_code,course_name,credit_hours,grade\n");
+        long[] rows = {0};
+        forEachTranscript((studentId, entries) -> {
+            for (TranscriptEntry t : entries) {
+                csvLine(out, studentId, t.getCourseCode(), t.getCourseName(), String.valueOf(t.getCreditHours()),
+                        t.getGrade());
+            }
+            rows[0] += entries.size();
+        });
+        return rows[0];
+    }
+
+    /** Writes every outstanding course charge as CSV, amounts in QAR. @return the number of data rows written. */
+    public static long writeChargesCsv(Writer out) throws SQLException, IOException {
+        out.write("student_id,course_code,credit_hours,amount\n");
+        long[] rows = {0};
+        forEachStudentCharges((studentId, charges) -> {
+            for (PaymentEntry p : charges) {
+                csvLine(out, studentId, p.getCourseCode(), String.valueOf(p.getCreditHours()),
+                        p.getCost().toPlainString());
+            }
+            rows[0] += charges.size();
+        });
+        return rows[0];
+    }
+
+    static void csvLine(Writer out, String... fields) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) out.write(',');
+            out.write(csvField(fields[i]));
+        }
+        out.write('\n');
+    }
+
+    /** Quotes a field when it needs it; null becomes an empty field. */
+    static String csvField(String value) {
+        if (value == null) return "";
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,306 @@
+package service;
+
+import config.AppConfig;
+import config.DBConnection;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import model.MeetingTime;
+import model.WeeklySchedule;
+import repository.RowMappers;
+
+/**
+ * Generates a synthetic catalog, instructors, students and enrollments for
+ * demos, benchmarks and load tests. Generated rows are recognizable by their
+ * course-code prefix and e-mail domain, so running it again reuses what an
+ * earlier run created and only tops up the difference.
+ *
+ * Every generated account logs in with {@link #PASSWORD}, hashed with its own
+ * salt at a low PBKDF2 iteration count (-Dseed.hashIterations, default 1000)
+ * so thousands of accounts seed in seconds; the first login upgrades the hash
+ * to the full cost like any outdated one. Enrollments are
+ * billed in the tuition ledger as if made through EnrollmentService. GPA
+ * summaries are not written here; they are built from the enrollments on first read.
+ */
+public final class SeedData {
+    public static final String EMAIL_DOMAIN = "@seed.test";
+    public static final String COURSE_PREFIX = "SD";
+    public static final String PASSWORD = "Seed#Pass1";
+
+    private static final String[] SUBJECTS = {
+            "Algorithms", "Databases", "Networks", "Calculus", "Statistics", "Physics", "Chemistry",
+            "Economics", "Accounting", "Marketing", "Ethics", "Writing", "Biology", "Design", "Robotics"
+    };
+    // Usual section patterns: days and minutes per meeting
+    private static final String[] MEETING_DAYS = {"MWF", "TR", "MW"};
+    private static final int[] MEETING_LENGTHS = {50, 75, 75};
+    private static final String[] GRADES = {"A", "A-", "B+", "B", "B-", "C+", "C", "C-", "D+", "D", "F"};
+    private static final int BATCH = 500;
+    private static final PasswordHasher SEED_HASHER =
+            new Pbkdf2PasswordHasher(Integer.getInteger("seed.hashIterations", 1_000));
+
+    public final List<String> studentIds;
+    public final List<String> instructorIds;
+    public final List<String> courseCodes;
+
+    private SeedData(List<String> studentIds, List<String> instructorIds, List<String> courseCodes) {
+        this.studentIds = Collections.unmodifiableList(studentIds);
+        this.instructorIds = Collections.unmodifiableList(instructorIds);
+        this.courseCodes = Collections.unmodifiableList(courseCodes);
+    }
+
+    /**
+     * Tops the generated data up to the given sizes. Students created by this call
+     * get up to {@code enrollmentsPerStudent} courses each, within the credit limit
+     * and course capacities and without meeting-time clashes, a {@code gradedFraction}
+     * of them already graded.
+     */
+    public static SeedData generate(int students, int courses, int instructors, int enrollmentsPerStudent,
+                                    double gradedFraction, long randomSeed) throws SQLException {
+        Random rnd = new Random(randomSeed);
+
+        List<String> instructorIds = existingIds("instructor");
+        if (instructorIds.size() < instructors) {
+            insertUsers(instructorIds, instructors - instructorIds.size(), "instructor");
+        }
+
+        Map<String, Integer> credits = new LinkedHashMap<>();
+        Map<String, Integer> seatsLeft = new HashMap<>();
+        Map<String, MeetingTime> meetings = new HashMap<>();
+        existingCourses(credits, seatsLeft, meetings);
+        if (credits.size() < courses) {
+            insertCourses(credits, seatsLeft, meetings, courses - credits.size(), Math.max(1, instructors), rnd);
+            CourseCatalog.invalidate();
+        }
+        List<String> courseCodes = new ArrayList<>(credits.keySet());
+
+        List<String> studentIds = existingIds("student");
+        int before = studentIds.size();
+        if (before < students) {
+            insertUsers(studentIds, students - before, "student");
+            if (enrollmentsPerStudent > 0 && !courseCodes.isEmpty()) {
+                insertEnrollments(studentIds.subList(before, studentIds.size()), courseCodes, credits, seatsLeft,
+                        meetings, enrollmentsPerStudent, gradedFraction, rnd);
+            }
+        }
+        return new SeedData(studentIds, instructorIds, courseCodes);
+    }
+
+    /** Display name of the n-th generated instructor, as stored in courses.instructor_name. */
+    public static String instructorName(int n) {
+        return "Seed Instructor " + n;
+    }
+
+    private static List<String> existingIds(String role) throws SQLException {
+        List<String> result = new ArrayList<>();
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                     "SELECT id FROM users WHERE email LIKE ? AND role = ? ORDER BY email")) {
+            stmt.setString(1, "%" + EMAIL_DOMAIN);
+            stmt.setString(2, role);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) result.add(rs.getString(1));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Fills in credit hours, seats left for courses with a limit, and meeting times
+     * for courses that have one, of the generated courses.
+     */
+    private static void existingCourses(Map<String, Integer> credits, Map<String, Integer> seatsLeft,
+                                        Map<String, MeetingTime> meetings) throws SQLException {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                     "SELECT course_code, credit_hours, capacity - seats_taken AS seats_left, "
+                             + "meeting_days, meeting_start, meeting_end FROM courses "
+                             + "WHERE course_code LIKE ? ORDER BY course_code")) {
+            stmt.setString(1, COURSE_PREFIX + "%");
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    credits.put(rs.getString(1), rs.getInt(2));
+                    int left = rs.getInt(3);
+                    if (!rs.wasNull()) seatsLeft.put(rs.getString(1), left);
+                    MeetingTime meeting = RowMappers.meetingTime(rs);
+                    if (meeting != null) meetings.put(rs.getString(1), meeting);
+                }
+            }
+        }
+    }
+
+    private static void insertUsers(List<String> ids, int count, String role) throws SQLException {
+        String sql = "INSERT INTO users (id, name, email, password, salt, role) VALUES (?, ?, ?, ?, ?, ?)";
+        int next = ids.size();
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < count; i++, next++) {
+                String id = AuthService.generateUniversityId();
+                boolean student = "student".equals(role);
+                String salt = AuthService.generateSalt();
+                stmt.setString(1, id);
+                stmt.setString(2, student ? "Seed Student " + id : instructorName(next));
+                stmt.setString(3, (student ? "s" + id : "i" + next) + EMAIL_DOMAIN);
+                stmt.setString(4, SEED_HASHER.hash(PASSWORD, salt));
+                stmt.setString(5, salt);
+                stmt.setString(6, role);
+                stmt.addBatch();
+                ids.add(id);
+                if ((i + 1) % BATCH == 0) stmt.executeBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    private static void insertCourses(Map<String, Integer> credits, Map<String, Integer> seatsLeft,
+                                      Map<String, MeetingTime> meetings, int count, int instructors, Random rnd)
+            throws SQLException {
+        String sql = "INSERT INTO courses (course_code, course_name, credit_hours, instructor_name, course_description, "
+                + "capacity, meeting_days, meeting_start, meeting_end) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        int next = credits.size();
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < count; i++, next++) {
+                String code = COURSE_PREFIX + (1000 + next);
+                String subject = SUBJECTS[next % SUBJECTS.length];
+                // Mostly 3-credit courses, like the real catalog
+                int hours = rnd.nextInt(10) < 7 ? 3 : 1 + rnd.nextInt(4);
+                stmt.setString(1, code);
+                stmt.setString(2, subject + " " + (100 + next / SUBJECTS.length));
+                stmt.setInt(3, hours);
+                stmt.setString(4, instructorName(rnd.nextInt(instructors)));
+                stmt.setString(5, "Synthetic " + subject.toLowerCase() + " course");
+                // Sections of 20 to 120 seats; one in ten has no limit
+                if (rnd.nextInt(10) == 0) {
+                    stmt.setNull(6, Types.INTEGER);
+                } else {
+                    int capacity = 20 + 10 * rnd.nextInt(11);
+                    stmt.setInt(6, capacity);
+                    seatsLeft.put(code, capacity);
+                }
+                // Starting on the hour between 08:00 and 17:00; one in eight has no set time
+                if (rnd.nextInt(8) == 0) {
+                    stmt.setNull(7, Types.VARCHAR);
+                    stmt.setNull(8, Types.INTEGER);
+                    stmt.setNull(9, Types.INTEGER);
+                } else {
+                    int pattern = rnd.nextInt(MEETING_DAYS.length);
+                    int start = (8 + rnd.nextInt(10)) * 60;
+                    MeetingTime meeting = MeetingTime.fromColumns(MEETING_DAYS[pattern], start,
+                            start + MEETING_LENGTHS[pattern]);
+                    stmt.setString(7, meeting.getDays());
+                    stmt.setInt(8, meeting.getStartMinute());
+                    stmt.setInt(9, meeting.getEndMinute());
+                    meetings.put(code, meeting);
+                }
+                stmt.addBatch();
+                credits.put(code, hours);
+                if ((i + 1) % BATCH == 0) stmt.executeBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    private static void insertEnrollments(List<String> students, List<String> courseCodes,
+                                          Map<String, Integer> credits, Map<String, Integer> seatsLeft,
+                                          Map<String, MeetingTime> meetings, int perStudent, double gradedFraction,
+                                          Random rnd) throws SQLException {
+        String sql = "INSERT INTO enrollments (student_id, course_code, grade) VALUES (?, ?, ?)";
+        String chargeSql = "INSERT INTO ledger_entries (student_id, entry_type, course_code, credit_hours, amount_minor) "
+                + "VALUES (?, 'CHARGE', ?, ?, ?)";
+        String balanceSql = "INSERT INTO student_balance (student_id, charged_minor, paid_minor) VALUES (?, ?, 0) "
+                + "ON DUPLICATE KEY UPDATE charged_minor = charged_minor + ?";
+        int pending = 0;
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             PreparedStatement charge = conn.prepareStatement(chargeSql);
+             PreparedStatement balance = conn.prepareStatement(balanceSql)) {
+            for (String studentId : students) {
+                long charged = 0;
+                List<String> picked = new ArrayList<>();
+                WeeklySchedule schedule = new WeeklySchedule();
+                int total = 0;
+                // A few extra draws so a student whose first picks are 4-credit courses still fills up
+                for (int attempt = 0; attempt < perStudent * 3 && picked.size() < perStudent; attempt++) {
+                    String code = courseCodes.get(rnd.nextInt(courseCodes.size()));
+                    int hours = credits.get(code);
+                    if (picked.contains(code) || total + hours > EnrollmentService.MAX_CREDITS) continue;
+                    MeetingTime meeting = meetings.get(code);
+                    if (schedule.conflictsWith(meeting)) continue;
+                    Integer left = seatsLeft.get(code);
+                    if (left != null) {
+                        if (left <= 0) continue;
+                        seatsLeft.put(code, left - 1);
+                    }
+                    picked.add(code);
+                    schedule.add(code, meeting);
+                    total += hours;
+                    stmt.setString(1, studentId);
+                    stmt.setString(2, code);
+                    stmt.setString(3, rnd.nextDouble() < gradedFraction ? GRADES[rnd.nextInt(GRADES.length)] : null);
+                    stmt.addBatch();
+                    // Bill the course as EnrollmentService would have
+                    long tuition = PaymentService.tuitionMinor(hours);
+                    charge.setString(1, studentId);
+                    charge.setString(2, code);
+                    charge.setInt(3, hours);
+                    charge.setLong(4, tuition);
+                    charge.addBatch();
+                    charged += tuition;
+                    if (++pending % BATCH == 0) {
+                        stmt.executeBatch();
+                        charge.executeBatch();
+                    }
+                }
+                if (charged > 0) {
+                    balance.setString(1, studentId);
+                    balance.setLong(2, charged);
+                    balance.setLong(3, charged);
+                    balance.addBatch();
+                }
+            }
+            stmt.executeBatch();
+            charge.executeBatch();
+            balance.executeBatch();
+        }
+        // Rows were inserted directly, not through EnrollmentService, so recount the seats
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("UPDATE courses SET seats_taken = "
+                     + "(SELECT COUNT(*) FROM enrollments e WHERE e.course_code = courses.course_code) "
+                     + "WHERE course_code LIKE ?")) {
+            stmt.setString(1, COURSE_PREFIX + "%");
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Seeds the configured database. Sizes come from -Dseed.students (default 500),
+     * -Dseed.courses (120), -Dseed.instructors (15), -Dseed.enrollmentsPerStudent (4),
+     * -Dseed.gradedFraction (0.5) and -Dseed.randomSeed.
+     */
+    public static void main(String[] args) throws SQLException {
+        AppConfig.load();
+        try {
+            SeedData data = generate(
+                    Integer.getInteger("seed.students", 500),
+                    Integer.getInteger("seed.courses", 120),
+                    Integer.getInteger("seed.instructors", 15),
+                    Integer.getInteger("seed.enrollmentsPerStudent", 4),
+                    Double.parseDouble(System.getProperty("seed.gradedFraction", "0.5")),
+                    Long.getLong("seed.randomSeed", 42L));
+            System.out.println("Seeded " + data.studentIds.size() + " students, " + data.instructorIds.size()
+                    + " instructors and " + data.courseCodes.size() + " courses. Password: " + PASSWORD);
+        } finally {
+            DBConnection.shutdown();
+        }
+    }
+}
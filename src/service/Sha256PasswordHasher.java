@@ -0,0 +1,66 @@
+package service;
+
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * The original scheme: one round of SHA-256 over password + salt, hex encoded.
+ * Kept so existing accounts can still log in (and get rehashed).
+ */
+public class Sha256PasswordHasher implements PasswordHasher {
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    // MessageDigest is not thread-safe; one per thread avoids getInstance() on every call
+    private static final ThreadLocal<MessageDigest> DIGEST = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 algorithm not found.", e);
+        }
+    });
+
+    @Override
+    public String id() {
+        return "sha256";
+    }
+
+    @Override
+    public String hash(String password, String salt) {
+        MessageDigest md = DIGEST.get();
+        // Default charset, as the original String.getBytes() call used, so stored hashes still match
+        byte[] hash = md.digest((password + salt).getBytes(Charset.defaultCharset()));
+        return toHex(hash);
+    }
+
+    @Override
+    public boolean recognizes(String encoded) {
+        if (encoded == null || encoded.length() != 64) return false;
+        for (int i = 0; i < encoded.length(); i++) {
+            char c = encoded.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public boolean verify(String password, String salt, String encoded) {
+        return MessageDigest.isEqual(hash(password, salt).getBytes(), encoded.getBytes());
+    }
+
+    @Override
+    public boolean needsRehash(String encoded) {
+        return false;  // nothing to tune; PasswordHashing upgrades it when another algorithm is the default
+    }
+
+    /** Lower-case hex with a single char[] allocation. */
+    static String toHex(byte[] bytes) {
+        char[] out = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            int b = bytes[i] & 0xff;
+            out[2 * i] = HEX[b >>> 4];
+            out[2 * i + 1] = HEX[b & 0x0f];
+        }
+        return new String(out);
+    }
+}
@@ -0,0 +1,240 @@
+package service;
+
+import config.AppConfig;
+import config.DBConnection;
+import model.AcademicSummary;
+import model.TranscriptEntry;
+import util.PdfDocument;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Logger;
+
+/**
+ * Official transcripts for many students at once, e.g. a graduating class:
+ * one CSV and one PDF per student, plus index.csv listing every student
+ * written with their totals. A student's index row is added only once both
+ * their files are written, and rows stay in student order, so after a failed
+ * export the index lists complete transcripts only.
+ *
+ * Graded enrollments are streamed from the database one student at a time
+ * (see {@link ReportService}); each student's files are rendered and written
+ * on a fork-join pool while the stream moves on. At most a few students per
+ * worker are in memory at once, so a class of any size exports in near
+ * constant memory: beyond those, only each student's file name is kept, to
+ * catch two IDs that would share one. GPA uses the same rules as the stored
+ * summaries ({@link GradeScale}).
+ */
+public final class TranscriptExporter {
+    private static final Logger logger = Logger.getLogger(TranscriptExporter.class.getName());
+
+    // Students read ahead of the workers; the stream waits when this many are queued
+    private static final int QUEUED_PER_WORKER = 4;
+
+    private TranscriptExporter() {
+    }
+
+    /**
+     * Writes a transcript for every student with at least {@code minEarnedCredits}
+     * passed credits into {@code dir}, which is created if needed. Files of the
+     * same name are overwritten. The export stops at the first failure; the
+     * students already in flight finish first. @return the number of students written.
+     * @throws IOException if a file could not be written, or two student IDs map to
+     *         the same file name; files already written stay.
+     */
+    public static long export(Path dir, int minEarnedCredits) throws SQLException, IOException {
+        Files.createDirectories(dir);
+        String issued = LocalDate.now().toString();
+        int parallelism = parallelism();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        Semaphore queued = new Semaphore(parallelism * QUEUED_PER_WORKER);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        AtomicLong written = new AtomicLong();
+        // File name, lower-cased for case-insensitive file systems, to the student it belongs to
+        Map<String, String> names = new HashMap<>();
+        try (Writer out = Files.newBufferedWriter(dir.resolve("index.csv"), StandardCharsets.UTF_8)) {
+            out.write("student_id,attempted_credits,earned_credits,gpa,courses\n");
+            OrderedIndex index = new OrderedIndex(out);
+            long[] sequence = {0};
+            try {
+                ReportService.forEachGradedTranscript((studentId, entries) -> {
+                    // Thrown rather than returned, so the stream stops reading
+                    rethrow(failure.get());
+                    AcademicSummary summary = AcademicSummaryService.summarize(studentId, entries);
+                    if (summary.getEarnedCredits() < minEarnedCredits) return;
+                    String name = fileName(studentId);
+                    String other = names.putIfAbsent(name.toLowerCase(Locale.ROOT), studentId);
+                    if (other != null) {
+                        failure.compareAndSet(null, new IOException("Students " + other + " and " + studentId
+                                + " would both be written to " + name + ".csv and .pdf."));
+                        rethrow(failure.get());
+                    }
+                    long seq = sequence[0]++;
+                    queued.acquireUninterruptibly();
+                    pool.execute(ForkJoinTask.adapt(() -> {
+                        try {
+                            if (failure.get() == null) {
+                                write(dir, name, summary, entries, issued);
+                                written.incrementAndGet();
+                                index.add(seq, indexRow(summary, entries.size()));
+                            }
+                        } catch (IOException | RuntimeException e) {
+                            failure.compareAndSet(null, e);
+                        } finally {
+                            queued.release();
+                        }
+                    }));
+                });
+            } finally {
+                // Let the queued students finish before the index closes, even when the stream failed
+                pool.shutdown();
+                awaitQuietly(pool);
+            }
+        }
+        rethrow(failure.get());
+        logger.info("Wrote " + written.get() + " transcripts to " + dir + ".");
+        return written.get();
+    }
+
+    /** Throws {@code t}, which a worker or the stream recorded, if there is one. */
+    private static void rethrow(Throwable t) throws IOException {
+        if (t instanceof IOException) throw (IOException) t;
+        if (t != null) throw (RuntimeException) t;
+    }
+
+    private static String indexRow(AcademicSummary summary, int courses) throws IOException {
+        StringWriter row = new StringWriter();
+        ReportService.csvLine(row, summary.getStudentId(), String.valueOf(summary.getAttemptedCredits()),
+                String.valueOf(summary.getEarnedCredits()), gpa(summary), String.valueOf(courses));
+        return row.toString();
+    }
+
+    /**
+     * index.csv, fed by the workers as they finish. Each row carries the student's place in
+     * the stream and is held back until every student before it is written; a student
+     * who failed leaves a gap that nothing after it passes.
+     */
+    private static final class OrderedIndex {
+        private final Writer out;
+        private final Map<Long, String> waiting = new HashMap<>();
+        private long next;
+
+        OrderedIndex(Writer out) {
+            this.out = out;
+        }
+
+        synchronized void add(long seq, String row) throws IOException {
+            waiting.put(seq, row);
+            String ready;
+            while ((ready = waiting.remove(next)) != null) {
+                out.write(ready);
+                next++;
+            }
+        }
+    }
+
+    /**
+     * Worker threads rendering transcripts, from -Dtranscripts.parallelism (default:
+     * one per core). Read per export, since main loads app.properties after this class.
+     */
+    static int parallelism() {
+        return Math.max(1, Integer.getInteger("transcripts.parallelism", Runtime.getRuntime().availableProcessors()));
+    }
+
+    private static void awaitQuietly(ForkJoinPool pool) {
+        try {
+            while (!pool.awaitTermination(1, TimeUnit.MINUTES)) {
+                logger.info("Still writing transcripts...");
+            }
+        } catch (InterruptedException e) {
+            pool.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** One student's CSV and PDF, as {@code name}.csv and .pdf. Runs on a pool worker. */
+    private static void write(Path dir, String name, AcademicSummary summary, List<TranscriptEntry> entries,
+                              String issued) throws IOException {
+        try (Writer csv = Files.newBufferedWriter(dir.resolve(name + ".csv"), StandardCharsets.UTF_8)) {
+            csv.write("course_code,course_name,credit_hours,grade,grade_points\n");
+            for (TranscriptEntry t : entries) {
+                ReportService.csvLine(csv, t.getCourseCode(), t.getCourseName(), String.valueOf(t.getCreditHours()),
+                        t.getGrade(), String.format(Locale.ROOT, "%.1f", GradeScale.toPoints(t.getGrade().trim())));
+            }
+        }
+        try (OutputStream pdf = Files.newOutputStream(dir.resolve(name + ".pdf"))) {
+            render(summary, entries, issued).writeTo(pdf);
+        }
+    }
+
+    static PdfDocument render(AcademicSummary summary, List<TranscriptEntry> entries, String issued) {
+        PdfDocument doc = new PdfDocument()
+                .heading("Official Transcript")
+                .text("Student ID: " + summary.getStudentId())
+                .text("Issued: " + issued)
+                .blank()
+                .fixed(String.format(Locale.ROOT, "%-10s %-40s %7s %5s %6s",
+                        "Code", "Course", "Credits", "Grade", "Points"));
+        for (TranscriptEntry t : entries) {
+            doc.fixed(String.format(Locale.ROOT, "%-10s %-40s %7d %5s %6.1f", clip(t.getCourseCode(), 10),
+                    clip(t.getCourseName(), 40), t.getCreditHours(), t.getGrade(),
+                    GradeScale.toPoints(t.getGrade().trim())));
+        }
+        return doc.blank()
+                .text("Credits attempted: " + summary.getAttemptedCredits()
+                        + "    Credits earned: " + summary.getEarnedCredits()
+                        + "    Cumulative GPA: " + gpa(summary));
+    }
+
+    private static String gpa(AcademicSummary summary) {
+        return String.format(Locale.ROOT, "%.2f", summary.getGpa());
+    }
+
+    private static String clip(String s, int width) {
+        if (s == null) return "";
+        return s.length() <= width ? s : s.substring(0, width - 1) + "~";
+    }
+
+    /**
+     * The student ID with anything that is not safe in a file name replaced. Two IDs
+     * can map to the same name (e.g. "a/b" and "a_b"); {@link #export} refuses those.
+     */
+    static String fileName(String studentId) {
+        return studentId.replaceAll("[^A-Za-z0-9_.-]", "_");
+    }
+
+    /**
+     * Exports from the configured database into -Dtranscripts.out (default
+     * "transcripts"), for students with at least -Dtranscripts.minEarnedCredits
+     * (default 0) passed credits.
+     */
+    public static void main(String[] args) throws SQLException, IOException {
+        AppConfig.load();
+        try {
+            Path dir = Paths.get(System.getProperty("transcripts.out", "transcripts"));
+            long start = System.nanoTime();
+            long count = export(dir, Integer.getInteger("transcripts.minEarnedCredits", 0));
+            System.out.println("Wrote " + count + " transcripts to " + dir.toAbsolutePath() + " in "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms on " + parallelism() + " threads.");
+        } finally {
+            DBConnection.shutdown();
+        }
+    }
+}
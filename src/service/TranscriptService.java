@@ -0,0 +1,20 @@
+package service;
+
+import config.DBConnection;
+import model.TranscriptEntry;
+import repository.TranscriptRepository;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+/** A student's courses with their grades, as shown on the transcript. */
+public class TranscriptService {
+    /** Label shown instead of a grade for courses that have not been graded yet. */
+    public static final String IN_PROGRESS = TranscriptEntry.IN_PROGRESS;
+
+    public static List<TranscriptEntry> getTranscript(String studentId) throws SQLException {
+        try (Connection conn = DBConnection.getConnection()) {
+            return TranscriptRepository.forStudent(conn, studentId);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package service;
+
+import config.DBConnection;
+import java.sql.*;
+import java.util.BitSet;
+import java.util.logging.Logger;
+
+/**
+ * Hands out university IDs ("60" followed by six digits) without a database
+ * round-trip per ID.
+ *
+ * The next free number lives in the id_sequence table. Each process reserves
+ * a block of numbers from it in a short transaction and serves IDs from that
+ * block in memory, so two nodes can never hand out the same number. IDs left
+ * in a block when the process exits are simply never used.
+ *
+ * Accounts created before the allocator have random IDs scattered over the
+ * same range; when a block is reserved, the IDs in it that already exist are
+ * read once and skipped.
+ */
+public class UniversityIdAllocator {
+    private static final Logger logger = Logger.getLogger(UniversityIdAllocator.class.getName());
+
+    public static final String PREFIX = "60";
+    /** Six digits after the prefix. */
+    public static final int CAPACITY = 1_000_000;
+
+    private static final String SEQUENCE = "university_id";
+
+    private final int blockSize;
+    private long blockStart;
+    private long next;
+    private long end;        // exclusive
+    private BitSet taken;    // offsets from blockStart already used by existing accounts
+
+    public UniversityIdAllocator(int blockSize) {
+        if (blockSize < 1) throw new IllegalArgumentException("blockSize must be at least 1");
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Returns an ID no other caller or node has been given.
+     * @throws SQLException if a new block cannot be reserved, or the ID space is used up.
+     */
+    public synchronized String nextId() throws SQLException {
+        while (true) {
+            if (next >= end) {
+                refill();
+            }
+            long value = next++;
+            if (taken != null && taken.get((int) (value - blockStart))) continue;
+            return format(value);
+        }
+    }
+
+    /** Numbers left in the current in-memory block (including any that will be skipped). */
+    public synchronized long getBuffered() {
+        return end - next;
+    }
+
+    private void refill() throws SQLException {
+        long start = reserveBlock(blockSize);
+        if (start >= CAPACITY) {
+            throw new SQLException("University ID space exhausted (" + CAPACITY + " IDs).");
+        }
+        blockStart = start;
+        next = start;
+        end = Math.min(start + blockSize, CAPACITY);
+        taken = findTaken(start, end);
+        logger.fine("Reserved university IDs " + format(start) + ".." + format(end - 1));
+    }
+
+    /**
+     * Atomically advances the sequence by {@code size} and returns the first
+     * number of the reserved block.
+     */
+    protected long reserveBlock(int size) throws SQLException {
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                long start;
+                try (PreparedStatement stmt = conn.prepareStatement(
+                        "SELECT next_value FROM id_sequence WHERE name = ? FOR UPDATE")) {
+                    stmt.setString(1, SEQUENCE);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        if (!rs.next()) throw new SQLException("Sequence " + SEQUENCE + " is missing.");
+                        start = rs.getLong(1);
+                    }
+                }
+                try (PreparedStatement stmt = conn.prepareStatement(
+                        "UPDATE id_sequence SET next_value = ? WHERE name = ?")) {
+                    stmt.setLong(1, start + size);
+                    stmt.setString(2, SEQUENCE);
+                    stmt.executeUpdate();
+                }
+                conn.commit();
+                return start;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    /** Marks the numbers in [start, end) that existing accounts already use. */
+    protected BitSet findTaken(long start, long end) throws SQLException {
+        BitSet result = new BitSet((int) (end - start));
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT id FROM users WHERE id BETWEEN ? AND ?")) {
+            stmt.setString(1, format(start));
+            stmt.setString(2, format(end - 1));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    long value = parse(rs.getString(1));
+                    if (value >= start && value < end) {
+                        result.set((int) (value - start));
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /** Reports how much of the ID space has been reserved and how many accounts hold IDs in it. */
+    public IdSpaceUsage getUsage() throws SQLException {
+        try (Connection conn = DBConnection.getConnection()) {
+            long reserved;
+            try (PreparedStatement stmt = conn.prepareStatement("SELECT next_value FROM id_sequence WHERE name = ?")) {
+                stmt.setString(1, SEQUENCE);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    reserved = rs.next() ? Math.min(rs.getLong(1), CAPACITY) : 0;
+                }
+            }
+            long assigned;
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "SELECT COUNT(*) FROM users WHERE id BETWEEN ? AND ? AND CHAR_LENGTH(id) = ?")) {
+                stmt.setString(1, format(0));
+                stmt.setString(2, format(CAPACITY - 1));
+                stmt.setInt(3, PREFIX.length() + 6);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    rs.next();
+                    assigned = rs.getLong(1);
+                }
+            }
+            return new IdSpaceUsage(CAPACITY, reserved, assigned, getBuffered());
+        }
+    }
+
+    static String format(long value) {
+        String digits = Long.toString(value);
+        return PREFIX + "000000".substring(digits.length()) + digits;
+    }
+
+    private static long parse(String id) {
+        try {
+            return Long.parseLong(id.substring(PREFIX.length()));
+        } catch (RuntimeException e) {
+            return -1;
+        }
+    }
+}
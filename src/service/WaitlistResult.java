@@ -0,0 +1,13 @@
+package service;
+
+/** Outcome of asking to join a course's waitlist. */
+public enum WaitlistResult {
+    JOINED,
+    ALREADY_WAITLISTED,
+    ALREADY_ENROLLED,
+    /** The course has a seat left (or no seat limit); enroll instead. */
+    SEATS_AVAILABLE,
+    PREREQUISITES_NOT_MET,
+    COURSE_NOT_FOUND,
+    STUDENT_NOT_FOUND
+}
@@ -0,0 +1,188 @@
+package service;
+
+import config.DBConnection;
+import model.WaitlistEntry;
+import repository.CourseRepository;
+import repository.EnrollmentRepository;
+import repository.UserRepository;
+import repository.WaitlistRepository;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * Per-course waitlists for full sections. Students wait in waitlist_entries,
+ * served by class standing (seniors first) and then in order of joining; when
+ * an enrolled student drops, {@link EnrollmentService#drop} promotes the first
+ * one who still qualifies, so nobody has to keep retrying enroll to catch a
+ * freed seat. Course edits that may let more students in (more capacity, a new
+ * meeting time, a requirement removed) promote through
+ * {@link EnrollmentService#promoteWaiting}.
+ *
+ * Waiting students see their place in line from an in-memory priority queue
+ * per course, so polling positions does not touch the database. A queue is
+ * loaded from the table on first use, kept up to date by this process's own
+ * changes and reloaded after -Dwaitlist.cacheMs to pick up other clients'.
+ * Promotion itself always reads the table, under the students' row locks.
+ */
+public class WaitlistService {
+    private static final Logger logger = Logger.getLogger(WaitlistService.class.getName());
+
+    private static final long CACHE_MS = Long.getLong("waitlist.cacheMs", 5_000L);
+    /** How many waiting students are locked and considered at a time when a seat comes up. */
+    static final int PROMOTION_CANDIDATES = Integer.getInteger("waitlist.promotionCandidates", 5);
+
+    private static final Map<String, CourseQueue> queues = new ConcurrentHashMap<>();
+
+    /**
+     * Puts the student on the course's waitlist if it is full, they are not already
+     * in it or waiting for it, and they meet its prerequisites. The credit limit
+     * and meeting times are checked when a seat comes up, not now.
+     */
+    public static WaitlistResult join(String studentId, String courseCode) throws SQLException {
+        PrerequisiteGraph prerequisites = CourseCatalog.getPrerequisites();
+        WaitlistEntry joined;
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+            conn.setAutoCommit(false);
+            try {
+                WaitlistResult result = joinInTransaction(conn, studentId, courseCode, prerequisites);
+                if (result != WaitlistResult.JOINED) {
+                    conn.rollback();
+                    return result;
+                }
+                joined = WaitlistRepository.find(conn, courseCode, studentId);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                logger.severe("Waitlist join failed: " + e.getMessage());
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+        CourseQueue queue = queues.get(courseCode);
+        if (queue != null) queue.add(joined);
+        return WaitlistResult.JOINED;
+    }
+
+    private static WaitlistResult joinInTransaction(Connection conn, String studentId, String courseCode,
+                                                    PrerequisiteGraph prerequisites) throws SQLException {
+        // Same lock as enroll and drop, so the checks below cannot race a promotion
+        if (!UserRepository.lock(conn, studentId)) return WaitlistResult.STUDENT_NOT_FOUND;
+        EnrollmentRepository.Check check = EnrollmentRepository.check(conn, studentId, courseCode);
+        if (check.courseCredits == null) return WaitlistResult.COURSE_NOT_FOUND;
+        if (check.alreadyEnrolled) return WaitlistResult.ALREADY_ENROLLED;
+        if (WaitlistRepository.find(conn, courseCode, studentId) != null) return WaitlistResult.ALREADY_WAITLISTED;
+        if (prerequisites.hasRequirements(courseCode)
+                && !prerequisites.eligibility(EnrollmentRepository.forStudent(conn, studentId)).isEligible(courseCode)) {
+            return WaitlistResult.PREREQUISITES_NOT_MET;
+        }
+        if (CourseRepository.hasFreeSeat(conn, courseCode)) return WaitlistResult.SEATS_AVAILABLE;
+        int earned = AcademicSummaryService.readSummary(conn, studentId).getEarnedCredits();
+        WaitlistRepository.insert(conn, courseCode, studentId, classStanding(earned));
+        return WaitlistResult.JOINED;
+    }
+
+    /** @return true if the student was waiting for the course. */
+    public static boolean leave(String studentId, String courseCode) throws SQLException {
+        boolean left;
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                UserRepository.lock(conn, studentId);
+                left = WaitlistRepository.delete(conn, courseCode, studentId);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+        removed(courseCode, studentId);
+        return left;
+    }
+
+    /** The student's place in line (1 = next) for every course they are waiting for, by course code. */
+    public static Map<String, Integer> getPositions(String studentId) throws SQLException {
+        List<WaitlistEntry> waiting;
+        try (Connection conn = DBConnection.getConnection()) {
+            waiting = WaitlistRepository.forStudent(conn, studentId);
+        }
+        Map<String, Integer> positions = new LinkedHashMap<>();
+        for (WaitlistEntry entry : waiting) {
+            positions.put(entry.getCourseCode(), queue(entry.getCourseCode()).positionOf(entry));
+        }
+        return positions;
+    }
+
+    /** Number of students waiting for the course. */
+    public static int getLength(String courseCode) throws SQLException {
+        return queue(courseCode).size();
+    }
+
+    /** 0 first-year, 1 second-year, 2 third-year, 3 senior, by credits earned (30 a year). */
+    static int classStanding(int earnedCredits) {
+        return Math.min(3, Math.max(0, earnedCredits / 30));
+    }
+
+    /** Updates the cached queue after a committed change took the student off the course's list. */
+    static void removed(String courseCode, String studentId) {
+        CourseQueue queue = queues.get(courseCode);
+        if (queue != null) queue.remove(studentId);
+    }
+
+    /** Forgets the course's queue, e.g. when the course is deleted. */
+    static void invalidate(String courseCode) {
+        queues.remove(courseCode);
+    }
+
+    private static CourseQueue queue(String courseCode) throws SQLException {
+        CourseQueue queue = queues.get(courseCode);
+        if (queue != null && System.currentTimeMillis() - queue.loadedAt < CACHE_MS) return queue;
+        List<WaitlistEntry> entries;
+        try (Connection conn = DBConnection.getConnection()) {
+            entries = WaitlistRepository.forCourse(conn, courseCode);
+        }
+        queue = new CourseQueue(entries);
+        queues.put(courseCode, queue);
+        return queue;
+    }
+
+    /** One course's waitlist in serving order. */
+    private static final class CourseQueue {
+        final long loadedAt = System.currentTimeMillis();
+        private final PriorityQueue<WaitlistEntry> entries = new PriorityQueue<>(WaitlistEntry.SERVING_ORDER);
+
+        CourseQueue(List<WaitlistEntry> loaded) {
+            entries.addAll(loaded);
+        }
+
+        synchronized void add(WaitlistEntry entry) {
+            if (entry != null) entries.add(entry);
+        }
+
+        synchronized void remove(String studentId) {
+            entries.removeIf(e -> e.getStudentId().equals(studentId));
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+
+        /** 1 + the number of entries served before this one. */
+        synchronized int positionOf(WaitlistEntry entry) {
+            int ahead = 0;
+            for (WaitlistEntry e : entries) {
+                if (WaitlistEntry.SERVING_ORDER.compare(e, entry) < 0) ahead++;
+            }
+            return ahead + 1;
+        }
+    }
+}
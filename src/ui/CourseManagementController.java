@@ -1,15 +1,22 @@
 package ui;
 
-import config.DBConnection;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.property.ReadOnlyStringWrapper;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Parent;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 import model.Course;
-import java.sql.*;
+import model.MeetingTime;
+import service.CatalogPageSource;
+import service.CourseCatalog;
+import service.EnrollmentService;
+import util.PageQuery;
+import util.PagedTableLoader;
+import util.TaskGroup;
+import util.ViewLoader;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.logging.Logger;
 
 public class CourseManagementController {
@@ -17,11 +24,16 @@ public class CourseManagementController {
     @FXML private TableColumn<Course, String> courseCodeColumn;
     @FXML private TableColumn<Course, String> courseNameColumn;
     @FXML private TableColumn<Course, Integer> creditHoursColumn;
+    @FXML private TableColumn<Course, Integer> capacityColumn;
+    @FXML private TableColumn<Course, String> meetingTimeColumn;
     @FXML private TableColumn<Course, String> instructorColumn;
     @FXML private TableColumn<Course, String> descriptionColumn;
+    @FXML private TextField courseFilterField;
     @FXML private TextField courseCodeField;
     @FXML private TextField courseNameField;
     @FXML private TextField creditHoursField;
+    @FXML private TextField capacityField;
+    @FXML private TextField meetingTimeField;
     @FXML private TextField instructorField;
     @FXML private TextArea descriptionField;
     @FXML private Button addButton;
@@ -29,6 +41,8 @@ public class CourseManagementController {
     @FXML private Button goBackButton;
 
     private static final Logger logger = Logger.getLogger(CourseManagementController.class.getName());
+    private final TaskGroup tasks = new TaskGroup();
+    private PagedTableLoader<Course> courseLoader;
 
     @FXML
     public void initialize() {
@@ -36,31 +50,28 @@ public class CourseManagementController {
         courseCodeColumn.setCellValueFactory(new PropertyValueFactory<>("courseCode"));
         courseNameColumn.setCellValueFactory(new PropertyValueFactory<>("courseName"));
         creditHoursColumn.setCellValueFactory(new PropertyValueFactory<>("creditHours"));
+        // Blank for courses without a seat limit
+        capacityColumn.setCellValueFactory(cd -> new ReadOnlyObjectWrapper<>(
+                cd.getValue().hasSeatLimit() ? cd.getValue().getCapacity() : null));
+        meetingTimeColumn.setCellValueFactory(cd -> new ReadOnlyStringWrapper(
+                cd.getValue().getMeetingTime() == null ? "TBA" : cd.getValue().getMeetingTime().toString()));
         instructorColumn.setCellValueFactory(new PropertyValueFactory<>("instructorName"));
         descriptionColumn.setCellValueFactory(new PropertyValueFactory<>("courseDescription"));
+
+        Map<TableColumn<Course, ?>, String> sortable = new HashMap<>();
+        sortable.put(courseCodeColumn, "courseCode");
+        sortable.put(courseNameColumn, "courseName");
+        sortable.put(creditHoursColumn, "creditHours");
+        sortable.put(instructorColumn, "instructorName");
+        courseLoader = new PagedTableLoader<>(courseTable, new CatalogPageSource(), tasks,
+                sortable, new PageQuery(null, true, ""),
+                e -> showAlert("Failed to load courses."));
+        courseFilterField.textProperty().addListener((obs, old, text) -> courseLoader.setFilter(text));
         loadCourses();
     }
 
     private void loadCourses() {
-        ObservableList<Course> courses = FXCollections.observableArrayList();
-        String sql = "SELECT * FROM courses";
-        try (Connection conn = DBConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            while (rs.next()) {
-                courses.add(new Course(
-                        rs.getString("course_code"),
-                        rs.getString("course_name"),
-                        rs.getInt("credit_hours"),
-                        rs.getString("instructor_name"),
-                        rs.getString("course_description")
-                ));
-            }
-            courseTable.setItems(courses);
-        } catch (SQLException e) {
-            logger.severe("Error loading courses: " + e.getMessage());
-            showAlert("Failed to load courses.");
-        }
+        courseLoader.reload();
     }
 
     @FXML
@@ -68,11 +79,13 @@ public class CourseManagementController {
         String code = courseCodeField.getText().trim();
         String name = courseNameField.getText().trim();
         String hoursStr = creditHoursField.getText().trim();
+        String capacityStr = capacityField.getText().trim();
+        String meetingStr = meetingTimeField.getText().trim();
         String instructor = instructorField.getText().trim();
         String description = descriptionField.getText().trim();
 
         if (code.isEmpty() || name.isEmpty() || hoursStr.isEmpty() || instructor.isEmpty()) {
-            showAlert("All fields except description are required.");
+            showAlert("All fields except capacity, meeting time and description are required.");
             return;
         }
         int hours;
@@ -82,22 +95,57 @@ public class CourseManagementController {
             showAlert("Credit hours must be a number.");
             return;
         }
-        String sql = "INSERT INTO courses (course_code, course_name, credit_hours, instructor_name, course_description) "
-                + "VALUES (?, ?, ?, ?, ?)";
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setString(1, code);
-            stmt.setString(2, name);
-            stmt.setInt(3, hours);
-            stmt.setString(4, instructor);
-            stmt.setString(5, description);
-            stmt.executeUpdate();
-            showAlert("Course added successfully.");
-            clearFields();
-            loadCourses();
+        int capacity = parseCapacity(capacityStr);
+        if (capacity < 0) {
+            showAlert("Capacity must be a positive number, or blank for no limit.");
+            return;
+        }
+        MeetingTime meeting = null;
+        if (!meetingStr.isEmpty()) {
+            try {
+                meeting = MeetingTime.parse(meetingStr);
+            } catch (IllegalArgumentException e) {
+                showAlert(e.getMessage());
+                return;
+            }
+        }
+        Course course = new Course(code, name, hours, instructor, description, capacity);
+        course.setMeetingTime(meeting);
+        addButton.setDisable(true);
+        tasks.submit(() -> {
+                    insertCourse(course);
+                    return null;
+                },
+                ignored -> {
+                    addButton.setDisable(false);
+                    showAlert("Course added successfully.");
+                    clearFields();
+                    loadCourses();
+                },
+                e -> {
+                    addButton.setDisable(false);
+                    showAlert("Error adding course.");
+                });
+    }
+
+    /** 0 for blank (no seat limit), -1 if not a positive number. */
+    private static int parseCapacity(String text) {
+        if (text.isEmpty()) return 0;
+        try {
+            int capacity = Integer.parseInt(text);
+            return capacity > 0 ? capacity : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private void insertCourse(Course course) throws SQLException {
+        try {
+            // Write-through: the catalog cache is invalidated as part of the insert
+            CourseCatalog.addCourse(course);
         } catch (SQLException e) {
             logger.severe("Failed to add course: " + e.getMessage());
-            showAlert("Error adding course.");
+            throw e;
         }
     }
 
@@ -109,19 +157,22 @@ public class CourseManagementController {
             return;
         }
         // Prevent deletion if students are enrolled in this course
-        String checkSql = "SELECT COUNT(*) FROM enrollments WHERE course_code = ?";
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(checkSql)) {
-            ps.setString(1, selected.getCourseCode());
-            ResultSet rs = ps.executeQuery();
-            if (rs.next() && rs.getInt(1) > 0) {
-                showAlert("Cannot delete course \"" + selected.getCourseName()
-                        + "\" because students are enrolled in it.");
-                return;
-            }
-        } catch (SQLException e) {
-            logger.warning("Enrollment check failed: " + e.getMessage());
-        }
+        tasks.submit(() -> EnrollmentService.countEnrollments(selected.getCourseCode()),
+                count -> {
+                    if (count > 0) {
+                        showAlert("Cannot delete course \"" + selected.getCourseName()
+                                + "\" because students are enrolled in it.");
+                    } else {
+                        confirmAndDelete(selected);
+                    }
+                },
+                e -> {
+                    logger.warning("Enrollment check failed: " + e.getMessage());
+                    confirmAndDelete(selected);
+                });
+    }
+
+    private void confirmAndDelete(Course selected) {
         // Confirm deletion
         Alert confirm = new Alert(Alert.AlertType.CONFIRMATION,
                 "Delete course \"" + selected.getCourseName() + "\"?",
@@ -132,24 +183,36 @@ public class CourseManagementController {
             return;
         }
         // Proceed with deletion
-        String sql = "DELETE FROM courses WHERE course_code = ?";
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setString(1, selected.getCourseCode());
-            stmt.executeUpdate();
-            showAlert("Course deleted successfully.");
-            loadCourses();
+        deleteButton.setDisable(true);
+        tasks.submit(() -> {
+                    deleteCourse(selected.getCourseCode());
+                    return null;
+                },
+                ignored -> {
+                    deleteButton.setDisable(false);
+                    showAlert("Course deleted successfully.");
+                    loadCourses();
+                },
+                e -> {
+                    deleteButton.setDisable(false);
+                    showAlert("Error deleting course.");
+                });
+    }
+
+    private void deleteCourse(String courseCode) throws SQLException {
+        try {
+            CourseCatalog.deleteCourse(courseCode);
         } catch (SQLException e) {
             logger.severe("Failed to delete course: " + e.getMessage());
-            showAlert("Error deleting course.");
+            throw e;
         }
     }
 
     @FXML
     private void handleGoBack() {
+        tasks.cancelAll();
         try {
-            Parent root = FXMLLoader.load(getClass().getResource("/view/Dashboard.fxml"));
-            goBackButton.getScene().setRoot(root);
+            ViewLoader.show(goBackButton, "/view/Dashboard.fxml");
         } catch (Exception e) {
             logger.severe("Error returning to dashboard: " + e.getMessage());
             showAlert("Could not return to dashboard.");
@@ -160,6 +223,8 @@ public class CourseManagementController {
         courseCodeField.clear();
         courseNameField.clear();
         creditHoursField.clear();
+        capacityField.clear();
+        meetingTimeField.clear();
         instructorField.clear();
         descriptionField.clear();
     }
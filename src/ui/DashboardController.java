@@ -1,12 +1,11 @@
 package ui;
 
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Parent;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import util.SessionManager;
+import util.ViewLoader;
 
 public class DashboardController {
     @FXML private Label welcomeLabel;
@@ -71,8 +70,7 @@ public class DashboardController {
             return;
         }
         try {
-            Parent root = FXMLLoader.load(getClass().getResource("/view/CourseManagement.fxml"));
-            welcomeLabel.getScene().setRoot(root);
+            ViewLoader.show(welcomeLabel, "/view/CourseManagement.fxml");
         } catch (Exception e) {
             e.printStackTrace();
             showAlert("Error loading the Course Management module.");
@@ -82,12 +80,9 @@ public class DashboardController {
     @FXML
     private void handleEnrollment() {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/view/Enrollment.fxml"));
-            Parent root = loader.load();
             // Set student ID for the enrollment screen
-            EnrollmentController controller = loader.getController();
-            controller.setStudentId(SessionManager.getStudentId());
-            enrollmentButton.getScene().setRoot(root);
+            ViewLoader.<EnrollmentController>show(enrollmentButton, "/view/Enrollment.fxml",
+                    controller -> controller.setStudentId(SessionManager.getStudentId()));
         } catch (Exception e) {
             e.printStackTrace();
             showAlert("Error loading the Enrollment module.");
@@ -97,11 +92,8 @@ public class DashboardController {
     @FXML
     private void handleTranscript() {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/view/Transcript.fxml"));
-            Parent root = loader.load();
-            TranscriptController controller = loader.getController();
-            controller.setStudentId(SessionManager.getStudentId());
-            transcriptButton.getScene().setRoot(root);
+            ViewLoader.<TranscriptController>show(transcriptButton, "/view/Transcript.fxml",
+                    controller -> controller.setStudentId(SessionManager.getStudentId()));
         } catch (Exception e) {
             e.printStackTrace();
             showAlert("Error loading the Transcript module.");
@@ -111,12 +103,9 @@ public class DashboardController {
     @FXML
     private void handlePayTuition() {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/view/Payment.fxml"));
-            Parent root = loader.load();
-            PaymentController controller = loader.getController();
             // Pass the current student's ID from SessionManager
-            controller.setStudentId(SessionManager.getStudentId());
-            payTuitionButton.getScene().setRoot(root);
+            ViewLoader.<PaymentController>show(payTuitionButton, "/view/Payment.fxml",
+                    controller -> controller.setStudentId(SessionManager.getStudentId()));
         } catch (Exception e) {
             e.printStackTrace();
             showAlert("Error loading the Payment screen.");
@@ -128,8 +117,7 @@ public class DashboardController {
         try {
             // Clear session data on logout
             SessionManager.clearSession();
-            Parent root = FXMLLoader.load(getClass().getResource("/view/login.fxml"));
-            logoutButton.getScene().setRoot(root);
+            ViewLoader.show(logoutButton, "/view/login.fxml");
         } catch (Exception e) {
             e.printStackTrace();
             showAlert("Logout failed.");
@@ -146,12 +134,9 @@ public class DashboardController {
             return;
         }
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/view/GradeManagement.fxml"));
-            Parent root = loader.load();
-            GradeManagementController controller = loader.getController();
             // Pass instructor's name if needed (here we set it for reference)
-            controller.setInstructorName(SessionManager.getUserName());
-            gradeManagementButton.getScene().setRoot(root);
+            ViewLoader.<GradeManagementController>show(gradeManagementButton, "/view/GradeManagement.fxml",
+                    controller -> controller.setInstructorName(SessionManager.getUserName()));
         } catch (Exception e) {
             e.printStackTrace();
             showAlert("Error loading Grade Management.");
@@ -1,14 +1,28 @@
 package ui;
 
-import config.DBConnection;
+import javafx.animation.PauseTransition;
+import javafx.beans.property.ReadOnlyStringWrapper;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Parent;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.util.Duration;
 import model.Course;
+import model.WeeklySchedule;
+import service.CatalogPageSource;
+import service.EnrollmentResult;
+import service.EnrollmentService;
+import service.PrerequisiteGraph;
+import service.WaitlistResult;
+import service.WaitlistService;
+import util.PageQuery;
+import util.PagedTableLoader;
 import util.SessionManager;
-import java.sql.*;
+import util.TaskGroup;
+import util.ViewLoader;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.logging.Logger;
 
 public class EnrollmentController {
@@ -16,19 +30,43 @@ public class EnrollmentController {
     @FXML private TableColumn<Course, String> availableCourseCodeColumn;
     @FXML private TableColumn<Course, String> availableCourseNameColumn;
     @FXML private TableColumn<Course, Integer> availableCreditHoursColumn;
+    @FXML private TableColumn<Course, String> availableSeatsColumn;
+    @FXML private TableColumn<Course, String> availableMeetsColumn;
+    @FXML private TableColumn<Course, String> availableRequiresColumn;
     @FXML private TableColumn<Course, String> availableCourseDescriptionColumn;
     @FXML private TableColumn<Course, String> availableInstructorColumn;
     @FXML private TableView<Course> enrolledCoursesTable;
     @FXML private TableColumn<Course, String> enrolledCourseCodeColumn;
     @FXML private TableColumn<Course, String> enrolledCourseNameColumn;
     @FXML private TableColumn<Course, Integer> enrolledCreditHoursColumn;
+    @FXML private TableColumn<Course, String> enrolledMeetsColumn;
     @FXML private TableColumn<Course, String> enrolledCourseDescriptionColumn;
     @FXML private TableColumn<Course, String> enrolledInstructorColumn;
+    @FXML private Label waitlistLabel;
+    @FXML private TextField courseFilterField;
+    @FXML private CheckBox hideConflictsCheckBox;
     @FXML private Button enrollButton;
     @FXML private Button dropButton;
     @FXML private Button goBackButton;
 
     private static final Logger logger = Logger.getLogger(EnrollmentController.class.getName());
+    // How often the seats-left column is re-read while this screen is open
+    private static final long SEAT_REFRESH_MS = Long.getLong("enrollment.seatRefreshMs", 5_000L);
+
+    private final TaskGroup tasks = new TaskGroup();
+    private final PauseTransition seatRefresh = new PauseTransition(Duration.millis(SEAT_REFRESH_MS));
+    private String studentId;
+    private final CatalogPageSource catalogSource = new CatalogPageSource();
+    private PagedTableLoader<Course> availableLoader;
+    // Meeting times of the enrolled courses, rebuilt whenever that table reloads.
+    // Replaced rather than changed, since the hide filter reads it off the FX thread.
+    private WeeklySchedule schedule = new WeeklySchedule();
+    // Which catalog courses the student may take; null until first loaded
+    private PrerequisiteGraph.Eligibility eligibility;
+    // Seats taken per capped course, as of the last refresh
+    private Map<String, Integer> seatsTaken = new HashMap<>();
+    // The student's place in line per waitlisted course, as of the last load
+    private Map<String, Integer> waitlistPositions = Map.of();
 
     @FXML
     public void initialize() {
@@ -36,70 +74,132 @@ public class EnrollmentController {
         availableCourseCodeColumn.setCellValueFactory(new PropertyValueFactory<>("courseCode"));
         availableCourseNameColumn.setCellValueFactory(new PropertyValueFactory<>("courseName"));
         availableCreditHoursColumn.setCellValueFactory(new PropertyValueFactory<>("creditHours"));
+        availableSeatsColumn.setCellValueFactory(cd -> new ReadOnlyStringWrapper(seatsLeft(cd.getValue())));
+        availableMeetsColumn.setCellValueFactory(cd -> new ReadOnlyStringWrapper(meets(cd.getValue())));
+        availableRequiresColumn.setCellValueFactory(cd -> new ReadOnlyStringWrapper(requires(cd.getValue())));
         availableCourseDescriptionColumn.setCellValueFactory(new PropertyValueFactory<>("courseDescription"));
         availableInstructorColumn.setCellValueFactory(new PropertyValueFactory<>("instructorName"));
 
         enrolledCourseCodeColumn.setCellValueFactory(new PropertyValueFactory<>("courseCode"));
         enrolledCourseNameColumn.setCellValueFactory(new PropertyValueFactory<>("courseName"));
         enrolledCreditHoursColumn.setCellValueFactory(new PropertyValueFactory<>("creditHours"));
+        enrolledMeetsColumn.setCellValueFactory(cd -> new ReadOnlyStringWrapper(meets(cd.getValue())));
         enrolledCourseDescriptionColumn.setCellValueFactory(new PropertyValueFactory<>("courseDescription"));
         enrolledInstructorColumn.setCellValueFactory(new PropertyValueFactory<>("instructorName"));
 
+        // Available courses are paged from the catalog; sort and filter re-query instead of sorting locally.
+        // Until a column is sorted, search results come best match first
+        Map<TableColumn<Course, ?>, String> sortable = new HashMap<>();
+        sortable.put(availableCourseCodeColumn, "courseCode");
+        sortable.put(availableCourseNameColumn, "courseName");
+        sortable.put(availableCreditHoursColumn, "creditHours");
+        sortable.put(availableInstructorColumn, "instructorName");
+        availableLoader = new PagedTableLoader<>(availableCoursesTable, catalogSource, tasks,
+                sortable, new PageQuery(null, true, ""),
+                e -> showAlert("Error loading available courses."));
+        courseFilterField.textProperty().addListener((obs, old, text) -> availableLoader.setFilter(text));
+        hideConflictsCheckBox.selectedProperty().addListener((obs, old, hide) -> applyHideConflicts());
+
         loadAvailableCourses();
+        seatRefresh.setOnFinished(e -> refreshSeats());
+        refreshSeats();
     }
 
-    // Called from DashboardController to set current student ID
+    // Called from DashboardController with the student whose enrollments this screen manages
     public void setStudentId(String studentId) {
-        // Update session's student ID (name/role remain same)
-        SessionManager.setCurrentUser(SessionManager.getUserName(), SessionManager.getUserRole(), studentId);
+        this.studentId = studentId;
         loadEnrolledCourses();
     }
 
     private void loadAvailableCourses() {
-        String sql = "SELECT * FROM courses";
-        try (Connection conn = DBConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            availableCoursesTable.getItems().clear();
-            while (rs.next()) {
-                Course course = new Course(
-                        rs.getString("course_code"),
-                        rs.getString("course_name"),
-                        rs.getInt("credit_hours"),
-                        rs.getString("instructor_name"),
-                        rs.getString("course_description")
-                );
-                availableCoursesTable.getItems().add(course);
-            }
-        } catch (SQLException e) {
-            logger.severe("Error loading available courses: " + e.getMessage());
-            showAlert("Error loading available courses.");
-        }
+        availableLoader.reload();
+    }
+
+    /**
+     * Re-reads seat counts and redraws the seats column, then schedules the next
+     * refresh. Only the counts are fetched; the loaded pages stay as they are.
+     */
+    private void refreshSeats() {
+        seatRefresh.stop();
+        tasks.submit(EnrollmentService::getSeatsTaken,
+                seats -> {
+                    seatsTaken = seats;
+                    availableCoursesTable.refresh();
+                    seatRefresh.playFromStart();
+                },
+                e -> {
+                    logger.warning("Error loading seat counts: " + e.getMessage());
+                    seatRefresh.playFromStart();
+                });
+    }
+
+    private String seatsLeft(Course course) {
+        if (!course.hasSeatLimit()) return "No limit";
+        int left = Math.max(0, course.getCapacity() - seatsTaken.getOrDefault(course.getCourseCode(), 0));
+        return left == 0 ? "Full" : left + " of " + course.getCapacity();
+    }
+
+    private static String meets(Course course) {
+        return course.getMeetingTime() == null ? "TBA" : course.getMeetingTime().toString();
     }
 
     private void loadEnrolledCourses() {
-        String studentId = SessionManager.getStudentId();
+        String studentId = this.studentId;
         if (studentId == null || studentId.isEmpty()) return;
-        String sql = "SELECT c.* FROM courses c JOIN enrollments e ON c.course_code = e.course_code WHERE e.student_id = ?";
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setString(1, studentId);
-            ResultSet rs = stmt.executeQuery();
-            enrolledCoursesTable.getItems().clear();
-            while (rs.next()) {
-                Course course = new Course(
-                        rs.getString("course_code"),
-                        rs.getString("course_name"),
-                        rs.getInt("credit_hours"),
-                        rs.getString("instructor_name"),
-                        rs.getString("course_description")
-                );
-                enrolledCoursesTable.getItems().add(course);
-            }
-        } catch (SQLException e) {
-            logger.severe("Error loading enrolled courses: " + e.getMessage());
-            showAlert("Error loading enrolled courses.");
-        }
+        tasks.loadTable(enrolledCoursesTable, () -> EnrollmentService.getEnrolledCourses(studentId),
+                rows -> {
+                    schedule = WeeklySchedule.of(rows);
+                    if (hideConflictsCheckBox.isSelected()) applyHideConflicts();
+                    loadEligibility(studentId);
+                    loadWaitlist(studentId);
+                },
+                e -> {
+                    logger.severe("Error loading enrolled courses: " + e.getMessage());
+                    showAlert("Error loading enrolled courses.");
+                });
+    }
+
+    /** Works out eligibility for the whole catalog in one call, then greys out the courses the student cannot take. */
+    private void loadEligibility(String studentId) {
+        tasks.submit(() -> EnrollmentService.getEligibility(studentId),
+                loaded -> {
+                    eligibility = loaded;
+                    availableLoader.setRowDisabled(c -> !loaded.isEligible(c.getCourseCode()));
+                },
+                e -> logger.warning("Error loading prerequisites: " + e.getMessage()));
+    }
+
+    /** Shows the courses the student is waiting for and their place in each line. */
+    private void loadWaitlist(String studentId) {
+        tasks.submit(() -> WaitlistService.getPositions(studentId),
+                positions -> {
+                    waitlistPositions = positions;
+                    if (positions.isEmpty()) {
+                        waitlistLabel.setText("");
+                        return;
+                    }
+                    StringBuilder text = new StringBuilder("Waitlisted:");
+                    positions.forEach((code, position) -> text.append(' ').append(code).append(" (#")
+                            .append(position).append(')'));
+                    waitlistLabel.setText(text.toString());
+                },
+                e -> logger.warning("Error loading waitlist: " + e.getMessage()));
+    }
+
+    private String requires(Course course) {
+        PrerequisiteGraph.Eligibility loaded = eligibility;
+        if (loaded == null || loaded.isEligible(course.getCourseCode())) return "";
+        List<String> missing = loaded.missing(course.getCourseCode());
+        // Nothing missing yet still ineligible: the course is on a prerequisite cycle
+        return missing.isEmpty() ? "Not available" : "Needs " + String.join(", ", missing);
+    }
+
+    /** Hides or shows sections that clash with the current schedule, then re-pages the catalog. */
+    private void applyHideConflicts() {
+        WeeklySchedule current = schedule;
+        catalogSource.setHidden(hideConflictsCheckBox.isSelected()
+                ? c -> current.conflictsWith(c.getMeetingTime()) : null);
+        loadAvailableCourses();
     }
 
     @FXML
@@ -109,64 +209,137 @@ public class EnrollmentController {
             showAlert("Please select a course.");
             return;
         }
-        String studentId = SessionManager.getStudentId();
+        String studentId = this.studentId;
         if (studentId == null || studentId.isEmpty()) {
             showAlert("No student ID. Please log in again.");
             return;
         }
-        // Check for duplicate enrollment
-        String dupCheckSql = "SELECT 1 FROM enrollments WHERE student_id = ? AND course_code = ?";
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(dupCheckSql)) {
-            ps.setString(1, studentId);
-            ps.setString(2, selected.getCourseCode());
-            ResultSet rs = ps.executeQuery();
-            if (rs.next()) {
-                showAlert("You are already enrolled in " + selected.getCourseName() + ".");
-                return;
-            }
-        } catch (SQLException e) {
-            logger.warning("Dup check failed: " + e.getMessage());
+        Integer position = waitlistPositions.get(selected.getCourseCode());
+        if (position != null) {
+            confirmLeaveWaitlist(studentId, selected, position);
+            return;
         }
-        // Check total enrolled credits
-        String sumSql = "SELECT SUM(c.credit_hours) AS total_credits "
-                + "FROM enrollments e JOIN courses c ON e.course_code = c.course_code "
-                + "WHERE e.student_id = ?";
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sumSql)) {
-            ps.setString(1, studentId);
-            ResultSet rs = ps.executeQuery();
-            int currentCredits = 0;
-            if (rs.next()) {
-                currentCredits = rs.getInt("total_credits");
-            }
-            if (currentCredits + selected.getCreditHours() > 18) {
-                showAlert("Cannot enroll in " + selected.getCourseName()
-                        + " because it would exceed the 18-credit limit.");
-                return;
-            }
-        } catch (SQLException e) {
-            logger.warning("Failed to check credit total: " + e.getMessage());
+        // Answered from what is loaded without a round-trip; enroll checks again in its transaction
+        if (eligibility != null && !eligibility.isEligible(selected.getCourseCode())) {
+            showAlert("You cannot enroll in " + selected.getCourseName() + " yet. " + requires(selected) + ".");
+            return;
         }
-        // Insert new enrollment record
-        String sql = "INSERT INTO enrollments (student_id, course_code) VALUES (?, ?)";
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setString(1, studentId);
-            stmt.setString(2, selected.getCourseCode());
-            int rows = stmt.executeUpdate();
-            if (rows > 0) {
-                showAlert("Enrollment successful.");
-                loadEnrolledCourses();
-            } else {
-                showAlert("Failed to enroll.");
-            }
-        } catch (SQLException e) {
-            logger.severe("Enrollment error: " + e.getMessage());
-            showAlert("Error enrolling in course.");
+        String clash = schedule.conflictingCourse(selected.getMeetingTime());
+        if (clash != null && !clash.equals(selected.getCourseCode())) {
+            showAlert(selected.getCourseName() + " meets at the same time as " + clash + ".");
+            return;
+        }
+        enrollButton.setDisable(true);
+        tasks.submit(() -> enroll(studentId, selected),
+                outcome -> {
+                    enrollButton.setDisable(false);
+                    showAlert(outcome.message);
+                    if (outcome.changed) loadEnrolledCourses();
+                    // Counts may have moved either way, e.g. the course just filled up
+                    refreshSeats();
+                    if (outcome.full) confirmJoinWaitlist(studentId, selected);
+                },
+                e -> {
+                    enrollButton.setDisable(false);
+                    showAlert("Error enrolling in course.");
+                });
+    }
+
+    /** Runs the enrollment transaction; called off the FX thread. */
+    private Outcome enroll(String studentId, Course selected) throws SQLException {
+        EnrollmentResult result = EnrollmentService.enroll(studentId, selected.getCourseCode());
+        switch (result) {
+            case ENROLLED:
+                return new Outcome(true, "Enrollment successful.");
+            case DUPLICATE:
+                return new Outcome(false, "You are already enrolled in " + selected.getCourseName() + ".");
+            case OVER_CREDIT_LIMIT:
+                return new Outcome(false, "Cannot enroll in " + selected.getCourseName()
+                        + " because it would exceed the " + EnrollmentService.MAX_CREDITS + "-credit limit.");
+            case PREREQUISITES_NOT_MET:
+                return new Outcome(false, "You have not completed the prerequisites for "
+                        + selected.getCourseName() + ".");
+            case SCHEDULE_CONFLICT:
+                return new Outcome(false, selected.getCourseName()
+                        + " meets at the same time as one of your other courses.");
+            case COURSE_FULL:
+                return new Outcome(false, true, selected.getCourseName() + " is full.");
+            case COURSE_NOT_FOUND:
+                return new Outcome(false, selected.getCourseName() + " is no longer offered.");
+            default:
+                return new Outcome(false, "No student record found. Please log in again.");
+        }
+    }
+
+    private void confirmJoinWaitlist(String studentId, Course selected) {
+        Alert confirm = new Alert(Alert.AlertType.CONFIRMATION,
+                "Join the waitlist for " + selected.getCourseName() + "? If a seat opens up you will be"
+                        + " enrolled automatically, as long as the course still fits your schedule and credit limit.",
+                ButtonType.OK, ButtonType.CANCEL);
+        confirm.setHeaderText("Course Full");
+        confirm.showAndWait();
+        if (confirm.getResult() != ButtonType.OK) return;
+        enrollButton.setDisable(true);
+        tasks.submit(() -> joinWaitlist(studentId, selected),
+                outcome -> {
+                    enrollButton.setDisable(false);
+                    showAlert(outcome.message);
+                    if (outcome.changed) loadWaitlist(studentId);
+                },
+                e -> {
+                    enrollButton.setDisable(false);
+                    showAlert("Error joining the waitlist.");
+                });
+    }
+
+    /** Runs the waitlist join; called off the FX thread. */
+    private Outcome joinWaitlist(String studentId, Course selected) throws SQLException {
+        WaitlistResult result = WaitlistService.join(studentId, selected.getCourseCode());
+        switch (result) {
+            case JOINED:
+                Integer position = WaitlistService.getPositions(studentId).get(selected.getCourseCode());
+                return new Outcome(true, "You are on the waitlist for " + selected.getCourseName()
+                        + (position != null ? ", number " + position + " in line." : "."));
+            case ALREADY_WAITLISTED:
+                return new Outcome(false, "You are already on the waitlist for " + selected.getCourseName() + ".");
+            case ALREADY_ENROLLED:
+                return new Outcome(false, "You are already enrolled in " + selected.getCourseName() + ".");
+            case SEATS_AVAILABLE:
+                return new Outcome(false, "A seat has opened up in " + selected.getCourseName()
+                        + ". Try enrolling again.");
+            case PREREQUISITES_NOT_MET:
+                return new Outcome(false, "You have not completed the prerequisites for "
+                        + selected.getCourseName() + ".");
+            case COURSE_NOT_FOUND:
+                return new Outcome(false, selected.getCourseName() + " is no longer offered.");
+            default:
+                return new Outcome(false, "No student record found. Please log in again.");
         }
     }
 
+    private void confirmLeaveWaitlist(String studentId, Course selected, int position) {
+        Alert confirm = new Alert(Alert.AlertType.CONFIRMATION,
+                "You are number " + position + " on the waitlist for " + selected.getCourseName()
+                        + ". Leave the waitlist?",
+                ButtonType.OK, ButtonType.CANCEL);
+        confirm.setHeaderText("Waitlisted");
+        confirm.showAndWait();
+        if (confirm.getResult() != ButtonType.OK) return;
+        enrollButton.setDisable(true);
+        tasks.submit(() -> WaitlistService.leave(studentId, selected.getCourseCode()),
+                left -> {
+                    enrollButton.setDisable(false);
+                    showAlert(left ? "You have left the waitlist for " + selected.getCourseName() + "."
+                            : "You were no longer on the waitlist for " + selected.getCourseName() + ".");
+                    // Not on the list any more also covers having been promoted in the meantime
+                    loadEnrolledCourses();
+                },
+                e -> {
+                    enrollButton.setDisable(false);
+                    showAlert("Error leaving the waitlist.");
+                });
+    }
+
     @FXML
     private void handleDropEnrollment() {
         Course selected = enrolledCoursesTable.getSelectionModel().getSelectedItem();
@@ -174,40 +347,65 @@ public class EnrollmentController {
             showAlert("Select a course to drop.");
             return;
         }
-        String studentId = SessionManager.getStudentId();
-        String sql = "DELETE FROM enrollments WHERE student_id = ? AND course_code = ?";
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setString(1, studentId);
-            stmt.setString(2, selected.getCourseCode());
-            int rows = stmt.executeUpdate();
-            if (rows > 0) {
-                showAlert("Dropped course.");
-                loadEnrolledCourses();
-            } else {
-                showAlert("Failed to drop course.");
-            }
-        } catch (SQLException e) {
-            logger.severe("Drop error: " + e.getMessage());
-            showAlert("Error dropping course.");
-        }
+        String studentId = this.studentId;
+        dropButton.setDisable(true);
+        tasks.submit(() -> drop(studentId, selected),
+                outcome -> {
+                    dropButton.setDisable(false);
+                    showAlert(outcome.message);
+                    if (outcome.changed) {
+                        loadEnrolledCourses();
+                        refreshSeats();
+                    }
+                },
+                e -> {
+                    dropButton.setDisable(false);
+                    showAlert("Error dropping course.");
+                });
+    }
+
+    /** Deletes the enrollment row; called off the FX thread. */
+    private Outcome drop(String studentId, Course selected) throws SQLException {
+        return EnrollmentService.drop(studentId, selected.getCourseCode())
+                ? new Outcome(true, "Dropped course.")
+                : new Outcome(false, "Failed to drop course.");
     }
 
     @FXML
     private void handleGoBack() {
+        seatRefresh.stop();
+        tasks.cancelAll();
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/view/Dashboard.fxml"));
-            Parent root = loader.load();
             // Restore DashboardController state with current session info
-            DashboardController controller = loader.getController();
-            controller.setCurrentUser(SessionManager.getUserName(), SessionManager.getUserRole(), SessionManager.getStudentId());
-            goBackButton.getScene().setRoot(root);
+            ViewLoader.<DashboardController>show(goBackButton, "/view/Dashboard.fxml",
+                    controller -> controller.setCurrentUser(SessionManager.getUserName(),
+                            SessionManager.getUserRole(), SessionManager.getStudentId()));
         } catch (Exception e) {
             logger.severe("Failed to go back: " + e.getMessage());
             showAlert("Unable to return to dashboard.");
         }
     }
 
+    /**
+     * Result of a background enroll/drop/waitlist call: whether the tables need a
+     * refresh, whether the course was full, and what to tell the user.
+     */
+    private static final class Outcome {
+        final boolean changed;
+        final boolean full;
+        final String message;
+
+        Outcome(boolean changed, String message) {
+            this(changed, false, message);
+        }
+
+        Outcome(boolean changed, boolean full, String message) {
+            this.changed = changed;
+            this.full = full;
+            this.message = message;
+        }
+    }
+
     private void showAlert(String message) {
         Alert alert = new Alert(Alert.AlertType.INFORMATION);
         alert.setHeaderText(null);
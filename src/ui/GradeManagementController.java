@@ -1,15 +1,32 @@
 package ui;
 
-import config.DBConnection;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Parent;
 import javafx.scene.control.*;
+import javafx.scene.control.cell.TextFieldTableCell;
+import javafx.stage.FileChooser;
 import model.Enrollment;
+import service.GradeChange;
+import service.GradeScale;
+import service.GradeService;
+import util.PageQuery;
+import util.PagedTableLoader;
 import util.SessionManager;
-import java.sql.*;
+import util.SqlKeysetPageSource;
+import util.TaskGroup;
+import util.ViewLoader;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 public class GradeManagementController {
     private String instructorName;
@@ -18,17 +35,60 @@ public class GradeManagementController {
     @FXML private TableView<Enrollment> gradeTable;
     @FXML private TableColumn<Enrollment, String> studentIdColumn;
     @FXML private TableColumn<Enrollment, String> gradeColumn;
+    @FXML private TextField rosterFilterField;
     @FXML private TextField gradeInput;
     @FXML private Button updateGradeButton;
+    @FXML private Button saveAllButton;
+    @FXML private Button importCsvButton;
     @FXML private Button backButton;
 
     private ObservableList<Enrollment> enrollments = FXCollections.observableArrayList();
+    private final TaskGroup tasks = new TaskGroup();
+    private PagedTableLoader<Enrollment> rosterLoader;
+    // Inline edits not yet saved, keyed by student ID
+    private final Map<String, GradeChange> pendingGrades = new LinkedHashMap<>();
+    private volatile SqlKeysetPageSource<Enrollment> rosterSource;  // read by the loader's background fetches
 
     @FXML
     public void initialize() {
         // Set up columns for Enrollment properties
         studentIdColumn.setCellValueFactory(data -> data.getValue().studentIdProperty());
         gradeColumn.setCellValueFactory(data -> data.getValue().gradeProperty());
+        gradeTable.setItems(enrollments);
+        // Sorting, filtering and scrolling fetch fresh rows from the database;
+        // show the unsaved edits on them again so Save All only writes what is on screen
+        enrollments.addListener((ListChangeListener<Enrollment>) change -> {
+            while (change.next()) {
+                if (!change.wasAdded()) continue;
+                for (Enrollment row : change.getAddedSubList()) {
+                    GradeChange pending = pendingGrades.get(row.getStudentId());
+                    if (pending != null) row.setGrade(pending.getGrade());
+                }
+            }
+        });
+
+        // Bulk mode: grades can be edited in place and saved together
+        gradeTable.setEditable(true);
+        gradeColumn.setCellFactory(TextFieldTableCell.forTableColumn());
+        gradeColumn.setOnEditCommit(e -> {
+            String grade = e.getNewValue() == null ? "" : e.getNewValue().trim();
+            e.getRowValue().setGrade(grade);
+            pendingGrades.put(e.getRowValue().getStudentId(),
+                    new GradeChange(0, e.getRowValue().getStudentId(), grade));
+            saveAllButton.setText("Save All Grades (" + pendingGrades.size() + ")");
+        });
+
+        Map<TableColumn<Enrollment, ?>, String> sortable = new HashMap<>();
+        sortable.put(studentIdColumn, "studentId");
+        sortable.put(gradeColumn, "grade");
+        rosterLoader = new PagedTableLoader<>(gradeTable,
+                (query, after, limit) -> rosterSource == null ? List.of() : rosterSource.fetchPage(query, after, limit),
+                tasks,
+                sortable, new PageQuery("studentId", true, ""),
+                e -> showAlert("Error loading enrolled students: " + e.getMessage()));
+        rosterFilterField.textProperty().addListener((obs, old, text) -> {
+            if (rosterSource != null) rosterLoader.setFilter(text);
+        });
         loadInstructorCourses();
         // When a course is selected, load its students
         courseSelector.setOnAction(e -> loadEnrolledStudents());
@@ -37,45 +97,20 @@ public class GradeManagementController {
     private void loadInstructorCourses() {
         // Use the instructor's name (from session or passed in)
         String instructor = (instructorName != null) ? instructorName : SessionManager.getUserName();
-        String sql = "SELECT course_code FROM courses WHERE instructor_name = ?";
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setString(1, instructor);
-            ResultSet rs = stmt.executeQuery();
-            ObservableList<String> courses = FXCollections.observableArrayList();
-            while (rs.next()) {
-                courses.add(rs.getString("course_code"));
-            }
-            courseSelector.setItems(courses);
-        } catch (SQLException e) {
-            showAlert("Error loading courses: " + e.getMessage());
-        }
+        tasks.submit(() -> GradeService.getInstructorCourses(instructor),
+                courses -> courseSelector.setItems(FXCollections.observableArrayList(courses)),
+                e -> showAlert("Error loading courses: " + e.getMessage()));
     }
 
     private void loadEnrolledStudents() {
-        enrollments.clear();
         String selectedCourse = courseSelector.getValue();
-        if (selectedCourse == null) return;
-        String sql = "SELECT * FROM enrollments WHERE course_code = ?";
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setString(1, selectedCourse);
-            ResultSet rs = stmt.executeQuery();
-            while (rs.next()) {
-                // Create Enrollment object for each student in the course
-                Enrollment enrollment = new Enrollment(
-                        rs.getString("student_id"),
-                        rs.getString("course_code"),
-                        rs.getString("semester"),
-                        rs.getString("grade")
-                );
-                enrollment.setEnrollmentId(rs.getInt("enrollment_id"));
-                enrollments.add(enrollment);
-            }
-            gradeTable.setItems(enrollments);
-        } catch (SQLException e) {
-            showAlert("Error loading enrolled students: " + e.getMessage());
+        if (selectedCourse == null) {
+            enrollments.clear();
+            return;
         }
+        clearPending();
+        rosterSource = GradeService.rosterSource(selectedCourse);
+        rosterLoader.reload();
     }
 
     @FXML
@@ -90,24 +125,89 @@ public class GradeManagementController {
             showAlert("Please enter a grade.");
             return;
         }
-        String sql = "UPDATE enrollments SET grade = ? WHERE enrollment_id = ?";
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setString(1, newGrade);
-            stmt.setInt(2, selected.getEnrollmentId());
-            stmt.executeUpdate();
-            showAlert("Grade updated successfully.");
-            loadEnrolledStudents();  // Refresh the table
-        } catch (SQLException e) {
-            showAlert("Failed to update grade: " + e.getMessage());
+        if (!GradeScale.isValid(newGrade)) {
+            showAlert("Invalid grade. Use A, A-, B+, B, B-, C+, C, C-, D+, D or F.");
+            return;
+        }
+        updateGradeButton.setDisable(true);
+        // Updates the grade and the student's GPA totals in one transaction
+        tasks.submit(() -> GradeService.updateGrade(selected.getEnrollmentId(), newGrade),
+                updated -> {
+                    updateGradeButton.setDisable(false);
+                    showAlert(updated ? "Grade updated successfully." : "That enrollment no longer exists.");
+                    loadEnrolledStudents();  // Refresh the table
+                },
+                e -> {
+                    updateGradeButton.setDisable(false);
+                    showAlert("Failed to update grade: " + e.getMessage());
+                });
+    }
+
+    /** Saves every inline edit in one batched transaction. */
+    @FXML
+    private void handleSaveAll() {
+        String course = courseSelector.getValue();
+        if (course == null || pendingGrades.isEmpty()) {
+            showAlert("There are no grade changes to save.");
+            return;
+        }
+        submitBulk(course, new ArrayList<>(pendingGrades.values()));
+    }
+
+    /** Imports a CSV of student_id,grade for the selected course. */
+    @FXML
+    private void handleImportCsv() {
+        String course = courseSelector.getValue();
+        if (course == null) {
+            showAlert("Select a course before importing grades.");
+            return;
+        }
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Import Grades for " + course);
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("CSV files", "*.csv"));
+        File file = chooser.showOpenDialog(importCsvButton.getScene().getWindow());
+        if (file == null) return;
+        List<GradeChange> changes;
+        try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            changes = GradeService.parseCsv(reader);
+        } catch (IOException e) {
+            showAlert("Could not read " + file.getName() + ": " + e.getMessage());
+            return;
         }
+        if (changes.isEmpty()) {
+            showAlert(file.getName() + " has no grade rows.");
+            return;
+        }
+        submitBulk(course, changes);
+    }
+
+    private void submitBulk(String course, List<GradeChange> changes) {
+        saveAllButton.setDisable(true);
+        importCsvButton.setDisable(true);
+        tasks.submit(() -> GradeService.bulkUpdate(course, changes),
+                report -> {
+                    saveAllButton.setDisable(false);
+                    importCsvButton.setDisable(false);
+                    showAlert(report.summarize(10));
+                    loadEnrolledStudents();  // also clears pending edits
+                },
+                e -> {
+                    saveAllButton.setDisable(false);
+                    importCsvButton.setDisable(false);
+                    showAlert("Failed to save grades: " + e.getMessage());
+                });
+    }
+
+    private void clearPending() {
+        pendingGrades.clear();
+        saveAllButton.setText("Save All Grades");
     }
 
     @FXML
     private void handleBack() {
+        tasks.cancelAll();
         try {
-            Parent root = FXMLLoader.load(getClass().getResource("/view/Dashboard.fxml"));
-            backButton.getScene().setRoot(root);
+            ViewLoader.show(backButton, "/view/Dashboard.fxml");
         } catch (Exception e) {
             showAlert("Failed to return to dashboard.");
         }
@@ -10,8 +10,12 @@ import javafx.scene.shape.Circle;
 import javafx.util.Duration;
 import model.User;
 import service.AuthService;
+import util.AsyncDb;
 import util.DatabaseLogger;
 import util.SessionManager;
+import util.ViewLoader;
+
+import java.util.concurrent.RejectedExecutionException;
 
 public class LoginController {
     @FXML private AnchorPane rootPane;       // The entire AnchorPane
@@ -49,8 +53,23 @@ public class LoginController {
             return;
         }
 
-        // Attempt login
-        User user = AuthService.login(studentId, password);
+        // Attempt login in the background (DB lookup + hashing)
+        loginButton.setDisable(true);
+        AsyncDb.submit(() -> AuthService.login(studentId, password),
+                this::onLoginResult,
+                e -> {
+                    loginButton.setDisable(false);
+                    if (e instanceof RejectedExecutionException) {
+                        // Hashing pool is saturated; not the user's fault, so don't count an attempt
+                        showAlert("The server is busy. Please try again in a moment.");
+                    } else {
+                        showAlert("Login failed due to a database error.");
+                    }
+                });
+    }
+
+    private void onLoginResult(User user) {
+        loginButton.setDisable(false);
         if (user != null) {
             // Success
             failedLoginAttempts = 0;
@@ -76,12 +95,9 @@ public class LoginController {
 
     private void loadDashboard(User user) {
         try {
-            javafx.fxml.FXMLLoader loader = new javafx.fxml.FXMLLoader(getClass().getResource("/view/Dashboard.fxml"));
-            javafx.scene.Parent root = loader.load();
             // Pass user info to Dashboard if needed
-            DashboardController controller = loader.getController();
-            controller.setCurrentUser(user.getName(), user.getRole(), user.getId());
-            studentIdField.getScene().setRoot(root);
+            ViewLoader.<DashboardController>show(studentIdField, "/view/Dashboard.fxml",
+                    controller -> controller.setCurrentUser(user.getName(), user.getRole(), user.getId()));
         } catch (Exception e) {
             e.printStackTrace();
             showAlert("Error loading the dashboard screen.");
@@ -91,8 +107,7 @@ public class LoginController {
     @FXML
     private void goToRegister() {
         try {
-            javafx.scene.Parent root = javafx.fxml.FXMLLoader.load(getClass().getResource("/view/register.fxml"));
-            studentIdField.getScene().setRoot(root);
+            ViewLoader.show(studentIdField, "/view/register.fxml");
         } catch (Exception e) {
             e.printStackTrace();
         }
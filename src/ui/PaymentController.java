@@ -1,20 +1,19 @@
 package ui;
 
-import config.DBConnection;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Parent;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
+import model.AccountBalance;
 import model.PaymentEntry;
-import util.SessionManager;
+import service.PaymentResult;
+import service.PaymentService;
+import util.TaskGroup;
+import util.ViewLoader;
 
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.SQLException;
+import java.math.BigDecimal;
+import java.util.UUID;
 
 public class PaymentController {
     @FXML
@@ -24,7 +23,7 @@ public class PaymentController {
     @FXML
     private TableColumn<PaymentEntry, Integer> creditHoursColumn;
     @FXML
-    private TableColumn<PaymentEntry, Double> costColumn;
+    private TableColumn<PaymentEntry, BigDecimal> costColumn;
 
     @FXML
     private Label totalCostLabel;
@@ -41,11 +40,14 @@ public class PaymentController {
     private Button backButton;
 
     private String studentId;
-    private double totalCost = 0.0;
-    private double totalPaid = 0.0;
-    private double outstanding = 0.0;
+    private BigDecimal outstanding = BigDecimal.ZERO;
+    // Identifies the payment being entered. A retry after a failure reuses it, so a
+    // payment that was recorded before the error surfaced is not recorded twice.
+    private String pendingKey;
+    private String pendingAmount;
 
     private ObservableList<PaymentEntry> paymentEntries = FXCollections.observableArrayList();
+    private final TaskGroup tasks = new TaskGroup();
 
     /**
      * Called by the DashboardController to set the current student's ID.
@@ -53,6 +55,7 @@ public class PaymentController {
     public void setStudentId(String studentId) {
         this.studentId = studentId;
         initializeTableColumns();
+        coursesTable.setItems(paymentEntries);
         loadData();
     }
 
@@ -66,74 +69,37 @@ public class PaymentController {
     }
 
     /**
-     * Loads all the student's enrolled courses, calculates the cost,
-     * then loads total payments to find the outstanding balance.
+     * Loads the tuition charged per enrolled course, then the account's running
+     * totals. The queries run in the background; the table shows a spinner meanwhile.
      */
     private void loadData() {
-        paymentEntries.clear();
-        totalCost = 0.0;
-        totalPaid = 0.0;
-
         if (studentId == null || studentId.isEmpty()) {
+            paymentEntries.clear();
             showAlert("No student ID. Please log in again.");
             return;
         }
 
-        // 1) Load enrolled courses from the database
-        String enrollmentsSql =
-                "SELECT c.course_code, c.credit_hours " +
-                        "FROM enrollments e " +
-                        "JOIN courses c ON e.course_code = c.course_code " +
-                        "WHERE e.student_id = ?";
-
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(enrollmentsSql)) {
-            stmt.setString(1, studentId);
-            ResultSet rs = stmt.executeQuery();
-            while (rs.next()) {
-                String code = rs.getString("course_code");
-                int hours = rs.getInt("credit_hours");
-                double cost = hours * 975.0;  // 975 QAR per credit hour
-                totalCost += cost;
-                paymentEntries.add(new PaymentEntry(code, hours, cost));
-            }
-        } catch (SQLException e) {
-            showAlert("Error loading enrolled courses: " + e.getMessage());
-            e.printStackTrace();
-            return;
-        }
-
-        // 2) Load total payments from the database
-        String paymentsSql =
-                "SELECT IFNULL(SUM(amount), 0) AS total_paid " +
-                        "FROM payments " +
-                        "WHERE student_id = ?";
-
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(paymentsSql)) {
-            stmt.setString(1, studentId);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                totalPaid = rs.getDouble("total_paid");
-            }
-        } catch (SQLException e) {
-            showAlert("Error loading payments: " + e.getMessage());
-            e.printStackTrace();
-            return;
-        }
+        payButton.setDisable(true);
+        String id = studentId;
+        tasks.loadTable(coursesTable, () -> PaymentService.getCharges(id),
+                entries -> tasks.submit(() -> PaymentService.getBalance(id),
+                        this::showTotals,
+                        e -> showAlert("Error loading payments: " + e.getMessage())),
+                e -> showAlert("Error loading enrolled courses: " + e.getMessage()));
+    }
 
-        // 3) Calculate outstanding
-        outstanding = totalCost - totalPaid;
+    /** Updates the labels from the account's running totals (FX thread). */
+    private void showTotals(AccountBalance balance) {
+        outstanding = balance.getOutstanding();
 
-        // Update the UI
-        coursesTable.setItems(paymentEntries);
-        totalCostLabel.setText(String.format("Total Cost: %.2f QAR", totalCost));
-        totalPaidLabel.setText(String.format("Total Paid: %.2f QAR", totalPaid));
+        totalCostLabel.setText(String.format("Total Cost: %.2f QAR", balance.getCharged()));
+        totalPaidLabel.setText(String.format("Total Paid: %.2f QAR", balance.getPaid()));
         outstandingLabel.setText(String.format("Outstanding: %.2f QAR", outstanding));
+        payButton.setDisable(false);
     }
 
     /**
-     * Handles the "Pay" button. Inserts a new row in 'payments' if the amount is valid.
+     * Handles the "Pay" button. Records the payment in the ledger if the amount is valid.
      */
     @FXML
     private void handlePay() {
@@ -142,37 +108,50 @@ public class PaymentController {
             showAlert("Please enter a payment amount.");
             return;
         }
-        double paymentAmount;
+        BigDecimal paymentAmount;
         try {
-            paymentAmount = Double.parseDouble(input);
+            paymentAmount = new BigDecimal(input);
         } catch (NumberFormatException e) {
             showAlert("Invalid amount. Please enter a valid number.");
             return;
         }
-        if (paymentAmount <= 0) {
+        if (paymentAmount.signum() <= 0) {
             showAlert("Payment amount must be greater than 0.");
             return;
         }
-        if (paymentAmount > outstanding) {
+        if (paymentAmount.stripTrailingZeros().scale() > 2) {
+            showAlert("Amounts can have at most two decimal places.");
+            return;
+        }
+        if (paymentAmount.compareTo(outstanding) > 0) {
             showAlert("Payment exceeds the outstanding balance. Please enter a smaller amount.");
             return;
         }
 
-        // Insert a new payment record
-        String insertSql = "INSERT INTO payments (student_id, amount) VALUES (?, ?)";
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(insertSql)) {
-            stmt.setString(1, studentId);
-            stmt.setDouble(2, paymentAmount);
-            stmt.executeUpdate();
-            showAlert(String.format("Payment of %.2f QAR successful!", paymentAmount));
-            paymentAmountField.clear();
-            // Reload data to update totalPaid and outstanding
-            loadData();
-        } catch (SQLException e) {
-            showAlert("Payment failed due to a database error.");
-            e.printStackTrace();
+        // A new amount is a new payment; the same amount again is a retry of this one
+        if (pendingKey == null || !input.equals(pendingAmount)) {
+            pendingKey = UUID.randomUUID().toString();
+            pendingAmount = input;
         }
+        String key = pendingKey;
+        payButton.setDisable(true);
+        tasks.submit(() -> PaymentService.recordPayment(studentId, paymentAmount, key),
+                result -> {
+                    if (result == PaymentResult.EXCEEDS_BALANCE) {
+                        showAlert("Payment exceeds the outstanding balance. Please enter a smaller amount.");
+                    } else {
+                        showAlert(String.format("Payment of %.2f QAR successful!", paymentAmount));
+                        paymentAmountField.clear();
+                        pendingKey = null;
+                    }
+                    // Reload data to update totalPaid and outstanding
+                    loadData();
+                },
+                e -> {
+                    payButton.setDisable(false);
+                    showAlert("Payment failed due to a database error.");
+                    e.printStackTrace();
+                });
     }
 
     /**
@@ -180,9 +159,9 @@ public class PaymentController {
      */
     @FXML
     private void handleBack() {
+        tasks.cancelAll();
         try {
-            Parent root = FXMLLoader.load(getClass().getResource("/view/Dashboard.fxml"));
-            backButton.getScene().setRoot(root);
+            ViewLoader.show(backButton, "/view/Dashboard.fxml");
         } catch (Exception e) {
             e.printStackTrace();
             showAlert("Unable to return to dashboard.");
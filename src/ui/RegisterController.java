@@ -6,7 +6,9 @@ import javafx.scene.control.*;
 import javafx.scene.layout.VBox;
 import javafx.util.Duration;
 import service.AuthService;
-import java.util.regex.Pattern;
+import util.AsyncDb;
+import util.ViewLoader;
+import java.util.concurrent.RejectedExecutionException;
 import javafx.scene.input.Clipboard;
 import javafx.scene.input.ClipboardContent;
 
@@ -39,24 +41,13 @@ public class RegisterController {
         String confirmPassword = confirmPasswordField.getText();
         String role = roleComboBox.getValue().toLowerCase();
 
-        Pattern namePattern = Pattern.compile("^[A-Za-z ]{3,}$");
-        Pattern emailPattern = Pattern.compile("^[\\w.-]+@[\\w.-]+\\.[A-Za-z]{2,}$");
-        Pattern passwordPattern = Pattern.compile("^(?=.*[0-9])(?=.*[A-Za-z])(?=.*[!@#$%^&*]).{8,}$");
-
         if (name.isEmpty() || email.isEmpty() || password.isEmpty() || confirmPassword.isEmpty()) {
             showAlert("Please fill in all fields.");
             return;
         }
-        if (!namePattern.matcher(name).matches()) {
-            showAlert("Invalid name. Use at least 3 letters (letters and spaces only).");
-            return;
-        }
-        if (!emailPattern.matcher(email).matches()) {
-            showAlert("Invalid email format.");
-            return;
-        }
-        if (!passwordPattern.matcher(password).matches()) {
-            showAlert("Password must be at least 8 characters and include a number and a special character.");
+        String problem = AuthService.validateRegistration(name, email, password);
+        if (problem != null) {
+            showAlert(problem);
             return;
         }
         if (!password.equals(confirmPassword)) {
@@ -64,7 +55,14 @@ public class RegisterController {
             return;
         }
 
-        String generatedId = AuthService.register(name, email, password, role);
+        AsyncDb.submit(() -> AuthService.register(name, email, password, role),
+                this::onRegistered,
+                e -> showAlert(e instanceof RejectedExecutionException
+                        ? "The server is busy. Please try again in a moment."
+                        : "❌ Registration failed due to a database error."));
+    }
+
+    private void onRegistered(String generatedId) {
         if (generatedId != null) {
             Clipboard clipboard = Clipboard.getSystemClipboard();
             ClipboardContent content = new ClipboardContent();
@@ -88,8 +86,7 @@ public class RegisterController {
     @FXML
     private void goToLogin() {
         try {
-            javafx.scene.Parent root = javafx.fxml.FXMLLoader.load(getClass().getResource("/view/login.fxml"));
-            nameField.getScene().setRoot(root);
+            ViewLoader.show(nameField, "/view/login.fxml");
         } catch (Exception e) {
             e.printStackTrace();
         }
@@ -1,20 +1,17 @@
 package ui;
 
-import config.DBConnection;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Parent;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
+import model.AcademicSummary;
 import model.TranscriptEntry;
-import util.SessionManager;
+import service.AcademicSummaryService;
+import service.TranscriptService;
+import util.TaskGroup;
+import util.ViewLoader;
 
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.SQLSyntaxErrorException;
 
 public class TranscriptController {
     private String studentId;
@@ -35,11 +32,13 @@ public class TranscriptController {
     private Button backButton;
 
     private ObservableList<TranscriptEntry> transcriptEntries = FXCollections.observableArrayList();
+    private final TaskGroup tasks = new TaskGroup();
 
     // Called from DashboardController to initialize the transcript for a student
     public void setStudentId(String studentId) {
         this.studentId = studentId;
         initializeTableColumns();
+        transcriptTable.setItems(transcriptEntries);
         loadTranscript();
     }
 
@@ -51,71 +50,36 @@ public class TranscriptController {
     }
 
     private void loadTranscript() {
-        String sql = "SELECT c.course_code, c.course_name, c.credit_hours, e.grade " +
-                "FROM enrollments e JOIN courses c ON e.course_code = c.course_code " +
-                "WHERE e.student_id = ?";
-        transcriptEntries.clear();
-        double totalGradePoints = 0.0;
-        int totalCredits = 0;
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setString(1, studentId);
-            ResultSet rs = stmt.executeQuery();
-            while (rs.next()) {
-                String courseCode = rs.getString("course_code");
-                String courseName = rs.getString("course_name");
-                int credits = rs.getInt("credit_hours");
-                String grade = rs.getString("grade");
-                String displayGrade = (grade == null || grade.isEmpty()) ? "In Progress" : grade;
-                transcriptEntries.add(new TranscriptEntry(courseCode, courseName, credits, displayGrade));
+        loadTotals();
+        String id = studentId;
+        tasks.loadTable(transcriptTable, () -> TranscriptService.getTranscript(id),
+                e -> {
+                    showAlert("Unable to load transcript.");
+                    e.printStackTrace();
+                });
+    }
 
-                if (grade != null && !grade.trim().isEmpty()) {
-                    double gradePoints = convertGradeToPoints(grade.trim());
-                    totalGradePoints += gradePoints * credits;
-                    totalCredits += credits;
-                }
-            }
-            transcriptTable.setItems(transcriptEntries);
-            if (totalCredits > 0) {
-                double gpa = totalGradePoints / totalCredits;
-                gpaLabel.setText("Total Credits: " + totalCredits + "    GPA: " + String.format("%.2f", gpa));
-            } else {
-                gpaLabel.setText("No completed courses to calculate GPA.");
-            }
-        } catch (SQLSyntaxErrorException ex) {
-            // Likely the grade column is missing
-            showAlert("Database error: The 'grade' column is missing from the 'enrollments' table.\n" +
-                    "Please update your database schema using:\n" +
-                    "ALTER TABLE enrollments ADD COLUMN grade VARCHAR(10) DEFAULT NULL;");
-        } catch (Exception e) {
-            showAlert("Unable to load transcript.");
-            e.printStackTrace();
-        }
+    /** Reads the student's running GPA totals (one row) and shows them. */
+    private void loadTotals() {
+        tasks.submit(() -> AcademicSummaryService.getSummary(studentId),
+                this::showTotals,
+                e -> gpaLabel.setText("GPA unavailable."));
     }
 
-    // Converts letter grade to numeric grade points.
-    private double convertGradeToPoints(String grade) {
-        switch (grade.toUpperCase()) {
-            case "A":  return 4.0;
-            case "A-": return 3.7;
-            case "B+": return 3.3;
-            case "B":  return 3.0;
-            case "B-": return 2.7;
-            case "C+": return 2.3;
-            case "C":  return 2.0;
-            case "C-": return 1.7;
-            case "D+": return 1.3;
-            case "D":  return 1.0;
-            case "F":  return 0.0;
-            default:   return 0.0;
+    private void showTotals(AcademicSummary summary) {
+        if (summary.getAttemptedCredits() > 0) {
+            gpaLabel.setText("Total Credits: " + summary.getAttemptedCredits()
+                    + "    GPA: " + String.format("%.2f", summary.getGpa()));
+        } else {
+            gpaLabel.setText("No completed courses to calculate GPA.");
         }
     }
 
     @FXML
     private void handleBack() {
+        tasks.cancelAll();
         try {
-            Parent root = FXMLLoader.load(getClass().getResource("/view/Dashboard.fxml"));
-            backButton.getScene().setRoot(root);
+            ViewLoader.show(backButton, "/view/Dashboard.fxml");
         } catch (Exception e) {
             e.printStackTrace();
             showAlert("Unable to return to dashboard.");
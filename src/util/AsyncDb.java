@@ -0,0 +1,48 @@
+package util;
+
+import javafx.concurrent.Task;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * Runs database work on virtual threads and hands the result back to the
+ * JavaFX Application Thread. Concurrency against MySQL is still bounded by
+ * the connection pool; the virtual threads just park while they wait.
+ */
+public class AsyncDb {
+    private static final Logger logger = Logger.getLogger(AsyncDb.class.getName());
+
+    private static final ExecutorService executor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("db-worker-", 0).factory());
+
+    /** The shared executor, for callers that need to schedule plain Runnables. */
+    public static ExecutorService executor() {
+        return executor;
+    }
+
+    /**
+     * Runs {@code work} off the FX thread. {@code onSuccess} / {@code onFailure}
+     * are invoked on the FX thread; neither is called if the task is cancelled.
+     */
+    public static <T> Task<T> submit(Callable<T> work, Consumer<T> onSuccess, Consumer<Throwable> onFailure) {
+        Task<T> task = new Task<>() {
+            @Override
+            protected T call() throws Exception {
+                return work.call();
+            }
+        };
+        task.setOnSucceeded(e -> {
+            if (onSuccess != null) onSuccess.accept(task.getValue());
+        });
+        task.setOnFailed(e -> {
+            Throwable error = task.getException();
+            logger.warning("Background database task failed: " + error);
+            if (onFailure != null) onFailure.accept(error);
+        });
+        executor.execute(task);
+        return task;
+    }
+}
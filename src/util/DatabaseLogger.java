@@ -4,18 +4,234 @@ import config.DBConnection;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Logger;
 
+/**
+ * Writes application log records to the 'logs' table without blocking the caller.
+ *
+ * log() drops the record into a bounded lock-free ring buffer; a background
+ * writer drains it and inserts records as one JDBC batch per transaction,
+ * flushing when a batch fills up or the flush interval passes. Tunable with
+ * -Dlog.* system properties (see the constants below).
+ *
+ * Records that cannot reach the table, because writing failed or because they
+ * arrived after {@link #shutdown()}, go to java.util.logging instead.
+ */
 public class DatabaseLogger {
+    private static final Logger logger = Logger.getLogger(DatabaseLogger.class.getName());
+
+    /** What log() does when the buffer is full. */
+    public enum OverflowPolicy {
+        /** Discard the new record and count it as dropped. */
+        DROP,
+        /** Wait (up to the block timeout) for the writer to make room, then drop. */
+        BLOCK,
+        /** Write the record synchronously on the caller's thread. */
+        CALLER_WRITES
+    }
+
+    private static final int CAPACITY = Integer.getInteger("log.buffer.capacity", 8192);
+    private static final int BATCH_SIZE = Integer.getInteger("log.batch.size", 200);
+    private static final long FLUSH_INTERVAL_MS = Long.getLong("log.flushIntervalMs", 500L);
+    private static final long BLOCK_TIMEOUT_MS = Long.getLong("log.blockTimeoutMs", 100L);
+    private static final int MAX_RETRIES = Integer.getInteger("log.maxRetries", 3);
+    private static final OverflowPolicy POLICY =
+            OverflowPolicy.valueOf(System.getProperty("log.overflow", OverflowPolicy.DROP.name()));
+
+    private static final String SQL = "INSERT INTO logs (level, message, ip_address) VALUES (?, ?, ?)";
+
+    private static final LogRingBuffer<Record> buffer = new LogRingBuffer<>(CAPACITY);
+    private static final AtomicLong enqueued = new AtomicLong();
+    private static final AtomicLong flushed = new AtomicLong();
+    private static final AtomicLong dropped = new AtomicLong();
+    private static final AtomicLong failed = new AtomicLong();
+    private static final AtomicLong batches = new AtomicLong();
+
+    private static volatile boolean running = true;
+    private static final AtomicBoolean stopping = new AtomicBoolean();
+    // Set by the writer as it exits; from then on the buffer is drained under drainLock instead
+    private static volatile boolean writerDone;
+    private static final Object drainLock = new Object();
+    private static final Thread writer = new Thread(DatabaseLogger::writerLoop, "db-log-writer");
+
+    static {
+        writer.setDaemon(true);
+        writer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(DatabaseLogger::shutdown, "db-log-flush"));
+    }
+
+    /** Queues a log record. Never throws and, unless the policy says otherwise, never blocks. */
     public static void log(String level, String message, String ipAddress) {
-        String sql = "INSERT INTO logs (level, message, ip_address) VALUES (?, ?, ?)";
+        Record record = new Record(level, message, ipAddress);
+        if (!running) {
+            // The writer is gone; nothing would ever drain the buffer
+            dropped.incrementAndGet();
+            reportUnwritten(record);
+            return;
+        }
+        if (buffer.offer(record)) {
+            enqueued.incrementAndGet();
+            if (!running) {
+                // Stopped between the check above and the offer; the writer may already be gone
+                drainUnwritten();
+                return;
+            }
+            if (buffer.size() >= BATCH_SIZE) {
+                LockSupport.unpark(writer);
+            }
+            return;
+        }
+        switch (POLICY) {
+            case BLOCK:
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(BLOCK_TIMEOUT_MS);
+                while (System.nanoTime() < deadline) {
+                    LockSupport.unpark(writer);
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+                    if (buffer.offer(record)) {
+                        enqueued.incrementAndGet();
+                        if (!running) drainUnwritten();
+                        return;
+                    }
+                }
+                dropped.incrementAndGet();
+                break;
+            case CALLER_WRITES:
+                enqueued.incrementAndGet();
+                List<Record> single = new ArrayList<>(1);
+                single.add(record);
+                if (writeBatch(single)) {
+                    flushed.incrementAndGet();
+                } else {
+                    failed.incrementAndGet();
+                }
+                break;
+            default:
+                dropped.incrementAndGet();
+        }
+    }
+
+    /** Blocks until everything queued so far has been written (or the timeout passes). */
+    public static void flush(long timeoutMs) {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        long target = enqueued.get();
+        while (flushed.get() + failed.get() < target && System.currentTimeMillis() < deadline) {
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(5));
+        }
+    }
+
+    public static long getFlushedCount() { return flushed.get(); }
+    public static long getDroppedCount()  { return dropped.get(); }
+    public static long getFailedCount()   { return failed.get(); }
+    public static long getBatchCount()    { return batches.get(); }
+    public static int getBufferedCount()  { return buffer.size(); }
+
+    private static void writerLoop() {
+        List<Record> batch = new ArrayList<>(BATCH_SIZE);
+        long lastFlush = System.currentTimeMillis();
+        int attempts = 0;
+        while (running || buffer.size() > 0 || !batch.isEmpty()) {
+            buffer.drainTo(batch::add, BATCH_SIZE - batch.size());
+            long now = System.currentTimeMillis();
+            boolean due = batch.size() >= BATCH_SIZE || now - lastFlush >= FLUSH_INTERVAL_MS || !running;
+            if (batch.isEmpty() || !due) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(Math.min(50, FLUSH_INTERVAL_MS)));
+                continue;
+            }
+            if (writeBatch(batch)) {
+                flushed.addAndGet(batch.size());
+                batch.clear();
+                attempts = 0;
+            } else if (++attempts >= MAX_RETRIES || !running) {
+                // Give up on this batch but keep the records somewhere readable
+                failed.addAndGet(batch.size());
+                for (Record r : batch) reportUnwritten(r);
+                batch.clear();
+                attempts = 0;
+            } else {
+                // Back off before retrying the same batch
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(200L * attempts));
+            }
+            lastFlush = System.currentTimeMillis();
+        }
+        // Records offered after the last look at the buffer: either this drain sees them, or
+        // their log() call sees writerDone and drains them itself
+        writerDone = true;
+        drainUnwritten();
+    }
+
+    /**
+     * Reports whatever is still buffered once the writer has exited. Serialized, so the
+     * buffer keeps a single consumer at a time; does nothing while the writer runs.
+     */
+    private static void drainUnwritten() {
+        synchronized (drainLock) {
+            if (!writerDone) return;
+            List<Record> left = new ArrayList<>();
+            buffer.drainTo(left::add, Integer.MAX_VALUE);
+            dropped.addAndGet(left.size());
+            for (Record r : left) reportUnwritten(r);
+        }
+    }
+
+    /** Inserts the records as one batch in one transaction. */
+    private static boolean writeBatch(List<Record> records) {
         try (Connection conn = DBConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setString(1, level);
-            stmt.setString(2, message);
-            stmt.setString(3, ipAddress);
-            stmt.executeUpdate();
+             PreparedStatement stmt = conn.prepareStatement(SQL)) {
+            conn.setAutoCommit(false);
+            for (Record r : records) {
+                stmt.setString(1, r.level);
+                stmt.setString(2, r.message);
+                stmt.setString(3, r.ipAddress);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+            conn.commit();
+            conn.setAutoCommit(true);
+            batches.incrementAndGet();
+            return true;
         } catch (SQLException e) {
-            System.out.println("Failed to log to database: " + e.getMessage());
+            logger.warning("Failed to log to database: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Stops the writer after it has flushed whatever is still buffered. Safe to call more
+     * than once and from several threads at once (e.g. the shutdown hook and the app);
+     * every caller waits for the flush, up to five seconds.
+     */
+    public static void shutdown() {
+        if (stopping.compareAndSet(false, true)) {
+            running = false;
+            LockSupport.unpark(writer);
+        }
+        try {
+            writer.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void reportUnwritten(Record r) {
+        logger.warning("Unwritten log [" + r.level + "] " + r.message + " (" + r.ipAddress + ")");
+    }
+
+    private static final class Record {
+        final String level;
+        final String message;
+        final String ipAddress;
+
+        Record(String level, String message, String ipAddress) {
+            this.level = level;
+            this.message = message;
+            this.ipAddress = ipAddress;
         }
     }
-}
\ No newline at end of file
+}
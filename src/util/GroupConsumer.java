@@ -0,0 +1,11 @@
+package util;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.List;
+
+/** Receives the rows of a streaming query one key at a time, e.g. one student's whole transcript. */
+@FunctionalInterface
+public interface GroupConsumer<T> {
+    void accept(String key, List<T> rows) throws SQLException, IOException;
+}
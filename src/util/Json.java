@@ -0,0 +1,258 @@
+package util;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal JSON reading and writing for the service API, so the project does not
+ * need a JSON library.
+ *
+ * Writes Maps, Iterables, arrays of objects, Strings, Numbers, Booleans and null.
+ * Parses into LinkedHashMap, ArrayList, String, Long or Double, Boolean and null.
+ */
+public final class Json {
+    private Json() {
+    }
+
+    public static String write(Object value) {
+        StringBuilder sb = new StringBuilder();
+        write(value, sb);
+        return sb.toString();
+    }
+
+    private static void write(Object value, StringBuilder sb) {
+        if (value == null) {
+            sb.append("null");
+        } else if (value instanceof String) {
+            quote((String) value, sb);
+        } else if (value instanceof Double || value instanceof Float) {
+            double d = ((Number) value).doubleValue();
+            if (Double.isFinite(d)) sb.append(d); else sb.append("null");
+        } else if (value instanceof Number || value instanceof Boolean) {
+            sb.append(value);
+        } else if (value instanceof Map) {
+            sb.append('{');
+            boolean first = true;
+            for (Map.Entry<?, ?> e : ((Map<?, ?>) value).entrySet()) {
+                if (!first) sb.append(',');
+                first = false;
+                quote(String.valueOf(e.getKey()), sb);
+                sb.append(':');
+                write(e.getValue(), sb);
+            }
+            sb.append('}');
+        } else if (value instanceof Iterable) {
+            sb.append('[');
+            Iterator<?> it = ((Iterable<?>) value).iterator();
+            while (it.hasNext()) {
+                write(it.next(), sb);
+                if (it.hasNext()) sb.append(',');
+            }
+            sb.append(']');
+        } else if (value instanceof Object[]) {
+            write(List.of((Object[]) value), sb);
+        } else {
+            quote(value.toString(), sb);
+        }
+    }
+
+    private static void quote(String s, StringBuilder sb) {
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"':  sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        sb.append('"');
+    }
+
+    /**
+     * Parses one JSON value.
+     * @throws IllegalArgumentException if the text is not valid JSON.
+     */
+    public static Object parse(String text) {
+        Parser p = new Parser(text);
+        p.skipWhitespace();
+        Object value = p.value();
+        p.skipWhitespace();
+        if (p.pos != text.length()) throw p.error("Unexpected trailing content");
+        return value;
+    }
+
+    /** Parses a JSON object; anything else is rejected. */
+    @SuppressWarnings("unchecked")
+    public static Map<String, Object> parseObject(String text) {
+        Object value = parse(text);
+        if (!(value instanceof Map)) throw new IllegalArgumentException("Expected a JSON object");
+        return (Map<String, Object>) value;
+    }
+
+    private static final class Parser {
+        final String s;
+        int pos;
+
+        Parser(String s) {
+            this.s = s;
+        }
+
+        Object value() {
+            if (pos >= s.length()) throw error("Unexpected end of input");
+            char c = s.charAt(pos);
+            switch (c) {
+                case '{': return object();
+                case '[': return array();
+                case '"': return string();
+                case 't': return literal("true", Boolean.TRUE);
+                case 'f': return literal("false", Boolean.FALSE);
+                case 'n': return literal("null", null);
+                default:
+                    if (c == '-' || (c >= '0' && c <= '9')) return number();
+                    throw error("Unexpected character '" + c + "'");
+            }
+        }
+
+        Map<String, Object> object() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            pos++;  // {
+            skipWhitespace();
+            if (peek() == '}') {
+                pos++;
+                return map;
+            }
+            while (true) {
+                skipWhitespace();
+                if (peek() != '"') throw error("Expected a string key");
+                String key = string();
+                skipWhitespace();
+                expect(':');
+                skipWhitespace();
+                map.put(key, value());
+                skipWhitespace();
+                if (peek() == ',') {
+                    pos++;
+                } else {
+                    expect('}');
+                    return map;
+                }
+            }
+        }
+
+        List<Object> array() {
+            List<Object> list = new ArrayList<>();
+            pos++;  // [
+            skipWhitespace();
+            if (peek() == ']') {
+                pos++;
+                return list;
+            }
+            while (true) {
+                skipWhitespace();
+                list.add(value());
+                skipWhitespace();
+                if (peek() == ',') {
+                    pos++;
+                } else {
+                    expect(']');
+                    return list;
+                }
+            }
+        }
+
+        String string() {
+            pos++;  // opening quote
+            StringBuilder sb = new StringBuilder();
+            while (true) {
+                if (pos >= s.length()) throw error("Unterminated string");
+                char c = s.charAt(pos++);
+                if (c == '"') return sb.toString();
+                if (c != '\\') {
+                    sb.append(c);
+                    continue;
+                }
+                if (pos >= s.length()) throw error("Unterminated escape");
+                char e = s.charAt(pos++);
+                switch (e) {
+                    case '"':  sb.append('"'); break;
+                    case '\\': sb.append('\\'); break;
+                    case '/':  sb.append('/'); break;
+                    case 'b':  sb.append('\b'); break;
+                    case 'f':  sb.append('\f'); break;
+                    case 'n':  sb.append('\n'); break;
+                    case 'r':  sb.append('\r'); break;
+                    case 't':  sb.append('\t'); break;
+                    case 'u':
+                        if (pos + 4 > s.length()) throw error("Bad unicode escape");
+                        try {
+                            sb.append((char) Integer.parseInt(s.substring(pos, pos + 4), 16));
+                        } catch (NumberFormatException ex) {
+                            throw error("Bad unicode escape");
+                        }
+                        pos += 4;
+                        break;
+                    default:
+                        throw error("Bad escape '\\" + e + "'");
+                }
+            }
+        }
+
+        Object number() {
+            int start = pos;
+            if (peek() == '-') pos++;
+            boolean fractional = false;
+            while (pos < s.length()) {
+                char c = s.charAt(pos);
+                if (c >= '0' && c <= '9') {
+                    pos++;
+                } else if (c == '.' || c == 'e' || c == 'E' || c == '+' || c == '-') {
+                    fractional = true;
+                    pos++;
+                } else {
+                    break;
+                }
+            }
+            String n = s.substring(start, pos);
+            try {
+                return fractional ? (Object) Double.parseDouble(n) : (Object) Long.parseLong(n);
+            } catch (NumberFormatException e) {
+                throw error("Bad number '" + n + "'");
+            }
+        }
+
+        Object literal(String word, Object value) {
+            if (!s.startsWith(word, pos)) throw error("Unexpected token");
+            pos += word.length();
+            return value;
+        }
+
+        char peek() {
+            return pos < s.length() ? s.charAt(pos) : '\0';
+        }
+
+        void expect(char c) {
+            if (peek() != c) throw error("Expected '" + c + "'");
+            pos++;
+        }
+
+        void skipWhitespace() {
+            while (pos < s.length() && Character.isWhitespace(s.charAt(pos))) pos++;
+        }
+
+        IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " at position " + pos);
+        }
+    }
+}
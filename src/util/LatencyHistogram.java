@@ -0,0 +1,74 @@
+package util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with log-linear buckets: every power of two is
+ * split into 64 equal sub-buckets, so any recorded value is reported within
+ * about 1.6% of its true value, from nanoseconds up to hours, in a fixed
+ * ~35 KB of counters. Safe to record into from any number of threads.
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKETS = 64;
+    private static final int SUB_BITS = 6;  // log2(SUB_BUCKETS)
+    private static final int BUCKETS = SUB_BUCKETS + (63 - SUB_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder total = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long nanos) {
+        long v = Math.max(0, nanos);
+        counts.incrementAndGet(index(v));
+        total.increment();
+        sum.add(v);
+        max.accumulateAndGet(v, Math::max);
+    }
+
+    public long count() {
+        return total.sum();
+    }
+
+    public long meanNanos() {
+        long n = count();
+        return n == 0 ? 0 : sum.sum() / n;
+    }
+
+    public long maxNanos() {
+        return max.get();
+    }
+
+    /** Latency at the given percentile (0-100), in nanoseconds. */
+    public long percentileNanos(double percentile) {
+        long n = count();
+        if (n == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * n));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(highestEquivalent(i), maxNanos());
+            }
+        }
+        return maxNanos();
+    }
+
+    private static int index(long v) {
+        if (v < SUB_BUCKETS) return (int) v;
+        int exp = 63 - Long.numberOfLeadingZeros(v);           // >= SUB_BITS
+        int sub = (int) ((v >>> (exp - SUB_BITS)) - SUB_BUCKETS);  // 0..63
+        return SUB_BUCKETS + (exp - SUB_BITS) * SUB_BUCKETS + sub;
+    }
+
+    /** Largest value that falls into bucket i. */
+    private static long highestEquivalent(int i) {
+        if (i < SUB_BUCKETS) return i;
+        int exp = (i - SUB_BUCKETS) / SUB_BUCKETS + SUB_BITS;
+        int sub = (i - SUB_BUCKETS) % SUB_BUCKETS;
+        long lower = (long) (SUB_BUCKETS + sub) << (exp - SUB_BITS);
+        return lower + (1L << (exp - SUB_BITS)) - 1;
+    }
+}
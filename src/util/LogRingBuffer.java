@@ -0,0 +1,78 @@
+package util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Bounded lock-free multi-producer / single-consumer ring buffer.
+ * Each slot carries a sequence number (Vyukov's scheme), so producers claim a
+ * slot with one CAS and the consumer never needs a lock.
+ */
+public class LogRingBuffer<T> {
+    private final int mask;
+    private final AtomicReferenceArray<T> slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();  // next slot producers claim
+    private volatile long head = 0;                     // next slot the consumer reads; written by consumer only
+
+    /** @param capacity rounded up to the next power of two. */
+    public LogRingBuffer(int capacity) {
+        int size = capacity <= 2 ? 2 : Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = size - 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /** Adds an item; returns false without blocking if the buffer is full. */
+    public boolean offer(T item) {
+        while (true) {
+            long pos = tail.get();
+            int index = (int) (pos & mask);
+            long seq = sequences.get(index);
+            long diff = seq - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    slots.lazySet(index, item);
+                    sequences.set(index, pos + 1);  // publish
+                    return true;
+                }
+            } else if (diff < 0) {
+                return false;  // consumer has not freed this slot yet: full
+            }
+            // else another producer claimed pos; retry with the new tail
+        }
+    }
+
+    /** Moves up to {@code max} items to {@code sink}. Only the consumer thread may call this. */
+    public int drainTo(Consumer<T> sink, int max) {
+        int drained = 0;
+        while (drained < max) {
+            int index = (int) (head & mask);
+            if (sequences.get(index) != head + 1) {
+                break;  // not yet published
+            }
+            T item = slots.get(index);
+            slots.lazySet(index, null);
+            sequences.set(index, head + mask + 1);  // hand slot back to producers
+            head++;
+            sink.accept(item);
+            drained++;
+        }
+        return drained;
+    }
+
+    /** Approximate number of buffered items. */
+    public int size() {
+        long size = tail.get() - head;
+        return (int) Math.max(0, Math.min(size, capacity()));
+    }
+}
@@ -0,0 +1,104 @@
+package util;
+
+import config.DBConnection;
+import config.PoolStats;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Latency histograms and counters per operation, fed by {@link Trace}:
+ * screen navigations, FXML loads, controller setup, table loads, SQL
+ * statements and API requests. Operation names are "kind:tag", e.g.
+ * "sql:SELECT enrollments" or "navigate:/view/Enrollment.fxml".
+ *
+ * Published over JMX as {@value #OBJECT_NAME}, so a running desktop client or
+ * API server can be inspected with JConsole, VisualVM or Mission Control
+ * without a debugger. -Dmetrics.enabled=false turns measuring off entirely;
+ * -Dmetrics.jmx=false keeps it on but does not register the MBean.
+ */
+public final class Metrics implements MetricsMXBean {
+    private static final Logger logger = Logger.getLogger(Metrics.class.getName());
+
+    public static final String OBJECT_NAME = "simpleauth:type=Metrics";
+    static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("metrics.enabled", "true"));
+
+    private static final Metrics INSTANCE = new Metrics();
+    private final Map<String, Operation> operations = new ConcurrentHashMap<>();
+
+    static {
+        if (ENABLED && Boolean.parseBoolean(System.getProperty("metrics.jmx", "true"))) {
+            register();
+        }
+    }
+
+    private Metrics() {
+    }
+
+    /** Records one run of {@code operation} that took {@code nanos}. */
+    public static void record(String operation, long nanos, boolean failed) {
+        if (!ENABLED) return;
+        Operation op = INSTANCE.operations.computeIfAbsent(operation, k -> new Operation());
+        op.latency.record(nanos);
+        if (failed) op.errors.increment();
+    }
+
+    /** Current stats of every operation, sorted by name. */
+    public static List<OperationStats> snapshot() {
+        List<OperationStats> result = new ArrayList<>();
+        for (Map.Entry<String, Operation> e : new TreeMap<>(INSTANCE.operations).entrySet()) {
+            LatencyHistogram h = e.getValue().latency;
+            result.add(new OperationStats(e.getKey(), h.count(), e.getValue().errors.sum(), ms(h.meanNanos()),
+                    ms(h.percentileNanos(50)), ms(h.percentileNanos(90)), ms(h.percentileNanos(99)),
+                    ms(h.maxNanos())));
+        }
+        return result;
+    }
+
+    /** Clears every operation. Runs still in flight are recorded into fresh histograms. */
+    public static void resetAll() {
+        INSTANCE.operations.clear();
+    }
+
+    @Override
+    public List<OperationStats> getOperations() {
+        return snapshot();
+    }
+
+    @Override
+    public PoolStats getPool() {
+        return DBConnection.getPoolStats();
+    }
+
+    @Override
+    public void reset() {
+        resetAll();
+    }
+
+    private static void register() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) server.registerMBean(INSTANCE, name);
+        } catch (JMException e) {
+            logger.warning("Could not register " + OBJECT_NAME + ": " + e.getMessage());
+        }
+    }
+
+    private static double ms(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static final class Operation {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder errors = new LongAdder();
+    }
+}
@@ -0,0 +1,16 @@
+package util;
+
+import config.PoolStats;
+import java.util.List;
+
+/** Management interface of {@link Metrics}, as shown in JConsole / VisualVM. */
+public interface MetricsMXBean {
+    /** Every operation measured since start (or the last reset), by name. */
+    List<OperationStats> getOperations();
+
+    /** Connection pool usage right now. */
+    PoolStats getPool();
+
+    /** Clears all histograms and counters, e.g. before profiling one workflow. */
+    void reset();
+}
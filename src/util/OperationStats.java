@@ -0,0 +1,40 @@
+package util;
+
+/** Snapshot of one measured operation's counters and latency percentiles. */
+public class OperationStats {
+    private final String name;
+    private final long count;
+    private final long errors;
+    private final double meanMs;
+    private final double p50Ms;
+    private final double p90Ms;
+    private final double p99Ms;
+    private final double maxMs;
+
+    public OperationStats(String name, long count, long errors, double meanMs,
+                          double p50Ms, double p90Ms, double p99Ms, double maxMs) {
+        this.name = name;
+        this.count = count;
+        this.errors = errors;
+        this.meanMs = meanMs;
+        this.p50Ms = p50Ms;
+        this.p90Ms = p90Ms;
+        this.p99Ms = p99Ms;
+        this.maxMs = maxMs;
+    }
+
+    public String getName() { return name; }
+    public long getCount() { return count; }
+    public long getErrors() { return errors; }
+    public double getMeanMs() { return meanMs; }
+    public double getP50Ms() { return p50Ms; }
+    public double getP90Ms() { return p90Ms; }
+    public double getP99Ms() { return p99Ms; }
+    public double getMaxMs() { return maxMs; }
+
+    @Override
+    public String toString() {
+        return String.format("%s count=%d errors=%d mean=%.2fms p50=%.2fms p90=%.2fms p99=%.2fms max=%.2fms",
+                name, count, errors, meanMs, p50Ms, p90Ms, p99Ms, maxMs);
+    }
+}
@@ -0,0 +1,41 @@
+package util;
+
+import java.util.Objects;
+
+/** Sort and filter settings for a paged table; immutable. */
+public class PageQuery {
+    private final String sortProperty;
+    private final boolean ascending;
+    private final String filter;
+
+    public PageQuery(String sortProperty, boolean ascending, String filter) {
+        this.sortProperty = sortProperty;
+        this.ascending = ascending;
+        this.filter = filter == null ? "" : filter.trim();
+    }
+
+    public String getSortProperty() { return sortProperty; }
+    public boolean isAscending() { return ascending; }
+    public String getFilter() { return filter; }
+
+    public PageQuery withSort(String property, boolean ascending) {
+        return new PageQuery(property, ascending, filter);
+    }
+
+    public PageQuery withFilter(String filter) {
+        return new PageQuery(sortProperty, ascending, filter);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof PageQuery)) return false;
+        PageQuery q = (PageQuery) o;
+        return ascending == q.ascending && filter.equals(q.filter) && Objects.equals(sortProperty, q.sortProperty);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(sortProperty, ascending, filter);
+    }
+}
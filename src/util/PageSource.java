@@ -0,0 +1,17 @@
+package util;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Supplies rows one page at a time using keyset (seek) pagination: the next
+ * page starts strictly after the last row of the previous one in sort order,
+ * so fetching page N costs the same as fetching page 1.
+ */
+public interface PageSource<T> {
+    /**
+     * Returns up to {@code limit} rows that come after {@code after} under the
+     * query's sort and filter, or the first page if {@code after} is null.
+     */
+    List<T> fetchPage(PageQuery query, T after, int limit) throws SQLException;
+}
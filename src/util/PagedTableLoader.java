@@ -0,0 +1,187 @@
+package util;
+
+import javafx.concurrent.Task;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableRow;
+import javafx.scene.control.TableView;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Feeds a TableView from a {@link PageSource} one page at a time.
+ *
+ * The first page is shown as soon as it arrives; the following page is
+ * prefetched in the background and appended when the user scrolls near the
+ * last loaded row. Column header clicks and {@link #setFilter} re-query the
+ * source instead of sorting/filtering the loaded rows locally.
+ * Only used from the FX thread.
+ */
+public final class PagedTableLoader<T> {
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    // Start appending when a row this close to the end becomes visible
+    private static final int PREFETCH_ROWS = 20;
+
+    private final TableView<T> table;
+    private final PageSource<T> source;
+    private final TaskGroup tasks;
+    private final Map<TableColumn<T, ?>, String> sortProperties;
+    private final Consumer<Throwable> onFailure;
+    private final int pageSize;
+
+    private PageQuery query;
+    private int generation = 0;        // bumped on reload; stale results are ignored
+    private Task<List<T>> inFlight;
+    private List<T> prefetched;        // next page, fetched but not yet shown
+    private boolean exhausted;
+    private boolean wantMore;
+    private Predicate<T> rowDisabled;
+
+    /**
+     * @param sortProperties maps sortable columns to the property names the source understands
+     */
+    public PagedTableLoader(TableView<T> table, PageSource<T> source, TaskGroup tasks,
+                            Map<TableColumn<T, ?>, String> sortProperties, PageQuery initialQuery,
+                            Consumer<Throwable> onFailure) {
+        this(table, source, tasks, sortProperties, initialQuery, onFailure, DEFAULT_PAGE_SIZE);
+    }
+
+    public PagedTableLoader(TableView<T> table, PageSource<T> source, TaskGroup tasks,
+                            Map<TableColumn<T, ?>, String> sortProperties, PageQuery initialQuery,
+                            Consumer<Throwable> onFailure, int pageSize) {
+        this.table = table;
+        this.source = source;
+        this.tasks = tasks;
+        this.sortProperties = sortProperties;
+        this.query = initialQuery;
+        this.onFailure = onFailure;
+        this.pageSize = pageSize;
+
+        // Rows are virtualized: only visible rows are built, so a row near the end
+        // being rendered means the user has scrolled there
+        table.setRowFactory(tv -> new TableRow<T>() {
+            @Override
+            public void updateIndex(int index) {
+                super.updateIndex(index);
+                if (index >= 0 && index >= tv.getItems().size() - PREFETCH_ROWS) {
+                    loadMore();
+                }
+            }
+
+            @Override
+            protected void updateItem(T item, boolean empty) {
+                super.updateItem(item, empty);
+                Predicate<T> disabled = rowDisabled;
+                setDisable(!empty && item != null && disabled != null && disabled.test(item));
+            }
+        });
+        table.setSortPolicy(tv -> {
+            applySortOrder();
+            return true;
+        });
+    }
+
+    public PageQuery getQuery() {
+        return query;
+    }
+
+    /** Re-queries with new filter text. */
+    public void setFilter(String filter) {
+        query = query.withFilter(filter);
+        reload();
+    }
+
+    /**
+     * Greys out (and makes unselectable) the rows matching {@code disabled}, or
+     * none if it is null. Applies to the rows already shown as well.
+     */
+    public void setRowDisabled(Predicate<T> disabled) {
+        rowDisabled = disabled;
+        table.refresh();
+    }
+
+    /** Drops loaded rows and fetches the first page again. */
+    public void reload() {
+        generation++;
+        if (inFlight != null) {
+            inFlight.cancel(true);
+            inFlight = null;
+        }
+        prefetched = null;
+        exhausted = false;
+        wantMore = false;
+        int gen = generation;
+        PageQuery q = query;
+        inFlight = tasks.loadTable(table, () -> source.fetchPage(q, null, pageSize),
+                rows -> {
+                    if (gen != generation) return;
+                    inFlight = null;
+                    exhausted = rows.size() < pageSize;
+                    prefetchNext();
+                },
+                this::failed);
+    }
+
+    /** Appends the prefetched page (if ready) and starts fetching the one after. */
+    private void loadMore() {
+        if (exhausted && prefetched == null) return;
+        if (prefetched == null) {
+            wantMore = true;  // append as soon as the in-flight prefetch lands
+            return;
+        }
+        List<T> page = prefetched;
+        prefetched = null;
+        Trace.run(Trace.tableFill(TaskGroup.tableName(table), page.size()), () -> table.getItems().addAll(page));
+        prefetchNext();
+    }
+
+    private void prefetchNext() {
+        if (exhausted || inFlight != null || prefetched != null) return;
+        List<T> items = table.getItems();
+        if (items.isEmpty()) return;
+        T last = items.get(items.size() - 1);
+        int gen = generation;
+        PageQuery q = query;
+        String name = TaskGroup.tableName(table);
+        inFlight = tasks.submit(() -> Trace.time(Trace.tableQuery(name), () -> source.fetchPage(q, last, pageSize)),
+                rows -> {
+                    if (gen != generation) return;
+                    inFlight = null;
+                    exhausted = rows.size() < pageSize;
+                    if (rows.isEmpty()) return;
+                    prefetched = rows;
+                    if (wantMore) {
+                        wantMore = false;
+                        loadMore();
+                    }
+                },
+                this::failed);
+    }
+
+    private void applySortOrder() {
+        List<TableColumn<T, ?>> order = table.getSortOrder();
+        PageQuery next;
+        if (order.isEmpty() || !sortProperties.containsKey(order.get(0))) {
+            next = query.withSort(null, true);
+        } else {
+            TableColumn<T, ?> column = order.get(0);
+            next = query.withSort(sortProperties.get(column),
+                    column.getSortType() == TableColumn.SortType.ASCENDING);
+        }
+        if (sameSort(next, query)) return;  // e.g. items changed but the sort order did not
+        query = next;
+        reload();
+    }
+
+    private static boolean sameSort(PageQuery a, PageQuery b) {
+        return a.isAscending() == b.isAscending()
+                && (a.getSortProperty() == null ? b.getSortProperty() == null
+                    : a.getSortProperty().equals(b.getSortProperty()));
+    }
+
+    private void failed(Throwable error) {
+        inFlight = null;
+        if (onFailure != null) onFailure.accept(error);
+    }
+}
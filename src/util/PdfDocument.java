@@ -0,0 +1,136 @@
+package util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A plain-text PDF: lines of Helvetica or Courier laid out top to bottom on
+ * US Letter pages, breaking to a new page when one is full. Only the standard
+ * fonts every reader has are used, so nothing is embedded and a page of text
+ * costs a few kilobytes. Enough for transcripts and similar printouts; there
+ * is no wrapping, so callers keep lines short.
+ *
+ * Characters outside Latin-1 print as '?'. Not thread-safe; build one
+ * document per thread.
+ */
+public final class PdfDocument {
+    private static final int PAGE_WIDTH = 612;
+    private static final int PAGE_HEIGHT = 792;
+    private static final int MARGIN = 54;
+
+    // Font resource names, sizes and line heights, by style
+    private static final String[] FONTS = {"Helvetica-Bold", "Helvetica", "Courier"};
+    private static final int[] SIZES = {14, 10, 9};
+    private static final int[] LEADING = {20, 14, 12};
+    private static final int HEADING = 0;
+    private static final int TEXT = 1;
+    private static final int FIXED = 2;
+
+    private final List<StringBuilder> pages = new ArrayList<>();
+    private StringBuilder page;
+    private int y;
+
+    /** Adds a line in large bold type. */
+    public PdfDocument heading(String text) {
+        return add(HEADING, text);
+    }
+
+    /** Adds a line of body text. */
+    public PdfDocument text(String text) {
+        return add(TEXT, text);
+    }
+
+    /** Adds a line in a fixed-width font, for columns lined up with padding. */
+    public PdfDocument fixed(String text) {
+        return add(FIXED, text);
+    }
+
+    /** Leaves one body-text line empty. */
+    public PdfDocument blank() {
+        return add(TEXT, null);
+    }
+
+    private PdfDocument add(int style, String text) {
+        if (page == null || y - LEADING[style] < MARGIN) {
+            page = new StringBuilder();
+            pages.add(page);
+            y = PAGE_HEIGHT - MARGIN;
+        }
+        y -= LEADING[style];
+        if (text != null && !text.isEmpty()) {
+            page.append("BT /F").append(style + 1).append(' ').append(SIZES[style]).append(" Tf ")
+                    .append(MARGIN).append(' ').append(y).append(" Td (");
+            appendEscaped(page, text);
+            page.append(") Tj ET\n");
+        }
+        return this;
+    }
+
+    private static void appendEscaped(StringBuilder out, String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '(' || c == ')' || c == '\\') {
+                out.append('\\').append(c);
+            } else if (c < ' ' || c > 0xFF) {
+                out.append('?');
+            } else {
+                out.append(c);
+            }
+        }
+    }
+
+    /**
+     * Writes the document. Objects are numbered catalog 1, page tree 2, fonts
+     * 3 to 5, then each page followed by its content stream.
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        if (pages.isEmpty()) pages.add(new StringBuilder());
+        int firstPage = 3 + FONTS.length;
+        Body body = new Body();
+        body.write("%PDF-1.4\n");
+        body.object("<< /Type /Catalog /Pages 2 0 R >>");
+        StringBuilder kids = new StringBuilder();
+        for (int i = 0; i < pages.size(); i++) kids.append(firstPage + 2 * i).append(" 0 R ");
+        body.object("<< /Type /Pages /Kids [" + kids + "] /Count " + pages.size() + " >>");
+        for (String font : FONTS) {
+            body.object("<< /Type /Font /Subtype /Type1 /BaseFont /" + font + " /Encoding /WinAnsiEncoding >>");
+        }
+        StringBuilder fonts = new StringBuilder();
+        for (int i = 0; i < FONTS.length; i++) fonts.append("/F").append(i + 1).append(' ').append(3 + i).append(" 0 R ");
+        for (int i = 0; i < pages.size(); i++) {
+            body.object("<< /Type /Page /Parent 2 0 R /MediaBox [0 0 " + PAGE_WIDTH + " " + PAGE_HEIGHT + "] "
+                    + "/Resources << /Font << " + fonts + ">> >> /Contents " + (firstPage + 2 * i + 1) + " 0 R >>");
+            byte[] content = pages.get(i).toString().getBytes(StandardCharsets.ISO_8859_1);
+            body.object("<< /Length " + content.length + " >>\nstream\n", content, "\nendstream");
+        }
+        int xref = body.size();
+        body.write("xref\n0 " + (body.offsets.size() + 1) + "\n0000000000 65535 f \n");
+        for (int offset : body.offsets) body.write(String.format("%010d 00000 n \n", offset));
+        body.write("trailer\n<< /Size " + (body.offsets.size() + 1) + " /Root 1 0 R >>\nstartxref\n" + xref + "\n%%EOF\n");
+        body.writeTo(out);
+    }
+
+    /** The file being assembled, with the byte offset of each object for the cross-reference table. */
+    private static final class Body extends ByteArrayOutputStream {
+        final List<Integer> offsets = new ArrayList<>();
+
+        void write(String s) {
+            writeBytes(s.getBytes(StandardCharsets.ISO_8859_1));
+        }
+
+        void object(String dictionary) {
+            object(dictionary, null, "");
+        }
+
+        void object(String head, byte[] stream, String tail) {
+            offsets.add(size());
+            write(offsets.size() + " 0 obj\n" + head);
+            if (stream != null) writeBytes(stream);
+            write(tail + "\nendobj\n");
+        }
+    }
+}
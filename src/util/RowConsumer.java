@@ -0,0 +1,10 @@
+package util;
+
+import java.io.IOException;
+import java.sql.SQLException;
+
+/** Receives rows one at a time as a streaming query reads them. */
+@FunctionalInterface
+public interface RowConsumer<T> {
+    void accept(T row) throws SQLException, IOException;
+}
@@ -0,0 +1,40 @@
+package util;
+
+import java.util.Objects;
+
+/** One logged-in user's session. Immutable; a new login gets a new Session. */
+public final class Session {
+    private final String token;
+    private final String userId;
+    private final String userName;
+    private final String userRole;
+    private final long createdAt;
+
+    public Session(String token, String userId, String userName, String userRole, long createdAt) {
+        this.token = token;
+        this.userId = userId;
+        this.userName = userName;
+        this.userRole = userRole;
+        this.createdAt = createdAt;
+    }
+
+    /** Opaque bearer token identifying this session. */
+    public String getToken() { return token; }
+    public String getUserId() { return userId; }
+    public String getUserName() { return userName; }
+    public String getUserRole() { return userRole; }
+    public long getCreatedAt() { return createdAt; }
+
+    /** True if this session belongs to the given user with the given name and role. */
+    boolean isFor(String userId, String userName, String userRole) {
+        return Objects.equals(this.userId, userId)
+                && Objects.equals(this.userName, userName)
+                && Objects.equals(this.userRole, userRole);
+    }
+
+    @Override
+    public String toString() {
+        // Never log the token itself
+        return "Session[user=" + userId + ", role=" + userRole + "]";
+    }
+}
@@ -1,26 +1,104 @@
 package util;
 
-/** Manages the session info for the currently logged-in user. */
+/**
+ * Session access for the rest of the app.
+ *
+ * Sessions live in one process-wide {@link SessionStore}, so a server can hold
+ * many users at once. The "current" session is the one bound to the calling
+ * thread (the API binds the request's token for the duration of a request),
+ * or else the desktop's own session, which the static getters below read so
+ * existing screens keep working unchanged.
+ *
+ * Tunable with -Dsession.ttlMs (idle timeout, default 30 minutes) and
+ * -Dsession.maxSessions (default 10000). The idle timeout applies to API
+ * tokens only: the desktop session is pinned and lasts until logout, since
+ * the screens have no way back to the login page mid-task.
+ */
 public class SessionManager {
-    private static String userName;
-    private static String userRole;
-    private static String studentId;
+    private static final SessionStore store = new SessionStore(
+            Long.getLong("session.ttlMs", 30 * 60_000L),
+            Integer.getInteger("session.maxSessions", 10_000));
 
-    /** Sets the current user's name, role, and ID in session. */
+    private static final ThreadLocal<String> boundToken = new ThreadLocal<>();
+    private static volatile String desktopToken;
+
+    public static SessionStore getStore() {
+        return store;
+    }
+
+    /** Starts a session for the user; hand its token to the client. */
+    public static Session login(String userId, String userName, String userRole) {
+        return store.create(userId, userName, userRole);
+    }
+
+    /** The live session for a token, or null if it is unknown or expired. */
+    public static Session lookup(String token) {
+        return store.get(token);
+    }
+
+    public static void logout(String token) {
+        store.invalidate(token);
+    }
+
+    /** Makes the token's session current on this thread until {@link #unbind()}. */
+    public static void bind(String token) {
+        boundToken.set(token);
+    }
+
+    public static void unbind() {
+        boundToken.remove();
+    }
+
+    /** The calling thread's session, falling back to the desktop session; null if none is live. */
+    public static Session current() {
+        String token = boundToken.get();
+        return store.get(token != null ? token : desktopToken);
+    }
+
+    /**
+     * Makes the given user current. Keeps the existing session if it already
+     * belongs to this user, otherwise replaces it.
+     */
     public static void setCurrentUser(String name, String role, String id) {
-        userName = name;
-        userRole = role;
-        studentId = id;
+        Session existing = current();
+        if (existing != null && existing.isFor(id, name, role)) return;
+        String bound = boundToken.get();
+        if (bound != null) {
+            Session session = store.create(id, name, role);
+            store.invalidate(bound);
+            boundToken.set(session.getToken());
+        } else {
+            Session session = store.createPinned(id, name, role);
+            String previous = desktopToken;
+            desktopToken = session.getToken();
+            store.invalidate(previous);
+        }
     }
 
-    public static String getUserName()   { return userName; }
-    public static String getUserRole()   { return userRole; }
-    public static String getStudentId()  { return studentId; }
+    public static String getUserName() {
+        Session s = current();
+        return s == null ? null : s.getUserName();
+    }
+
+    public static String getUserRole() {
+        Session s = current();
+        return s == null ? null : s.getUserRole();
+    }
+
+    public static String getStudentId() {
+        Session s = current();
+        return s == null ? null : s.getUserId();
+    }
 
-    /** Clears the session (e.g., on logout). */
+    /** Ends the current session (e.g., on logout). */
     public static void clearSession() {
-        userName = null;
-        userRole = null;
-        studentId = null;
+        String bound = boundToken.get();
+        if (bound != null) {
+            store.invalidate(bound);
+            boundToken.remove();
+        } else {
+            store.invalidate(desktopToken);
+            desktopToken = null;
+        }
     }
-}
\ No newline at end of file
+}
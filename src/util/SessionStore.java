@@ -0,0 +1,226 @@
+package util;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.logging.Logger;
+
+/**
+ * Concurrent store of sessions keyed by random bearer tokens.
+ *
+ * Lookups are lock-free reads of a ConcurrentHashMap; writes only contend on
+ * the map bin of their own token. A session that goes unused for the TTL
+ * expires: it is dropped on the next lookup or by the periodic sweep. The
+ * store holds at most maxSessions entries; creating one more when full evicts
+ * the least recently used of a few sessions picked at random, in constant time
+ * however many sessions there are (an expired one, if picked, goes first).
+ * Concurrent creates can overshoot the limit by at most the number of racing
+ * threads. Sessions created with {@link #createPinned} are exempt from both
+ * expiry and eviction and only end when invalidated.
+ */
+public final class SessionStore {
+    private static final Logger logger = Logger.getLogger(SessionStore.class.getName());
+
+    // lastAccess is only rewritten when it is at least this stale, so hot
+    // sessions do not turn every read into a shared-cache-line write
+    private static final long TOUCH_GRANULARITY_MS = 1000;
+    // Sessions compared per eviction, and random slots tried to find them
+    private static final int EVICTION_SAMPLES = 8;
+    private static final int EVICTION_PROBES = EVICTION_SAMPLES * 4;
+
+    private final long ttlMs;
+    private final int maxSessions;
+    private final Map<String, Entry> sessions = new ConcurrentHashMap<>();
+    // Tokens of the last maxSessions sessions created, the pool eviction samples from; a
+    // slot may name a session that has since ended, which the sample then skips
+    private final AtomicReferenceArray<String> recent;
+    private final SecureRandom random = new SecureRandom();
+    private final ScheduledExecutorService sweeper;
+
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong expired = new AtomicLong();
+    private final AtomicLong evicted = new AtomicLong();
+    private final AtomicLong invalidated = new AtomicLong();
+
+    public SessionStore(long ttlMs, int maxSessions) {
+        if (ttlMs <= 0 || maxSessions <= 0) {
+            throw new IllegalArgumentException("ttlMs and maxSessions must be positive");
+        }
+        this.ttlMs = ttlMs;
+        this.maxSessions = maxSessions;
+        this.recent = new AtomicReferenceArray<>(maxSessions);
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "session-sweeper");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1000, Math.min(ttlMs / 2, 60_000));
+        sweeper.scheduleAtFixedRate(this::sweep, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /** Starts a new session for the user and returns it. */
+    public Session create(String userId, String userName, String userRole) {
+        return create(userId, userName, userRole, false);
+    }
+
+    /**
+     * Starts a session that never expires or is evicted, for a user who is
+     * present at the machine rather than holding a token (the desktop login).
+     */
+    public Session createPinned(String userId, String userName, String userRole) {
+        return create(userId, userName, userRole, true);
+    }
+
+    private Session create(String userId, String userName, String userRole, boolean pinned) {
+        while (sessions.size() >= maxSessions) {
+            if (!evictSampled()) break;
+        }
+        long now = System.currentTimeMillis();
+        Session session = new Session(newToken(), userId, userName, userRole, now);
+        sessions.put(session.getToken(), new Entry(session, now, pinned));
+        long n = created.getAndIncrement();
+        recent.set((int) (n % maxSessions), session.getToken());
+        return session;
+    }
+
+    /** Returns the live session for the token and marks it used, or null if unknown or expired. */
+    public Session get(String token) {
+        if (token == null) return null;
+        Entry entry = sessions.get(token);
+        if (entry == null) return null;
+        long now = System.currentTimeMillis();
+        if (entry.isExpired(now, ttlMs)) {
+            if (sessions.remove(token, entry)) {
+                expired.incrementAndGet();
+            }
+            return null;
+        }
+        if (now - entry.lastAccess > TOUCH_GRANULARITY_MS) {
+            entry.lastAccess = now;
+        }
+        return entry.session;
+    }
+
+    /** Ends the session. Returns false if it did not exist. */
+    public boolean invalidate(String token) {
+        if (token == null) return false;
+        if (sessions.remove(token) != null) {
+            invalidated.incrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    /** Ends every session of the user, e.g. after a password change. Returns how many were ended. */
+    public int invalidateUser(String userId) {
+        int n = 0;
+        for (Map.Entry<String, Entry> e : sessions.entrySet()) {
+            if (e.getValue().session.getUserId().equals(userId) && sessions.remove(e.getKey(), e.getValue())) {
+                n++;
+            }
+        }
+        invalidated.addAndGet(n);
+        return n;
+    }
+
+    /** Drops every expired session. Runs periodically; safe to call at any time. */
+    public void sweep() {
+        long now = System.currentTimeMillis();
+        int n = 0;
+        for (Map.Entry<String, Entry> e : sessions.entrySet()) {
+            if (e.getValue().isExpired(now, ttlMs) && sessions.remove(e.getKey(), e.getValue())) {
+                n++;
+            }
+        }
+        if (n > 0) {
+            expired.addAndGet(n);
+            logger.fine("Expired " + n + " idle session(s)");
+        }
+    }
+
+    /**
+     * Removes the least recently used of up to {@link #EVICTION_SAMPLES} live, unpinned
+     * sessions picked at random. Falls back to a full scan in the rare case that every
+     * slot tried names an ended or pinned session. @return false if there was none to remove.
+     */
+    private boolean evictSampled() {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        String oldestToken = null;
+        Entry oldest = null;
+        int sampled = 0;
+        for (int probe = 0; probe < EVICTION_PROBES && sampled < EVICTION_SAMPLES; probe++) {
+            String token = recent.get(rnd.nextInt(maxSessions));
+            if (token == null) continue;
+            Entry e = sessions.get(token);
+            if (e == null || e.pinned) continue;
+            sampled++;
+            if (oldest == null || e.lastAccess < oldest.lastAccess) {
+                oldestToken = token;
+                oldest = e;
+            }
+        }
+        if (oldest == null) {
+            for (Map.Entry<String, Entry> e : sessions.entrySet()) {
+                if (e.getValue().pinned) continue;
+                if (oldest == null || e.getValue().lastAccess < oldest.lastAccess) {
+                    oldestToken = e.getKey();
+                    oldest = e.getValue();
+                }
+            }
+            if (oldest == null) return false;
+        }
+        if (sessions.remove(oldestToken, oldest)) {
+            if (oldest.isExpired(System.currentTimeMillis(), ttlMs)) {
+                expired.incrementAndGet();
+            } else {
+                evicted.incrementAndGet();
+            }
+        }
+        return true;
+    }
+
+    private String newToken() {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    /** Stops the sweeper; sessions stay readable. */
+    public void shutdown() {
+        sweeper.shutdownNow();
+    }
+
+    public int size()                    { return sessions.size(); }
+    public int getMaxSessions()          { return maxSessions; }
+    public long getTtlMs()               { return ttlMs; }
+    public long getCreatedCount()        { return created.get(); }
+    /** Sessions dropped because they sat idle past the TTL. */
+    public long getExpiredCount()        { return expired.get(); }
+    /** Live sessions dropped to stay within maxSessions. */
+    public long getEvictedCount()        { return evicted.get(); }
+    /** Sessions ended by logout or invalidateUser. */
+    public long getInvalidatedCount()    { return invalidated.get(); }
+
+    private static final class Entry {
+        final Session session;
+        final boolean pinned;
+        volatile long lastAccess;
+
+        Entry(Session session, long lastAccess, boolean pinned) {
+            this.session = session;
+            this.lastAccess = lastAccess;
+            this.pinned = pinned;
+        }
+
+        boolean isExpired(long now, long ttlMs) {
+            return !pinned && now - lastAccess > ttlMs;
+        }
+    }
+}
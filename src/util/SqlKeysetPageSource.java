@@ -0,0 +1,132 @@
+package util;
+
+import config.DBConnection;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Keyset pagination over one SQL table. Sorting and filtering happen in the
+ * database; a unique id column breaks ties so pages never overlap or skip rows.
+ *
+ * Sort expressions must not produce NULLs (wrap nullable columns in COALESCE),
+ * because NULL never compares equal in the seek condition.
+ */
+public class SqlKeysetPageSource<T> implements PageSource<T> {
+    private final String select;
+    private final String baseWhere;
+    private final List<Object> baseParams;
+    private final String idColumn;
+    private final Function<T, Object> idOf;
+    private final RowMapper<T> mapper;
+    private final Map<String, SortColumn<T>> sortColumns = new LinkedHashMap<>();
+    private final List<String> filterColumns = new ArrayList<>();
+
+    /**
+     * @param select    e.g. "SELECT * FROM enrollments"
+     * @param baseWhere fixed condition such as "course_code = ?", or null
+     * @param idColumn  unique column used as the tie-breaker
+     */
+    public SqlKeysetPageSource(String select, String baseWhere, List<Object> baseParams,
+                               String idColumn, Function<T, Object> idOf, RowMapper<T> mapper) {
+        this.select = select;
+        this.baseWhere = baseWhere;
+        this.baseParams = baseParams == null ? List.of() : baseParams;
+        this.idColumn = idColumn;
+        this.idOf = idOf;
+        this.mapper = mapper;
+    }
+
+    /** Allows sorting by {@code property}, ordering on the SQL expression {@code expression}. */
+    public SqlKeysetPageSource<T> sortable(String property, String expression, Function<T, Object> valueOf) {
+        sortColumns.put(property, new SortColumn<>(expression, valueOf));
+        return this;
+    }
+
+    /** Columns matched (by prefix) against the query's filter text. */
+    public SqlKeysetPageSource<T> filterOn(String... columns) {
+        filterColumns.addAll(Arrays.asList(columns));
+        return this;
+    }
+
+    @Override
+    public List<T> fetchPage(PageQuery query, T after, int limit) throws SQLException {
+        SortColumn<T> sort = query.getSortProperty() == null ? null : sortColumns.get(query.getSortProperty());
+        String dir = query.isAscending() ? "ASC" : "DESC";
+        String cmp = query.isAscending() ? ">" : "<";
+
+        StringBuilder sql = new StringBuilder(select);
+        List<Object> params = new ArrayList<>();
+        List<String> where = new ArrayList<>();
+        if (baseWhere != null) {
+            where.add(baseWhere);
+            params.addAll(baseParams);
+        }
+        if (!query.getFilter().isEmpty() && !filterColumns.isEmpty()) {
+            // Prefix match keeps the filter index-friendly
+            String pattern = escapeLike(query.getFilter()) + "%";
+            List<String> ors = new ArrayList<>();
+            for (String column : filterColumns) {
+                ors.add(column + " LIKE ?");
+                params.add(pattern);
+            }
+            where.add("(" + String.join(" OR ", ors) + ")");
+        }
+        if (after != null) {
+            if (sort != null) {
+                Object lastValue = sort.valueOf.apply(after);
+                where.add("(" + sort.expression + " " + cmp + " ? OR (" + sort.expression + " = ? AND "
+                        + idColumn + " " + cmp + " ?))");
+                params.add(lastValue);
+                params.add(lastValue);
+            } else {
+                where.add(idColumn + " " + cmp + " ?");
+            }
+            params.add(idOf.apply(after));
+        }
+        if (!where.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", where));
+        }
+        sql.append(" ORDER BY ");
+        if (sort != null) {
+            sql.append(sort.expression).append(' ').append(dir).append(", ");
+        }
+        sql.append(idColumn).append(' ').append(dir).append(" LIMIT ?");
+        params.add(limit);
+
+        List<T> rows = new ArrayList<>(limit);
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+            for (int i = 0; i < params.size(); i++) {
+                stmt.setObject(i + 1, params.get(i));
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(mapper.map(rs));
+                }
+            }
+        }
+        return rows;
+    }
+
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static final class SortColumn<T> {
+        final String expression;
+        final Function<T, Object> valueOf;
+
+        SortColumn(String expression, Function<T, Object> valueOf) {
+            this.expression = expression;
+            this.valueOf = valueOf;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package util;
+
+import javafx.concurrent.Task;
+import javafx.concurrent.Worker;
+import javafx.scene.Node;
+import javafx.scene.control.ProgressIndicator;
+import javafx.scene.control.TableView;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
+
+/**
+ * Tracks the background tasks started by one screen so they can all be
+ * cancelled when the user navigates away. Only used from the FX thread.
+ */
+public class TaskGroup {
+    private final Set<Task<?>> running = new HashSet<>();
+
+    /** Submits work through {@link AsyncDb} and tracks it until it finishes. */
+    public <T> Task<T> submit(Callable<T> work, Consumer<T> onSuccess, Consumer<Throwable> onFailure) {
+        Task<T> task = AsyncDb.submit(work, onSuccess, onFailure);
+        running.add(task);
+        task.stateProperty().addListener((obs, old, state) -> {
+            if (isFinished(state)) running.remove(task);
+        });
+        return task;
+    }
+
+    /**
+     * Loads rows into {@code table} in the background, showing a spinner as the
+     * table placeholder while the query runs. The query and the fill are timed
+     * with {@link Trace} under the table's fx:id.
+     */
+    public <T> Task<List<T>> loadTable(TableView<T> table, Callable<List<T>> query, Consumer<Throwable> onFailure) {
+        return loadTable(table, query, null, onFailure);
+    }
+
+    /** Same as above, then hands the loaded rows to {@code onLoaded} (e.g. to update totals). */
+    public <T> Task<List<T>> loadTable(TableView<T> table, Callable<List<T>> query,
+                                       Consumer<List<T>> onLoaded, Consumer<Throwable> onFailure) {
+        Node previousPlaceholder = table.getPlaceholder();
+        ProgressIndicator spinner = new ProgressIndicator();
+        spinner.setMaxSize(40, 40);
+        table.getItems().clear();
+        table.setPlaceholder(spinner);
+        String name = tableName(table);
+        Task<List<T>> task = submit(() -> Trace.time(Trace.tableQuery(name), query),
+                rows -> Trace.run(Trace.tableFill(name, rows.size()), () -> {
+                    table.getItems().setAll(rows);
+                    if (onLoaded != null) onLoaded.accept(rows);
+                }),
+                onFailure);
+        task.stateProperty().addListener((obs, old, state) -> {
+            if (isFinished(state)) table.setPlaceholder(previousPlaceholder);
+        });
+        return task;
+    }
+
+    static String tableName(TableView<?> table) {
+        return table.getId() != null ? table.getId() : "table";
+    }
+
+    private static boolean isFinished(Worker.State state) {
+        return state == Worker.State.SUCCEEDED || state == Worker.State.FAILED
+                || state == Worker.State.CANCELLED;
+    }
+
+    /** Cancels (and interrupts) every task still in flight. */
+    public void cancelAll() {
+        for (Task<?> task : new ArrayList<>(running)) {
+            task.cancel(true);
+        }
+        running.clear();
+    }
+}
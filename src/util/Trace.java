@@ -0,0 +1,274 @@
+package util;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Times the steps that make up a screen change or a request and reports each
+ * one twice: as a custom Java Flight Recorder event (category "Simple Auth")
+ * and into the {@link Metrics} histograms.
+ *
+ * <pre>
+ * try (Trace.Span span = Trace.sql(sql)) { ... }
+ * </pre>
+ *
+ * To see the events, start the app with -XX:StartFlightRecording (or
+ * {@code jcmd <pid> JFR.start}) and open the recording in Mission Control.
+ * The events cost next to nothing while no recording is running.
+ */
+public final class Trace {
+    private static final Span NONE = new Span(null, null);
+    private static final int MAX_CACHED_NAMES = 1000;
+    private static final Map<String, String> statementNames = new ConcurrentHashMap<>();
+    private static final Map<String, String> registeredNames = new ConcurrentHashMap<>();
+
+    private Trace() {
+    }
+
+    /** False when -Dmetrics.enabled=false; callers can then skip setting up spans at all. */
+    public static boolean enabled() {
+        return Metrics.ENABLED;
+    }
+
+    /** Switching the scene from one view to another, including load and setup of the new one. */
+    public static Span navigation(String fromView, String toView) {
+        if (!Metrics.ENABLED) return NONE;
+        NavigationEvent event = new NavigationEvent();
+        event.fromView = fromView;
+        event.toView = toView;
+        return new Span("navigate:" + toView, event);
+    }
+
+    /** FXMLLoader.load of one view, which also constructs and initializes its controller. */
+    public static Span fxmlLoad(String view) {
+        if (!Metrics.ENABLED) return NONE;
+        FxmlLoadEvent event = new FxmlLoadEvent();
+        event.view = view;
+        return new Span("fxml:" + view, event);
+    }
+
+    /** The setup call a screen's caller makes on the freshly loaded controller (setStudentId and the like). */
+    public static Span controllerInit(String controller, String view) {
+        if (!Metrics.ENABLED) return NONE;
+        ControllerInitEvent event = new ControllerInitEvent();
+        event.controller = controller;
+        event.view = view;
+        return new Span("init:" + controller, event);
+    }
+
+    /** Background query feeding a table, from submit to rows in hand (includes waiting for a connection). */
+    public static Span tableQuery(String table) {
+        if (!Metrics.ENABLED) return NONE;
+        TableLoadEvent event = new TableLoadEvent();
+        event.table = table;
+        event.phase = "query";
+        return new Span("table.query:" + table, event);
+    }
+
+    /** Putting loaded rows into a table on the FX thread. */
+    public static Span tableFill(String table, int rows) {
+        if (!Metrics.ENABLED) return NONE;
+        TableLoadEvent event = new TableLoadEvent();
+        event.table = table;
+        event.phase = "fill";
+        event.rows = rows;
+        return new Span("table.fill:" + table, event);
+    }
+
+    /** One JDBC execute call. {@code sql} may be null for a batch of plain Statement SQL. */
+    public static Span sql(String sql) {
+        if (!Metrics.ENABLED) return NONE;
+        SqlEvent event = new SqlEvent();
+        event.statement = statementName(sql);
+        event.sql = sql;
+        return new Span("sql:" + event.statement, event);
+    }
+
+    /** One API request, tagged with its route pattern rather than the concrete path. */
+    public static Span api(String method, String route) {
+        if (!Metrics.ENABLED) return NONE;
+        ApiRequestEvent event = new ApiRequestEvent();
+        event.method = method;
+        event.route = route;
+        return new Span("api:" + method + " " + route, event);
+    }
+
+    /** Runs {@code work} inside {@code span}, marking the span failed if it throws. */
+    public static <T> T time(Span span, Callable<T> work) throws Exception {
+        try (span) {
+            try {
+                return work.call();
+            } catch (Exception | Error e) {
+                span.fail();
+                throw e;
+            }
+        }
+    }
+
+    /** Same as {@link #time} for work that returns nothing and throws no checked exceptions. */
+    public static void run(Span span, Runnable work) {
+        try (span) {
+            try {
+                work.run();
+            } catch (RuntimeException | Error e) {
+                span.fail();
+                throw e;
+            }
+        }
+    }
+
+    /** Tags a navigation or FXML-load span with the controller, once the view has loaded and it is known. */
+    static void setController(Span span, String controller) {
+        if (span.event instanceof NavigationEvent) {
+            ((NavigationEvent) span.event).controller = controller;
+        } else if (span.event instanceof FxmlLoadEvent) {
+            ((FxmlLoadEvent) span.event).controller = controller;
+        }
+    }
+
+    /** Reports statements with this exact SQL under {@code name} instead of a derived one. */
+    public static void nameStatement(String sql, String name) {
+        registeredNames.put(sql, name);
+    }
+
+    /**
+     * Short name for a statement: its registered name if it has one, otherwise its
+     * verb and main table, e.g. "SELECT enrollments". Keeps the number of
+     * histograms bounded however many SQL variants there are.
+     */
+    static String statementName(String sql) {
+        if (sql == null) return "batch";
+        String name = registeredNames.get(sql);
+        if (name == null) name = statementNames.get(sql);
+        if (name == null) {
+            name = deriveStatementName(sql);
+            if (statementNames.size() < MAX_CACHED_NAMES) statementNames.put(sql, name);
+        }
+        return name;
+    }
+
+    private static String deriveStatementName(String sql) {
+        String[] words = sql.trim().split("[\\s(),]+");
+        String verb = words[0].toUpperCase(Locale.ROOT);
+        String target = null;
+        if (verb.equals("UPDATE")) {
+            if (words.length > 1) target = words[1];
+        } else {
+            String marker = verb.equals("INSERT") || verb.equals("REPLACE") ? "INTO" : "FROM";
+            for (int i = 0; i < words.length - 1 && target == null; i++) {
+                // FROM (SELECT ...) names a derived table; its own FROM comes later
+                if (words[i].equalsIgnoreCase(marker) && !words[i + 1].equalsIgnoreCase("SELECT")) {
+                    target = words[i + 1];
+                }
+            }
+        }
+        return target == null ? verb : verb + " " + target.toLowerCase(Locale.ROOT);
+    }
+
+    /** One timed step. Closing it records the elapsed time; call {@link #fail()} first if the step failed. */
+    public static final class Span implements AutoCloseable {
+        private final String operation;
+        final TraceEvent event;
+        private final long start = System.nanoTime();
+        private boolean failed;
+
+        private Span(String operation, TraceEvent event) {
+            this.operation = operation;
+            this.event = event;
+            if (event != null) event.begin();
+        }
+
+        public void fail() {
+            failed = true;
+        }
+
+        @Override
+        public void close() {
+            if (operation == null) return;
+            Metrics.record(operation, System.nanoTime() - start, failed);
+            event.end();
+            if (event.shouldCommit()) {
+                event.failed = failed;
+                event.commit();
+            }
+        }
+    }
+
+    @Category("Simple Auth")
+    abstract static class TraceEvent extends Event {
+        @Label("Failed")
+        boolean failed;
+    }
+
+    @Name("simpleauth.Navigation")
+    @Label("Screen Navigation")
+    @Category({"Simple Auth", "UI"})
+    @Description("Scene change from one view to another: FXML load, controller setup and setRoot")
+    static final class NavigationEvent extends TraceEvent {
+        @Label("From View")
+        String fromView;
+        @Label("To View")
+        String toView;
+        @Label("Controller")
+        String controller;
+    }
+
+    @Name("simpleauth.FxmlLoad")
+    @Label("FXML Load")
+    @Category({"Simple Auth", "UI"})
+    static final class FxmlLoadEvent extends TraceEvent {
+        @Label("View")
+        String view;
+        @Label("Controller")
+        String controller;
+    }
+
+    @Name("simpleauth.ControllerInit")
+    @Label("Controller Init")
+    @Category({"Simple Auth", "UI"})
+    static final class ControllerInitEvent extends TraceEvent {
+        @Label("Controller")
+        String controller;
+        @Label("View")
+        String view;
+    }
+
+    @Name("simpleauth.TableLoad")
+    @Label("Table Load")
+    @Category({"Simple Auth", "UI"})
+    static final class TableLoadEvent extends TraceEvent {
+        @Label("Table")
+        String table;
+        @Label("Phase")
+        String phase;
+        @Label("Rows")
+        int rows;
+    }
+
+    @Name("simpleauth.Sql")
+    @Label("SQL Statement")
+    @Category({"Simple Auth", "Database"})
+    static final class SqlEvent extends TraceEvent {
+        @Label("Statement")
+        String statement;
+        @Label("SQL")
+        String sql;
+    }
+
+    @Name("simpleauth.ApiRequest")
+    @Label("API Request")
+    @Category({"Simple Auth", "API"})
+    static final class ApiRequestEvent extends TraceEvent {
+        @Label("Method")
+        String method;
+        @Label("Route")
+        String route;
+    }
+}
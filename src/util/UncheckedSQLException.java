@@ -0,0 +1,17 @@
+package util;
+
+import java.sql.SQLException;
+
+/** Carries an SQLException out of code that cannot throw it, such as a {@link java.util.stream.Stream}. */
+public class UncheckedSQLException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public UncheckedSQLException(SQLException cause) {
+        super(cause.getMessage(), cause);
+    }
+
+    @Override
+    public synchronized SQLException getCause() {
+        return (SQLException) super.getCause();
+    }
+}
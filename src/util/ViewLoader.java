@@ -0,0 +1,80 @@
+package util;
+
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import java.io.IOException;
+import java.net.URL;
+import java.util.function.Consumer;
+
+/**
+ * Loads FXML views and switches screens, timing each step with {@link Trace}:
+ * the whole navigation, the FXML load (which constructs and initializes the
+ * controller) and the setup call made on the new controller.
+ */
+public final class ViewLoader {
+    // Remembered on each loaded root so the next navigation knows where it came from
+    private static final String VIEW_KEY = "util.ViewLoader.view";
+
+    private ViewLoader() {
+    }
+
+    /** Loads {@code view} (e.g. "/view/Dashboard.fxml"); the loader holds its root and controller. */
+    public static FXMLLoader load(String view) throws IOException {
+        URL location = ViewLoader.class.getResource(view);
+        if (location == null) throw new IOException("No such view: " + view);
+        FXMLLoader loader = new FXMLLoader(location);
+        try (Trace.Span span = Trace.fxmlLoad(view)) {
+            try {
+                loader.load();
+            } catch (IOException | RuntimeException e) {
+                span.fail();
+                throw e;
+            }
+            Object controller = loader.getController();
+            if (controller != null) Trace.setController(span, controller.getClass().getSimpleName());
+        }
+        Parent root = loader.getRoot();
+        root.getProperties().put(VIEW_KEY, view);
+        return loader;
+    }
+
+    /** Replaces the screen {@code anchor} is on with {@code view}. */
+    public static void show(Node anchor, String view) throws IOException {
+        show(anchor, view, null);
+    }
+
+    /**
+     * Replaces the screen {@code anchor} is on with {@code view}, first handing
+     * the new controller to {@code init} (may be null) to pass it what it needs.
+     */
+    public static <C> C show(Node anchor, String view, Consumer<C> init) throws IOException {
+        Scene scene = anchor.getScene();
+        Parent current = scene.getRoot();
+        Object from = current == null ? null : current.getProperties().get(VIEW_KEY);
+        try (Trace.Span span = Trace.navigation((String) from, view)) {
+            try {
+                FXMLLoader loader = load(view);
+                C controller = loader.getController();
+                String controllerName = controller == null ? null : controller.getClass().getSimpleName();
+                Trace.setController(span, controllerName);
+                if (init != null) {
+                    try (Trace.Span setup = Trace.controllerInit(controllerName, view)) {
+                        try {
+                            init.accept(controller);
+                        } catch (RuntimeException e) {
+                            setup.fail();
+                            throw e;
+                        }
+                    }
+                }
+                scene.setRoot(loader.getRoot());
+                return controller;
+            } catch (IOException | RuntimeException e) {
+                span.fail();
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import model.Course;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Many students going for the last seats of one course at once, as at the
+ * opening of registration: the conditional seat update must never let the
+ * course take more students than its capacity, and seats_taken must match
+ * the enrollments actually written, drops included.
+ */
+class CourseCapacityConcurrencyTest {
+    private static final int STUDENTS = 300;
+    private static final int CAPACITY = 40;
+
+    @Test
+    void concurrentEnrollsNeverOverbook() throws Exception {
+        List<String> students = newStudents(STUDENTS, 11);
+        CourseCatalog.addCourse(new Course("CAP1", "Capacity", 3, "Test", "", CAPACITY));
+
+        List<Callable<EnrollmentResult>> enrolls = new ArrayList<>();
+        for (String id : students) enrolls.add(() -> EnrollmentService.enroll(id, "CAP1"));
+        Map<EnrollmentResult, Integer> results = runAll(enrolls);
+
+        assertEquals(CAPACITY, results.getOrDefault(EnrollmentResult.ENROLLED, 0), results.toString());
+        assertEquals(STUDENTS - CAPACITY, results.getOrDefault(EnrollmentResult.COURSE_FULL, 0), results.toString());
+        assertEquals(CAPACITY, EnrollmentService.countEnrollments("CAP1"));
+        assertEquals(CAPACITY, EnrollmentService.getSeatsTaken().get("CAP1"));
+    }
+
+    @Test
+    void dropsAndEnrollsTogetherKeepSeatCountExact() throws Exception {
+        List<String> students = newStudents(STUDENTS, 12);
+        CourseCatalog.addCourse(new Course("CAP2", "Capacity churn", 3, "Test", "", CAPACITY));
+        List<String> enrolled = students.subList(0, CAPACITY);
+        for (String id : enrolled) assertEquals(EnrollmentResult.ENROLLED, EnrollmentService.enroll(id, "CAP2"));
+
+        // Half of the class drops while everyone else tries to get in
+        List<Callable<EnrollmentResult>> work = new ArrayList<>();
+        for (String id : enrolled.subList(0, CAPACITY / 2)) {
+            work.add(() -> EnrollmentService.drop(id, "CAP2") ? null : EnrollmentResult.COURSE_NOT_FOUND);
+        }
+        for (String id : students.subList(CAPACITY, STUDENTS)) work.add(() -> EnrollmentService.enroll(id, "CAP2"));
+        Map<EnrollmentResult, Integer> results = runAll(work);
+
+        assertEquals(0, results.getOrDefault(EnrollmentResult.COURSE_NOT_FOUND, 0), results.toString());
+        int taken = EnrollmentService.getSeatsTaken().get("CAP2");
+        assertEquals(EnrollmentService.countEnrollments("CAP2"), taken);
+        assertTrue(taken <= CAPACITY, "seats taken: " + taken);
+        assertEquals(CAPACITY / 2 + results.getOrDefault(EnrollmentResult.ENROLLED, 0), taken, results.toString());
+    }
+
+    /** Seeds {@code count} students nobody else in the run has enrolled. */
+    private static List<String> newStudents(int count, long seed) throws Exception {
+        int before = SeedData.generate(0, 0, 0, 0, 0, seed).studentIds.size();
+        return new ArrayList<>(SeedData.generate(before + count, 0, 0, 0, 0, seed).studentIds.subList(before, before + count));
+    }
+
+    /** Runs every task on its own thread, all released at once; a null result is not counted. */
+    private static Map<EnrollmentResult, Integer> runAll(List<Callable<EnrollmentResult>> tasks) throws Exception {
+        ExecutorService threads = Executors.newFixedThreadPool(tasks.size());
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<EnrollmentResult>> futures = new ArrayList<>();
+            for (Callable<EnrollmentResult> task : tasks) {
+                futures.add(threads.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+            Map<EnrollmentResult, Integer> results = new EnumMap<>(EnrollmentResult.class);
+            for (Future<EnrollmentResult> f : futures) {
+                EnrollmentResult r = f.get();
+                if (r != null) results.merge(r, 1, Integer::sum);
+            }
+            return results;
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import config.DBConnection;
+import model.Course;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+
+/**
+ * One student enrolling in many courses at once, as a double-clicked button
+ * or several open tabs would: the per-student row lock must serialize the
+ * credit check, so the limit holds however the threads interleave.
+ */
+class EnrollmentConcurrencyTest {
+    private static final int THREADS = 32;
+    private static final int CREDITS = 3;
+
+    @Test
+    void concurrentEnrollsNeverExceedCreditLimit() throws Exception {
+        String studentId = SeedData.generate(1, 0, 0, 0, 0, 5).studentIds.get(0);
+        List<String> codes = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            String code = "CC" + i;
+            // No meeting time and no seat limit, so only the credit limit can refuse
+            CourseCatalog.addCourse(new Course(code, "Concurrency " + i, CREDITS, "Test", ""));
+            codes.add(code);
+        }
+
+        Map<EnrollmentResult, Integer> results = enrollAll(studentId, codes);
+
+        int fits = EnrollmentService.MAX_CREDITS / CREDITS;
+        assertEquals(fits, results.getOrDefault(EnrollmentResult.ENROLLED, 0), results.toString());
+        assertEquals(THREADS - fits, results.getOrDefault(EnrollmentResult.OVER_CREDIT_LIMIT, 0), results.toString());
+        assertEquals(fits * CREDITS, enrolledCredits(studentId));
+        assertEquals(fits, EnrollmentService.getEnrolledCourses(studentId).size());
+    }
+
+    @Test
+    void concurrentEnrollsInSameCourseEnrollOnce() throws Exception {
+        String studentId = SeedData.generate(2, 0, 0, 0, 0, 5).studentIds.get(1);
+        CourseCatalog.addCourse(new Course("CCSAME", "Concurrency same", CREDITS, "Test", ""));
+        List<String> codes = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) codes.add("CCSAME");
+
+        Map<EnrollmentResult, Integer> results = enrollAll(studentId, codes);
+
+        assertEquals(1, results.getOrDefault(EnrollmentResult.ENROLLED, 0), results.toString());
+        assertEquals(THREADS - 1, results.getOrDefault(EnrollmentResult.DUPLICATE, 0), results.toString());
+        assertEquals(CREDITS, enrolledCredits(studentId));
+    }
+
+    /** Starts one enroll per code on its own thread, all released at once. */
+    private static Map<EnrollmentResult, Integer> enrollAll(String studentId, List<String> codes) throws Exception {
+        ExecutorService threads = Executors.newFixedThreadPool(codes.size());
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<EnrollmentResult>> futures = new ArrayList<>();
+            for (String code : codes) {
+                Callable<EnrollmentResult> enroll = () -> {
+                    start.await();
+                    return EnrollmentService.enroll(studentId, code);
+                };
+                futures.add(threads.submit(enroll));
+            }
+            start.countDown();
+            Map<EnrollmentResult, Integer> results = new EnumMap<>(EnrollmentResult.class);
+            for (Future<EnrollmentResult> f : futures) results.merge(f.get(), 1, Integer::sum);
+            assertTrue(results.keySet().stream().allMatch(r -> r == EnrollmentResult.ENROLLED
+                    || r == EnrollmentResult.OVER_CREDIT_LIMIT || r == EnrollmentResult.DUPLICATE), results.toString());
+            return results;
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    private static int enrolledCredits(String studentId) throws SQLException {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT COALESCE(SUM(c.credit_hours), 0) "
+                     + "FROM enrollments e JOIN courses c ON e.course_code = c.course_code WHERE e.student_id = ?")) {
+            stmt.setString(1, studentId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                return rs.getInt(1);
+            }
+        }
+    }
+}
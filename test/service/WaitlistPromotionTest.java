@@ -0,0 +1,120 @@
+package service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import model.Course;
+import model.MeetingTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Waitlist promotion reaching past the first batch of waiting students, course
+ * edits that open seats, and finished (graded) courses not counting toward the
+ * credit limit.
+ */
+class WaitlistPromotionTest {
+    private static final String SLOT = "MWF 09:00-09:50";
+
+    @Test
+    void dropPromotesPastStudentsWhoNoLongerQualify() throws Exception {
+        int blocked = WaitlistService.PROMOTION_CANDIDATES + 1;
+        List<String> students = newStudents(blocked + 3, 21);
+        CourseCatalog.addCourse(timed(new Course("WL1", "Waitlist", 3, "Test", "", 1)));
+        CourseCatalog.addCourse(timed(new Course("WL1X", "Same hour", 3, "Test", "")));
+        String holder = students.get(0);
+        assertEquals(EnrollmentResult.ENROLLED, EnrollmentService.enroll(holder, "WL1"));
+
+        // Everyone at the head of the line takes a clashing course after joining
+        List<String> waiting = students.subList(1, students.size());
+        for (String id : waiting) assertEquals(WaitlistResult.JOINED, WaitlistService.join(id, "WL1"));
+        for (String id : waiting.subList(0, blocked)) {
+            assertEquals(EnrollmentResult.ENROLLED, EnrollmentService.enroll(id, "WL1X"));
+        }
+
+        EnrollmentService.drop(holder, "WL1");
+
+        assertEquals(List.of("WL1"), courseCodes(EnrollmentService.getEnrolledCourses(waiting.get(blocked))));
+        assertEquals(1, EnrollmentService.countEnrollments("WL1"));
+        assertEquals(1, EnrollmentService.getSeatsTaken().get("WL1"));
+        // Those passed over keep their places ahead of the rest
+        assertEquals(waiting.size() - 1, WaitlistService.getLength("WL1"));
+        assertEquals(Integer.valueOf(blocked + 1), WaitlistService.getPositions(waiting.get(blocked + 1)).get("WL1"));
+    }
+
+    @Test
+    void capacityIncreasePromotesWaitingStudents() throws Exception {
+        List<String> students = newStudents(4, 22);
+        Course course = new Course("WL2", "Waitlist growth", 3, "Test", "", 1);
+        CourseCatalog.addCourse(course);
+        assertEquals(EnrollmentResult.ENROLLED, EnrollmentService.enroll(students.get(0), "WL2"));
+        for (String id : students.subList(1, 4)) assertEquals(WaitlistResult.JOINED, WaitlistService.join(id, "WL2"));
+
+        course.setCapacity(3);
+        CourseCatalog.updateCourse(course);
+
+        assertEquals(3, EnrollmentService.countEnrollments("WL2"));
+        assertEquals(3, EnrollmentService.getSeatsTaken().get("WL2"));
+        assertEquals(1, WaitlistService.getLength("WL2"));
+        assertEquals(Integer.valueOf(1), WaitlistService.getPositions(students.get(3)).get("WL2"));
+    }
+
+    @Test
+    void dropDoesNotPromoteIntoCourseOverItsCapacity() throws Exception {
+        List<String> students = newStudents(3, 24);
+        Course course = new Course("WL3", "Waitlist shrink", 3, "Test", "", 2);
+        CourseCatalog.addCourse(course);
+        for (String id : students.subList(0, 2)) assertEquals(EnrollmentResult.ENROLLED, EnrollmentService.enroll(id, "WL3"));
+        assertEquals(WaitlistResult.JOINED, WaitlistService.join(students.get(2), "WL3"));
+
+        course.setCapacity(1);
+        CourseCatalog.updateCourse(course);
+        EnrollmentService.drop(students.get(0), "WL3");
+
+        assertEquals(1, EnrollmentService.countEnrollments("WL3"));
+        assertEquals(1, EnrollmentService.getSeatsTaken().get("WL3"));
+        assertEquals(Integer.valueOf(1), WaitlistService.getPositions(students.get(2)).get("WL3"));
+
+        // Back under capacity: the next drop hands the seat on
+        EnrollmentService.drop(students.get(1), "WL3");
+
+        assertEquals(List.of("WL3"), courseCodes(EnrollmentService.getEnrolledCourses(students.get(2))));
+        assertEquals(1, EnrollmentService.getSeatsTaken().get("WL3"));
+        assertEquals(0, WaitlistService.getLength("WL3"));
+    }
+
+    @Test
+    void gradedCoursesDoNotCountTowardCreditLimit() throws Exception {
+        String student = newStudents(1, 23).get(0);
+        int courses = EnrollmentService.MAX_CREDITS / 3;
+        for (int i = 0; i < courses; i++) {
+            CourseCatalog.addCourse(new Course("CR" + i, "Credits " + i, 3, "Test", ""));
+            assertEquals(EnrollmentResult.ENROLLED, EnrollmentService.enroll(student, "CR" + i));
+        }
+        CourseCatalog.addCourse(new Course("CRNEXT", "Next term", 3, "Test", ""));
+        assertEquals(EnrollmentResult.OVER_CREDIT_LIMIT, EnrollmentService.enroll(student, "CRNEXT"));
+
+        for (int i = 0; i < courses; i++) {
+            GradeService.bulkUpdate("CR" + i, List.of(new GradeChange(1, student, "A")));
+        }
+
+        assertEquals(EnrollmentResult.ENROLLED, EnrollmentService.enroll(student, "CRNEXT"));
+    }
+
+    private static Course timed(Course course) {
+        course.setMeetingTime(MeetingTime.parse(SLOT));
+        return course;
+    }
+
+    private static List<String> courseCodes(List<Course> courses) {
+        List<String> codes = new ArrayList<>();
+        for (Course c : courses) codes.add(c.getCourseCode());
+        return codes;
+    }
+
+    /** Seeds {@code count} students nobody else in the run has enrolled. */
+    private static List<String> newStudents(int count, long seed) throws Exception {
+        int before = SeedData.generate(0, 0, 0, 0, 0, seed).studentIds.size();
+        return new ArrayList<>(SeedData.generate(before + count, 0, 0, 0, 0, seed).studentIds.subList(before, before + count));
+    }
+}